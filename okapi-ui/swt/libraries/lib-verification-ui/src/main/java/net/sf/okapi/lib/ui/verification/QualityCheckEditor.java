@@ -184,6 +184,8 @@ public class QualityCheckEditor implements IQualityCheckEditor {
 		else {
 			session = paramSession;
 		}
+		// The editor toggles and sorts the issues in place
+		session.setKeepIssuesInMemory(true);
 		session.setFilterConfigurationMapper(fcMapper);
 		try {
 			LocaleId tmpLoc = LocaleId.fromString(config.getProperty(CFG_SOURCELOCALE, "en"));
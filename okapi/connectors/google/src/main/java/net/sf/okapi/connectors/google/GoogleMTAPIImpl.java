@@ -17,11 +17,7 @@
 package net.sf.okapi.connectors.google;
 
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -30,42 +26,47 @@ import org.json.simple.parser.ParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import net.sf.okapi.common.StreamUtil;
 import net.sf.okapi.common.exceptions.OkapiException;
+import net.sf.okapi.lib.translation.HttpTransport;
+import net.sf.okapi.lib.translation.HttpTransport.Request;
+import net.sf.okapi.lib.translation.HttpTransport.Response;
 
 public class GoogleMTAPIImpl implements GoogleMTAPI {
     private final Logger LOG = LoggerFactory.getLogger(getClass());
     private final String baseUrl;
     private GoogleMTv2Parameters params;
-    private GoogleResponseParser parser = new GoogleResponseParser();
+    private final HttpTransport transport;
 
     public GoogleMTAPIImpl(String baseUrl, GoogleMTv2Parameters params) {
+        this(baseUrl, params, new HttpTransport());
+    }
+
+    public GoogleMTAPIImpl(String baseUrl, GoogleMTv2Parameters params, HttpTransport transport) {
         this.baseUrl = baseUrl;
         this.params = params;
+        this.transport = transport;
     }
 
     @Override
     public List<String> getLanguages() throws IOException, ParseException {
-        URL url = new URL(baseUrl + "/languages?key=" + params.getApiKey());
-        HttpURLConnection conn = (HttpURLConnection)url.openConnection();
-        int code = conn.getResponseCode();
-        if ( code == 200 ) {
-            return parser.parseLanguagesResponse(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8));
+        Response response = transport.send(Request.get(baseUrl + "/languages?key=" + params.getApiKey()));
+        // The JSON parser is not thread-safe, and the batches can be sent at the same time
+        GoogleResponseParser parser = new GoogleResponseParser();
+        if ( response.getCode() == 200 ) {
+            return parser.parseLanguagesResponse(new StringReader(response.getBody()));
         }
         else {
-            String errorBody = StreamUtil.streamUtf8AsString(conn.getErrorStream());
-            throw parser.parseError(code, errorBody, null);
+            throw parser.parseError(response.getCode(), response.getBody(), null);
         }
     }
 
     @Override
     public <T> List<TranslationResponse> translate(GoogleQueryBuilder<T> qb) throws IOException, ParseException  {
-        URL url = new URL(qb.getQuery());
-        HttpURLConnection conn = (HttpURLConnection)url.openConnection();
-        int code = conn.getResponseCode();
-        if ( code == 200 ) {
+        Response response = transport.send(Request.get(qb.getQuery()));
+        GoogleResponseParser parser = new GoogleResponseParser();
+        if ( response.getCode() == 200 ) {
             List<String> translatedTexts = 
-                    parser.parseResponse(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8));
+                    parser.parseResponse(new StringReader(response.getBody()));
             List<TranslationResponse> responses = new ArrayList<>();
             if (qb.getSourceCount() != translatedTexts.size()) {
                 LOG.error("Received {} translations for {} sources in query {}", translatedTexts.size(),
@@ -79,8 +80,7 @@ public class GoogleMTAPIImpl implements GoogleMTAPI {
             return responses;
         }
         else {
-            String errorBody = StreamUtil.streamUtf8AsString(conn.getErrorStream());
-            throw parser.parseError(code, errorBody, qb.getQuery());
+            throw parser.parseError(response.getCode(), response.getBody(), qb.getQuery());
         }
     }
 
@@ -89,22 +89,13 @@ public class GoogleMTAPIImpl implements GoogleMTAPI {
     public <T> TranslationResponse translateSingleSegment(GoogleQueryBuilder<T> qb, String sourceText)
                                             throws IOException, ParseException {
         LOG.debug("Using POST query for source '{}...' of length {}", sourceText.substring(0, 32), sourceText.length());
-        URL url = new URL(qb.getQuery());
-        HttpURLConnection conn = (HttpURLConnection)url.openConnection();
-        conn.setRequestMethod("POST");
-        conn.setRequestProperty("Content-Type", "application/json");
-        conn.setDoOutput(true);
-
         JSONObject json = new JSONObject();
         json.put("q", sourceText);
-        try (OutputStreamWriter w = new OutputStreamWriter(conn.getOutputStream(), StandardCharsets.UTF_8)) {
-            w.write(json.toJSONString());
-        }
+        Response response = transport.send(Request.post(qb.getQuery(), "application/json", json.toJSONString()));
         GoogleResponseParser parser = new GoogleResponseParser();
-        int code = conn.getResponseCode();
-        if ( code == 200 ) {
+        if ( response.getCode() == 200 ) {
             List<String> translatedTexts =
-                    parser.parseResponse(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8));
+                    parser.parseResponse(new StringReader(response.getBody()));
             if (translatedTexts.size() != 1) {
                 LOG.error("Received {} translations for {} sources in POST query {} with body '{}'", translatedTexts.size(),
                           1, qb.getQuery(), sourceText);
@@ -114,8 +105,7 @@ public class GoogleMTAPIImpl implements GoogleMTAPI {
             return new TranslationResponse(sourceText, translatedTexts.get(0));
         }
         else {
-            String errorBody = StreamUtil.streamUtf8AsString(conn.getErrorStream());
-            throw parser.parseError(code, errorBody, qb.toString());
+            throw parser.parseError(response.getCode(), response.getBody(), qb.toString());
         }
     }
 
@@ -19,6 +19,8 @@ package net.sf.okapi.connectors.google;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +33,7 @@ import net.sf.okapi.common.query.QueryResult;
 import net.sf.okapi.common.resource.ITextUnit;
 import net.sf.okapi.common.resource.TextFragment;
 import net.sf.okapi.lib.translation.BaseConnector;
+import net.sf.okapi.lib.translation.HttpTransport;
 import net.sf.okapi.lib.translation.QueryUtil;
 
 public class GoogleMTv2Connector extends BaseConnector {
@@ -40,20 +43,30 @@ public class GoogleMTv2Connector extends BaseConnector {
 	private GoogleMTv2Parameters params;
 	private QueryUtil util;
 	private GoogleMTAPI api;
-	private int failureCount;
+	private HttpTransport transport;
+	private final AtomicInteger failureCount = new AtomicInteger();
 
 	public GoogleMTv2Connector () {
 		params = new GoogleMTv2Parameters();
 		util = new QueryUtil();
-		api = new GoogleMTAPIImpl(BASE_URL, params);
+		transport = createTransport();
+		api = new GoogleMTAPIImpl(BASE_URL, params, transport);
 	}
 
 	public GoogleMTv2Connector(GoogleMTAPI api) {
 	    params = new GoogleMTv2Parameters();
         util = new QueryUtil();
+        transport = createTransport();
         this.api = api;
 	}
 
+	private static HttpTransport createTransport () {
+		HttpTransport transport = new HttpTransport();
+		// The connector retries on its own, see GoogleMTv2Parameters.getRetryCount()
+		transport.setMaxRetries(0);
+		return transport;
+	}
+
 	@Override
 	public void setParameters (IParameters params) {
 		this.params = (GoogleMTv2Parameters)params;
@@ -66,7 +79,7 @@ public class GoogleMTv2Connector extends BaseConnector {
 	
 	@Override
 	public void close () {
-		// Nothing to do
+		transport.close();
 	}
 
 	@Override
@@ -81,7 +94,9 @@ public class GoogleMTv2Connector extends BaseConnector {
 
 	@Override
 	public void open () {
-		failureCount = 0;
+		failureCount.set(0);
+		transport.setMaxConcurrentRequests(params.getMaxConcurrentRequests());
+		transport.setRequestsPerSecond(params.getMaxRequestsPerSecond());
 	}
 
 	@Override
@@ -151,7 +166,11 @@ public class GoogleMTv2Connector extends BaseConnector {
         }
         GoogleQueryBuilder<T> qb = new GoogleQueryBuilder<>(BASE_URL, params, srcCode, trgCode);
         current = -1;
-        List<List<QueryResult>> queryResults = new ArrayList<>(texts.size());
+        // Split the texts into queries first, then send the queries (several at the same
+        // time if allowed), and convert the responses in order on this thread
+        List<GoogleQueryBuilder<T>> queries = new ArrayList<>();
+        List<T> singleSources = new ArrayList<>();
+        List<Callable<List<TranslationResponse>>> tasks = new ArrayList<>();
         for (int i = 0; i < texts.size(); i++) {
             String sourceText = texts.get(i);
             T originalText = originalTexts.get(i);
@@ -159,49 +178,82 @@ public class GoogleMTv2Connector extends BaseConnector {
                 qb.addQuery(sourceText, originalText);
             }
             else {
-                queryResults.addAll(flushQuery(qb, qrBuilder));
+                if (qb.getSourceCount() > 0) {
+                    GoogleQueryBuilder<T> batch = qb;
+                    queries.add(batch);
+                    singleSources.add(null);
+                    tasks.add(() -> executeQuery(batch, qrBuilder));
+                    qb = new GoogleQueryBuilder<>(BASE_URL, params, srcCode, trgCode);
+                }
                 if (qb.hasCapacity(sourceText)) {
                     qb.addQuery(sourceText, originalText);
                 }
                 else {
                     // If we still don't have capacity, it's an oversized segment that needs to be POSTed by
                     // itself.
-                    TranslationResponse response = executeSingleSegmentQuery(qb, sourceText);
-                    if (response != null) {
-                        queryResults.add(qrBuilder.convertResponses(Collections.singletonList(response), originalText));
-                    }
-                    else {
-                     // Underlying call failed for some reason, probably a timeout
-                        LOG.error("Received no results for query {}", qb.getQuery());
-                        // Return the source text as a dummy translation so that we can maintain the correct indexing
-                        queryResults.add(Collections.singletonList(qrBuilder.createDummyResponse(originalText)));
-                    }
+                    GoogleQueryBuilder<T> single = new GoogleQueryBuilder<>(BASE_URL, params, srcCode, trgCode);
+                    queries.add(single);
+                    singleSources.add(originalText);
+                    tasks.add(() -> {
+                        TranslationResponse response = executeSingleSegmentQuery(single, sourceText);
+                        return (response == null) ? null : Collections.singletonList(response);
+                    });
                 }
             }
         }
-        queryResults.addAll(flushQuery(qb, qrBuilder));
+        if (qb.getSourceCount() > 0) {
+            GoogleQueryBuilder<T> batch = qb;
+            queries.add(batch);
+            singleSources.add(null);
+            tasks.add(() -> executeQuery(batch, qrBuilder));
+        }
+
+        List<List<TranslationResponse>> responses = transport.invokeAll(tasks);
+        List<List<QueryResult>> queryResults = new ArrayList<>(texts.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            T singleSource = singleSources.get(i);
+            if (singleSource == null) {
+                queryResults.addAll(convertResponses(queries.get(i), responses.get(i), qrBuilder));
+            }
+            else if (responses.get(i) != null) {
+                queryResults.add(qrBuilder.convertResponses(responses.get(i), singleSource));
+            }
+            else {
+                // Underlying call failed for some reason, probably a timeout
+                LOG.error("Received no results for query {}", queries.get(i).getQuery());
+                // Return the source text as a dummy translation so that we can maintain the correct indexing
+                queryResults.add(Collections.singletonList(qrBuilder.createDummyResponse(singleSource)));
+            }
+        }
         return queryResults;
     }
+
     protected <T> List<List<QueryResult>> flushQuery(GoogleQueryBuilder<T> qb, QueryResultBuilder<T> qrBuilder) {
         List<List<QueryResult>> queryResults = new ArrayList<>();
         if (qb.getSourceCount() > 0) {
             LOG.debug("Flushing batch query of length {}, '{}'", qb.getQuery().length(), qb.getQuery());
-            List<TranslationResponse> batchResponses = executeQuery(qb, qrBuilder);
-            if (batchResponses != null) {
-                for (int j = 0; j < batchResponses.size(); j++) {
-                    queryResults.add(qrBuilder.convertResponses(
-                            Collections.singletonList(batchResponses.get(j)), qb.getSources().get(j)));
-                }
+            queryResults = convertResponses(qb, executeQuery(qb, qrBuilder), qrBuilder);
+            qb.reset();
+        }
+        return queryResults;
+    }
+
+    private <T> List<List<QueryResult>> convertResponses(GoogleQueryBuilder<T> qb, List<TranslationResponse> batchResponses,
+                                                         QueryResultBuilder<T> qrBuilder) {
+        List<List<QueryResult>> queryResults = new ArrayList<>();
+        if (batchResponses != null) {
+            for (int j = 0; j < batchResponses.size(); j++) {
+                queryResults.add(qrBuilder.convertResponses(
+                        Collections.singletonList(batchResponses.get(j)), qb.getSources().get(j)));
             }
-            else {
-                // Underlying call failed for some reason, probably a timeout
-                LOG.error("Received no results for query {}", qb.getQuery());
-                // Return the source text as a dummy translation so that we can maintain the correct indexing
-                for (T source : qb.getSources()) {
-                    queryResults.add(Collections.singletonList(qrBuilder.createDummyResponse(source)));
-                }
+        }
+        else {
+            // Underlying call failed for some reason, probably a timeout
+            LOG.error("Received no results for query {}", qb.getQuery());
+            // Return the source text as a dummy translation so that we can maintain the correct indexing
+            for (T source : qb.getSources()) {
+                queryResults.add(Collections.singletonList(qrBuilder.createDummyResponse(source)));
             }
-            qb.reset();
         }
         return queryResults;
     }
@@ -222,7 +274,7 @@ public class GoogleMTv2Connector extends BaseConnector {
             throw new OkapiException("Error querying the MT server: " + e.getMessage(), e);
         }
         // All retries have failed
-        if (( params.getFailuresBeforeAbort() > -1 ) && ( ++failureCount > params.getFailuresBeforeAbort() )) {
+        if (( params.getFailuresBeforeAbort() > -1 ) && ( failureCount.incrementAndGet() > params.getFailuresBeforeAbort() )) {
         	throw new OkapiException("Too many retry failures while querying the MT server.");
         }
         return null;
@@ -243,7 +295,7 @@ public class GoogleMTv2Connector extends BaseConnector {
             throw new OkapiException("Error querying the MT server: " + e.getMessage(), e);
         }
         // All retries have failed
-        if (( params.getFailuresBeforeAbort() > -1 ) && ( ++failureCount > params.getFailuresBeforeAbort() )) {
+        if (( params.getFailuresBeforeAbort() > -1 ) && ( failureCount.incrementAndGet() > params.getFailuresBeforeAbort() )) {
         	throw new OkapiException("Too many retry failures while querying the MT server.");
         }
         return null;
@@ -29,6 +29,8 @@ public class GoogleMTv2Parameters extends StringParameters implements IEditorDes
 	private static final String RETRY_COUNT = "retryCount";
 	private static final String FAILURES_BEFORE_ABORT = "failuresBeforeAbort";
 	private static final String USE_PBMT = "usePBMT";
+	private static final String MAX_CONCURRENT_REQUESTS = "maxConcurrentRequests";
+	private static final String MAX_REQUESTS_PER_SECOND = "maxRequestsPerSecond";
 	
 	public GoogleMTv2Parameters () {
 	}
@@ -77,6 +79,23 @@ public class GoogleMTv2Parameters extends StringParameters implements IEditorDes
 		setInteger(FAILURES_BEFORE_ABORT, failuresBeforeAbort);
 	}
 
+	public int getMaxConcurrentRequests () {
+		return getInteger(MAX_CONCURRENT_REQUESTS);
+	}
+
+	public void setMaxConcurrentRequests (int maxConcurrentRequests) {
+		setInteger(MAX_CONCURRENT_REQUESTS, maxConcurrentRequests);
+	}
+
+	public int getMaxRequestsPerSecond () {
+		return getInteger(MAX_REQUESTS_PER_SECOND);
+	}
+
+	// Use 0 for no limit
+	public void setMaxRequestsPerSecond (int maxRequestsPerSecond) {
+		setInteger(MAX_REQUESTS_PER_SECOND, maxRequestsPerSecond);
+	}
+
 	@Override
 	public void reset () {
 		super.reset();
@@ -88,6 +107,8 @@ public class GoogleMTv2Parameters extends StringParameters implements IEditorDes
 		setRetryIntervalMs(10 * 1000);
 		setRetryCount(10);
 		setFailuresBeforeAbort(-1);
+		setMaxConcurrentRequests(1);
+		setMaxRequestsPerSecond(0);
 	}
 
 	@Override
@@ -108,6 +129,12 @@ public class GoogleMTv2Parameters extends StringParameters implements IEditorDes
 		desc.add(FAILURES_BEFORE_ABORT,
 		        "Failures before abort",
 		        "Number of times we let queries fail (after retries) before aborting the process");
+		desc.add(MAX_CONCURRENT_REQUESTS,
+		        "Concurrent requests",
+		        "Maximum number of batch queries sent at the same time");
+		desc.add(MAX_REQUESTS_PER_SECOND,
+		        "Requests per second",
+		        "Maximum number of requests sent per second (0 for no limit)");
 		return desc;
 	}
 
@@ -120,6 +147,8 @@ public class GoogleMTv2Parameters extends StringParameters implements IEditorDes
 		desc.addTextInputPart(paramsDesc.get(RETRY_COUNT));
 		desc.addTextInputPart(paramsDesc.get(RETRY_MS));
 		desc.addTextInputPart(paramsDesc.get(FAILURES_BEFORE_ABORT));
+		desc.addTextInputPart(paramsDesc.get(MAX_CONCURRENT_REQUESTS));
+		desc.addTextInputPart(paramsDesc.get(MAX_REQUESTS_PER_SECOND));
 		return desc;
 	}
 
@@ -87,6 +87,31 @@ public class TestGoogleMTv2Connector {
         }
     }
     
+    @Test
+    public void testConcurrentBatchQuery() throws Exception {
+        when(api.translate(any(GoogleQueryBuilder.class))).thenAnswer(invocation -> {
+            GoogleQueryBuilder<?> qb = invocation.getArgument(0);
+            List<TranslationResponse> responses = new ArrayList<>();
+            for (String s : qb.getSourceTexts()) {
+                responses.add(new TranslationResponse(s, translation(s)));
+            }
+            return responses;
+        });
+        connector.getParameters().setMaxConcurrentRequests(4);
+        connector.open();
+
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            inputs.add(dummyString(i));
+        }
+        List<List<QueryResult>> results = connector.batchQueryText(inputs);
+        assertEquals(20, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(translation(inputs.get(i)), results.get(i).get(0).target.toString());
+        }
+        connector.close();
+    }
+
     class MTAnswer implements Answer<List> {
         @Override
         public List answer(InvocationOnMock invocation) throws Throwable {
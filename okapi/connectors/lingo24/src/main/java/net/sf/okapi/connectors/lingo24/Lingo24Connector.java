@@ -23,16 +23,15 @@ import net.sf.okapi.common.query.MatchType;
 import net.sf.okapi.common.query.QueryResult;
 import net.sf.okapi.common.resource.TextFragment;
 import net.sf.okapi.lib.translation.BaseConnector;
+import net.sf.okapi.lib.translation.HttpTransport;
+import net.sf.okapi.lib.translation.HttpTransport.Request;
+import net.sf.okapi.lib.translation.HttpTransport.Response;
 import net.sf.okapi.lib.translation.QueryUtil;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
@@ -47,11 +46,13 @@ public class Lingo24Connector extends BaseConnector {
     private Parameters params;
     private JSONParser parser;
     private QueryUtil util;
+    private HttpTransport transport;
 
     public Lingo24Connector () {
         params = new Parameters();
         util = new QueryUtil();
         parser = new JSONParser();
+        transport = new HttpTransport();
     }
 
     @Override
@@ -66,7 +67,7 @@ public class Lingo24Connector extends BaseConnector {
 
     @Override
     public void close () {
-        // Nothing to do
+        transport.close();
     }
 
     @Override
@@ -97,15 +98,13 @@ public class Lingo24Connector extends BaseConnector {
             }
             String qtext = util.toCodedHTML(fragment);
             String urlString = BASE_URL + String.format(BASE_QUERY, params.getUserKey(), srcCode, trgCode);
-            URL url = new URL(urlString + QPARAM + URLEncoder.encode(qtext, "UTF-8"));
-
-            HttpURLConnection conn = (HttpURLConnection)url.openConnection();
-            int code = conn.getResponseCode();
+            Response response = transport.send(Request.get(urlString + QPARAM + URLEncoder.encode(qtext, "UTF-8")));
+            int code = response.getCode();
             if (code != 200) {
-                throw new OkapiException(String.format("Error: response code %d\n" + conn.getResponseMessage(), code));
+                throw new OkapiException(String.format("Error: response code %d\n" + response.getMessage(), code));
             }
 
-            JSONObject object = (JSONObject)parser.parse(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8));
+            JSONObject object = (JSONObject)parser.parse(response.getBody());
             @SuppressWarnings("unchecked")
             Map<String, Object> map = object;
 
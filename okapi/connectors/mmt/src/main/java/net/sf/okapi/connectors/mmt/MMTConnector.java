@@ -23,15 +23,14 @@ import net.sf.okapi.common.query.MatchType;
 import net.sf.okapi.common.query.QueryResult;
 import net.sf.okapi.common.resource.TextFragment;
 import net.sf.okapi.lib.translation.BaseConnector;
+import net.sf.okapi.lib.translation.HttpTransport;
+import net.sf.okapi.lib.translation.HttpTransport.Request;
+import net.sf.okapi.lib.translation.HttpTransport.Response;
 import net.sf.okapi.lib.translation.QueryUtil;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 
 /**
  * Connector for the <a href="http://www.modernmt.eu/">ModernMT Systems MT Engine API</a>.
@@ -45,11 +44,13 @@ public class MMTConnector extends BaseConnector {
     private Parameters params;
     private JSONParser parser;
     private QueryUtil util;
+    private HttpTransport transport;
 
     public MMTConnector () {
         params = new Parameters();
         util = new QueryUtil();
         parser = new JSONParser();
+        transport = new HttpTransport();
     }
 
     @Override
@@ -65,7 +66,7 @@ public class MMTConnector extends BaseConnector {
 
     @Override
     public void close () {
-        // Nothing to do
+        transport.close();
     }
 
     @Override
@@ -102,15 +103,13 @@ public class MMTConnector extends BaseConnector {
                     .append("&target=").append(trgLoc.getLanguage())
                     .append(contextPart);
 
-            URL url = new URL(sb.toString());
-
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            int code = conn.getResponseCode();
+            Response response = transport.send(Request.get(sb.toString()));
+            int code = response.getCode();
             if (code != 200) {
                 StringBuilder errorMessage = new StringBuilder();
-                errorMessage.append(String.format("Response Code: \"%d\", Body: \"%s\"", code, conn.getResponseMessage()));
+                errorMessage.append(String.format("Response Code: \"%d\", Body: \"%s\"", code, response.getMessage()));
 
-                JSONObject resp = (JSONObject) parser.parse(new InputStreamReader(conn.getErrorStream(), StandardCharsets.UTF_8));
+                JSONObject resp = (JSONObject) parser.parse(response.getBody());
                 if (resp.containsKey("error")) {
                     JSONObject error = (JSONObject) resp.get("error");
                     String type = (String) error.get("type");
@@ -120,7 +119,7 @@ public class MMTConnector extends BaseConnector {
                 throw new OkapiException(errorMessage.toString());
             }
 
-            JSONObject object = (JSONObject) parser.parse(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8));
+            JSONObject object = (JSONObject) parser.parse(response.getBody());
             if (object.containsKey("data")) {
                 JSONObject data = (JSONObject) object.get("data");
                 String translation = (String) data.get("translation");
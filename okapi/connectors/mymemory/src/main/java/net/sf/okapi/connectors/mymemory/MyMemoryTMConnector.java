@@ -27,6 +27,9 @@ import net.sf.okapi.common.query.MatchType;
 import net.sf.okapi.common.query.QueryResult;
 import net.sf.okapi.common.resource.TextFragment;
 import net.sf.okapi.lib.translation.BaseConnector;
+import net.sf.okapi.lib.translation.HttpTransport;
+import net.sf.okapi.lib.translation.HttpTransport.Request;
+import net.sf.okapi.lib.translation.HttpTransport.Response;
 import net.sf.okapi.lib.translation.ITMQuery;
 import net.sf.okapi.lib.translation.QueryUtil;
 
@@ -34,8 +37,6 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 
-import java.io.InputStreamReader;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
@@ -59,6 +60,7 @@ public class MyMemoryTMConnector extends BaseConnector implements ITMQuery {
 	private final List<QueryResult> results;
 	private final QueryUtil qutil;
 	private final JSONParser parser;
+	private final HttpTransport transport;
 	private int current = -1;
 	private int maxHits = 25;
 	private int threshold = 75;
@@ -69,6 +71,7 @@ public class MyMemoryTMConnector extends BaseConnector implements ITMQuery {
 		qutil = new QueryUtil();
 		parser = new JSONParser();
 		results = new ArrayList<>();
+		transport = new HttpTransport();
 	}
 
 	@Override
@@ -86,7 +89,7 @@ public class MyMemoryTMConnector extends BaseConnector implements ITMQuery {
 
 	@Override
 	public void close () {
-		// Nothing to do
+		transport.close();
 	}
 
 	@Override
@@ -132,13 +135,12 @@ public class MyMemoryTMConnector extends BaseConnector implements ITMQuery {
 			if (!Util.isEmpty(params.getEmail())) {
 				urlBuilder.append("&de=").append(URLEncoder.encode(params.getEmail(), StandardCharsets.UTF_8.name()));
 			}
-			URL url = new URL(urlBuilder.toString());
-
 			// Get the response
-			JSONObject objResponse;
-			try (InputStreamReader reader = new InputStreamReader(url.openConnection().getInputStream(), StandardCharsets.UTF_8)) {
-				objResponse = (JSONObject) parser.parse(reader);
+			Response response = transport.send(Request.get(urlBuilder.toString()));
+			if (!response.isSuccessful()) {
+				throw new OkapiException(String.format("Error: response code %d %s", response.getCode(), response.getMessage()));
 			}
+			JSONObject objResponse = (JSONObject) parser.parse(response.getBody());
 
 			// Check response status code is 200 and there is a result array otherwise fail immediately
 			if (!objResponse.get("responseStatus").equals(200L)) {
@@ -164,11 +164,11 @@ public class ListUtil {
 		
 		while (true) {
 			
-			int index = st.substring(start).indexOf(delimiter);
+			int index = st.indexOf(delimiter, start);
 			if (index == -1) break;
 			
-			list.add(st.substring(start, start + index));
-			start += index + len;
+			list.add(st.substring(start, index));
+			start = index + len;
 		}
 		
 		if (start <= st.length())
@@ -0,0 +1,160 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.common;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+
+/**
+ * JVM-wide provider of pre-configured StAX factories.
+ * <p>
+ * Looking up and configuring a factory is costly compared to parsing a small document, so
+ * the factories returned by {@link #getInputFactory(Profile)}, {@link #getOutputFactory()} and
+ * {@link #getEventFactory()} are created once and shared by all callers. They can be used from
+ * several threads to create readers, writers and events, but they must not be modified: callers
+ * that need other settings should get their own copy with {@link #newInputFactory(Profile)}.
+ * <p>
+ * All the input profiles turn off DTD processing and the resolution of external entities
+ * (see https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing).
+ * The implementation-specific settings (for example Woodstox's) are applied only if the
+ * implementation in use supports them.
+ */
+public final class XMLStreamFactories {
+
+	/**
+	 * Named sets of settings for the input factories.
+	 */
+	public enum Profile {
+		/**
+		 * The default settings of the implementation, apart from the security settings.
+		 */
+		DEFAULT,
+		/**
+		 * Adjacent text and CDATA sections are reported as a single text event.
+		 */
+		COALESCING,
+		/**
+		 * CDATA sections are reported as such, and are not split into several events.
+		 */
+		CDATA,
+		/**
+		 * Settings for large documents where the location of the events is not needed:
+		 * the locations are not kept and the names are interned, to use less memory.
+		 */
+		NO_LOCATION
+	}
+
+	// Implementation-specific property names, so the core does not depend on Woodstox
+	private static final String P_REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+	private static final String P_MIN_TEXT_SEGMENT = "com.ctc.wstx.minTextSegment";
+	private static final String P_PRESERVE_LOCATION = "org.codehaus.stax2.preserveLocation";
+	private static final String P_INTERN_NAMES = "org.codehaus.stax2.internNames";
+	private static final String P_INTERN_NS_URIS = "org.codehaus.stax2.internNsUris";
+
+	private static final Map<Profile, XMLInputFactory> INPUT_FACTORIES = new ConcurrentHashMap<>();
+
+	private static final class OutputFactoryHolder {
+		static final XMLOutputFactory INSTANCE = XMLOutputFactory.newInstance();
+	}
+
+	private static final class EventFactoryHolder {
+		static final XMLEventFactory INSTANCE = XMLEventFactory.newInstance();
+	}
+
+	private XMLStreamFactories () {
+	}
+
+	/**
+	 * Gets the shared input factory for a given profile. The returned object must not be modified.
+	 * @param profile the profile of the factory.
+	 * @return the shared input factory for the given profile.
+	 */
+	public static XMLInputFactory getInputFactory (Profile profile) {
+		return INPUT_FACTORIES.computeIfAbsent(profile, XMLStreamFactories::newInputFactory);
+	}
+
+	/**
+	 * Creates a new input factory configured for a given profile. Use this method when
+	 * other settings must be added to the profile: the returned object is not shared.
+	 * @param profile the profile of the factory.
+	 * @return a new input factory configured for the given profile.
+	 */
+	public static XMLInputFactory newInputFactory (Profile profile) {
+		XMLInputFactory fact = XMLInputFactory.newInstance();
+		fact.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		fact.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		switch ( profile ) {
+		case COALESCING:
+			fact.setProperty(XMLInputFactory.IS_COALESCING, true);
+			break;
+		case CDATA:
+			fact.setProperty(XMLInputFactory.IS_COALESCING, false);
+			setPropertyIfSupported(fact, P_REPORT_CDATA, true);
+			// Avoid splitting long CDATA sections, while still reporting them as CDATA
+			setPropertyIfSupported(fact, P_MIN_TEXT_SEGMENT, Integer.MAX_VALUE);
+			break;
+		case NO_LOCATION:
+			setPropertyIfSupported(fact, P_PRESERVE_LOCATION, false);
+			setPropertyIfSupported(fact, P_INTERN_NAMES, true);
+			setPropertyIfSupported(fact, P_INTERN_NS_URIS, true);
+			break;
+		default:
+			break;
+		}
+		return fact;
+	}
+
+	/**
+	 * Gets the shared output factory. The returned object must not be modified.
+	 * @return the shared output factory.
+	 */
+	public static XMLOutputFactory getOutputFactory () {
+		return OutputFactoryHolder.INSTANCE;
+	}
+
+	/**
+	 * Gets the shared event factory. The returned object must not be modified,
+	 * in particular its location must not be set.
+	 * @return the shared event factory.
+	 */
+	public static XMLEventFactory getEventFactory () {
+		return EventFactoryHolder.INSTANCE;
+	}
+
+	/**
+	 * Sets a property of an input factory if the factory supports it.
+	 * @param fact the factory to modify.
+	 * @param name the name of the property.
+	 * @param value the value of the property.
+	 * @return true if the property was set, false if it is not supported.
+	 */
+	public static boolean setPropertyIfSupported (XMLInputFactory fact,
+		String name,
+		Object value)
+	{
+		if ( !fact.isPropertySupported(name) ) {
+			return false;
+		}
+		fact.setProperty(name, value);
+		return true;
+	}
+
+}
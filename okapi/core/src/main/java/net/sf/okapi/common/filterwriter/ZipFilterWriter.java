@@ -19,9 +19,12 @@ package net.sf.okapi.common.filterwriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
@@ -47,6 +50,11 @@ import net.sf.okapi.common.skeleton.ZipSkeleton;
  * Implements the {@link IFilterWriter} interface for filters that handle formats made of
  * a ZIP package with embedded extractable documents, such as IDML or
  * OpenOffice.org files (ODT, ODS, ODP, etc.)
+ * <p>
+ * The embedded documents are written directly into their entry of the output ZIP
+ * file as their events arrive, without going through temporary files. The entries
+ * copied from the original file (document parts with a {@link ZipSkeleton}) that arrive
+ * while a sub-document is being written are copied once the sub-document entry is closed.
  */
 public class ZipFilterWriter implements IFilterWriter {
 
@@ -58,10 +66,10 @@ public class ZipFilterWriter implements IFilterWriter {
 	private LocaleId outLoc;
 	private String entryName;
 	private IFilterWriter subDocWriter;
-	private File tempFile;
 	private File tempZip;
 	private EncoderManager encoderManager;
 	private int subDocLevel;
+	private final List<ZipSkeleton> pendingEntries = new ArrayList<>();
 
 	public ZipFilterWriter (EncoderManager encoderManager) {
 		this.encoderManager = encoderManager;
@@ -211,6 +219,7 @@ public class ZipFilterWriter implements IFilterWriter {
 		try {
 			buffer = new byte[2048];
 			zipOriginal = null;
+			pendingEntries.clear();
 			
 			ZipSkeleton skel = (ZipSkeleton)res.getSkeleton();
 			if (skel != null)
@@ -258,29 +267,12 @@ public class ZipFilterWriter implements IFilterWriter {
 		DocumentPart res = (DocumentPart)event.getResource();
 		if ( res.getSkeleton() instanceof ZipSkeleton ) {
 			ZipSkeleton skel = (ZipSkeleton)res.getSkeleton();
-			ZipFile original = skel.getOriginal();
-			if (original == null)
-				original = zipOriginal;
-			ZipEntry entry = skel.getEntry();
-			// Copy the entry data
-			InputStream input = null;
-			try {
-				zipOut.putNextEntry(new ZipEntry(entry.getName()));
-				input = original.getInputStream(entry); 
-				int len;
-				while ( (len = input.read(buffer)) > 0 ) {
-					zipOut.write(buffer, 0, len);
-				}				
+			if ( subDocLevel > 0 ) {
+				// The entry of the current sub-document is still open
+				pendingEntries.add(skel);
 			}
-			catch ( IOException e ) {
-				throw new OkapiIOException("Error processing ZipFile entry", e);
-			} finally {				
-				try {
-					if (input != null) input.close();
-					zipOut.closeEntry();
-				} catch (IOException e) {
-					throw new OkapiIOException("Error closing ZipFile", e);
-				}
+			else {
+				copyEntry(skel);
 			}
 		}
 		else { // Otherwise it's a normal skeleton event
@@ -288,6 +280,37 @@ public class ZipFilterWriter implements IFilterWriter {
 		}
 	}
 
+	/**
+	 * Copies an entry of the original file into the output.
+	 * @param skel the skeleton of the entry.
+	 */
+	private void copyEntry (ZipSkeleton skel) {
+		ZipFile original = skel.getOriginal();
+		if (original == null)
+			original = zipOriginal;
+		ZipEntry entry = skel.getEntry();
+		// Copy the entry data
+		InputStream input = null;
+		try {
+			zipOut.putNextEntry(new ZipEntry(entry.getName()));
+			input = original.getInputStream(entry); 
+			int len;
+			while ( (len = input.read(buffer)) > 0 ) {
+				zipOut.write(buffer, 0, len);
+			}				
+		}
+		catch ( IOException e ) {
+			throw new OkapiIOException("Error processing ZipFile entry", e);
+		} finally {				
+			try {
+				if (input != null) input.close();
+				zipOut.closeEntry();
+			} catch (IOException e) {
+				throw new OkapiIOException("Error closing ZipFile", e);
+			}
+		}
+	}
+
 	protected ISkeletonWriter createSubDocumentSkeletonWriter (StartSubDocument res) {
         return new GenericSkeletonWriter();
 	}
@@ -308,9 +331,9 @@ public class ZipFilterWriter implements IFilterWriter {
 		if (entry != null)
 			entryName = entry.getName();
 
-		// Set the temporary path and create it
+		// Start the entry: the sub-document is written directly into it
 		try {
-			tempFile = File.createTempFile("~okapi-9_", null);
+			zipOut.putNextEntry(new ZipEntry(entryName));
 		}
 		catch ( IOException e ) {
 			throw new OkapiException(e);
@@ -320,7 +343,7 @@ public class ZipFilterWriter implements IFilterWriter {
 		if (subDocWriter == null) {
 			subDocWriter = createSubDocumentFilterWriter(res);
 		}			
-		subDocWriter.setOutput(tempFile.getAbsolutePath());
+		subDocWriter.setOutput(new EntryOutputStream(zipOut));
 				
 		StartDocument sd = convertToStartDocument(res);
 		subDocWriter.handleEvent(new Event(EventType.START_DOCUMENT, sd));
@@ -336,21 +359,18 @@ public class ZipFilterWriter implements IFilterWriter {
 			// (a default writer will be created if not set from outside)
 			subDocWriter = null;
 
-			// Create the new entry from the temporary output file
-			zipOut.putNextEntry(new ZipEntry(entryName));
-			InputStream input = new FileInputStream(tempFile); 
-			int len;
-			while ( (len = input.read(buffer)) > 0 ) {
-				zipOut.write(buffer, 0, len);
-			}
-			input.close();
+			// Finish the entry
 			zipOut.closeEntry();
-			// Delete the temporary file
-			tempFile.delete();
 		}
 		catch ( IOException e ) {
 			throw new OkapiException(e);
 		}
+		
+		// Copy the entries that arrived while the sub-document was written
+		for ( ZipSkeleton skel : pendingEntries ) {
+			copyEntry(skel);
+		}
+		pendingEntries.clear();
 	}
 
 	public IFilterWriter getSubDocWriter() {
@@ -366,4 +386,31 @@ public class ZipFilterWriter implements IFilterWriter {
 		return outLoc;
 	}
 
+	/**
+	 * Output stream for the entry of a sub-document: closing it by the
+	 * sub-document writer does not close the ZIP output.
+	 */
+	private static class EntryOutputStream extends FilterOutputStream {
+
+		public EntryOutputStream (OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write (byte[] b,
+			int off,
+			int len)
+			throws IOException
+		{
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void close ()
+			throws IOException
+		{
+			flush();
+		}
+	}
+
 }
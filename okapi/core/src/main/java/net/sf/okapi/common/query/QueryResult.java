@@ -153,6 +153,15 @@ public class QueryResult implements Comparable<QueryResult> {
 		return combinedScore;
 	}
 	
+	/**
+	 * Indicates if a combined score was set for this result.
+	 * @return true if a combined score was set, false if {@link #getCombinedScore()}
+	 * returns the fuzzy score.
+	 */
+	public boolean isCombinedScoreDefined () {
+		return ( combinedScore != COMBINEDSCORE_UNDEFINED );
+	}
+
 	/**
 	 * Sets the combined score for this result.
 	 * @param combinedScore the new combined score value.
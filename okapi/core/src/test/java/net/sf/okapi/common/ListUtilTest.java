@@ -156,6 +156,25 @@ public class ListUtilTest {
 		assertEquals("", s[4]);
 	}
 
+	@Test
+	public void testStringAsListWithDelimiter() {
+		List<String> list = ListUtil.stringAsList("a::bb::::ccc::", "::");
+		assertEquals(Arrays.asList("a", "bb", "", "ccc", ""), list);
+
+		list = ListUtil.stringAsList("abc", "::");
+		assertEquals(Arrays.asList("abc"), list);
+
+		StringBuilder sb = new StringBuilder();
+		for ( int i = 0; i < 10000; i++ ) {
+			if ( i > 0 ) sb.append(';');
+			sb.append(i);
+		}
+		String[] s = ListUtil.stringAsArray(sb.toString(), ";");
+		assertEquals(10000, s.length);
+		assertEquals("0", s[0]);
+		assertEquals("9999", s[9999]);
+	}
+
 	@Test
 	public void testMerge() {
 		List<String> list = Arrays.asList("aaaa", "bbb", "cccc", "ddddd");
@@ -0,0 +1,65 @@
+package net.sf.okapi.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import net.sf.okapi.common.XMLStreamFactories.Profile;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class XMLStreamFactoriesTest {
+
+	@Test
+	public void sharedFactories () {
+		for ( Profile profile : Profile.values() ) {
+			assertSame(XMLStreamFactories.getInputFactory(profile), XMLStreamFactories.getInputFactory(profile));
+		}
+		assertNotSame(XMLStreamFactories.getInputFactory(Profile.DEFAULT),
+			XMLStreamFactories.getInputFactory(Profile.COALESCING));
+		assertNotSame(XMLStreamFactories.getInputFactory(Profile.DEFAULT),
+			XMLStreamFactories.newInputFactory(Profile.DEFAULT));
+		assertSame(XMLStreamFactories.getOutputFactory(), XMLStreamFactories.getOutputFactory());
+		assertSame(XMLStreamFactories.getEventFactory(), XMLStreamFactories.getEventFactory());
+	}
+
+	@Test
+	public void dtdIsNotSupported () {
+		for ( Profile profile : Profile.values() ) {
+			XMLInputFactory fact = XMLStreamFactories.getInputFactory(profile);
+			assertFalse((Boolean)fact.getProperty(XMLInputFactory.SUPPORT_DTD));
+		}
+	}
+
+	@Test
+	public void coalescingProfile () throws XMLStreamException {
+		XMLStreamReader reader = XMLStreamFactories.getInputFactory(Profile.COALESCING)
+			.createXMLStreamReader(new StringReader("<a>x<![CDATA[y]]>z</a>"));
+		assertEquals(XMLStreamConstants.START_ELEMENT, reader.next());
+		assertEquals(XMLStreamConstants.CHARACTERS, reader.next());
+		assertEquals("xyz", reader.getText());
+		assertEquals(XMLStreamConstants.END_ELEMENT, reader.next());
+		reader.close();
+	}
+
+	@Test
+	public void setPropertyIfSupported () {
+		XMLInputFactory fact = XMLStreamFactories.newInputFactory(Profile.DEFAULT);
+		assertTrue(XMLStreamFactories.setPropertyIfSupported(fact, XMLInputFactory.IS_COALESCING, true));
+		assertTrue((Boolean)fact.getProperty(XMLInputFactory.IS_COALESCING));
+		assertFalse(XMLStreamFactories.setPropertyIfSupported(fact, "x-unknown-property", true));
+	}
+
+}
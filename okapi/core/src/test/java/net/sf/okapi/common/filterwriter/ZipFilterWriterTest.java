@@ -0,0 +1,123 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.common.filterwriter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import net.sf.okapi.common.Event;
+import net.sf.okapi.common.EventType;
+import net.sf.okapi.common.LocaleId;
+import net.sf.okapi.common.StreamUtil;
+import net.sf.okapi.common.encoder.EncoderManager;
+import net.sf.okapi.common.resource.DocumentPart;
+import net.sf.okapi.common.resource.Ending;
+import net.sf.okapi.common.resource.StartDocument;
+import net.sf.okapi.common.resource.StartSubDocument;
+import net.sf.okapi.common.skeleton.GenericSkeleton;
+import net.sf.okapi.common.skeleton.ZipSkeleton;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ZipFilterWriterTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void testEntryCopiedDuringSubDocument ()
+		throws IOException
+	{
+		File input = tmp.newFile("input.zip");
+		try ( ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(input)) ) {
+			addEntry(zos, "sub.txt", "original text");
+			addEntry(zos, "copied.bin", "copied data");
+		}
+		File output = new File(tmp.getRoot(), "output.zip");
+
+		try ( ZipFile original = new ZipFile(input) ) {
+			ZipFilterWriter writer = new ZipFilterWriter(new EncoderManager());
+			writer.setOptions(LocaleId.FRENCH, "UTF-8");
+			writer.setOutput(output.getAbsolutePath());
+
+			StartDocument sd = new StartDocument("sd1");
+			sd.setSkeleton(new ZipSkeleton(original, null));
+			writer.handleEvent(new Event(EventType.START_DOCUMENT, sd));
+
+			StartSubDocument ssd = new StartSubDocument("sd1", "ssd1");
+			ssd.setSkeleton(new ZipSkeleton(original, original.getEntry("sub.txt")));
+			writer.handleEvent(new Event(EventType.START_SUBDOCUMENT, ssd));
+			writer.handleEvent(new Event(EventType.DOCUMENT_PART,
+				new DocumentPart("dp1", false, new GenericSkeleton("translated "))));
+			// A top-level entry arriving before the end of the sub-document
+			DocumentPart copied = new DocumentPart("dp2", false);
+			copied.setSkeleton(new ZipSkeleton(original, original.getEntry("copied.bin")));
+			writer.handleEvent(new Event(EventType.DOCUMENT_PART, copied));
+			writer.handleEvent(new Event(EventType.DOCUMENT_PART,
+				new DocumentPart("dp3", false, new GenericSkeleton("text"))));
+			writer.handleEvent(new Event(EventType.END_SUBDOCUMENT, new Ending("end-ssd1")));
+
+			writer.handleEvent(new Event(EventType.END_DOCUMENT, new Ending("end-sd1")));
+		}
+
+		Map<String, String> entries = readEntries(output);
+		assertEquals(2, entries.size());
+		assertEquals("translated text", entries.get("sub.txt"));
+		assertEquals("copied data", entries.get("copied.bin"));
+	}
+
+	private static void addEntry (ZipOutputStream zos,
+		String name,
+		String content)
+		throws IOException
+	{
+		zos.putNextEntry(new ZipEntry(name));
+		zos.write(content.getBytes(StandardCharsets.UTF_8));
+		zos.closeEntry();
+	}
+
+	private static Map<String, String> readEntries (File file)
+		throws IOException
+	{
+		Map<String, String> entries = new LinkedHashMap<>();
+		try ( ZipFile zf = new ZipFile(file) ) {
+			for ( ZipEntry entry : Collections.list(zf.entries()) ) {
+				try ( InputStream in = zf.getInputStream(entry) ) {
+					entries.put(entry.getName(), new String(StreamUtil.inputStreamToBytes(in), StandardCharsets.UTF_8));
+				}
+			}
+		}
+		return entries;
+	}
+
+}
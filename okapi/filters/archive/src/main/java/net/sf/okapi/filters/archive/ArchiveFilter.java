@@ -50,8 +50,17 @@ import net.sf.okapi.common.skeleton.ZipSkeleton;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Enumeration;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -77,6 +86,13 @@ import java.util.zip.ZipFile;
  * configuration is not provided there, you can use setFilterConfigurationMapper() to set your own FilterConfiguationMapper,
  * or alternatively you can get a reference to the default implementation of IFilterConfigurationMapper provided by this class, and
  * use addConfiguration() and other methods to configure it to your desire.
+ * <p>
+ * When the maximum number of concurrent entries is set above 1 in the parameters, the files processed with
+ * sub-filters are extracted ahead of time on a pool of threads. The events are still sent in the order of the
+ * entries in the archive. The sub-filters of those files must not share any state.
+ * All the events of a file extracted ahead of time are kept in memory until the file is sent, so only
+ * the files whose uncompressed size is known and not above the maximum read-ahead size are extracted
+ * that way. The other files are extracted on the caller thread when their turn comes.
  */
 
 @UsingParameters(Parameters.class)
@@ -102,6 +118,11 @@ public class ArchiveFilter extends AbstractFilter {
 	private LocaleId srcLoc;
 	private LocaleId trgLoc;
 	private IFilter subFilter;
+	private Iterator<Event> subEvents;
+	private ExecutorService executor;
+	private Deque<PendingEntry> pending;
+	private int readAhead;
+	private long maxReadAheadSize;
 	private IFilterWriter subDocWriter;
 	private Parameters params;
 	private String[] fileNames;
@@ -138,6 +159,16 @@ public class ArchiveFilter extends AbstractFilter {
 		if (input != null) {
 			input.close();
 		}		
+		if (executor != null) {
+			for (PendingEntry pe : pending) {
+				if (pe.events != null) {
+					pe.events.cancel(true);
+				}
+			}
+			pending.clear();
+			executor.shutdownNow();
+			executor = null;
+		}
 		try {
 			nextAction = NextAction.DONE;
 			if ( zipFile != null ) {
@@ -282,6 +313,17 @@ public class ArchiveFilter extends AbstractFilter {
 			entries = zipFile.entries();
 			subDocId = 0;
 			nextAction = NextAction.NEXTINZIP;
+			int threads = getParameters().getMaxConcurrentEntries();
+			if (threads > 1) {
+				executor = Executors.newFixedThreadPool(threads, r -> {
+					Thread thread = new Thread(r, "okf_archive-entries");
+					thread.setDaemon(true);
+					return thread;
+				});
+				readAhead = threads * 2;
+				maxReadAheadSize = getParameters().getMaxReadAheadSize() * 1024L;
+				pending = new ArrayDeque<>(readAhead);
+			}
 			
 			StartDocument startDoc = new StartDocument(SID);
 			startDoc.setName(docURI.getPath());
@@ -299,13 +341,14 @@ public class ArchiveFilter extends AbstractFilter {
 	}
 	
 	private Event nextInZipFile () {
-		while( entries.hasMoreElements() ) {
-			entry = entries.nextElement();
-			subFilter = getSubFilter(entry.getName());
+		PendingEntry next;
+		while( (next = nextEntry()) != null ) {
+			entry = next.entry;
+			subFilter = next.filter;
 			if (subFilter != null) {	
 				subDocWriter = subFilter.createFilterWriter();
 				((ZipFilterWriter) createFilterWriter()).setSubDocWriter(subDocWriter);
-				return openSubDocument();
+				return openSubDocument(next.events);
 			}
 			else {
 				DocumentPart dp = new DocumentPart(entry.getName(), false);
@@ -320,6 +363,62 @@ public class ArchiveFilter extends AbstractFilter {
 		return new Event(EventType.END_DOCUMENT, ending);
 	}
 	
+	/**
+	 * Gets the next entry of the archive, or null if there is none. When entries are
+	 * extracted concurrently, the entries with a sub-filter are submitted up to twice
+	 * the number of threads ahead of the one returned, as long as they are not
+	 * larger than the maximum read-ahead size.
+	 * @return the next entry or null.
+	 */
+	private PendingEntry nextEntry () {
+		if (executor == null) {
+			if (!entries.hasMoreElements()) {
+				return null;
+			}
+			ZipEntry ze = entries.nextElement();
+			return new PendingEntry(ze, getSubFilter(ze.getName()), null);
+		}
+		while (pending.size() < readAhead && entries.hasMoreElements()) {
+			ZipEntry ze = entries.nextElement();
+			IFilter filter = getSubFilter(ze.getName());
+			Future<List<Event>> events = null;
+			long size = ze.getSize();
+			if (filter != null && size >= 0 && size <= maxReadAheadSize) {
+				RawDocument rd;
+				try {
+					rd = new RawDocument(zipFile.getInputStream(ze), "UTF-8", srcLoc, trgLoc);
+				}
+				catch (IOException e) {
+					throw new OkapiIOException("Error opening internal file.", e);
+				}
+				events = executor.submit(() -> readSubDocument(filter, rd));
+			}
+			pending.add(new PendingEntry(ze, filter, events));
+		}
+		return pending.poll();
+	}
+
+	/**
+	 * Extracts all the events of an entry with its sub-filter. This is called on
+	 * the threads of the pool.
+	 */
+	private static List<Event> readSubDocument (IFilter filter,
+		RawDocument rd)
+	{
+		List<Event> events = new ArrayList<>();
+		filter.close();
+		try {
+			filter.open(rd);
+			while (filter.hasNext()) {
+				events.add(filter.next());
+			}
+		}
+		finally {
+			filter.close();
+		}
+		return events;
+	}
+
 	/**
 	 * Gets the sub-filter or null for a given file in the archive.
 	 * @param name the name of the file entry to check.
@@ -341,16 +440,31 @@ public class ArchiveFilter extends AbstractFilter {
 		return null; // File is not to be extracted
 	}
 
-	private Event openSubDocument () {
-		if (subFilter != null) subFilter.close();
-		Event event;
-		try {
-			subFilter.open(new RawDocument(zipFile.getInputStream(entry), "UTF-8", srcLoc, trgLoc));
-			event = subFilter.next(); // START_DOCUMENT
+	private Event openSubDocument (Future<List<Event>> events) {
+		if (events == null) {
+			if (subFilter != null) subFilter.close();
+			try {
+				subFilter.open(new RawDocument(zipFile.getInputStream(entry), "UTF-8", srcLoc, trgLoc));
+			}
+			catch (IOException e) {
+				throw new OkapiIOException("Error opening internal file.", e);
+			}
+			subEvents = new Iterator<Event>() {
+				@Override
+				public boolean hasNext() {
+					return subFilter.hasNext();
+				}
+
+				@Override
+				public Event next() {
+					return subFilter.next();
+				}
+			};
 		}
-		catch (IOException e) {
-			throw new OkapiIOException("Error opening internal file.", e);
+		else {
+			subEvents = getEvents(events).iterator();
 		}
+		Event event = subEvents.next(); // START_DOCUMENT
 		
 		// Change the START_DOCUMENT event from sub-filter to START_SUBDOCUMENT
 		StartDocument sd = null;
@@ -380,8 +494,8 @@ public class ArchiveFilter extends AbstractFilter {
 		}
 		
 		Event event;
-		while ( subFilter.hasNext() ) {
-			event = subFilter.next();
+		while ( subEvents.hasNext() ) {
+			event = subEvents.next();
 			switch ( event.getEventType() ) {
 			case END_DOCUMENT:
 				// Change the END_DOCUMENT to END_SUBDOCUMENT
@@ -398,6 +512,23 @@ public class ArchiveFilter extends AbstractFilter {
 		return null; // Should not get here
 	}
 
+	private static List<Event> getEvents (Future<List<Event>> events) {
+		try {
+			return events.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OkapiException("Interrupted while extracting an internal file.", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new OkapiIOException("Error extracting internal file.", cause);
+		}
+	}
+
 	@Override
 	protected boolean isUtf8Encoding() {
 		return false;
@@ -407,4 +538,23 @@ public class ArchiveFilter extends AbstractFilter {
 	protected boolean isUtf8Bom() {
 		return false;
 	}
+
+	/**
+	 * An entry of the archive, with its sub-filter (if any) and, when it is
+	 * extracted on another thread, its future events.
+	 */
+	private static final class PendingEntry {
+		final ZipEntry entry;
+		final IFilter filter;
+		final Future<List<Event>> events;
+
+		PendingEntry (ZipEntry entry,
+			IFilter filter,
+			Future<List<Event>> events)
+		{
+			this.entry = entry;
+			this.filter = filter;
+			this.events = events;
+		}
+	}
 }
@@ -23,6 +23,7 @@ import net.sf.okapi.common.StringParameters;
 import net.sf.okapi.common.resource.Code;
 import net.sf.okapi.common.uidescription.EditorDescription;
 import net.sf.okapi.common.uidescription.IEditorDescriptionProvider;
+import net.sf.okapi.common.uidescription.SpinInputPart;
 import net.sf.okapi.core.simplifierrules.ParseException;
 import net.sf.okapi.core.simplifierrules.SimplifierRules;
 
@@ -50,6 +51,18 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 	 * Comma-delimited list of configuration Ids corresponding to the extension
 	 */
 	private static final String CONFIGIDS = "configIds";
+
+	/**
+	 * Maximum number of entries extracted at the same time. With 1 (the default) the entries
+	 * are extracted one after the other, on the caller thread.
+	 */
+	private static final String MAXCONCURRENTENTRIES = "maxConcurrentEntries";
+	/**
+	 * Maximum uncompressed size (in KB) of an entry extracted ahead of time when the entries
+	 * are extracted concurrently. Larger entries, and entries of unknown size, are extracted
+	 * on the caller thread when their turn comes.
+	 */
+	private static final String MAXREADAHEADSIZE = "maxReadAheadSize";
 		
 	public Parameters () {
 		super();
@@ -61,6 +74,8 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 		setMimeType(ArchiveFilter.MIME_TYPE);
 		setFileNames("*.tmx,*.xlf,*.xlff");
 		setConfigIds("okf_tmx,okf_xliff,okf_xliff");
+		setMaxConcurrentEntries(1);
+		setMaxReadAheadSize(1024);
 		setSimplifierRules(null);
 	}
 		
@@ -80,6 +95,22 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 		return getString(CONFIGIDS);
 	}
 
+	public void setMaxConcurrentEntries(int maxConcurrentEntries) {
+		setInteger(MAXCONCURRENTENTRIES, maxConcurrentEntries);
+	}
+
+	public int getMaxConcurrentEntries() {
+		return getInteger(MAXCONCURRENTENTRIES);
+	}
+
+	public void setMaxReadAheadSize(int maxReadAheadSize) {
+		setInteger(MAXREADAHEADSIZE, maxReadAheadSize);
+	}
+
+	public int getMaxReadAheadSize() {
+		return getInteger(MAXREADAHEADSIZE);
+	}
+
 	public void setMimeType(String mimeType) {
 		setString(MIMETYPE, mimeType);
 	}
@@ -94,6 +125,8 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 		desc.add("mimeType", "MIME type of the filter's container format", null);
 		desc.add("fileNames", "File names", "Comma-delimited list of file names to be processed (wildcards are allowed) in the same order as configuration ids");
 		desc.add("configIds", "Filter configuration ids", "Comma-delimited list of configuration ids corresponding to the file names");
+		desc.add(MAXCONCURRENTENTRIES, "Maximum number of entries extracted at the same time", "Number of entries extracted in parallel (1 to extract them one after the other)");
+		desc.add(MAXREADAHEADSIZE, "Maximum size of an entry extracted ahead of time (in KB)", "Larger entries are extracted only when their turn comes, to limit the memory used");
 		return desc;
 	}
 	
@@ -105,6 +138,10 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 		desc.addTextInputPart(parametersDescription.get("mimeType"));
 		desc.addTextInputPart(parametersDescription.get("fileNames"));
 		desc.addTextInputPart(parametersDescription.get("configIds"));
+		SpinInputPart sip = desc.addSpinInputPart(parametersDescription.get(MAXCONCURRENTENTRIES));
+		sip.setRange(1, 64);
+		sip = desc.addSpinInputPart(parametersDescription.get(MAXREADAHEADSIZE));
+		sip.setRange(0, 1048576);
 		
 		return desc;
 	}
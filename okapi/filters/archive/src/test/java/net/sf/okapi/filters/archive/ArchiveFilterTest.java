@@ -295,6 +295,67 @@ public class ArchiveFilterTest {
 		}
 	}
 	
+	@Test
+	public void testConcurrentEntries () {
+		ArrayList<Event> expected;
+		try ( ArchiveFilter filter = new ArchiveFilter() ) {
+			filter.setFilterConfigurationMapper(fcMapper);
+			Parameters params = filter.getParameters();
+			params.setFileNames("*.tmx,*.xlf");
+			params.setConfigIds("okf_tmx,okf_xliff");
+			expected = FilterTestDriver.getEvents(filter,
+				new RawDocument(root.in("/test3_es.archive").asUri(), "UTF-8", EN, ESES), null);
+		}
+		try ( ArchiveFilter filter = new ArchiveFilter() ) {
+			filter.setFilterConfigurationMapper(fcMapper);
+			Parameters params = filter.getParameters();
+			params.setFileNames("*.tmx,*.xlf");
+			params.setConfigIds("okf_tmx,okf_xliff");
+			params.setMaxConcurrentEntries(4);
+			ArrayList<Event> actual = FilterTestDriver.getEvents(filter,
+				new RawDocument(root.in("/test3_es.archive").asUri(), "UTF-8", EN, ESES), null);
+			assertTrue(FilterTestDriver.compareEvents(expected, actual));
+		}
+	}
+
+	@Test
+	public void testConcurrentEntriesAboveReadAheadSize () {
+		ArrayList<Event> expected;
+		try ( ArchiveFilter filter = new ArchiveFilter() ) {
+			filter.setFilterConfigurationMapper(fcMapper);
+			Parameters params = filter.getParameters();
+			params.setFileNames("*.tmx,*.xlf");
+			params.setConfigIds("okf_tmx,okf_xliff");
+			expected = FilterTestDriver.getEvents(filter,
+				new RawDocument(root.in("/test3_es.archive").asUri(), "UTF-8", EN, ESES), null);
+		}
+		try ( ArchiveFilter filter = new ArchiveFilter() ) {
+			filter.setFilterConfigurationMapper(fcMapper);
+			Parameters params = filter.getParameters();
+			params.setFileNames("*.tmx,*.xlf");
+			params.setConfigIds("okf_tmx,okf_xliff");
+			params.setMaxConcurrentEntries(4);
+			// No entry is small enough to be extracted ahead of time
+			params.setMaxReadAheadSize(0);
+			ArrayList<Event> actual = FilterTestDriver.getEvents(filter,
+				new RawDocument(root.in("/test3_es.archive").asUri(), "UTF-8", EN, ESES), null);
+			assertTrue(FilterTestDriver.compareEvents(expected, actual));
+		}
+	}
+
+	@Test
+	public void testConcurrentRoundTrip () {
+		try ( ArchiveFilter filter = new ArchiveFilter() ) {
+			filter.setFilterConfigurationMapper(fcMapper);
+			filter.getParameters().setMaxConcurrentEntries(2);
+			ArrayList<InputDocument> list = new ArrayList<>();
+			list.add(new InputDocument(root.in("/test1_es.archive").asFile().getAbsolutePath(), null));
+			list.add(new InputDocument(root.in("/test3_es.archive").asFile().getAbsolutePath(), null));
+			RoundTripComparison rtc = new RoundTripComparison();
+			assertTrue(rtc.executeCompare(filter, list, "UTF-8", EN, ESES, "outcmp"));
+		}
+	}
+
 	@Test
 	public void testDoubelextraction () {
 		try ( ArchiveFilter filter = new ArchiveFilter() ) {
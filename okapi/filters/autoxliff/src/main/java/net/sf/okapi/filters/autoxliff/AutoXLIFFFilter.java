@@ -14,14 +14,14 @@ import javax.xml.stream.events.Attribute;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
 
-import org.codehaus.stax2.XMLInputFactory2;
-
 import net.sf.okapi.common.BOMNewlineEncodingDetector;
 import net.sf.okapi.common.Event;
 import net.sf.okapi.common.IParameters;
 import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.MimeTypeMapper;
 import net.sf.okapi.common.UsingParameters;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.encoder.EncoderManager;
 import net.sf.okapi.common.exceptions.OkapiIOException;
 import net.sf.okapi.common.filters.FilterConfiguration;
@@ -57,10 +57,7 @@ public class AutoXLIFFFilter implements IFilter {
 
 	@Override
 	public void open(RawDocument input, boolean generateSkeleton) {
-		XMLInputFactory fact = XMLInputFactory.newInstance();
-		fact.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
-		fact.setProperty(XMLInputFactory2.P_REPORT_CDATA, Boolean.TRUE);
-		fact.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		XMLInputFactory fact = XMLStreamFactories.getInputFactory(Profile.CDATA);
 
 		// Determine encoding based on BOM, if any
 		input.setEncoding("UTF-8"); // Default for XML, other should be auto-detected
@@ -24,6 +24,8 @@ import net.sf.okapi.common.IParameters;
 import net.sf.okapi.common.MimeTypeMapper;
 import net.sf.okapi.common.StreamUtil;
 import net.sf.okapi.common.UsingParameters;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.encoder.EncoderManager;
 import net.sf.okapi.common.exceptions.OkapiException;
 import net.sf.okapi.common.exceptions.OkapiIOException;
@@ -86,17 +88,13 @@ public class IDMLFilter implements IFilter {
     public IDMLFilter() {
         params = new Parameters();
 
-        inputFactory = XMLInputFactory.newInstance();
-        outputFactory = XMLOutputFactory.newInstance();
-        eventFactory = XMLEventFactory.newInstance();
+        // The input factory does not process DTDs (security concern), and is not shared,
+        // as the maximum attribute size is specific to this filter.
+        inputFactory = XMLStreamFactories.newInputFactory(Profile.DEFAULT);
+        outputFactory = XMLStreamFactories.getOutputFactory();
+        eventFactory = XMLStreamFactories.getEventFactory();
 
-        // security concern. Turn off DTD processing
-        // https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing
-        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-
-        if (inputFactory.isPropertySupported(WstxInputProperties.P_MAX_ATTRIBUTE_SIZE)) {
-            inputFactory.setProperty(WstxInputProperties.P_MAX_ATTRIBUTE_SIZE, params.getMaxAttributeSize());
-        }
+        XMLStreamFactories.setPropertyIfSupported(inputFactory, WstxInputProperties.P_MAX_ATTRIBUTE_SIZE, params.getMaxAttributeSize());
     }
 
     @Override
@@ -23,6 +23,8 @@ import net.sf.okapi.common.MimeTypeMapper;
 import net.sf.okapi.common.Namespaces;
 import net.sf.okapi.common.ParametersDescription;
 import net.sf.okapi.common.Util;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.annotation.GenericAnnotation;
 import net.sf.okapi.common.annotation.GenericAnnotationType;
 import net.sf.okapi.common.annotation.GenericAnnotations;
@@ -218,13 +220,8 @@ public class ODFFilter implements IFilter {
 		canceled = false;
 		containerMimeType = "";
 		
-		XMLInputFactory fact = XMLInputFactory.newInstance();
-		fact.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
-		fact.setProperty(XMLInputFactory.IS_COALESCING, true);
-		
-		// security concern. Turn off DTD processing
-		// https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing
-		fact.setProperty(XMLInputFactory.SUPPORT_DTD, false);			
+		// Namespace-aware (the default), and no DTD processing (security concern)
+		XMLInputFactory fact = XMLStreamFactories.getInputFactory(Profile.COALESCING);
 
 		try {
 			input.setEncoding("UTF-8"); // Force UTF-8 as the default encoding
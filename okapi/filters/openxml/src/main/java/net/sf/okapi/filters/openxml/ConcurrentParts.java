@@ -0,0 +1,150 @@
+/*
+ * =============================================================================
+ *   Copyright (C) 2009-2021 by the Okapi Framework contributors
+ * -----------------------------------------------------------------------------
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * =============================================================================
+ */
+package net.sf.okapi.filters.openxml;
+
+import net.sf.okapi.common.Event;
+import net.sf.okapi.common.exceptions.OkapiException;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Provides the parts of a document in their normal order, while opening (i.e. parsing)
+ * the parts that do not depend on each other on a pool of threads.
+ *
+ * <p>The parts are requested from the document ahead of time, up to twice the number of
+ * threads. Only the parts the document reports as concurrently openable are opened in
+ * advance, and the read-ahead stops at the first other part: that part is opened on the
+ * caller thread when its turn comes, as it would be without this class.
+ */
+final class ConcurrentParts {
+    private final Document document;
+    private final ExecutorService executor;
+    private final int readAhead;
+    private final Deque<Part> pending;
+
+    ConcurrentParts(final Document document, final int threads) {
+        this.document = document;
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            final Thread thread = new Thread(r, "okf_openxml-parts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.readAhead = threads * 2;
+        this.pending = new ArrayDeque<>(this.readAhead);
+    }
+
+    boolean hasNextPart() {
+        return !this.pending.isEmpty() || this.document.hasNextPart();
+    }
+
+    Part nextPart() throws IOException, XMLStreamException {
+        readAhead();
+        return this.pending.poll();
+    }
+
+    private void readAhead() throws IOException, XMLStreamException {
+        while (this.pending.size() < this.readAhead && this.document.hasNextPart()) {
+            final Part last = this.pending.peekLast();
+            if (null != last && !(last instanceof OpenedPart)) {
+                // The parts after it may only be requested once it has been opened
+                return;
+            }
+            final Part part = this.document.nextPart();
+            if (this.document.isConcurrentlyOpenable(part)) {
+                if (part instanceof StyledTextPart) {
+                    ((StyledTextPart) part).reserveSubDocumentId();
+                }
+                this.pending.add(new OpenedPart(part, this.executor.submit(part::open)));
+            } else {
+                this.pending.add(part);
+            }
+        }
+    }
+
+    void close() {
+        for (final Part part : this.pending) {
+            if (part instanceof OpenedPart) {
+                ((OpenedPart) part).startEvent.cancel(true);
+            }
+        }
+        this.pending.clear();
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * A part being opened on another thread.
+     */
+    private static final class OpenedPart implements Part {
+        private final Part part;
+        private final Future<Event> startEvent;
+
+        OpenedPart(final Part part, final Future<Event> startEvent) {
+            this.part = part;
+            this.startEvent = startEvent;
+        }
+
+        @Override
+        public Event open() throws IOException, XMLStreamException {
+            try {
+                return this.startEvent.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OkapiException("Interrupted while opening a part", e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof XMLStreamException) {
+                    throw (XMLStreamException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new OkapiException(cause);
+            }
+        }
+
+        @Override
+        public boolean hasNextEvent() {
+            return this.part.hasNextEvent();
+        }
+
+        @Override
+        public Event nextEvent() {
+            return this.part.nextEvent();
+        }
+
+        @Override
+        public void close() {
+            this.part.close();
+        }
+
+        @Override
+        public void logEvent(final Event e) {
+            this.part.logEvent(e);
+        }
+    }
+}
@@ -124,6 +124,11 @@ public class ConditionalParameters extends StringParameters {
 	 */
 	private static final String SUBFILTER = "subfilter";
 
+	/**
+	 * The maximum number of parts parsed at the same time (1 to parse them one by one).
+	 */
+	private static final String MAX_CONCURRENT_PARTS = "maxConcurrentParts";
+
 	public final static int MSWORD=1;
 
 	public TreeSet<String> tsComplexFieldDefinitionsToExtract;
@@ -391,6 +396,14 @@ public class ConditionalParameters extends StringParameters {
 		setString(SUBFILTER, subfilter);
 	}
 
+	public int getMaxConcurrentParts() {
+		return getInteger(MAX_CONCURRENT_PARTS);
+	}
+
+	public void setMaxConcurrentParts(int maxConcurrentParts) {
+		setInteger(MAX_CONCURRENT_PARTS, maxConcurrentParts);
+	}
+
 	FontMappings fontMappings() {
 		return this.fontMappings;
 	}
@@ -431,6 +444,7 @@ public class ConditionalParameters extends StringParameters {
 		setTranslateWordInExcludeHighlightMode(true);
 		setTranslateWordExcludeColors(false); // Word exclude tsWordExcludedColors
 		setReorderPowerpointNotesAndComments(false);
+		setMaxConcurrentParts(1);
         tsComplexFieldDefinitionsToExtract = new TreeSet<>(); // exclude if bPreferenceTranslateExcelExcludeColors
         tsComplexFieldDefinitionsToExtract.add("HYPERLINK");
 		tsExcelExcludedColors = new TreeSet<>(); // exclude if bPreferenceTranslateExcelExcludeColors
@@ -60,6 +60,7 @@ interface Document {
 	void updatePostponedTranslatables(final String key, final String value);
 	boolean hasNextPart();
 	Part nextPart() throws IOException, XMLStreamException;
+	boolean isConcurrentlyOpenable(final Part part);
 	void close() throws IOException;
 
 	class General implements Document {
@@ -257,6 +258,11 @@ interface Document {
 			return this.categorisedDocument.nextPart();
 		}
 
+		@Override
+		public boolean isConcurrentlyOpenable(final Part part) {
+			return this.categorisedDocument.isConcurrentlyOpenable(part);
+		}
+
 		@Override
 		public void close() throws IOException {
 			if (null != this.categorisedDocument) {
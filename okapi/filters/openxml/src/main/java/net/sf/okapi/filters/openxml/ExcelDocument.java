@@ -147,6 +147,12 @@ class ExcelDocument implements Document {
 		this.sharedStrings.put(key, value);
 	}
 
+	@Override
+	public boolean isConcurrentlyOpenable(final Part part) {
+		// The worksheets, the shared strings and the comments depend on each other
+		return false;
+	}
+
 	@Override
 	public boolean hasNextPart() {
 		return this.entries.hasMoreElements() || !this.postponedParts.isEmpty();
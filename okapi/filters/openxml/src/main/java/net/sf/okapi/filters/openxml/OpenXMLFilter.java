@@ -32,6 +32,8 @@ import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 
 import com.ctc.wstx.api.WstxInputProperties;
+import com.ctc.wstx.evt.DefaultEventAllocator;
+import com.ctc.wstx.stax.WstxInputFactory;
 import net.sf.okapi.common.Event;
 import net.sf.okapi.common.EventType;
 import net.sf.okapi.common.FileUtil;
@@ -41,6 +43,8 @@ import net.sf.okapi.common.MimeTypeMapper;
 import net.sf.okapi.common.StreamUtil;
 import net.sf.okapi.common.UsingParameters;
 import net.sf.okapi.common.Util;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.encoder.EncoderManager;
 import net.sf.okapi.common.encoder.QuoteMode;
 import net.sf.okapi.common.encoder.XMLEncoder;
@@ -57,7 +61,6 @@ import net.sf.okapi.common.resource.TextContainer;
 import net.sf.okapi.common.resource.TextFragment;
 import net.sf.okapi.common.skeleton.ISkeletonWriter;
 
-import org.codehaus.stax2.XMLInputFactory2;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -91,6 +94,7 @@ public class OpenXMLFilter implements IFilter {
 	private static final String END_DOCUMENT_ID = "ed";
 
 	private Document.General document;
+	private ConcurrentParts concurrentParts;
 	private Part subDocument;
 	private File tempFile;
 	private NextAction nextAction;
@@ -128,28 +132,16 @@ public class OpenXMLFilter implements IFilter {
         this.nFileType = ParseType.MSWORD;
 		this.encoding = ENCODING.name();
 		this.cparams = new ConditionalParameters();
-		this.inputFactory = XMLInputFactory.newInstance();
-		setPropertyIfSupported(inputFactory, WstxInputProperties.P_MAX_ATTRIBUTE_SIZE, cparams.getMaxAttributeSize());
-		configureInputFactory(inputFactory);
-		this.outputFactory = XMLOutputFactory.newInstance();
-		this.eventFactory = XMLEventFactory.newInstance();
-	}
-
-	static void configureInputFactory(XMLInputFactory inputFactory) {
-		// security concern. Turn off DTD processing
-		// https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing
-		inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-
-		// disable location preversation for lower memory usage
-		setPropertyIfSupported(inputFactory, XMLInputFactory2.P_PRESERVE_LOCATION, false);
-		setPropertyIfSupported(inputFactory, XMLInputFactory2.P_INTERN_NAMES, true);
-		setPropertyIfSupported(inputFactory, XMLInputFactory2.P_INTERN_NS_URIS, true);
-	}
-
-	static void setPropertyIfSupported(XMLInputFactory inputFactory, String propertyName, Object propertyValue) {
-		if (inputFactory.isPropertySupported(propertyName)) {
-			inputFactory.setProperty(propertyName, propertyValue);
+		// No DTD processing, and no location preservation for lower memory usage.
+		// The input factory is not shared, as the maximum attribute size is specific to this filter.
+		this.inputFactory = XMLStreamFactories.newInputFactory(Profile.NO_LOCATION);
+		XMLStreamFactories.setPropertyIfSupported(inputFactory, WstxInputProperties.P_MAX_ATTRIBUTE_SIZE, cparams.getMaxAttributeSize());
+		if (inputFactory instanceof WstxInputFactory) {
+			// The locations are not preserved, so the repeated events can be shared
+			inputFactory.setEventAllocator(new PooledEventAllocator(DefaultEventAllocator.getFastInstance()));
 		}
+		this.outputFactory = XMLStreamFactories.getOutputFactory();
+		this.eventFactory = XMLStreamFactories.getEventFactory();
 	}
 
 	/**
@@ -165,6 +157,10 @@ public class OpenXMLFilter implements IFilter {
 
 		try {
 			nextAction = NextAction.DONE;
+			if ( concurrentParts != null ) {
+				concurrentParts.close();
+				concurrentParts = null;
+			}
 			if ( document != null ) {
 				document.close();
 				document = null;
@@ -431,6 +427,9 @@ public class OpenXMLFilter implements IFilter {
 				createFilterWriter()
 			);
 			nextAction = NextAction.NEXT_IN_DOCUMENT;
+			if ( cparams.getMaxConcurrentParts() > 1 ) {
+				concurrentParts = new ConcurrentParts(document, cparams.getMaxConcurrentParts());
+			}
 
 			return document.open();
 		}
@@ -449,8 +448,8 @@ public class OpenXMLFilter implements IFilter {
 	}
 
 	private Event nextInDocument() throws IOException, XMLStreamException {
-		while (document.hasNextPart()) {
-			subDocument = document.nextPart();
+		while (hasNextPart()) {
+			subDocument = nextPart();
 			nextAction = NextAction.NEXT_IN_SUB_DOCUMENT;
 
 			return subDocument.open();
@@ -462,6 +461,20 @@ public class OpenXMLFilter implements IFilter {
 		return new Event(EventType.END_DOCUMENT, ending);
 	}
 
+	private boolean hasNextPart() {
+		if (concurrentParts != null) {
+			return concurrentParts.hasNextPart();
+		}
+		return document.hasNextPart();
+	}
+
+	private Part nextPart() throws IOException, XMLStreamException {
+		if (concurrentParts != null) {
+			return concurrentParts.nextPart();
+		}
+		return document.nextPart();
+	}
+
 	/**
 	 * Returns the next subdocument event.  If it is a TEXT_UNIT event,
 	 * it invokes the translator to manipulate the text before sending
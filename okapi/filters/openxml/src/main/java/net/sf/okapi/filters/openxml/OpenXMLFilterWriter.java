@@ -23,6 +23,8 @@ import net.sf.okapi.common.IParameters;
 import net.sf.okapi.common.ISkeleton;
 import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.Util;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.encoder.EncoderManager;
 import net.sf.okapi.common.exceptions.OkapiFileNotFoundException;
 import net.sf.okapi.common.exceptions.OkapiIOException;
@@ -113,14 +115,12 @@ public class OpenXMLFilterWriter implements IFilterWriter {
 	private OutputStream outputStream;
 
 	/**
-	 * No-arg constructor in case it's needed.  Create local factory instances.
+	 * No-arg constructor in case it's needed.  Use the shared factory instances.
 	 */
 	public OpenXMLFilterWriter() {
-		this.inputFactory = XMLInputFactory.newInstance();
-		this.outputFactory = XMLOutputFactory.newInstance();
-		this.eventFactory = XMLEventFactory.newInstance();
-
-		OpenXMLFilter.configureInputFactory(inputFactory);
+		this.inputFactory = XMLStreamFactories.getInputFactory(Profile.NO_LOCATION);
+		this.outputFactory = XMLStreamFactories.getOutputFactory();
+		this.eventFactory = XMLStreamFactories.getEventFactory();
 	}
 
 	OpenXMLFilterWriter(ConditionalParameters cparams, XMLInputFactory inputFactory,
@@ -0,0 +1,153 @@
+/*
+ * =============================================================================
+ *   Copyright (C) 2009-2021 by the Okapi Framework contributors
+ * -----------------------------------------------------------------------------
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * =============================================================================
+ */
+package net.sf.okapi.filters.openxml;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.Characters;
+import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.util.XMLEventAllocator;
+import javax.xml.stream.util.XMLEventConsumer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An event allocator that re-uses the events which carry nothing but a name or
+ * some whitespace, instead of allocating them again for every occurrence.
+ *
+ * <p>The events are immutable, so the same instance can be returned several times by
+ * the same reader. In a document part, most of the end elements, of the start elements
+ * without attributes (runs, run properties, etc.) and of the whitespace between the
+ * elements are repeated over and over, and are then allocated once per reader.
+ *
+ * <p>The pooled events keep the location of their first occurrence, so this allocator
+ * must only be used when the locations are not preserved. A new instance, with its own
+ * pools, is obtained by each reader through {@link #newInstance()}, so the readers can
+ * be used on different threads.
+ */
+final class PooledEventAllocator implements XMLEventAllocator {
+    private static final int MAX_NAMES = 1024;
+    private static final int MAX_WHITESPACES = 64;
+
+    private final XMLEventAllocator delegate;
+    private final Map<String, Map<String, XMLEvent>> startElements;
+    private final Map<String, Map<String, XMLEvent>> endElements;
+    private final List<Characters> whitespaces;
+    private int names;
+
+    PooledEventAllocator(final XMLEventAllocator delegate) {
+        this.delegate = delegate;
+        this.startElements = new HashMap<>();
+        this.endElements = new HashMap<>();
+        this.whitespaces = new ArrayList<>();
+    }
+
+    @Override
+    public XMLEventAllocator newInstance() {
+        return new PooledEventAllocator(this.delegate.newInstance());
+    }
+
+    @Override
+    public XMLEvent allocate(final XMLStreamReader reader) throws XMLStreamException {
+        switch (reader.getEventType()) {
+            case XMLStreamConstants.START_ELEMENT:
+                if (0 == reader.getAttributeCount() && 0 == reader.getNamespaceCount()) {
+                    return pooledElement(this.startElements, reader);
+                }
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                // The namespaces going out of scope are a part of the event
+                if (0 == reader.getNamespaceCount()) {
+                    return pooledElement(this.endElements, reader);
+                }
+                break;
+            case XMLStreamConstants.CHARACTERS:
+                if (reader.isWhiteSpace()) {
+                    return pooledWhitespace(reader);
+                }
+                break;
+            default:
+                break;
+        }
+        return this.delegate.allocate(reader);
+    }
+
+    @Override
+    public void allocate(final XMLStreamReader reader, final XMLEventConsumer consumer) throws XMLStreamException {
+        consumer.add(allocate(reader));
+    }
+
+    private XMLEvent pooledElement(final Map<String, Map<String, XMLEvent>> pool, final XMLStreamReader reader) throws XMLStreamException {
+        final String prefix = null == reader.getPrefix() ? "" : reader.getPrefix();
+        final String namespaceUri = null == reader.getNamespaceURI() ? "" : reader.getNamespaceURI();
+        Map<String, XMLEvent> byPrefix = pool.get(reader.getLocalName());
+        if (null == byPrefix) {
+            if (this.names >= MAX_NAMES) {
+                return this.delegate.allocate(reader);
+            }
+            this.names++;
+            byPrefix = new HashMap<>(4);
+            pool.put(reader.getLocalName(), byPrefix);
+        }
+        XMLEvent event = byPrefix.get(prefix);
+        if (null == event || !namespaceUri.equals(nameOf(event).getNamespaceURI())) {
+            // The same prefix can be bound to another namespace in some scopes
+            event = this.delegate.allocate(reader);
+            byPrefix.put(prefix, event);
+        }
+        return event;
+    }
+
+    private static QName nameOf(final XMLEvent event) {
+        return event.isStartElement()
+            ? event.asStartElement().getName()
+            : event.asEndElement().getName();
+    }
+
+    private XMLEvent pooledWhitespace(final XMLStreamReader reader) throws XMLStreamException {
+        final char[] text = reader.getTextCharacters();
+        final int start = reader.getTextStart();
+        final int length = reader.getTextLength();
+        for (int i = 0; i < this.whitespaces.size(); i++) {
+            if (regionEquals(this.whitespaces.get(i).getData(), text, start, length)) {
+                return this.whitespaces.get(i);
+            }
+        }
+        final XMLEvent event = this.delegate.allocate(reader);
+        if (this.whitespaces.size() < MAX_WHITESPACES && event.isCharacters()) {
+            this.whitespaces.add(event.asCharacters());
+        }
+        return event;
+    }
+
+    private static boolean regionEquals(final String data, final char[] text, final int start, final int length) {
+        if (data.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (data.charAt(i) != text[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -431,6 +431,13 @@ class PowerpointDocument implements Document {
 	public void updatePostponedTranslatables(final String key, final String value) {
 	}
 
+	@Override
+	public boolean isConcurrentlyOpenable(final Part part) {
+		// Slides, notes, etc. only read the fragments gathered when the document is opened
+		// and their style definitions are never updated
+		return part instanceof StyledTextPart || part instanceof NonModifiablePart;
+	}
+
 	@Override
 	public boolean hasNextPart() {
 		return this.entries.hasMoreElements();
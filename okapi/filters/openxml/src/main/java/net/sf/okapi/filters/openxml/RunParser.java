@@ -40,6 +40,7 @@ import java.util.List;
 import static net.sf.okapi.filters.openxml.StartElementContextFactory.createStartElementContext;
 import static net.sf.okapi.filters.openxml.XMLEventHelpers.LOCAL_REGULAR_HYPHEN_VALUE;
 import static net.sf.okapi.filters.openxml.XMLEventHelpers.hasPreserveWhitespace;
+import static net.sf.okapi.filters.openxml.XMLEventHelpers.isBlank;
 import static net.sf.okapi.filters.openxml.XMLEventHelpers.isEndElement;
 import static net.sf.okapi.filters.openxml.XMLEventHelpers.isGraphicsProperty;
 import static net.sf.okapi.filters.openxml.XMLEventHelpers.isLineBreakStartEvent;
@@ -623,7 +624,7 @@ class RunParser implements Parser<RunBuilder> {
                 return;
             } else if (e.isCharacters()) {
                 String text = e.asCharacters().getData();
-                if (text.trim().length() > 0) {
+                if (!isBlank(text)) {
                     runBuilder.setNonWhitespaceText(true);
                 }
                 runBuilder.addText(text, startEvent);
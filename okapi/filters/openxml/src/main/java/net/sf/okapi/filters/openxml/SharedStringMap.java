@@ -16,12 +16,24 @@
 
 package net.sf.okapi.filters.openxml;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
 
+/**
+ * Map of the shared strings, in the order of the cells that use them.
+ * <p>Workbooks can have hundreds of thousands of shared strings, so the entries
+ * are stored in arrays indexed by their new index rather than as objects.
+ */
 public class SharedStringMap {
-	private ArrayList<Entry> entries = new ArrayList<>();
+	private static final int INITIAL_CAPACITY = 64;
+
+	private int[] originalIndexes = new int[INITIAL_CAPACITY];
+	private String[] cells = new String[INITIAL_CAPACITY];
+	private String[] worksheets = new String[INITIAL_CAPACITY];
+	private final BitSet excluded = new BitSet();
 	private int nextIndex = 0;
 
 	public static class Entry {
@@ -77,32 +89,62 @@ public class SharedStringMap {
 	}
 
 	public Entry createEntryForString(int origIndex, boolean excluded) {
-		Entry e = new Entry(origIndex, nextIndex++, excluded, null, null);
-		entries.ensureCapacity(nextIndex);
-		entries.add(e.newIndex, e);
-		return e;
+		return createEntryForString(origIndex, excluded, null, null);
 	}
 
 	public Entry createEntryForString(int origIndex, boolean excluded, String cell, String worksheet) {
-		Entry e = new Entry(origIndex, nextIndex++, excluded, cell, worksheet);
-		entries.ensureCapacity(nextIndex);
-		entries.add(e.newIndex, e);
-		return e;
+		if (nextIndex == originalIndexes.length) {
+			int capacity = nextIndex * 2;
+			originalIndexes = Arrays.copyOf(originalIndexes, capacity);
+			cells = Arrays.copyOf(cells, capacity);
+			worksheets = Arrays.copyOf(worksheets, capacity);
+		}
+		originalIndexes[nextIndex] = origIndex;
+		cells[nextIndex] = cell;
+		worksheets[nextIndex] = worksheet;
+		this.excluded.set(nextIndex, excluded);
+		return new Entry(origIndex, nextIndex++, excluded, cell, worksheet);
 	}
 
+	/**
+	 * Gets a view of the entries. The entries are created on each call to get().
+	 * @return the list of the entries, in the order of their new index.
+	 */
 	public List<Entry> getEntries() {
-		return entries;
+		return new AbstractList<Entry>() {
+			@Override
+			public Entry get(int index) {
+				if (index < 0 || index >= nextIndex) {
+					throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + nextIndex);
+				}
+				return new Entry(originalIndexes[index], index, excluded.get(index),
+					cells[index], worksheets[index]);
+			}
+
+			@Override
+			public int size() {
+				return nextIndex;
+			}
+		};
+	}
+
+	public int size() {
+		return nextIndex;
+	}
+
+	public int getOriginalIndex(int index) {
+		return originalIndexes[index];
 	}
 
 	public boolean isStringVisible(int index) {
-		return !entries.get(index).excluded;
+		return !excluded.get(index);
 	}
 
 	public String getStringCell(int index) {
-		return entries.get(index).getCell();
+		return cells[index];
 	}
 
 	public String getStringWorksheet(int index) {
-		return entries.get(index).getWorksheet();
+		return worksheets[index];
 	}
 }
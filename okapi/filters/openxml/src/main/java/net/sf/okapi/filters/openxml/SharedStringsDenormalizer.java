@@ -17,9 +17,13 @@
 package net.sf.okapi.filters.openxml;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventFactory;
@@ -55,11 +59,25 @@ class SharedStringsDenormalizer {
 	}
 
 	void process(XMLEventReader reader, XMLEventWriter writer) throws XMLStreamException {
-		readTable(reader);
-		writeTable(writer);
+		for (XMLEvent event : denormalize(reader)) {
+			writer.add(event);
+		}
 		writer.close();
 	}
 
+	/**
+	 * Reads the shared strings table and provides the events of the rewritten table.
+	 * The events of the entries are not copied: an entry used several times provides
+	 * the same events each time.
+	 * @param reader the reader of the original table.
+	 * @return the events of the rewritten table.
+	 * @throws XMLStreamException if the table cannot be read.
+	 */
+	Iterable<XMLEvent> denormalize(XMLEventReader reader) throws XMLStreamException {
+		readTable(reader);
+		return DenormalizedEvents::new;
+	}
+
 	private void readTable(XMLEventReader reader) throws XMLStreamException {
 		SharedString currentSSI = null;
 		int currentIndex = 0;
@@ -104,30 +122,61 @@ class SharedStringsDenormalizer {
 		);
 	}
 
-	private void writeTable(XMLEventWriter writer) throws XMLStreamException {
-		writer.add(factory.createStartDocument(StandardCharsets.UTF_8.name(), "1.0", true));
-		// Write the start element, with updated count / uniqueCount attributes.
+	private StartElement tableStartElement() {
+		// The start element, with updated count / uniqueCount attributes.
 		List<Attribute> attrs = new ArrayList<>();
-		List<SharedStringMap.Entry> entries = sharedStringMap.getEntries();
-		String count = String.valueOf(entries.size());
+		String count = String.valueOf(sharedStringMap.size());
 		attrs.add(factory.createAttribute(COUNT_ATTR, count));
 		attrs.add(factory.createAttribute(UNIQUE_ATTR, count));
-		StartElement sstStart = factory.createStartElement(this.table, attrs.iterator(),
+		return factory.createStartElement(this.table, attrs.iterator(),
 				Collections.singleton(factory.createNamespace(this.table.getNamespaceURI())).iterator());
-		writer.add(sstStart);
+	}
+
+	/**
+	 * Iterates over the events of the rewritten table: the entries are provided
+	 * in the new order.
+	 */
+	private class DenormalizedEvents implements Iterator<XMLEvent> {
+		private final Deque<XMLEvent> head = new ArrayDeque<>();
+		private Iterator<XMLEvent> entryEvents = Collections.emptyIterator();
+		private int newIndex;
+		private boolean tailProvided;
+
+		DenormalizedEvents() {
+			head.add(factory.createStartDocument(StandardCharsets.UTF_8.name(), "1.0", true));
+			head.add(tableStartElement());
+		}
 
-		// Write the entries, using the new order
-		int newIndex = 0;
-		for (SharedStringMap.Entry e : entries) {
-			if (newIndex++ != e.getNewIndex()) {
-				throw new IllegalStateException("Index mismatch: expected " + e.getNewIndex() + " found " + newIndex);
+		@Override
+		public boolean hasNext() {
+			if (!head.isEmpty() || entryEvents.hasNext()) {
+				return true;
 			}
-			stringData.get(e.getOriginalIndex()).writeEvents(writer);
+			while (newIndex < sharedStringMap.size()) {
+				entryEvents = stringData.get(sharedStringMap.getOriginalIndex(newIndex++)).events.iterator();
+				if (entryEvents.hasNext()) {
+					return true;
+				}
+			}
+			if (!tailProvided) {
+				tailProvided = true;
+				head.add(factory.createEndElement(table, null));
+				head.add(factory.createEndDocument());
+				return true;
+			}
+			return false;
 		}
 
-		// Write the tail element
-		writer.add(factory.createEndElement(this.table, null));
-		writer.add(factory.createEndDocument());
+		@Override
+		public XMLEvent next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			if (!head.isEmpty()) {
+				return head.poll();
+			}
+			return entryEvents.next();
+		}
 	}
 
 	static class SharedString {
@@ -139,11 +188,6 @@ class SharedStringsDenormalizer {
 		void addEvent(XMLEvent e) {
 			events.add(e);
 		}
-		void writeEvents(XMLEventWriter writer) throws XMLStreamException {
-			for (XMLEvent e : events) {
-				writer.add(e);
-			}
-		}
 		public int getOriginalIndex() {
 			return originalIndex;
 		}
@@ -26,18 +26,10 @@ import net.sf.okapi.common.resource.ITextUnit;
 import net.sf.okapi.common.resource.RawDocument;
 
 import javax.xml.stream.XMLEventReader;
-import javax.xml.stream.XMLEventWriter;
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.XMLEvent;
-import java.io.BufferedInputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.zip.ZipEntry;
@@ -76,26 +68,19 @@ class SharedStringsPart extends StyledTextPart {
         this.subDocumentId = this.generalDocument.nextSubDocumentId();
         this.sourceLocale = this.generalDocument.sourceLocale();
 
+        // The rewritten table is parsed straight from the denormalized events
         SharedStringsDenormalizer deno = new SharedStringsDenormalizer(generalDocument.eventFactory(), sharedStringMap);
         XMLEventReader reader = generalDocument.inputFactory().createXMLEventReader(
                 new InputStreamReader(generalDocument.inputStreamFor(entry), StandardCharsets.UTF_8));
-        final File rewrittenStringsTable = File.createTempFile("sharedStrings", ".xml");
-        XMLEventWriter writer = generalDocument.outputFactory().createXMLEventWriter(
-                new OutputStreamWriter(new FileOutputStream(rewrittenStringsTable), StandardCharsets.UTF_8));
-        deno.process(reader, writer);
-
-        InputStream is = new BufferedInputStream(new FileInputStream(rewrittenStringsTable));
-
-        final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        OpenXMLFilter.configureInputFactory(inputFactory);
-        this.eventReader = inputFactory.createXMLEventReader(is);
+        try {
+            this.eventReader = new XMLEventsReader(deno.denormalize(reader));
+        } finally {
+            reader.close();
+        }
         try {
             process();
         } finally {
-            if (eventReader != null) {
-                eventReader.close();
-            }
-            rewrittenStringsTable.delete();
+            eventReader.close();
         }
         return createStartSubDocumentEvent(documentId, subDocumentId);
     }
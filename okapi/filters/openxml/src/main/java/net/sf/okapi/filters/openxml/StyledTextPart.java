@@ -109,9 +109,9 @@ class StyledTextPart extends TranslatablePart {
      */
 	@Override
 	public Event open() throws IOException, XMLStreamException {
-		this.documentId = this.generalDocument.documentId();
-		this.subDocumentId = this.generalDocument.nextSubDocumentId();
-		this.sourceLocale = this.generalDocument.sourceLocale();
+		if (null == this.subDocumentId) {
+			reserveSubDocumentId();
+		}
 
 		/*
 		 * Process the XML event stream, simplifying as we go.  Non-block content is
@@ -127,6 +127,16 @@ class StyledTextPart extends TranslatablePart {
 		return open(documentId, subDocumentId, defaultEventReader);
 	}
 
+	/**
+	 * Takes the next sub-document identifier from the document. This is done before
+	 * the part is opened on another thread, so the identifiers follow the order of the parts.
+	 */
+	void reserveSubDocumentId() {
+		this.documentId = this.generalDocument.documentId();
+		this.subDocumentId = this.generalDocument.nextSubDocumentId();
+		this.sourceLocale = this.generalDocument.sourceLocale();
+	}
+
 	// Package-private for test.  XXX This is an artifact of the overall PartHandler
 	// interface needing work.
 	Event open(String documentId, String subDocumentId, XMLEventReader defaultEventReader) throws IOException, XMLStreamException {
@@ -98,6 +98,12 @@ class VisioDocument implements Document {
     public void updatePostponedTranslatables(final String key, final String value) {
     }
 
+    @Override
+    public boolean isConcurrentlyOpenable(final Part part) {
+        // Not supported yet
+        return false;
+    }
+
     @Override
     public boolean hasNextPart() {
         return this.entries.hasMoreElements();
@@ -152,6 +152,12 @@ class WordDocument implements Document {
 	public void updatePostponedTranslatables(final String key, final String value) {
 	}
 
+	@Override
+	public boolean isConcurrentlyOpenable(final Part part) {
+		// The styled text parts share and update the style definitions
+		return false;
+	}
+
 	@Override
 	public boolean hasNextPart() {
 		return this.entries.hasMoreElements() || !this.postponedParts.isEmpty();
@@ -297,7 +297,19 @@ class XMLEventHelpers {
 	}
 
 	static boolean isWhitespace(XMLEvent e) {
-		return (e.isCharacters() && e.asCharacters().getData().trim().isEmpty());
+		return (e.isCharacters() && isBlank(e.asCharacters().getData()));
+	}
+
+	/**
+	 * Checks if a string would be empty once trimmed, without creating the trimmed string.
+	 */
+	static boolean isBlank(String s) {
+		for (int i = 0; i < s.length(); i++) {
+			if (s.charAt(i) > ' ') {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	static String getAttributeValue(StartElement el, QName name) {
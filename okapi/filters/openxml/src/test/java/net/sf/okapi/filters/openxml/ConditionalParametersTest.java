@@ -59,6 +59,7 @@ public class ConditionalParametersTest {
             "bInExcludeHighlightMode.b=true\n" +
             "bPreferenceTranslateWordExcludeColors.b=false\n" +
             "bReorderPowerpointNotesAndComments.b=false\n" +
+            "maxConcurrentParts.i=1\n" +
             "tsComplexFieldDefinitionsToExtract.i=1\n" +
             "cfd0=HYPERLINK\n" +
             "tsExcelExcludedColors.i=0\n" +
@@ -110,6 +111,7 @@ public class ConditionalParametersTest {
             "bInExcludeHighlightMode.b=true\n" +
             "bPreferenceTranslateWordExcludeColors.b=false\n" +
             "bReorderPowerpointNotesAndComments.b=false\n" +
+            "maxConcurrentParts.i=1\n" +
             "tsComplexFieldDefinitionsToExtract.i=1\n" +
             "cfd0=HYPERLINK\n" +
             "tsExcelExcludedColors.i=0\n" +
@@ -20,6 +20,7 @@ import static net.sf.okapi.filters.openxml.CodePeekTranslator.locENUS;
 import static net.sf.okapi.filters.openxml.OpenXMLTestHelpers.textUnitSourceExtractor;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
@@ -551,6 +552,33 @@ public class OpenXmlPptxTest{
 		);
 	}
 
+	@Test
+	public void concurrentPartsGiveTheSameEvents() {
+		for (String name : new String[] {"/958-4.pptx", "/sampleMore.pptx", "/736.pptx"}) {
+			final List<Event> expected = getEvents(root.in(name).asUri(), 1);
+			final List<Event> actual = getEvents(root.in(name).asUri(), 4);
+			assertThat(actual).hasSameSizeAs(expected);
+			for (int i = 0; i < expected.size(); i++) {
+				assertThat(actual.get(i).getEventType()).isEqualTo(expected.get(i).getEventType());
+				if (null != expected.get(i).getResource()) {
+					assertThat(actual.get(i).getResource().getId()).isEqualTo(expected.get(i).getResource().getId());
+				}
+				if (expected.get(i).isTextUnit()) {
+					assertThat(actual.get(i).getTextUnit().getSource().toString())
+						.isEqualTo(expected.get(i).getTextUnit().getSource().toString());
+				}
+			}
+		}
+	}
+
+	private List<Event> getEvents(URI uri, int maxConcurrentParts) {
+		final ConditionalParameters params = new ConditionalParameters();
+		params.setMaxConcurrentParts(maxConcurrentParts);
+		final OpenXMLFilter filter = new OpenXMLFilter();
+		filter.setParameters(params);
+		return getEvents(filter, new RawDocument(uri, "UTF-8", locENUS));
+	}
+
 	private ArrayList<Event> getEvents(OpenXMLFilter filter, RawDocument doc) {
 		ArrayList<Event> list = new ArrayList<>();
 		filter.open(doc, false);
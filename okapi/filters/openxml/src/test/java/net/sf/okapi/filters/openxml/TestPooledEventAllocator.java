@@ -0,0 +1,91 @@
+package net.sf.okapi.filters.openxml;
+
+import com.ctc.wstx.evt.DefaultEventAllocator;
+import com.ctc.wstx.stax.WstxInputFactory;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(JUnit4.class)
+public class TestPooledEventAllocator {
+	private static final String XML = "<w:document xmlns:w=\"urn:w\" xmlns:x=\"urn:x\">\n"
+		+ "  <w:p>\n"
+		+ "    <w:r><w:rPr><w:b/></w:rPr><w:t xml:space=\"preserve\">One </w:t></w:r>\n"
+		+ "    <w:r><w:rPr><w:b/></w:rPr><w:t>two</w:t></w:r>\n"
+		+ "  </w:p>\n"
+		+ "  <w:p xmlns:w=\"urn:other\">\n"
+		+ "    <w:r><w:t>three</w:t></w:r>\n"
+		+ "  </w:p>\n"
+		+ "</w:document>";
+
+	@Test
+	public void producesTheSameEvents() throws XMLStreamException {
+		List<XMLEvent> expected = readEvents(newInputFactory(false));
+		List<XMLEvent> actual = readEvents(newInputFactory(true));
+		assertEquals(XMLEventSerializer.serialize(expected), XMLEventSerializer.serialize(actual));
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getEventType(), actual.get(i).getEventType());
+			assertEquals(XMLEventSerializer.serialize(expected.get(i)), XMLEventSerializer.serialize(actual.get(i)));
+		}
+	}
+
+	@Test
+	public void reusesNamesAndWhitespace() throws XMLStreamException {
+		List<XMLEvent> events = readEvents(newInputFactory(true));
+		// The run start elements and the indentation before them
+		int firstRun = indexOfStartElement(events, "r", 0);
+		int secondRun = indexOfStartElement(events, "r", 1);
+		int thirdRun = indexOfStartElement(events, "r", 2);
+		assertSame(events.get(firstRun), events.get(secondRun));
+		assertSame(events.get(firstRun - 1), events.get(secondRun - 1));
+		// The prefix is bound to another namespace there
+		assertNotSame(events.get(firstRun), events.get(thirdRun));
+		assertEquals("urn:other", events.get(thirdRun).asStartElement().getName().getNamespaceURI());
+		// Start elements with attributes are never shared
+		assertNotSame(events.get(indexOfStartElement(events, "t", 0)), events.get(indexOfStartElement(events, "t", 1)));
+	}
+
+	private static XMLInputFactory newInputFactory(boolean pooled) {
+		XMLInputFactory inputFactory = new WstxInputFactory();
+		inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		if (pooled) {
+			inputFactory.setEventAllocator(new PooledEventAllocator(DefaultEventAllocator.getFastInstance()));
+		}
+		return inputFactory;
+	}
+
+	private static List<XMLEvent> readEvents(XMLInputFactory inputFactory) throws XMLStreamException {
+		List<XMLEvent> events = new ArrayList<>();
+		XMLEventReader reader = inputFactory.createXMLEventReader(new StringReader(XML));
+		while (reader.hasNext()) {
+			events.add(reader.nextEvent());
+		}
+		reader.close();
+		return events;
+	}
+
+	private static int indexOfStartElement(List<XMLEvent> events, String localName, int occurrence) {
+		int count = 0;
+		for (int i = 0; i < events.size(); i++) {
+			XMLEvent event = events.get(i);
+			if (event.isStartElement() && localName.equals(event.asStartElement().getName().getLocalPart())) {
+				if (count++ == occurrence) {
+					return i;
+				}
+			}
+		}
+		throw new AssertionError("No occurrence " + occurrence + " of " + localName);
+	}
+}
@@ -26,4 +26,19 @@ public class TestSharedStringMap {
 		expected.add(new SharedStringMap.Entry(2, 3, true));
 		assertEquals(expected, ssm.getEntries());
 	}
+
+	@Test
+	public void testGrowth() {
+		SharedStringMap ssm = new SharedStringMap();
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, ssm.createEntryForString(999 - i, i % 3 == 0, "A" + i, "Sheet1").getNewIndex());
+		}
+		assertEquals(1000, ssm.size());
+		assertEquals(1000, ssm.getEntries().size());
+		assertEquals(0, ssm.getOriginalIndex(999));
+		assertFalse(ssm.isStringVisible(999));
+		assertTrue(ssm.isStringVisible(998));
+		assertEquals("A500", ssm.getStringCell(500));
+		assertEquals("Sheet1", ssm.getStringWorksheet(500));
+	}
 }
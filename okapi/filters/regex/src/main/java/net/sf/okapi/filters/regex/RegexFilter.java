@@ -68,6 +68,9 @@ public class RegexFilter implements IFilter {
 	private Parameters params;
 	private String encoding;
 	private String inputText;
+	private Matcher[] matchers;
+	private MatchResult[] nextMatches;
+	private boolean[] noMoreMatch;
 	private Stack<StartGroup> groupStack;
 	private int tuId;
 	private IdGenerator otherId;
@@ -96,6 +99,9 @@ public class RegexFilter implements IFilter {
 			input.close();
 		}
 		inputText = null;
+		matchers = null;
+		nextMatches = null;
+		noMoreMatch = null;
 		parseState = 0;
 	}
 
@@ -179,45 +185,23 @@ public class RegexFilter implements IFilter {
 
 		// Get the first best match among the rules
 		// trying to match expression
-		Rule bestRule;
-		int maxPos = inputText.length() + 99;
-		int bestPosition = maxPos;
-		MatchResult result = null;
-		
 		while ( true ) {
-			bestRule = null;
-			for ( Rule rule : params.getRules() ) {
-				Matcher m = rule.pattern.matcher(inputText);
-				if ( m.find(startSearch) ) {
-					if ( m.start() < bestPosition ) {
-						bestPosition = m.start();
-						bestRule = rule;
-					}
+			int best = findNextMatch();
+			if ( best == -1 ) break; // Done
+			MatchResult result = nextMatches[best];
+			// Check for empty content
+			if ( result.start() == result.end() ) {
+				startSearch = result.end() + 1;
+				if ( startSearch >= inputText.length() ) {
+					startSearch--;
+					break;
 				}
+				continue;
 			}
-			
-			if ( bestRule != null ) {
-				// Get the matching result
-				Matcher m = bestRule.pattern.matcher(inputText);
-				if ( m.find(bestPosition) ) {
-					result = m.toMatchResult();
-				}
-				// Check for empty content
-				if ( result.start() == result.end() ) {
-						startSearch = result.end() + 1;
-						bestPosition = maxPos;
-						if (startSearch >= inputText.length()) {
-							startSearch--;
-							break;						
-						}
-						continue;						
-				}
-				// Check for boundary to avoid infinite loop
-				else if ( result.start() != inputText.length() ) {
-					// Process the match we just found
-					return processMatch(bestRule, result);
-				}
-				else break; // Done
+			// Check for boundary to avoid infinite loop
+			else if ( result.start() != inputText.length() ) {
+				// Process the match we just found
+				return processMatch(params.getRules().get(best), result);
 			}
 			else break; // Done
 		}
@@ -240,6 +224,37 @@ public class RegexFilter implements IFilter {
 		return nextEvent();
 	}
 	
+	/**
+	 * Finds the rule with the first match at or after the current search position.
+	 * <p>Each rule keeps the result of its last search: since that match is the first one
+	 * at or after the position where the search was done, it is still valid as long as it
+	 * does not start before the current search position. So only the rules that fall behind
+	 * are searched again, and each rule scans the input roughly once.
+	 * @return the index of the rule (the first one if several rules match at the same
+	 * position), or -1 if no rule matches anymore.
+	 */
+	private int findNextMatch () {
+		int best = -1;
+		int bestPosition = Integer.MAX_VALUE;
+		for ( int i=0; i<matchers.length; i++ ) {
+			MatchResult mr = nextMatches[i];
+			if (( mr == null ) || ( mr.start() < startSearch )) {
+				if ( noMoreMatch[i] ) continue;
+				if ( !matchers[i].find(startSearch) ) {
+					noMoreMatch[i] = true;
+					continue;
+				}
+				mr = matchers[i].toMatchResult();
+				nextMatches[i] = mr;
+			}
+			if ( mr.start() < bestPosition ) {
+				bestPosition = mr.start();
+				best = i;
+			}
+		}
+		return best;
+	}
+
 	private void closeGroups () {
 		if ( groupStack.size() > 0 ) {
 			Ending ending = new Ending(otherId.createId());
@@ -292,13 +307,17 @@ public class RegexFilter implements IFilter {
 			docName = input.getInputURI().getPath();
 		}
 		
-		//TODO: Optimize this with a better 'readToEnd()'
+		// Read the input, converting the line-breaks to '\n' as we go
 		StringBuilder tmp = new StringBuilder();
-		char[] buf = new char[2048];
+		char[] buf = new char[8192];
 		int count = 0;
+		boolean pendingCR = false;
 		try {
 			while (( count = reader.read(buf)) != -1 ) {
-				tmp.append(buf, 0, count);
+				pendingCR = appendNormalized(tmp, buf, count, pendingCR);
+			}
+			if ( pendingCR ) {
+				tmp.append('\r');
 			}
 		}
 		catch ( IOException e ) {
@@ -316,7 +335,10 @@ public class RegexFilter implements IFilter {
 		}
 		
 		// Set the input string
-		inputText = tmp.toString().replace(lineBreak, "\n");
+		inputText = tmp.toString();
+		if ( !"\n".equals(lineBreak) && !"\r".equals(lineBreak) && !"\r\n".equals(lineBreak) ) {
+			inputText = inputText.replace(lineBreak, "\n");
+		}
 
 		parseState = 1;
 		canceled = false;
@@ -328,6 +350,13 @@ public class RegexFilter implements IFilter {
 
 		// Prepare the filter rules
 		params.compileRules();
+		List<Rule> rules = params.getRules();
+		matchers = new Matcher[rules.size()];
+		for ( int i=0; i<matchers.length; i++ ) {
+			matchers[i] = rules.get(i).pattern.matcher(inputText);
+		}
+		nextMatches = new MatchResult[matchers.length];
+		noMoreMatch = new boolean[matchers.length];
 
 		// Set the start event
 		queue = new LinkedList<>();
@@ -345,6 +374,57 @@ public class RegexFilter implements IFilter {
 		queue.add(new Event(EventType.START_DOCUMENT, startDoc));
 	}
 	
+	/**
+	 * Appends a buffer of characters to the input text, replacing the line-breaks of the document
+	 * by '\n'. This is equivalent to calling replace(lineBreak, "\n") on the whole text,
+	 * without making a second copy of it.
+	 * @param text the text where to append.
+	 * @param buf the characters to append.
+	 * @param count the number of characters to append.
+	 * @param pendingCR true if the previous buffer ended with a '\r' not yet appended
+	 * (only for "\r\n" line-breaks).
+	 * @return true if this buffer ends with a '\r' not yet appended.
+	 */
+	private boolean appendNormalized (StringBuilder text,
+		char[] buf,
+		int count,
+		boolean pendingCR)
+	{
+		switch ( lineBreak ) {
+		case "\n":
+			text.append(buf, 0, count);
+			return false;
+		case "\r":
+			for ( int i=0; i<count; i++ ) {
+				text.append(buf[i] == '\r' ? '\n' : buf[i]);
+			}
+			return false;
+		case "\r\n":
+			for ( int i=0; i<count; i++ ) {
+				char ch = buf[i];
+				if ( pendingCR ) {
+					pendingCR = false;
+					if ( ch == '\n' ) {
+						text.append('\n');
+						continue;
+					}
+					text.append('\r');
+				}
+				if ( ch == '\r' ) {
+					pendingCR = true;
+				}
+				else {
+					text.append(ch);
+				}
+			}
+			return pendingCR;
+		default:
+			// Unusual line-break: fall back to a plain replacement at the end
+			text.append(buf, 0, count);
+			return false;
+		}
+	}
+
 	private Event processMatch (Rule rule,
 		MatchResult result)
 	{
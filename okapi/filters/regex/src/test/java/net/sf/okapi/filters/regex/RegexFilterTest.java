@@ -310,6 +310,40 @@ public class RegexFilterTest {
 		assertEquals("b", tu.getSource().toString());
 	}
 
+	@Test
+	public void testSeveralInterleavedRules () {
+		String snippet = "# c1\r\nk1=v1\r\nid:s1\r\nk2=v2\r\n# c2\r\nid:s2\r\nk3=v3\r\n";
+		Parameters params = new Parameters();
+		Rule rule = new Rule();
+		rule.setRuleType(Rule.RULETYPE_COMMENT);
+		rule.setExpression("^#(.*?)$");
+		rule.setSourceGroup(1);
+		params.getRules().add(rule);
+		rule = new Rule();
+		rule.setRuleType(Rule.RULETYPE_CONTENT);
+		rule.setExpression("^k\\d=(.*?)$");
+		rule.setSourceGroup(1);
+		params.getRules().add(rule);
+		rule = new Rule();
+		rule.setRuleType(Rule.RULETYPE_CONTENT);
+		rule.setExpression("^id:(.*?)$");
+		rule.setSourceGroup(1);
+		params.getRules().add(rule);
+		filter.setParameters(params);
+		// Process
+		ArrayList<Event> list = getEvents(snippet);
+		String[] expected = {"v1", "s1", "v2", "s2", "v3"};
+		for ( int i=0; i<expected.length; i++ ) {
+			ITextUnit tu = FilterTestDriver.getTextUnit(list, i+1);
+			assertNotNull(tu);
+			assertEquals(expected[i], tu.getSource().toString());
+		}
+		assertNull(FilterTestDriver.getTextUnit(list, expected.length+1));
+		// The line-breaks are restored in the output
+		assertEquals(snippet, FilterTestDriver.generateOutput(list,
+			filter.getEncoderManager(), locEN));
+	}
+
 	private ArrayList<Event> getEvents(String snippet) {
 		return FilterTestDriver.getEvents(filter, snippet,  locEN);
 	}
@@ -62,6 +62,7 @@ public class CommaSeparatedValuesFilter extends BaseTableFilter {
 	private boolean lineFlushed = false;
 	private int qualifierLen;
 	private Pattern escapedQualifierPattern;
+	private String escapedQualifier; // The sequence the pattern needs to match
 
 	public CommaSeparatedValuesFilter() {
 
@@ -88,15 +89,19 @@ public class CommaSeparatedValuesFilter extends BaseTableFilter {
 		params = getParameters(Parameters.class); // Throws OkapiBadFilterParametersException
 		qualifierLen = Util.getLength(params.textQualifier);
 
+		escapedQualifierPattern = null;
+		escapedQualifier = null;
 		switch (params.escapingMode) {
 		case Parameters.ESCAPING_MODE_DUPLICATION:
 			escapedQualifierPattern = Pattern
 					.compile(String.format("((%s%s)+)[^%s]|[^%s]((%s%s)+)", params.textQualifier, params.textQualifier,
 							params.textQualifier, params.textQualifier, params.textQualifier, params.textQualifier));
+			escapedQualifier = params.textQualifier + params.textQualifier;
 			break;
 
 		case Parameters.ESCAPING_MODE_BACKSLASH:
 			escapedQualifierPattern = Pattern.compile(String.format("(\\\\%s)", params.textQualifier));
+			escapedQualifier = "\\" + params.textQualifier;
 			break;
 		}
 
@@ -172,8 +177,11 @@ public class CommaSeparatedValuesFilter extends BaseTableFilter {
 				}
 			} else {
 				// Replace escaped qualifiers (duplicated qualifier) with
-				trimmedChunk = RegexUtil.replaceAll(trimmedChunk, escapedQualifierPattern, 1, ESCAPED_QUALIFIER);
-				trimmedChunk = RegexUtil.replaceAll(trimmedChunk, escapedQualifierPattern, 3, ESCAPED_QUALIFIER);
+				// The patterns cannot match if there is no escaped qualifier at all, which is the common case
+				if (escapedQualifier != null && trimmedChunk.contains(escapedQualifier)) {
+					trimmedChunk = RegexUtil.replaceAll(trimmedChunk, escapedQualifierPattern, 1, ESCAPED_QUALIFIER);
+					trimmedChunk = RegexUtil.replaceAll(trimmedChunk, escapedQualifierPattern, 3, ESCAPED_QUALIFIER);
+				}
 				numLeadingQ = trimmedChunk.startsWith(params.textQualifier) ? 1 : 0;
 				numTrailingQ = trimmedChunk.endsWith(params.textQualifier) ? 1 : 0;
 			}
@@ -230,9 +238,9 @@ public class CommaSeparatedValuesFilter extends BaseTableFilter {
 		TextFragment src = textUnit.getSource().getFirstContent();
 		String cell = src.getCodedText();
 
-		List<String> list = ListUtil.stringAsList(cell, LINE_WRAP_TAG);
+		List<String> list = cell.contains(LINE_WRAP_TAG) ? ListUtil.stringAsList(cell, LINE_WRAP_TAG) : null;
 
-		if (list.size() > 1) {
+		if (list != null && list.size() > 1) {
 
 			src.setCodedText("");
 
@@ -274,22 +282,16 @@ public class CommaSeparatedValuesFilter extends BaseTableFilter {
 
 			int start = 0; // abs index
 			do {
-				int index = st.indexOf(qq); // rel index
+				int index = st.indexOf(qq, start); // abs index
 				if (index == -1) {
 					break;
 				}
 
-				src.changeToCode(start + index, start + index + qqLen, TagType.PLACEHOLDER, "CSV text qualifier"); // Quotation
-																													// mark
-																													// in
-																													// the
-																													// text
-																													// goes
-																													// to
-																													// skeleton
-
-				start += index + 2; // Code takes 2 positions
-				st = src.getCodedText().substring(start); // To make sure we're synchronized
+				// Quotation mark in the text goes to skeleton
+				src.changeToCode(index, index + qqLen, TagType.PLACEHOLDER, "CSV text qualifier");
+
+				start = index + 2; // Code takes 2 positions
+				st = src.getCodedText(); // To make sure we're synchronized
 			} while (true);
 		}
 
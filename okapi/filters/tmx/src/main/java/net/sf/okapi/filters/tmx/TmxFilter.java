@@ -25,6 +25,8 @@ import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.MimeTypeMapper;
 import net.sf.okapi.common.UsingParameters;
 import net.sf.okapi.common.Util;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.encoder.EncoderManager;
 import net.sf.okapi.common.exceptions.OkapiBadFilterInputException;
 import net.sf.okapi.common.exceptions.OkapiIOException;
@@ -212,13 +214,8 @@ public class TmxFilter implements IFilter {
 			
 			canceled = false;			
 			
-			XMLInputFactory fact = XMLInputFactory.newInstance();
-			fact.setProperty(XMLInputFactory.IS_COALESCING, true);
-//Removed for Java 1.6     		fact.setProperty(XMLInputFactory2.P_REPORT_PROLOG_WHITESPACE, true);
-			
-			//fact.setXMLResolver(new DefaultXMLResolver());
 			//TODO: Resolve the re-construction of the DTD, for now just skip it
-			fact.setProperty(XMLInputFactory.SUPPORT_DTD, false);			
+			XMLInputFactory fact = XMLStreamFactories.getInputFactory(Profile.COALESCING);
 
 			// Determine encoding based on BOM, if any
 			input.setEncoding("UTF-8"); // Default for XML, other should be auto-detected
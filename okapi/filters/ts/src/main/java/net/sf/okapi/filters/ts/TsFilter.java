@@ -17,7 +17,6 @@
 package net.sf.okapi.filters.ts;
 
 import net.sf.okapi.common.BOMNewlineEncodingDetector;
-import net.sf.okapi.common.ClassUtil;
 import net.sf.okapi.common.Event;
 import net.sf.okapi.common.EventType;
 import net.sf.okapi.common.IParameters;
@@ -53,6 +52,7 @@ import net.sf.okapi.common.resource.TextUnit;
 import net.sf.okapi.common.skeleton.GenericSkeleton;
 import net.sf.okapi.common.skeleton.GenericSkeletonWriter;
 import net.sf.okapi.common.skeleton.ISkeletonWriter;
+import com.ctc.wstx.stax.WstxInputFactory;
 import org.codehaus.stax2.XMLInputFactory2;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -294,6 +294,29 @@ public class TsFilter implements IFilter {
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 	private RawDocument input;
 
+	/**
+	 * Input factory shared by all the instances of the filter.
+	 * It is configured once and never modified after that.
+	 */
+	private static final class InputFactoryHolder {
+		static final XMLInputFactory INSTANCE = createInputFactory();
+
+		private static XMLInputFactory createInputFactory() {
+			XMLInputFactory fact = new WstxInputFactory();
+
+			// security concern. Turn off DTD processing
+			// https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing
+			fact.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+
+			fact.setProperty(XMLInputFactory.IS_COALESCING, false);
+
+			// In TS files, there are many cases where we have whitespace before
+			// the root element
+			fact.setProperty(XMLInputFactory2.P_REPORT_PROLOG_WHITESPACE, true);
+			return fact;
+		}
+	}
+
 	public TsFilter() {
 		params = new Parameters();
 	}
@@ -416,26 +439,7 @@ public class TsFilter implements IFilter {
 
 			canceled = false;
 
-			XMLInputFactory fact;
-			Class<?> factClass = ClassUtil
-					.getClass("com.ctc.wstx.stax.WstxInputFactory");
-			fact = (XMLInputFactory) factClass.newInstance();
-			// XMLInputFactory2 fact = (XMLInputFactory2)
-			// XMLInputFactory2.newInstance();
-			// XMLInputFactory fact = XMLInputFactory.newInstance();
-
-			// fact.setProperty(XMLInputFactory.IS_COALESCING, false);
-
-			// security concern. Turn off DTD processing
-			// https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing			
-			fact.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-
-			// fact.setProperty(XMLInputFactory.IS_COALESCING, true);
-			fact.setProperty(XMLInputFactory.IS_COALESCING, false);
-
-			// In TS files, there are many cases where we have whitespace before
-			// the root element
-			fact.setProperty(XMLInputFactory2.P_REPORT_PROLOG_WHITESPACE, true);
+			XMLInputFactory fact = InputFactoryHolder.INSTANCE;
 
 			// Determine encoding based on BOM, if any
 			input.setEncoding("UTF-8"); // Default for XML, other should be
@@ -510,7 +514,7 @@ public class TsFilter implements IFilter {
 			// skel.append("\"?>"+lineBreak);
 			skel.append("\"?>");
 			startDoc.setSkeleton(skel);
-		} catch (XMLStreamException | IllegalAccessException | InstantiationException e) {
+		} catch (XMLStreamException e) {
 			throw new OkapiIOException("Cannot open XML document.\n"
 					+ e.getMessage(), e);
 		}
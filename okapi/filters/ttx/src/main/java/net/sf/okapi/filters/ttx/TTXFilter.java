@@ -26,6 +26,8 @@ import net.sf.okapi.common.MimeTypeMapper;
 import net.sf.okapi.common.Range;
 import net.sf.okapi.common.UsingParameters;
 import net.sf.okapi.common.Util;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.annotation.AltTranslation;
 import net.sf.okapi.common.annotation.AltTranslationsAnnotation;
 import net.sf.okapi.common.encoder.EncoderContext;
@@ -218,14 +220,9 @@ public class TTXFilter implements IFilter {
 			canceled = false;
 			this.input = input;
 
-			XMLInputFactory fact = XMLInputFactory.newInstance();
-			fact.setProperty(XMLInputFactory.IS_COALESCING, true);
-			
-			//fact.setXMLResolver(new DefaultXMLResolver());
 			//TODO: Resolve the re-construction of the DTD, for now just skip it
-			// security concern. Turn off DTD processing
-			// https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing			
-			fact.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			// The shared factory does not process DTDs (security concern)
+			XMLInputFactory fact = XMLStreamFactories.getInputFactory(Profile.COALESCING);
 
 			// Determine encoding based on BOM, if any
 			input.setEncoding("UTF-8"); // Default for XML, other should be auto-detected
@@ -26,6 +26,8 @@ import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.MimeTypeMapper;
 import net.sf.okapi.common.UsingParameters;
 import net.sf.okapi.common.Util;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.annotation.AltTranslation;
 import net.sf.okapi.common.encoder.EncoderManager;
 import net.sf.okapi.common.exceptions.OkapiIOException;
@@ -203,12 +205,8 @@ public class TXMLFilter implements IFilter {
 			canceled = false;
 			this.input = input;
 
-			XMLInputFactory fact = XMLInputFactory.newInstance();
-			fact.setProperty(XMLInputFactory.IS_COALESCING, true);
-			
-			// security concern. Turn off DTD processing
-			// https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing			
-			fact.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			// The shared factory does not process DTDs (security concern)
+			XMLInputFactory fact = XMLStreamFactories.getInputFactory(Profile.COALESCING);
 
 			// Determine encoding based on BOM, if any
 			input.setEncoding("UTF-8"); // Default for XML, other should be auto-detected
@@ -30,6 +30,8 @@ import net.sf.okapi.common.MimeTypeMapper;
 import net.sf.okapi.common.Namespaces;
 import net.sf.okapi.common.UsingParameters;
 import net.sf.okapi.common.Util;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.XmlInputStreamReader;
 import net.sf.okapi.common.annotation.AltTranslation;
 import net.sf.okapi.common.annotation.AltTranslationsAnnotation;
@@ -408,27 +410,25 @@ public class XLIFFFilter implements IFilter {
 			if ( params.getUseCustomParser() ) {
 				Class<?> factClass = ClassUtil.getClass(params.getFactoryClass());
 				fact = (XMLInputFactory)factClass.newInstance();
+				fact.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+				fact.setProperty(XMLInputFactory2.P_REPORT_CDATA, Boolean.TRUE);
+				//Removed for Java 1.6: fact.setProperty(XMLInputFactory2.P_REPORT_PROLOG_WHITESPACE, true);
+				if (fact instanceof WstxInputFactory) {
+					// the following setting avoid splitting of long CDATA sections while still
+					// reporting them as CDATA and not as CHARACTERS (as coalescing would do)
+					fact.setProperty(WstxInputProperties.P_MIN_TEXT_SEGMENT, Integer.MAX_VALUE);
+				}
+				//TODO: Resolve the re-construction of the DTD, for now just skip it
+				// security concern. Turn off DTD processing
+				// https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing
+				fact.setProperty(XMLInputFactory.SUPPORT_DTD, false);
 			}
 			else {
-				fact = XMLInputFactory.newInstance();
+				// Shared factory with the same settings as above
+				fact = XMLStreamFactories.getInputFactory(Profile.CDATA);
 			}
 			logger.debug("XMLInputFactory: {}", fact.getClass().getName());
 
-			fact.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
-			fact.setProperty(XMLInputFactory2.P_REPORT_CDATA, Boolean.TRUE);
-			//Removed for Java 1.6: fact.setProperty(XMLInputFactory2.P_REPORT_PROLOG_WHITESPACE, true);
-			if (fact instanceof WstxInputFactory) {
-				// the following setting avoid splitting of long CDATA sections while still
-				// reporting them as CDATA and not as CHARACTERS (as coalescing would do)
-				fact.setProperty(WstxInputProperties.P_MIN_TEXT_SEGMENT, Integer.MAX_VALUE);
-			}
-
-			//fact.setXMLResolver(new DefaultXMLResolver());
-			//TODO: Resolve the re-construction of the DTD, for now just skip it
-			// security concern. Turn off DTD processing
-			// https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing
-			fact.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-
 			// Determine encoding based on BOM, if any
 			input.setEncoding(ENCODING.name()); // Default for XML, other should be auto-detected
 			BOMNewlineEncodingDetector detector = new BOMNewlineEncodingDetector(input.getStream(), input.getEncoding());
@@ -0,0 +1,266 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.lib.terminology;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds all the occurrences of a set of strings in a text in a single pass (Aho-Corasick automaton).
+ * <p>
+ * The matcher is built once for a list of strings and is immutable afterwards,
+ * so it can be shared by several threads. Searching a text takes a time proportional
+ * to the length of the text plus the number of occurrences found, whatever the number of strings.
+ * <p>
+ * When the case is ignored, each character is folded separately (the strings and the texts
+ * keep their length), so the positions of the occurrences are the positions in the original text.
+ */
+public final class MultiStringMatcher {
+
+	/**
+	 * An occurrence of one of the strings of the matcher.
+	 */
+	public static final class Match {
+
+		/**
+		 * Index of the string found, in the list given to the matcher.
+		 * For duplicated strings, this is the index of the first one.
+		 */
+		public final int pattern;
+		/**
+		 * Position of the first character of the occurrence.
+		 */
+		public final int start;
+		/**
+		 * Position after the last character of the occurrence.
+		 */
+		public final int end;
+
+		Match (int pattern,
+			int start,
+			int end)
+		{
+			this.pattern = pattern;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public String toString () {
+			return pattern + ":" + start + "-" + end;
+		}
+	}
+
+	private static final int NONE = -1;
+
+	private final boolean ignoreCase;
+	private final int patternCount;
+	// Per state: failure link, next state with an output on the failure chain,
+	// index of the string ending at that state, and depth
+	private final int[] fail;
+	private final int[] outputLink;
+	private final int[] patternAt;
+	private final int[] depth;
+	private final Transitions transitions;
+
+	/**
+	 * Creates a matcher for a list of strings.
+	 * @param patterns the strings to search for. Null and empty strings are ignored,
+	 * but keep their index.
+	 * @param ignoreCase true to ignore the case when searching.
+	 */
+	public MultiStringMatcher (List<String> patterns,
+		boolean ignoreCase)
+	{
+		this.ignoreCase = ignoreCase;
+		patternCount = patterns.size();
+
+		// Build the trie
+		int total = 1;
+		for ( String pattern : patterns ) {
+			if ( pattern != null ) total += pattern.length();
+		}
+		int[] parent = new int[total];
+		char[] label = new char[total];
+		int[] patternAtTmp = new int[total];
+		int[] depthTmp = new int[total];
+		Arrays.fill(patternAtTmp, NONE);
+		transitions = new Transitions(total);
+		int states = 1;
+		for ( int i=0; i<patterns.size(); i++ ) {
+			String pattern = patterns.get(i);
+			if (( pattern == null ) || pattern.isEmpty() ) continue;
+			int state = 0;
+			for ( int j=0; j<pattern.length(); j++ ) {
+				char ch = fold(pattern.charAt(j));
+				int next = transitions.get(state, ch);
+				if ( next == NONE ) {
+					next = states++;
+					parent[next] = state;
+					label[next] = ch;
+					depthTmp[next] = depthTmp[state]+1;
+					transitions.put(state, ch, next);
+				}
+				state = next;
+			}
+			if ( patternAtTmp[state] == NONE ) {
+				patternAtTmp[state] = i;
+			}
+		}
+		patternAt = Arrays.copyOf(patternAtTmp, states);
+		depth = Arrays.copyOf(depthTmp, states);
+
+		// Compute the failure links, in breadth-first order
+		fail = new int[states];
+		outputLink = new int[states];
+		outputLink[0] = NONE;
+		for ( int state : breadthFirstOrder(depth) ) {
+			int par = parent[state];
+			char ch = label[state];
+			int target = 0;
+			if ( par != 0 ) {
+				int f = fail[par];
+				while (( f != 0 ) && ( transitions.get(f, ch) == NONE )) {
+					f = fail[f];
+				}
+				int next = transitions.get(f, ch);
+				if ( next != NONE ) target = next;
+			}
+			fail[state] = target;
+			outputLink[state] = ( patternAt[target] != NONE ) ? target : outputLink[target];
+		}
+	}
+
+	/**
+	 * Gets the number of strings given to this matcher (including the ignored ones).
+	 * @return the number of strings of this matcher.
+	 */
+	public int getPatternCount () {
+		return patternCount;
+	}
+
+	/**
+	 * Finds all the occurrences of the strings in a text, including the overlapping ones.
+	 * @param text the text where to search.
+	 * @return the list of the occurrences, sorted by start position, and longest first
+	 * for the occurrences starting at the same position (can be empty, never null).
+	 */
+	public List<Match> findAll (CharSequence text) {
+		List<Match> res = null;
+		int state = 0;
+		for ( int i=0; i<text.length(); i++ ) {
+			char ch = fold(text.charAt(i));
+			int next = transitions.get(state, ch);
+			while (( next == NONE ) && ( state != 0 )) {
+				state = fail[state];
+				next = transitions.get(state, ch);
+			}
+			state = ( next == NONE ) ? 0 : next;
+			// Report the strings ending here
+			int out = ( patternAt[state] != NONE ) ? state : outputLink[state];
+			while ( out != NONE ) {
+				if ( res == null ) res = new ArrayList<>();
+				res.add(new Match(patternAt[out], i+1-depth[out], i+1));
+				out = outputLink[out];
+			}
+		}
+		if ( res == null ) {
+			return Collections.emptyList();
+		}
+		res.sort((m1, m2) -> ( m1.start != m2.start ) ? m1.start - m2.start : m2.end - m1.end);
+		return res;
+	}
+
+	private char fold (char ch) {
+		return ignoreCase ? Character.toLowerCase(Character.toUpperCase(ch)) : ch;
+	}
+
+	private static int[] breadthFirstOrder (int[] depth) {
+		// Counting sort of the states (except the root) by depth
+		int maxDepth = 0;
+		for ( int d : depth ) maxDepth = Math.max(maxDepth, d);
+		int[] starts = new int[maxDepth+2];
+		for ( int state=1; state<depth.length; state++ ) {
+			starts[depth[state]+1]++;
+		}
+		for ( int d=1; d<starts.length; d++ ) {
+			starts[d] += starts[d-1];
+		}
+		int[] order = new int[depth.length-1];
+		for ( int state=1; state<depth.length; state++ ) {
+			order[starts[depth[state]]++] = state;
+		}
+		return order;
+	}
+
+	/**
+	 * Open-addressing map of the transitions (state, character) to state.
+	 */
+	private static final class Transitions {
+
+		private final long[] keys;
+		private final int[] values;
+		private final int mask;
+
+		Transitions (int expected) {
+			int capacity = Integer.highestOneBit(Math.max(4, expected*2-1)) << 1;
+			keys = new long[capacity];
+			values = new int[capacity];
+			Arrays.fill(keys, -1L);
+			mask = capacity-1;
+		}
+
+		private static long key (int state,
+			char ch)
+		{
+			return ((long)state << 16) | ch;
+		}
+
+		private int slot (long key) {
+			long h = key * 0x9E3779B97F4A7C15L;
+			return (int)(h ^ (h >>> 32)) & mask;
+		}
+
+		int get (int state,
+			char ch)
+		{
+			long key = key(state, ch);
+			int i = slot(key);
+			while ( true ) {
+				if ( keys[i] == key ) return values[i];
+				if ( keys[i] == -1L ) return NONE;
+				i = (i+1) & mask;
+			}
+		}
+
+		void put (int state,
+			char ch,
+			int next)
+		{
+			long key = key(state, ch);
+			int i = slot(key);
+			while ( keys[i] != -1L ) {
+				i = (i+1) & mask;
+			}
+			keys[i] = key;
+			values[i] = next;
+		}
+	}
+
+}
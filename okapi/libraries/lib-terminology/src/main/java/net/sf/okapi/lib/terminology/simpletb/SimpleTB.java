@@ -25,7 +25,11 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.Range;
@@ -36,6 +40,8 @@ import net.sf.okapi.common.resource.TextUnitUtil;
 import net.sf.okapi.lib.terminology.ConceptEntry;
 import net.sf.okapi.lib.terminology.IGlossaryReader;
 import net.sf.okapi.lib.terminology.LangEntry;
+import net.sf.okapi.lib.terminology.MultiStringMatcher;
+import net.sf.okapi.lib.terminology.MultiStringMatcher.Match;
 import net.sf.okapi.lib.terminology.TermEntry;
 import net.sf.okapi.lib.terminology.TermHit;
 import net.sf.okapi.lib.terminology.csv.CSVReader;
@@ -45,15 +51,50 @@ import net.sf.okapi.lib.terminology.tsv.TSVReader;
 /**
  * Very basic memory-only simple termbase.
  * This is used for prototyping the terminology interface.
+ * <p>
+ * The searches use indexes of the terms (a {@link MultiStringMatcher} for the strings,
+ * a map of the lower-cased terms for the terms), so a fragment is searched in one pass
+ * whatever the number of entries. The indexes are built on the first search after the
+ * entries have been added, imported or loaded. Changing the terms of an existing entry
+ * after a search requires to call {@link #initialize(boolean, boolean)} again.
  */
 public class SimpleTB {
 	
 	private static final String SIGNATURE = "SimpleTB-v1";
+	// Character used to obliterate the strings already matched
+	private static final char OBLITERATED = '`';
 	
 	LocaleId srcLoc;
 	LocaleId trgLoc;
 	private List<Entry> entries;
 	private boolean betweenCodes;
+	// Indexes for the source and the target terms (built when needed)
+	private StringIndex[] stringIndexes;
+	private Map<String, int[]>[] termIndexes;
+
+	/**
+	 * Index of the terms of one locale for the string-based search.
+	 */
+	private static class StringIndex {
+		final MultiStringMatcher matcher;
+		// Entries for each pattern of the matcher
+		final int[][] entriesOfPattern;
+		// Pattern of each entry (-1 if the entry is not searched with the matcher)
+		final int[] patternOfEntry;
+		// Entries that cannot be searched with the matcher
+		final int[] others;
+
+		StringIndex (MultiStringMatcher matcher,
+			int[][] entriesOfPattern,
+			int[] patternOfEntry,
+			int[] others)
+		{
+			this.matcher = matcher;
+			this.entriesOfPattern = entriesOfPattern;
+			this.patternOfEntry = patternOfEntry;
+			this.others = others;
+		}
+	}
 	
 	public SimpleTB (LocaleId srcLoc,
 		LocaleId trgLoc)
@@ -65,6 +106,7 @@ public class SimpleTB {
 	
 	private void reset () {
 		entries = new ArrayList<>();
+		clearIndexes();
 	}
 	
 	public void initialize (boolean stringSearch,
@@ -75,6 +117,12 @@ public class SimpleTB {
 		if ( stringSearch ) {
 			Collections.sort(entries);
 		}
+		clearIndexes();
+	}
+
+	private synchronized void clearIndexes () {
+		stringIndexes = null;
+		termIndexes = null;
 	}
 	
 	public void guessAndImport (File file) {
@@ -120,11 +168,13 @@ public class SimpleTB {
 		}
 		finally {
 			if ( reader != null ) reader.close();
+			clearIndexes();
 		}
 	}
 	
 	public void removeAll () {
 		entries.clear();
+		clearIndexes();
 	}
 
 	public Entry addEntry (String srcTerm,
@@ -133,9 +183,91 @@ public class SimpleTB {
 		Entry ent = new Entry(srcTerm);
 		ent.setTargetTerm(trgTerm);
 		entries.add(ent);
+		clearIndexes();
 		return ent;
 	}
 
+	private static String getTerm (Entry ent,
+		boolean source)
+	{
+		return source ? ent.getSourceTerm() : ent.getTargetTerm();
+	}
+
+	private synchronized StringIndex getStringIndex (boolean source) {
+		if ( stringIndexes == null ) {
+			stringIndexes = new StringIndex[2];
+		}
+		int side = source ? 0 : 1;
+		if ( stringIndexes[side] == null ) {
+			List<String> patterns = new ArrayList<>();
+			Map<String, List<Integer>> entriesByPattern = new HashMap<>();
+			List<Integer> others = new ArrayList<>();
+			int[] patternOfEntry = new int[entries.size()];
+			Arrays.fill(patternOfEntry, -1);
+			for ( int i=0; i<entries.size(); i++ ) {
+				Entry ent = entries.get(i);
+				String stringToMatch = getTerm(ent, source);
+				if (( stringToMatch == null ) || ( getTerm(ent, !source) == null )) continue;
+				// Empty strings, and strings of obliteration characters, would match forever
+				if ( stringToMatch.replace(String.valueOf(OBLITERATED), "").isEmpty() ) continue;
+				// Strings with the obliteration character could match where
+				// other strings have been found: they are searched one by one
+				if ( stringToMatch.indexOf(OBLITERATED) != -1 ) {
+					others.add(i);
+					continue;
+				}
+				List<Integer> list = entriesByPattern.get(stringToMatch);
+				if ( list == null ) {
+					list = new ArrayList<>(1);
+					entriesByPattern.put(stringToMatch, list);
+					patterns.add(stringToMatch);
+				}
+				list.add(i);
+			}
+			int[][] entriesOfPattern = new int[patterns.size()][];
+			for ( int i=0; i<patterns.size(); i++ ) {
+				entriesOfPattern[i] = toArray(entriesByPattern.get(patterns.get(i)));
+				for ( int j : entriesOfPattern[i] ) {
+					patternOfEntry[j] = i;
+				}
+			}
+			stringIndexes[side] = new StringIndex(new MultiStringMatcher(patterns, false),
+				entriesOfPattern, patternOfEntry, toArray(others));
+		}
+		return stringIndexes[side];
+	}
+
+	@SuppressWarnings("unchecked")
+	private synchronized Map<String, int[]> getTermIndex (boolean source) {
+		if ( termIndexes == null ) {
+			termIndexes = new Map[2];
+		}
+		int side = source ? 0 : 1;
+		if ( termIndexes[side] == null ) {
+			Map<String, List<Integer>> entriesByTerm = new HashMap<>();
+			for ( int i=0; i<entries.size(); i++ ) {
+				Entry ent = entries.get(i);
+				String termToMatch = getTerm(ent, source);
+				if (( termToMatch == null ) || ( getTerm(ent, !source) == null )) continue;
+				entriesByTerm.computeIfAbsent(termToMatch.toLowerCase(), k -> new ArrayList<>(1)).add(i);
+			}
+			Map<String, int[]> index = new HashMap<>(entriesByTerm.size()*2);
+			for ( Map.Entry<String, List<Integer>> item : entriesByTerm.entrySet() ) {
+				index.put(item.getKey(), toArray(item.getValue()));
+			}
+			termIndexes[side] = index;
+		}
+		return termIndexes[side];
+	}
+
+	private static int[] toArray (List<Integer> list) {
+		int[] res = new int[list.size()];
+		for ( int i=0; i<res.length; i++ ) {
+			res[i] = list.get(i);
+		}
+		return res;
+	}
+
 	public List<TermHit> getExistingStrings (TextFragment frag,
 		LocaleId fragmentLoc,
 		LocaleId otherLoc)
@@ -150,27 +282,55 @@ public class SimpleTB {
 			}
 		}
 
-		String stringToMatch;
-		String otherString;
 		StringBuilder text = new StringBuilder(frag);
 		Range location = new Range(0, 0);
-		
-		// For each term in the list
-		for ( Entry ent : entries ) {
-			// Select the source and target terms to search for
-			if ( searchSource ) {
-				stringToMatch = ent.getSourceTerm();
-				otherString = ent.getTargetTerm();
-			}
-			else {
-				stringToMatch = ent.getTargetTerm();
-				otherString = ent.getSourceTerm();
+		StringIndex index = getStringIndex(searchSource);
+
+		// Find all the occurrences of all the strings in one pass
+		List<Match> matches = index.matcher.findAll(text);
+		Map<Integer, List<Match>> matchesOfPattern = new HashMap<>();
+		Set<Integer> candidates = new HashSet<>();
+		for ( Match match : matches ) {
+			List<Match> list = matchesOfPattern.get(match.pattern);
+			if ( list == null ) {
+				list = new ArrayList<>(2);
+				matchesOfPattern.put(match.pattern, list);
+				for ( int i : index.entriesOfPattern[match.pattern] ) {
+					candidates.add(i);
+				}
 			}
-			
-			if (( stringToMatch == null ) || ( otherString == null )) continue;
+			list.add(match); // Sorted by start position
+		}
+		for ( int i : index.others ) {
+			candidates.add(i);
+		}
+		int[] order = new int[candidates.size()];
+		int n = 0;
+		for ( int i : candidates ) order[n++] = i;
+		Arrays.sort(order);
+
+		// Process the entries in their order, as the matches obliterate the text for the next entries
+		for ( int i : order ) {
+			Entry ent = entries.get(i);
+			String stringToMatch = getTerm(ent, searchSource);
+			String otherString = getTerm(ent, !searchSource);
+			int pattern = index.patternOfEntry[i];
+			List<Match> occurrences = ( pattern == -1 ) ? null : matchesOfPattern.get(pattern);
+			int next = 0;
 			
 			while ( true ) {
-				if ( !isValidMatch(text, stringToMatch, location, betweenCodes) ) break;
+				if ( occurrences == null ) {
+					if ( !isValidMatch(text, stringToMatch, location, betweenCodes) ) break;
+				}
+				else {
+					// The first occurrence not obliterated yet is the one indexOf() would find
+					// (the string has no obliteration character, so there is no new occurrence)
+					while (( next < occurrences.size() ) && isObliterated(text, occurrences.get(next)) ) {
+						next++;
+					}
+					if ( next == occurrences.size() ) break;
+					if ( !isValidMatch(text, occurrences.get(next++).start, stringToMatch.length(), location, betweenCodes) ) break;
+				}
 				// Else: Save the term
 				TermHit th = new TermHit();
 				th.sourceTerm = new TermEntry(stringToMatch);
@@ -178,8 +338,8 @@ public class SimpleTB {
 				th.range = new Range(location.start, location.end);
 				res.add(th);
 				// Obliterate the match so we don't re-match it 
-				for ( int i=location.start; i<location.end; i++ ) {
-					text.setCharAt(i, '`');
+				for ( int j=location.start; j<location.end; j++ ) {
+					text.setCharAt(j, OBLITERATED);
 				}
 			}
 		}
@@ -187,6 +347,15 @@ public class SimpleTB {
 		return res;
 	}
 
+	private static boolean isObliterated (StringBuilder text,
+		Match match)
+	{
+		for ( int i=match.start; i<match.end; i++ ) {
+			if ( text.charAt(i) == OBLITERATED ) return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Searches for a given string in a text. The location parameter is updated with the position of the first 
 	 * character and the one of the character after the last one.
@@ -202,6 +371,24 @@ public class SimpleTB {
 	{
 		int n = text.indexOf(stringToMatch);
 		if ( n == -1 ) return false; // No more of that term
+		return isValidMatch(text, n, stringToMatch.length(), location, betweenCodes);
+	}
+
+	/**
+	 * Checks if an occurrence of a string in a text is a valid match. The location parameter is updated
+	 * with the position of the first character and the one of the character after the last one.
+	 * @param text Text where the string was found.
+	 * @param n position of the occurrence.
+	 * @param length length of the string.
+	 * @param location location of the term.
+	 * @return true if it's a match, false otherwise. If the return is true, the values in location are updated.
+	 */
+	private static boolean isValidMatch (StringBuilder text,
+		int n,
+		int length,
+		Range location,
+		boolean betweenCodes)
+	{
 		// Check "word boundaries"
 		if ( n > 0 ) {
 			int cp = text.codePointAt(n-1);
@@ -221,7 +408,7 @@ public class SimpleTB {
 			}
 		}
 		
-		int last = n+stringToMatch.length();
+		int last = n+length;
 		if ( last < text.length() ) {
 			int cp = text.codePointAt(last);
 			if (( Character.getType(cp) == Character.LOWERCASE_LETTER ) ||
@@ -246,6 +433,7 @@ public class SimpleTB {
 	
 	/*
 	 * Very crude implementation of the search terms function.
+	 * A term is found if it is one of the whitespace-delimited words of the fragment (case-insensitive).
 	 */
 	public List<TermHit> getExistingTerms (TextFragment frag,
 		LocaleId fragmentLoc,
@@ -263,24 +451,21 @@ public class SimpleTB {
 			}
 		}
 
-		String termToMatch;
-		String otherTerm;
-		for ( Entry ent : entries ) {
-			if ( searchSource ) {
-				termToMatch = ent.getSourceTerm();
-				otherTerm = ent.getTargetTerm();
-			}
-			else {
-				termToMatch = ent.getTargetTerm();
-				otherTerm = ent.getSourceTerm();
-			}
-			if (( termToMatch == null ) || ( otherTerm == null )) continue;
-			if ( parts.contains(termToMatch.toLowerCase()) ) {
-				TermHit th = new TermHit();
-				th.sourceTerm = new TermEntry(termToMatch);
-				th.targetTerm = new TermEntry(otherTerm);
-				res.add(th);
-			}
+		// Look up each distinct word, then report the entries in their order
+		Map<String, int[]> index = getTermIndex(searchSource);
+		List<Integer> found = new ArrayList<>();
+		for ( String part : new HashSet<>(parts) ) {
+			int[] list = index.get(part);
+			if ( list == null ) continue;
+			for ( int i : list ) found.add(i);
+		}
+		Collections.sort(found);
+		for ( int i : found ) {
+			Entry ent = entries.get(i);
+			TermHit th = new TermHit();
+			th.sourceTerm = new TermEntry(getTerm(ent, searchSource));
+			th.targetTerm = new TermEntry(getTerm(ent, !searchSource));
+			res.add(th);
 		}
 		
 		return res;
@@ -28,6 +28,8 @@ import javax.xml.stream.XMLStreamReader;
 
 import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.Util;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.exceptions.OkapiIOException;
 import net.sf.okapi.lib.terminology.ConceptEntry;
 import net.sf.okapi.lib.terminology.IGlossaryReader;
@@ -55,13 +57,8 @@ public class TBXReader implements IGlossaryReader {
 	public void open (InputStream input) {
 		try {
 			close();
-			XMLInputFactory fact = XMLInputFactory.newInstance();
-			fact.setProperty(XMLInputFactory.IS_COALESCING, true);
-			
-			// security concern. Turn off DTD processing
-			// https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing			
-			fact.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-			
+			// The shared factory does not process DTDs (security concern)
+			XMLInputFactory fact = XMLStreamFactories.getInputFactory(Profile.COALESCING);
 			reader = fact.createXMLStreamReader(input);
 			
 			// Read the first entry
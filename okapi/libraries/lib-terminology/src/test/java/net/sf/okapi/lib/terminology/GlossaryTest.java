@@ -96,4 +96,45 @@ public class GlossaryTest {
 		
 	}
 
+	@Test
+	public void testGetExistingStringsOrder () {
+		SimpleTBConnector ta = new SimpleTBConnector();
+		Parameters params = ta.getParameters();
+		params.setSourceLocale(locEN);
+		params.setTargetLocale(locFR);
+		ta.open();
+		ta.addEntry("key", "clé");
+		ta.addEntry("key", "touche");
+		ta.addEntry("big key", "grosse clé");
+		ta.addEntry("keys", "clés");
+		ta.initializeSearch(true, false);
+
+		// The longest string is matched first, then the remaining occurrences
+		TextFragment srcFrag = new TextFragment("A big key, a key and keys.");
+		List<TermHit> found = ta.getExistingStrings(srcFrag, locEN, locFR);
+		assertEquals(3, found.size());
+		assertEquals("big key", found.get(0).sourceTerm.getText());
+		assertEquals(2, found.get(0).range.start);
+		assertEquals("keys", found.get(1).sourceTerm.getText());
+		assertEquals("key", found.get(2).sourceTerm.getText());
+		assertEquals(13, found.get(2).range.start);
+
+		// The first occurrence is inside a word: the other ones are not searched
+		found = ta.getExistingStrings(new TextFragment("Turkey and key"), locEN, locFR);
+		assertEquals(0, found.size());
+
+		// Search from the target side
+		found = ta.getExistingStrings(new TextFragment("Une touche"), locFR, locEN);
+		assertEquals(1, found.size());
+		assertEquals("touche", found.get(0).sourceTerm.getText());
+		assertEquals("key", found.get(0).targetTerm.getText());
+
+		// New entries are taken into account (at the end of the list)
+		ta.addEntry("Turkey", "Turquie");
+		found = ta.getExistingStrings(new TextFragment("Turkey and key"), locEN, locFR);
+		assertEquals(1, found.size());
+		assertEquals("Turkey", found.get(0).sourceTerm.getText());
+		ta.close();
+	}
+
 }
@@ -0,0 +1,101 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.lib.terminology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import net.sf.okapi.lib.terminology.MultiStringMatcher.Match;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class MultiStringMatcherTest {
+
+	@Test
+	public void testOverlappingMatches () {
+		MultiStringMatcher matcher = new MultiStringMatcher(Arrays.asList("he", "she", "his", "hers"), false);
+		List<Match> res = matcher.findAll("ushers");
+		assertEquals("[1:1-4, 3:2-6, 0:2-4]", res.toString());
+		// Sorted by start, longest first
+		res = matcher.findAll("hershe");
+		assertEquals("[3:0-4, 0:0-2, 1:3-6, 0:4-6]", res.toString());
+	}
+
+	@Test
+	public void testDuplicatesAndEmptyStrings () {
+		MultiStringMatcher matcher = new MultiStringMatcher(Arrays.asList("", "ab", null, "ab"), false);
+		assertEquals(4, matcher.getPatternCount());
+		assertEquals("[1:0-2, 1:2-4]", matcher.findAll("abab").toString());
+		assertTrue(matcher.findAll("").isEmpty());
+	}
+
+	@Test
+	public void testIgnoreCase () {
+		MultiStringMatcher matcher = new MultiStringMatcher(Arrays.asList("Straße", "ÉTÉ"), true);
+		assertEquals("[0:0-6, 1:7-10]", matcher.findAll("STRAßE été").toString());
+		matcher = new MultiStringMatcher(Arrays.asList("Straße"), false);
+		assertTrue(matcher.findAll("STRAßE").isEmpty());
+	}
+
+	@Test
+	public void testSameAsIndexOf () {
+		Random random = new Random(42);
+		for ( int round=0; round<50; round++ ) {
+			List<String> patterns = new ArrayList<>();
+			for ( int i=0; i<20; i++ ) {
+				patterns.add(randomString(random, 1+random.nextInt(4)));
+			}
+			String text = randomString(random, 200);
+			MultiStringMatcher matcher = new MultiStringMatcher(patterns, false);
+			List<String> expected = new ArrayList<>();
+			for ( int start=0; start<text.length(); start++ ) {
+				List<Match> here = new ArrayList<>();
+				for ( int p=0; p<patterns.size(); p++ ) {
+					String pattern = patterns.get(p);
+					if ( patterns.indexOf(pattern) != p ) continue; // Duplicate
+					if ( text.startsWith(pattern, start) ) {
+						here.add(new Match(p, start, start+pattern.length()));
+					}
+				}
+				here.sort((m1, m2) -> m2.end - m1.end);
+				for ( Match m : here ) expected.add(m.toString());
+			}
+			List<String> actual = new ArrayList<>();
+			for ( Match m : matcher.findAll(text) ) actual.add(m.toString());
+			assertEquals(expected, actual);
+		}
+	}
+
+	private static String randomString (Random random,
+		int length)
+	{
+		StringBuilder sb = new StringBuilder(length);
+		for ( int i=0; i<length; i++ ) {
+			sb.append((char)('a'+random.nextInt(3)));
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,265 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.lib.translation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.sf.okapi.common.IParameters;
+import net.sf.okapi.common.LocaleId;
+import net.sf.okapi.common.query.IQuery;
+import net.sf.okapi.common.query.QueryResult;
+import net.sf.okapi.common.resource.Code;
+import net.sf.okapi.common.resource.ITextUnit;
+import net.sf.okapi.common.resource.TextFragment;
+
+/**
+ * Connector that wraps another {@link IQuery} connector and stores its results in a
+ * {@link TranslationCache}, so the same segment is sent only once to the wrapped resource.
+ * <p>
+ * This is mostly useful for machine translation connectors, where each query is slow and
+ * may be billed. The same cache can be shared by several connectors: the entries are keyed
+ * by the class of the wrapped connector, its parameters, its attributes, the locales and the
+ * content of the query.
+ * <p>
+ * The cache does not take the wrapped connector's state into account beyond that (for example
+ * changes in the memory of a translation memory engine), so it should not be used for resources
+ * that are updated during the process.
+ */
+public class CachingConnector extends BaseConnector {
+
+	private final IQuery connector;
+	private final TranslationCache cache;
+	private final Map<String, String> attributes = new TreeMap<>();
+	private String paramsKey = "";
+	private Iterator<QueryResult> results = Collections.emptyIterator();
+
+	/**
+	 * Creates a new CachingConnector object.
+	 * @param connector the connector to wrap.
+	 * @param cache the cache to use (it can be shared by several connectors).
+	 */
+	public CachingConnector (IQuery connector,
+		TranslationCache cache)
+	{
+		this.connector = connector;
+		this.cache = cache;
+		updateParamsKey();
+	}
+
+	/**
+	 * Gets the wrapped connector.
+	 * @return the connector wrapped by this object.
+	 */
+	public IQuery getConnector () {
+		return connector;
+	}
+
+	@Override
+	public String getName () {
+		return connector.getName();
+	}
+
+	@Override
+	public String getSettingsDisplay () {
+		return connector.getSettingsDisplay();
+	}
+
+	@Override
+	public void setLanguages (LocaleId sourceLocale,
+		LocaleId targetLocale)
+	{
+		super.setLanguages(sourceLocale, targetLocale);
+		connector.setLanguages(sourceLocale, targetLocale);
+	}
+
+	@Override
+	public void setAttribute (String name,
+		String value)
+	{
+		attributes.put(name, value);
+		connector.setAttribute(name, value);
+	}
+
+	@Override
+	public void removeAttribute (String name) {
+		attributes.remove(name);
+		connector.removeAttribute(name);
+	}
+
+	@Override
+	public void clearAttributes () {
+		attributes.clear();
+		connector.clearAttributes();
+	}
+
+	@Override
+	public IParameters getParameters () {
+		return connector.getParameters();
+	}
+
+	@Override
+	public void setParameters (IParameters params) {
+		connector.setParameters(params);
+		updateParamsKey();
+	}
+
+	@Override
+	public void setRootDirectory (String rootDir) {
+		connector.setRootDirectory(rootDir);
+	}
+
+	@Override
+	public void setWeight (int weight) {
+		super.setWeight(weight);
+		connector.setWeight(weight);
+	}
+
+	@Override
+	public void setNoQueryThreshold (int noQueryThreshold) {
+		super.setNoQueryThreshold(noQueryThreshold);
+		connector.setNoQueryThreshold(noQueryThreshold);
+	}
+
+	@Override
+	public void open () {
+		// Parameters may have been modified directly since they were set
+		updateParamsKey();
+		connector.open();
+	}
+
+	@Override
+	public void close () {
+		connector.close();
+	}
+
+	@Override
+	public int query (String plainText) {
+		return query(new TextFragment(plainText));
+	}
+
+	@Override
+	public int query (TextFragment text) {
+		String key = getKey(text);
+		List<QueryResult> list = cache.get(key);
+		if ( list == null ) {
+			list = new ArrayList<>();
+			connector.query(text);
+			while ( connector.hasNext() ) {
+				list.add(connector.next());
+			}
+			if ( !list.isEmpty() ) {
+				cache.put(key, list);
+			}
+		}
+		results = list.iterator();
+		return list.size();
+	}
+
+	@Override
+	public boolean hasNext () {
+		return results.hasNext();
+	}
+
+	@Override
+	public QueryResult next () {
+		return results.hasNext() ? results.next() : null;
+	}
+
+	/**
+	 * Gets the results for a list of fragments, sending only the fragments not found in the
+	 * cache to the {@link IQuery#batchQuery(List)} method of the wrapped connector.
+	 */
+	@Override
+	public List<List<QueryResult>> batchQuery (List<TextFragment> fragments) {
+		List<List<QueryResult>> all = new ArrayList<>(fragments.size());
+		List<String> keys = new ArrayList<>(fragments.size());
+		List<TextFragment> toQuery = new ArrayList<>();
+		for ( TextFragment tf : fragments ) {
+			String key = getKey(tf);
+			List<QueryResult> list = cache.get(key);
+			if ( list == null ) {
+				toQuery.add(tf);
+			}
+			keys.add(key);
+			all.add(list);
+		}
+		if ( toQuery.isEmpty() ) {
+			return all;
+		}
+
+		List<List<QueryResult>> fetched = connector.batchQuery(toQuery);
+		int j = 0;
+		for ( int i=0; i<all.size(); i++ ) {
+			if ( all.get(i) != null ) continue;
+			List<QueryResult> list = null;
+			if (( fetched != null ) && ( j < fetched.size() )) {
+				list = fetched.get(j);
+			}
+			j++;
+			if ( list == null ) {
+				list = new ArrayList<>();
+			}
+			else if ( !list.isEmpty() ) {
+				cache.put(keys.get(i), list);
+			}
+			all.set(i, list);
+		}
+		return all;
+	}
+
+	@Override
+	public void leverage (ITextUnit tu) {
+		leverageUsingBatchQuery(tu);
+	}
+
+	@Override
+	public void batchLeverage (List<ITextUnit> tuList) {
+		batchLeverageUsingBatchQuery(tuList);
+	}
+
+	private void updateParamsKey () {
+		IParameters params = connector.getParameters();
+		if ( params == null ) {
+			paramsKey = "";
+			return;
+		}
+		StringBuilder hex = new StringBuilder();
+		for ( byte b : TranslationCache.sha256(params.toString()) ) {
+			hex.append(String.format("%02x", b));
+		}
+		paramsKey = hex.toString();
+	}
+
+	private String getKey (TextFragment text) {
+		StringBuilder key = new StringBuilder(connector.getClass().getName());
+		key.append('|').append(srcLoc).append('|').append(trgLoc);
+		key.append('|').append(paramsKey);
+		key.append('|').append(attributes);
+		key.append('|').append(text.getCodedText());
+		// Only the identity of the codes matters to the resource, not their content
+		for ( Code code : text.getCodes() ) {
+			key.append('|').append(code.getTagType()).append(code.getId());
+		}
+		return key.toString();
+	}
+
+}
@@ -0,0 +1,492 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.lib.translation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.okapi.common.StreamUtil;
+import net.sf.okapi.common.exceptions.OkapiException;
+import net.sf.okapi.common.exceptions.OkapiIOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP transport shared by the connectors that call a web service.
+ * <p>
+ * The response bodies (including the error bodies) are always read to the end and closed,
+ * so the underlying connections go back to the keep-alive cache of the JVM and are re-used by
+ * the next requests to the same server, instead of doing a new handshake each time.
+ * <p>
+ * The transport can also:
+ * <ul>
+ * <li>limit the number of requests sent per second, with a token bucket,</li>
+ * <li>retry the requests that fail with a network error or a transient status (429 and 5xx),
+ * waiting an exponentially growing and randomized interval, or the interval given by the
+ * server in the <code>Retry-After</code> header. Retries are off by default
+ * (see {@link #setMaxRetries(int)}), and POST requests are retried only if they are marked
+ * as retryable (see {@link Request#retryable(boolean)}),</li>
+ * <li>send several requests at the same time on a bounded pool of threads,
+ * see {@link #sendAll(List)} and {@link #invokeAll(List)}.</li>
+ * </ul>
+ * A transport can be used from several threads. Call {@link #close()} to release its threads.
+ */
+public class HttpTransport implements AutoCloseable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(HttpTransport.class);
+
+	private static final long MAX_RETRY_INTERVAL = 60000;
+
+	private volatile int maxRetries = 0;
+	private volatile long retryInterval = 500;
+	private volatile int connectTimeout = 30000;
+	private volatile int readTimeout = 60000;
+	private volatile TokenBucket rateLimiter;
+	private int maxConcurrentRequests = 1;
+	private ExecutorService executor;
+
+	/**
+	 * A request to send.
+	 */
+	public static final class Request {
+
+		private final String method;
+		private final String url;
+		private final Map<String, String> headers = new LinkedHashMap<>();
+		private final byte[] body;
+		private boolean retryable;
+
+		private Request (String method,
+			String url,
+			byte[] body)
+		{
+			this.method = method;
+			this.url = url;
+			this.body = body;
+			// Only the idempotent requests are retried by default
+			retryable = "GET".equals(method);
+		}
+
+		/**
+		 * Creates a GET request.
+		 * @param url the URL to get.
+		 * @return the new request.
+		 */
+		public static Request get (String url) {
+			return new Request("GET", url, null);
+		}
+
+		/**
+		 * Creates a POST request.
+		 * @param url the URL where to post.
+		 * @param contentType the content type of the body.
+		 * @param body the body of the request (sent as UTF-8).
+		 * @return the new request.
+		 */
+		public static Request post (String url,
+			String contentType,
+			String body)
+		{
+			Request request = new Request("POST", url, body.getBytes(StandardCharsets.UTF_8));
+			request.header("Content-Type", contentType);
+			return request;
+		}
+
+		/**
+		 * Sets a header of this request.
+		 * @param name the name of the header.
+		 * @param value the value of the header.
+		 * @return this request.
+		 */
+		public Request header (String name,
+			String value)
+		{
+			headers.put(name, value);
+			return this;
+		}
+
+		/**
+		 * Sets whether this request can be sent again after a network error or a transient status.
+		 * GET requests are retryable by default, POST requests are not: a POST that failed may
+		 * still have been processed (and billed) by the server.
+		 * @param retryable true if the request can be retried.
+		 * @return this request.
+		 */
+		public Request retryable (boolean retryable) {
+			this.retryable = retryable;
+			return this;
+		}
+
+		public boolean isRetryable () {
+			return retryable;
+		}
+
+		public String getMethod () {
+			return method;
+		}
+
+		public String getUrl () {
+			return url;
+		}
+
+		public Map<String, String> getHeaders () {
+			return Collections.unmodifiableMap(headers);
+		}
+	}
+
+	/**
+	 * A response, with its body fully read.
+	 */
+	public static final class Response {
+
+		private final int code;
+		private final String message;
+		private final String body;
+		private final String retryAfter;
+
+		Response (int code,
+			String message,
+			String body,
+			String retryAfter)
+		{
+			this.code = code;
+			this.message = message;
+			this.body = body;
+			this.retryAfter = retryAfter;
+		}
+
+		/**
+		 * Gets the HTTP status code of this response.
+		 * @return the status code.
+		 */
+		public int getCode () {
+			return code;
+		}
+
+		/**
+		 * Gets the HTTP status message of this response.
+		 * @return the status message (can be null).
+		 */
+		public String getMessage () {
+			return message;
+		}
+
+		/**
+		 * Gets the body of this response (or its error body), decoded as UTF-8.
+		 * @return the body of the response (never null).
+		 */
+		public String getBody () {
+			return body;
+		}
+
+		/**
+		 * Indicates if the status code of this response is 2xx.
+		 * @return true if the request succeeded.
+		 */
+		public boolean isSuccessful () {
+			return ( code >= 200 ) && ( code < 300 );
+		}
+	}
+
+	/**
+	 * Sets the maximum number of times a retryable request is retried after a network error or a
+	 * transient status (default: 0).
+	 * @param maxRetries the number of retries (0 to never retry).
+	 */
+	public void setMaxRetries (int maxRetries) {
+		this.maxRetries = Math.max(0, maxRetries);
+	}
+
+	/**
+	 * Sets the base interval between two tries (default: 500ms). The interval doubles at each
+	 * retry, and a random part is added to avoid sending all the retries at the same time.
+	 * @param retryInterval the base interval in milliseconds.
+	 */
+	public void setRetryInterval (long retryInterval) {
+		this.retryInterval = Math.max(0, retryInterval);
+	}
+
+	/**
+	 * Sets the timeouts of the connections.
+	 * @param connectTimeout the connection timeout in milliseconds (0 for no timeout).
+	 * @param readTimeout the read timeout in milliseconds (0 for no timeout).
+	 */
+	public void setTimeouts (int connectTimeout,
+		int readTimeout)
+	{
+		this.connectTimeout = connectTimeout;
+		this.readTimeout = readTimeout;
+	}
+
+	/**
+	 * Sets the maximum number of requests sent per second, retries included (default: no limit).
+	 * @param requestsPerSecond the number of requests per second, or 0 for no limit.
+	 */
+	public void setRequestsPerSecond (double requestsPerSecond) {
+		rateLimiter = ( requestsPerSecond > 0 ) ? new TokenBucket(requestsPerSecond) : null;
+	}
+
+	/**
+	 * Sets the maximum number of requests sent at the same time by {@link #sendAll(List)}
+	 * and {@link #invokeAll(List)} (default: 1).
+	 * @param maxConcurrentRequests the maximum number of requests in flight.
+	 */
+	public synchronized void setMaxConcurrentRequests (int maxConcurrentRequests) {
+		maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+		if ( maxConcurrentRequests == this.maxConcurrentRequests ) return;
+		this.maxConcurrentRequests = maxConcurrentRequests;
+		if ( executor != null ) {
+			executor.shutdown();
+			executor = null;
+		}
+	}
+
+	public synchronized int getMaxConcurrentRequests () {
+		return maxConcurrentRequests;
+	}
+
+	/**
+	 * Sends a request, retrying it if needed and if the request is retryable.
+	 * @param request the request to send.
+	 * @return the response of the last try. It may not be successful: check {@link Response#getCode()}.
+	 * @throws IOException if the last try failed with a network error.
+	 * @throws OkapiException if the thread is interrupted while waiting.
+	 */
+	public Response send (Request request)
+		throws IOException
+	{
+		int retries = request.retryable ? maxRetries : 0;
+		for ( int attempt = 0; ; attempt++ ) {
+			acquire();
+			Response response = null;
+			IOException error = null;
+			try {
+				response = execute(request);
+				if ( !isTransient(response.getCode()) ) {
+					return response;
+				}
+			}
+			catch ( IOException e ) {
+				error = e;
+			}
+			if ( attempt >= retries ) {
+				if ( error != null ) throw error;
+				return response;
+			}
+			long wait = getRetryWait(attempt, response);
+			LOGGER.debug("{} {} failed ({}), retry {} in {} ms", request.getMethod(), request.getUrl(),
+				(error != null) ? error.getMessage() : response.getCode(), attempt + 1, wait);
+			sleep(wait);
+		}
+	}
+
+	/**
+	 * Sends several requests, up to the maximum number of concurrent requests at the same time.
+	 * @param requests the requests to send.
+	 * @return the responses, in the order of the requests.
+	 * @throws OkapiIOException if one of the requests failed with a network error.
+	 */
+	public List<Response> sendAll (List<Request> requests) {
+		List<Callable<Response>> tasks = new ArrayList<>(requests.size());
+		for ( Request request : requests ) {
+			tasks.add(() -> send(request));
+		}
+		return invokeAll(tasks);
+	}
+
+	/**
+	 * Runs several tasks (usually each sending one or more requests with this transport),
+	 * up to the maximum number of concurrent requests at the same time. The tasks are run on
+	 * the caller thread, one after the other, if only one request at a time is allowed.
+	 * @param <T> the type of the results.
+	 * @param tasks the tasks to run.
+	 * @return the results of the tasks, in the order of the tasks.
+	 * @throws OkapiIOException if one of the tasks failed with an IOException.
+	 * @throws OkapiException if one of the tasks failed with another checked exception,
+	 * or if the thread is interrupted.
+	 */
+	public <T> List<T> invokeAll (List<? extends Callable<T>> tasks) {
+		List<T> results = new ArrayList<>(tasks.size());
+		ExecutorService exec = ( tasks.size() > 1 ) ? getExecutor() : null;
+		if ( exec == null ) {
+			for ( Callable<T> task : tasks ) {
+				try {
+					results.add(task.call());
+				}
+				catch ( Exception e ) {
+					throw wrap(e);
+				}
+			}
+			return results;
+		}
+
+		List<Future<T>> futures = new ArrayList<>(tasks.size());
+		try {
+			for ( Callable<T> task : tasks ) {
+				futures.add(exec.submit(task));
+			}
+			for ( Future<T> future : futures ) {
+				results.add(future.get());
+			}
+			return results;
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new OkapiException("Interrupted while waiting for the requests.", e);
+		}
+		catch ( ExecutionException e ) {
+			throw wrap(e.getCause());
+		}
+		finally {
+			for ( Future<T> future : futures ) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Releases the threads used to send concurrent requests. The transport can still be used
+	 * after this call: new threads are started when needed.
+	 */
+	@Override
+	public synchronized void close () {
+		if ( executor != null ) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	private synchronized ExecutorService getExecutor () {
+		if ( maxConcurrentRequests <= 1 ) return null;
+		if ( executor == null ) {
+			executor = Executors.newFixedThreadPool(maxConcurrentRequests, r -> {
+				Thread thread = new Thread(r, "okapi-http-transport");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return executor;
+	}
+
+	private Response execute (Request request)
+		throws IOException
+	{
+		HttpURLConnection conn = (HttpURLConnection)new URL(request.url).openConnection();
+		try {
+			conn.setConnectTimeout(connectTimeout);
+			conn.setReadTimeout(readTimeout);
+			conn.setRequestMethod(request.method);
+			for ( Map.Entry<String, String> header : request.headers.entrySet() ) {
+				conn.setRequestProperty(header.getKey(), header.getValue());
+			}
+			if ( request.body != null ) {
+				conn.setDoOutput(true);
+				conn.setFixedLengthStreamingMode(request.body.length);
+				try ( OutputStream out = conn.getOutputStream() ) {
+					out.write(request.body);
+				}
+			}
+			int code = conn.getResponseCode();
+			// Read the whole body, so the connection can be re-used
+			InputStream in = ( code >= 400 ) ? conn.getErrorStream() : conn.getInputStream();
+			String body = ( in == null ) ? ""
+				: new String(StreamUtil.inputStreamToBytes(in), StandardCharsets.UTF_8);
+			return new Response(code, conn.getResponseMessage(), body, conn.getHeaderField("Retry-After"));
+		}
+		catch ( IOException e ) {
+			// The connection is in an unknown state: do not keep it
+			conn.disconnect();
+			throw e;
+		}
+	}
+
+	private static boolean isTransient (int code) {
+		switch ( code ) {
+		case 429: // Too many requests
+		case 500:
+		case 502:
+		case 503:
+		case 504:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	private long getRetryWait (int attempt,
+		Response response)
+	{
+		if (( response != null ) && ( response.retryAfter != null )) {
+			try {
+				long seconds = Long.parseLong(response.retryAfter.trim());
+				return Math.min(MAX_RETRY_INTERVAL, TimeUnit.SECONDS.toMillis(Math.max(0, seconds)));
+			}
+			catch ( NumberFormatException e ) {
+				// HTTP date: use the normal interval
+			}
+		}
+		long max = Math.min(MAX_RETRY_INTERVAL, retryInterval << Math.min(attempt, 16));
+		// Half fixed, half random
+		return (max / 2) + ThreadLocalRandom.current().nextLong((max / 2) + 1);
+	}
+
+	private void acquire () {
+		TokenBucket limiter = rateLimiter;
+		if ( limiter == null ) return;
+		try {
+			limiter.acquire();
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new OkapiException("Interrupted while waiting to send a request.", e);
+		}
+	}
+
+	private static void sleep (long wait) {
+		try {
+			Thread.sleep(wait);
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new OkapiException("Interrupted while waiting to retry a request.", e);
+		}
+	}
+
+	private static RuntimeException wrap (Throwable e) {
+		if ( e instanceof RuntimeException ) return (RuntimeException)e;
+		if ( e instanceof IOException ) return new OkapiIOException(e.getMessage(), e);
+		return new OkapiException(e);
+	}
+
+}
@@ -17,10 +17,22 @@
 package net.sf.okapi.lib.translation;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 import net.sf.okapi.common.IParameters;
 import net.sf.okapi.common.LocaleId;
@@ -37,6 +49,9 @@ import net.sf.okapi.common.resource.TextFragment;
 /**
  * Provides a wrapper to manage and query several translation resources at the 
  * same time. For example, a local TM, a remote TM and a Machine Translation server.
+ * <p>
+ * By default the resources are queried one after the other, in the order they were added.
+ * Use {@link #setMaximumConcurrentQueries(int)} to query them at the same time.
  */
 public class QueryManager implements Iterator<QueryResult> {
 
@@ -54,6 +69,7 @@ public class QueryManager implements Iterator<QueryResult> {
 	private int fuzzyBestMatches;
 	private String rootDir;
 	private int noQueryThreshold = 101;
+	private boolean stopAtNoQueryThreshold = false;
 	// Options
 	private int thresholdToFill = Integer.MAX_VALUE;
 	private boolean leverageIfTargetIsEmpty = true;
@@ -62,6 +78,13 @@ public class QueryManager implements Iterator<QueryResult> {
 	private String targetPrefix = null;
 	private int thresholdToPrefix = 99;
 	private boolean copySourceOnNoText = false;
+	// Concurrent queries
+	private ExecutorService executor;
+	// State of the tasks that timed out, for each resource
+	private final Map<Integer, AtomicInteger> timedOutTasks = new HashMap<>();
+	private static final int TASK_WAITING = 0;
+	private static final int TASK_RUNNING = 1;
+	private static final int TASK_DONE = 2;
 	
 	/**
 	 * Creates a new QueryManager object.
@@ -261,6 +284,44 @@ public class QueryManager implements Iterator<QueryResult> {
 		resList.get(resourceId).enabled = enabled;
 	}
 	
+	/**
+	 * Sets the maximum time to wait for the results of a given translation resource
+	 * when the resources are queried concurrently. A resource that does not answer in time
+	 * makes the query fail with an {@link OkapiException}, and its task is interrupted.
+	 * If the connector does not stop on the interruption, the next queries fail at once
+	 * until it is done.
+	 * @param resourceId ID of the translation resource.
+	 * @param timeout the timeout in milliseconds, or 0 to wait until the resource answers.
+	 * @see #setMaximumConcurrentQueries(int)
+	 */
+	public void setTimeout (int resourceId,
+		long timeout)
+	{
+		resList.get(resourceId).timeout = timeout;
+	}
+	
+	/**
+	 * Sets the maximum number of translation resources queried at the same time by
+	 * {@link #query(String)}, {@link #query(TextFragment)} and {@link #batchQuery(List)}.
+	 * <p>
+	 * When the resources are queried concurrently, the results are still collected in the order
+	 * of the resources, so they are the same as when the resources are queried one after the other.
+	 * @param max the maximum number of concurrent queries. Use 1 (the default) to query the
+	 * resources one after the other.
+	 * @see #setTimeout(int, long)
+	 * @see #setStopAtNoQueryThreshold(boolean)
+	 */
+	public void setMaximumConcurrentQueries (int max) {
+		shutdownExecutor();
+		if ( max > 1 ) {
+			executor = Executors.newFixedThreadPool(max, r -> {
+				Thread thread = new Thread(r, "QueryManager");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+	
 	/**
 	 * Removes a given translation resource.
 	 * @param resourceId ID of the translation resource to remove.
@@ -312,11 +373,20 @@ public class QueryManager implements Iterator<QueryResult> {
 	 * Closes all translation resources in this manager.
 	 */
 	public void close () {
+		shutdownExecutor();
 		for ( ResourceItem ri : resList.values() ) {
 			ri.query.close();
 		}
 	}
 
+	private void shutdownExecutor () {
+		if ( executor != null ) {
+			executor.shutdownNow();
+			executor = null;
+		}
+		timedOutTasks.clear();
+	}
+
 	/**
 	 * Gets the list of all hit results of the last query.
 	 * @return A list of all hit results of the last query.
@@ -364,28 +434,7 @@ public class QueryManager implements Iterator<QueryResult> {
 	 * @return The number of hits for the given query.
 	 */
 	public int query (String plainText) {
-		results.clear();
-		ResourceItem ri;
-		for ( int id : resList.keySet() ) {
-			ri = resList.get(id);
-			if ( !ri.enabled ) continue; // Skip disabled entries
-			if ( ri.query.query(plainText) > 0 ) {
-				QueryResult res = null;
-				while ( ri.query.hasNext() ) {
-					res = ri.query.next();
-					res.connectorId = id;
-					if ( res.getCombinedScore() < threshold ) break; // Weed out MT if needed
-					results.add(res);
-				}
-			}
-		}
-		
-		// remove duplicates based on QueryResult.equals
-		// remove duplicates also sorts in ranked order
-		results = QueryUtil.removeDuplicates(results); 
-		
-		if ( results.size() > 0 ) current = 0;		
-		return results.size();
+		return query(q -> q.query(plainText));
 	}
 
 	/**
@@ -394,21 +443,19 @@ public class QueryManager implements Iterator<QueryResult> {
 	 * @return The number of hits for the given query.
 	 */
 	public int query (TextFragment text) {
+		return query(q -> q.query(text));
+	}
+
+	private int query (ToIntFunction<IQuery> queryCall) {
 		results.clear();
-		ResourceItem ri;
-		for ( int id : resList.keySet() ) {
-			ri = resList.get(id);
-			if ( !ri.enabled ) continue; // Skip disabled entries
-			if ( ri.query.query(text) > 0 ) {
-				QueryResult res = null;
-				while ( ri.query.hasNext() ) {
-					res = ri.query.next();
-					if ( res.getCombinedScore() < threshold ) break;
-					res.connectorId = id;
-					results.add(res);
-				}
+		queryResources(ri -> () -> getHits(ri.query, queryCall.applyAsInt(ri.query)), (id, list) -> {
+			for ( QueryResult res : list ) {
+				res.connectorId = id;
 			}
-		}
+			results.addAll(list);
+			// Do not use the resources with a lower priority if we have a good enough hit
+			return !isGoodEnough(list);
+		});
 		
 		// Remove duplicates based on QueryResult.equals
 		// remove duplicates also sorts in ranked order
@@ -418,6 +465,214 @@ public class QueryManager implements Iterator<QueryResult> {
 		return results.size();
 	}
 
+	/**
+	 * Queries all enabled translation resources for a list of text fragments, using
+	 * {@link IQuery#batchQuery(List)} so the connectors that support batch queries need only
+	 * one round-trip per resource.
+	 * <p>
+	 * The same threshold, duplicate removal and (if enabled) stop at the no-query threshold
+	 * as for {@link #query(TextFragment)}
+	 * apply to the hits of each fragment. This method does not change the results returned by
+	 * {@link #getResults()}.
+	 * @param fragments the text fragments to query.
+	 * @return a list of the hits for each fragment, in the same order as the fragments.
+	 */
+	public List<List<QueryResult>> batchQuery (List<TextFragment> fragments) {
+		List<List<QueryResult>> batchResults = new ArrayList<>(fragments.size());
+		for ( int i=0; i<fragments.size(); i++ ) {
+			batchResults.add(new ArrayList<>());
+		}
+		// Fragments that already have a hit above the no-query threshold
+		boolean[] done = new boolean[fragments.size()];
+		
+		queryResources(ri -> {
+			// Send only the fragments still needing a hit (all of them when the queries are concurrent)
+			List<Integer> indices = new ArrayList<>();
+			List<TextFragment> frags = new ArrayList<>();
+			for ( int i=0; i<fragments.size(); i++ ) {
+				if ( done[i] ) continue;
+				indices.add(i);
+				frags.add(fragments.get(i));
+			}
+			return () -> {
+				List<List<QueryResult>> lists = frags.isEmpty()
+					? new ArrayList<>() : ri.query.batchQuery(frags);
+				Map<Integer, List<QueryResult>> hits = new LinkedHashMap<>();
+				for ( int i=0; i<indices.size(); i++ ) {
+					List<QueryResult> list = new ArrayList<>();
+					if ( i < lists.size() ) {
+						for ( QueryResult res : lists.get(i) ) {
+							if ( res.getCombinedScore() < threshold ) break; // Weed out MT if needed
+							list.add(res);
+						}
+					}
+					hits.put(indices.get(i), list);
+				}
+				return hits;
+			};
+		}, (id, hits) -> {
+			boolean allDone = true;
+			for ( int i : hits.keySet() ) {
+				if ( done[i] ) continue;
+				List<QueryResult> list = hits.get(i);
+				for ( QueryResult res : list ) {
+					res.connectorId = id;
+				}
+				batchResults.get(i).addAll(list);
+				done[i] = isGoodEnough(list);
+			}
+			for ( boolean d : done ) {
+				allDone &= d;
+			}
+			return !allDone;
+		});
+		
+		for ( int i=0; i<batchResults.size(); i++ ) {
+			batchResults.set(i, QueryUtil.removeDuplicates(batchResults.get(i)));
+		}
+		return batchResults;
+	}
+
+	/**
+	 * Gets the hits of the last query of a given translation resource
+	 * that are equal or above the threshold.
+	 * @param query the translation resource.
+	 * @param count the value returned by the query.
+	 * @return the list of hits (can be empty).
+	 */
+	private List<QueryResult> getHits (IQuery query,
+		int count)
+	{
+		List<QueryResult> list = new ArrayList<>();
+		if ( count > 0 ) {
+			while ( query.hasNext() ) {
+				QueryResult res = query.next();
+				if ( res.getCombinedScore() < threshold ) break; // Weed out MT if needed
+				list.add(res);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Indicates if the resources after the one that returned a given list of hits can be skipped.
+	 * @param list the hits.
+	 * @return true if stopping at the no-query threshold is enabled and one of the hits reaches it.
+	 */
+	private boolean isGoodEnough (List<QueryResult> list) {
+		if ( !stopAtNoQueryThreshold ) {
+			return false;
+		}
+		for ( QueryResult res : list ) {
+			if ( res.getCombinedScore() >= noQueryThreshold ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Runs a task on each enabled translation resource and passes the outcome of each task
+	 * to a collector, in the order of the resources, until the collector returns false.
+	 * <p>
+	 * When concurrent queries are enabled all the tasks are started at once. Each connector is
+	 * only used by one thread at a time: a task waits for the previous task on the same resource
+	 * to finish. A resource that does not answer within its timeout makes the query fail, and its
+	 * task is interrupted. A resource still running a task that timed out makes the next queries
+	 * fail at once, rather than wait behind that task.
+	 * @param tasks creates the task for a given resource. It is called on the calling thread,
+	 * just before the task is run (or submitted when the queries are concurrent).
+	 * @param collector receives the resource ID and the outcome of its task, and returns true
+	 * to go on with the next resource.
+	 * @throws OkapiException if a resource times out or the calling thread is interrupted.
+	 */
+	private <T> void queryResources (Function<ResourceItem, Supplier<T>> tasks,
+		BiPredicate<Integer, T> collector)
+	{
+		if ( executor == null ) {
+			for ( int id : resList.keySet() ) {
+				ResourceItem ri = resList.get(id);
+				if ( !ri.enabled ) continue; // Skip disabled entries
+				if ( !collector.test(id, tasks.apply(ri).get()) ) break;
+			}
+			return;
+		}
+		
+		// Check the resources that timed out before
+		for ( int id : resList.keySet() ) {
+			ResourceItem ri = resList.get(id);
+			AtomicInteger state = timedOutTasks.get(id);
+			if ( !ri.enabled || ( state == null )) continue;
+			if ( state.get() == TASK_RUNNING ) {
+				throw new OkapiException(String.format("'%s' is still busy with a query that timed out.", ri.name));
+			}
+			timedOutTasks.remove(id);
+		}
+		
+		// Start the tasks
+		LinkedHashMap<Integer, Future<T>> started = new LinkedHashMap<>();
+		Map<Integer, AtomicInteger> states = new HashMap<>();
+		for ( int id : resList.keySet() ) {
+			ResourceItem ri = resList.get(id);
+			if ( !ri.enabled ) continue; // Skip disabled entries
+			Supplier<T> task = tasks.apply(ri);
+			AtomicInteger state = new AtomicInteger(TASK_WAITING);
+			states.put(id, state);
+			started.put(id, executor.submit(() -> {
+				synchronized ( ri ) {
+					if ( Thread.currentThread().isInterrupted() ) {
+						return null; // Cancelled while waiting for the resource
+					}
+					state.set(TASK_RUNNING);
+					try {
+						return task.get();
+					}
+					finally {
+						state.set(TASK_DONE);
+					}
+				}
+			}));
+		}
+		
+		// Collect the outcomes in the order of the resources
+		try {
+			for ( int id : started.keySet() ) {
+				ResourceItem ri = resList.get(id);
+				T outcome;
+				try {
+					if ( ri.timeout > 0 ) {
+						outcome = started.get(id).get(ri.timeout, TimeUnit.MILLISECONDS);
+					}
+					else {
+						outcome = started.get(id).get();
+					}
+				}
+				catch ( TimeoutException e ) {
+					started.get(id).cancel(true);
+					timedOutTasks.put(id, states.get(id));
+					throw new OkapiException(String.format("No answer from '%s' after %d ms.", ri.name, ri.timeout), e);
+				}
+				catch ( InterruptedException e ) {
+					Thread.currentThread().interrupt();
+					throw new OkapiException("Interrupted while querying the translation resources.", e);
+				}
+				catch ( ExecutionException e ) {
+					if ( e.getCause() instanceof RuntimeException ) {
+						throw (RuntimeException)e.getCause();
+					}
+					throw new OkapiException("Error while querying "+ri.name, e.getCause());
+				}
+				if ( !collector.test(id, outcome) ) break;
+			}
+		}
+		finally {
+			// Tasks not started yet are not needed anymore
+			for ( Future<T> future : started.values() ) {
+				future.cancel(false);
+			}
+		}
+	}
+
 	/**
 	 * Sets an attribute for this manager and all translation resources in
 	 * this manager.
@@ -540,6 +795,20 @@ public class QueryManager implements Iterator<QueryResult> {
 			ri.query.setNoQueryThreshold(this.noQueryThreshold);
 		}
 	}
+
+	/**
+	 * Sets whether {@link #query(String)}, {@link #query(TextFragment)} and {@link #batchQuery(List)}
+	 * skip the translation resources after the first one that returns a hit with a score equal
+	 * or above the no-query threshold (default: false, all the enabled resources are queried).
+	 * <p>
+	 * The resources are used in the order they were added, whether they are queried concurrently
+	 * or not, so the results are the same in both modes.
+	 * @param stopAtNoQueryThreshold true to skip the resources after a good enough hit.
+	 * @see #setNoQueryThreshold(int)
+	 */
+	public void setStopAtNoQueryThreshold (boolean stopAtNoQueryThreshold) {
+		this.stopAtNoQueryThreshold = stopAtNoQueryThreshold;
+	}
 	
 	/**
 	 * Sets the options for performing the leverage.
@@ -601,8 +870,15 @@ public class QueryManager implements Iterator<QueryResult> {
 			ri.query.leverage(tu);
 		}
 		
-		// Sort annotations added across IQuery.leverage calls
-		// and fill in best matching target if needed
+		fillTarget(tu);
+	}
+	
+	/**
+	 * Sorts the annotations added across the IQuery leverage calls,
+	 * updates the statistics and fills in the best matching target if needed.
+	 * @param tu the leveraged text unit.
+	 */
+	private void fillTarget (ITextUnit tu) {
 		AltTranslationsAnnotation altTrans = null;
 		AltTranslation bestMatch = null;
 		
@@ -37,5 +37,11 @@ public class ResourceItem {
 	 * the name of this resource.
 	 */
 	public String name;
+	
+	/**
+	 * The maximum time (in milliseconds) to wait for the results of this resource
+	 * when the resources are queried concurrently, or 0 for no limit.
+	 */
+	public long timeout;
 
 }
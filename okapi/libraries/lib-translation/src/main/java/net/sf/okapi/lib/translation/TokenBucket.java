@@ -0,0 +1,70 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.lib.translation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket used to limit the rate of the requests sent by an {@link HttpTransport}.
+ * <p>
+ * The bucket holds up to one second worth of tokens, so short bursts are allowed
+ * while the average rate stays under the given number of permits per second.
+ */
+final class TokenBucket {
+
+	private final double permitsPerSecond;
+	private final double capacity;
+	private double tokens;
+	private long lastRefill;
+
+	/**
+	 * Creates a full bucket.
+	 * @param permitsPerSecond the number of permits added per second (must be positive).
+	 */
+	TokenBucket (double permitsPerSecond) {
+		this.permitsPerSecond = permitsPerSecond;
+		capacity = Math.max(1.0, permitsPerSecond);
+		tokens = capacity;
+		lastRefill = System.nanoTime();
+	}
+
+	/**
+	 * Takes one permit, waiting until one is available.
+	 * @throws InterruptedException if the thread is interrupted while waiting.
+	 */
+	void acquire ()
+		throws InterruptedException
+	{
+		long wait;
+		synchronized ( this ) {
+			refill();
+			// Reserve the permit now, even if it has to be waited for,
+			// so the callers are served in order
+			tokens -= 1.0;
+			if ( tokens >= 0.0 ) return;
+			wait = (long)(-tokens * TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+		}
+		TimeUnit.NANOSECONDS.sleep(wait);
+	}
+
+	private void refill () {
+		long now = System.nanoTime();
+		tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+		lastRefill = now;
+	}
+
+}
@@ -0,0 +1,461 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.lib.translation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.okapi.common.exceptions.OkapiException;
+import net.sf.okapi.common.exceptions.OkapiIOException;
+import net.sf.okapi.common.query.MatchType;
+import net.sf.okapi.common.query.QueryResult;
+import net.sf.okapi.common.resource.Code;
+import net.sf.okapi.common.resource.TextFragment;
+
+/**
+ * Cache of query results that can be shared by several {@link CachingConnector} objects,
+ * possibly used from different threads.
+ * <p>
+ * The most recently used entries are kept in memory. If a file is specified, every entry is
+ * also appended to it, and entries no longer in memory are read back from the file when needed.
+ * The file can be re-used from one session to the next. Entries older than the time-to-live
+ * are ignored.
+ * <p>
+ * Only a SHA-256 digest of each key is kept in memory for the entries of the file. The file is
+ * compacted when it is opened: the expired records and the records replaced by a later one are
+ * dropped, as well as anything after the first corrupted record.
+ */
+public class TranslationCache implements AutoCloseable {
+
+	private final int maxEntries;
+	private final long timeToLive;
+	private final LinkedHashMap<String, CacheEntry> memory;
+	private RandomAccessFile log;
+	// Offset of the last record for each key digest in the log
+	private final Map<ByteBuffer, Long> logIndex = new HashMap<>();
+	private long hits;
+	private long misses;
+
+	private static final class CacheEntry {
+		final long created;
+		final List<QueryResult> results;
+
+		CacheEntry (long created, List<QueryResult> results) {
+			this.created = created;
+			this.results = results;
+		}
+	}
+
+	/**
+	 * Creates a memory-only cache.
+	 * @param maxEntries the maximum number of entries kept in memory.
+	 * @param timeToLive the time (in milliseconds) after which an entry expires, or 0 for no expiration.
+	 */
+	public TranslationCache (int maxEntries,
+		long timeToLive)
+	{
+		this(maxEntries, timeToLive, null);
+	}
+
+	/**
+	 * Creates a cache backed by a file.
+	 * @param maxEntries the maximum number of entries kept in memory.
+	 * @param timeToLive the time (in milliseconds) after which an entry expires, or 0 for no expiration.
+	 * @param logFile the file where to store the entries (it is created if needed), or null
+	 * for a memory-only cache.
+	 * @throws OkapiIOException if the file cannot be opened or read.
+	 */
+	public TranslationCache (int maxEntries,
+		long timeToLive,
+		File logFile)
+	{
+		this.maxEntries = maxEntries;
+		this.timeToLive = timeToLive;
+		memory = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry (Map.Entry<String, CacheEntry> eldest) {
+				return size() > TranslationCache.this.maxEntries;
+			}
+		};
+		if ( logFile != null ) {
+			openLog(logFile);
+		}
+	}
+
+	/**
+	 * Gets a copy of the results stored for a given key.
+	 * @param key the key of the query.
+	 * @return a copy of the results, or null if the key is not in the cache or has expired.
+	 */
+	public synchronized List<QueryResult> get (String key) {
+		CacheEntry entry = memory.get(key);
+		if (( entry == null ) && ( log != null )) {
+			Long offset = logIndex.get(digest(key));
+			if ( offset != null ) {
+				entry = readEntry(offset, key);
+				if ( entry != null ) {
+					memory.put(key, entry);
+				}
+			}
+		}
+		if (( entry == null ) || isExpired(entry.created)) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return copy(entry.results);
+	}
+
+	/**
+	 * Stores the results for a given key.
+	 * @param key the key of the query.
+	 * @param results the results to store (a copy is stored).
+	 */
+	public synchronized void put (String key,
+		List<QueryResult> results)
+	{
+		CacheEntry entry = new CacheEntry(System.currentTimeMillis(), copy(results));
+		memory.put(key, entry);
+		if ( log != null ) {
+			writeEntry(key, entry);
+		}
+	}
+
+	/**
+	 * Gets the number of successful lookups since this cache was created.
+	 * @return the number of hits.
+	 */
+	public synchronized long getHits () {
+		return hits;
+	}
+
+	/**
+	 * Gets the number of failed lookups since this cache was created.
+	 * @return the number of misses.
+	 */
+	public synchronized long getMisses () {
+		return misses;
+	}
+
+	@Override
+	public synchronized void close () {
+		memory.clear();
+		logIndex.clear();
+		if ( log != null ) {
+			try {
+				log.close();
+			}
+			catch ( IOException e ) {
+				throw new OkapiIOException("Error closing the translation cache.", e);
+			}
+			log = null;
+		}
+	}
+
+	private boolean isExpired (long created) {
+		return ( timeToLive > 0 ) && ( System.currentTimeMillis() - created > timeToLive );
+	}
+
+	private void openLog (File logFile) {
+		try {
+			log = new RandomAccessFile(logFile, "rw");
+			// Index the existing records
+			int records = 0;
+			long offset = 0;
+			long length = log.length();
+			while ( offset + 4 <= length ) {
+				log.seek(offset);
+				int size = log.readInt();
+				if (( size <= 0 ) || ( size > length - offset - 4 )) {
+					break; // Corrupted or truncated record (e.g. interrupted write): drop the rest
+				}
+				byte[] record = new byte[size];
+				log.readFully(record);
+				DataInputStream dis = new DataInputStream(new ByteArrayInputStream(record));
+				String key;
+				CacheEntry entry;
+				try {
+					key = readString(dis);
+					entry = readEntry(dis);
+				}
+				catch ( IOException | RuntimeException e ) {
+					break; // Corrupted record: drop it and the rest
+				}
+				if (( key == null ) || isExpired(entry.created) ) {
+					logIndex.remove(digest(key));
+				}
+				else {
+					logIndex.put(digest(key), offset);
+				}
+				records++;
+				offset += 4 + size;
+			}
+			if (( records > logIndex.size() ) || ( offset < length )) {
+				compactLog(logFile);
+			}
+		}
+		catch ( IOException e ) {
+			throw new OkapiIOException("Error opening the translation cache " + logFile.getPath(), e);
+		}
+	}
+
+	/**
+	 * Rewrites the log with only the records of the index, and updates the index.
+	 */
+	private void compactLog (File logFile)
+		throws IOException
+	{
+		File tmpFile = new File(logFile.getPath() + ".tmp");
+		Map<ByteBuffer, Long> newIndex = new HashMap<>();
+		try ( DataOutputStream dos = new DataOutputStream(Files.newOutputStream(tmpFile.toPath())) ) {
+			for ( Map.Entry<ByteBuffer, Long> item : logIndex.entrySet() ) {
+				log.seek(item.getValue());
+				byte[] record = new byte[log.readInt()];
+				log.readFully(record);
+				newIndex.put(item.getKey(), (long)dos.size());
+				dos.writeInt(record.length);
+				dos.write(record);
+			}
+		}
+		log.close();
+		log = null;
+		Files.move(tmpFile.toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		log = new RandomAccessFile(logFile, "rw");
+		logIndex.clear();
+		logIndex.putAll(newIndex);
+	}
+
+	private void writeEntry (String key,
+		CacheEntry entry)
+	{
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			DataOutputStream dos = new DataOutputStream(bos);
+			writeString(dos, key);
+			dos.writeLong(entry.created);
+			dos.writeInt(entry.results.size());
+			for ( QueryResult qr : entry.results ) {
+				writeFragment(dos, qr.source);
+				writeFragment(dos, qr.target);
+				dos.writeInt(qr.getFuzzyScore());
+				// getCombinedScore() falls back to the fuzzy score, which can be above 100
+				dos.writeBoolean(qr.isCombinedScoreDefined());
+				if ( qr.isCombinedScoreDefined() ) {
+					dos.writeInt(qr.getCombinedScore());
+				}
+				dos.writeInt(qr.getQuality());
+				dos.writeInt(qr.weight);
+				writeString(dos, (qr.matchType == null) ? null : qr.matchType.name());
+				writeString(dos, qr.origin);
+				writeString(dos, qr.engine);
+				dos.writeBoolean(qr.creationDate != null);
+				if ( qr.creationDate != null ) {
+					dos.writeLong(qr.creationDate.getTime());
+				}
+				writeString(dos, qr.entryId);
+				dos.writeInt(qr.connectorId);
+			}
+			dos.flush();
+			long offset = log.length();
+			log.seek(offset);
+			log.writeInt(bos.size());
+			log.write(bos.toByteArray());
+			logIndex.put(digest(key), offset);
+		}
+		catch ( IOException e ) {
+			throw new OkapiIOException("Error writing to the translation cache.", e);
+		}
+	}
+
+	/**
+	 * Reads the entry of a record.
+	 * @param offset the offset of the record in the log.
+	 * @param key the expected key.
+	 * @return the entry, or null if the record is for another key with the same digest.
+	 */
+	private CacheEntry readEntry (long offset,
+		String key)
+	{
+		try {
+			log.seek(offset);
+			byte[] record = new byte[log.readInt()];
+			log.readFully(record);
+			DataInputStream dis = new DataInputStream(new ByteArrayInputStream(record));
+			if ( !key.equals(readString(dis)) ) {
+				return null;
+			}
+			return readEntry(dis);
+		}
+		catch ( IOException e ) {
+			throw new OkapiIOException("Error reading from the translation cache.", e);
+		}
+	}
+
+	/**
+	 * Reads the part of a record after its key.
+	 */
+	private static CacheEntry readEntry (DataInputStream dis)
+		throws IOException
+	{
+		long created = dis.readLong();
+		int count = dis.readInt();
+		if (( count < 0 ) || ( count > dis.available() )) {
+			throw new IOException("Invalid number of results: " + count);
+		}
+		List<QueryResult> results = new ArrayList<>(count);
+		for ( int i=0; i<count; i++ ) {
+			QueryResult qr = new QueryResult();
+			qr.source = readFragment(dis);
+			qr.target = readFragment(dis);
+			qr.setFuzzyScore(dis.readInt());
+			if ( dis.readBoolean() ) {
+				qr.setCombinedScore(dis.readInt());
+			}
+			qr.setQuality(dis.readInt());
+			qr.weight = dis.readInt();
+			String matchType = readString(dis);
+			qr.matchType = (matchType == null) ? null : MatchType.valueOf(matchType);
+			qr.origin = readString(dis);
+			qr.engine = readString(dis);
+			qr.creationDate = dis.readBoolean() ? new Date(dis.readLong()) : null;
+			qr.entryId = readString(dis);
+			qr.connectorId = dis.readInt();
+			results.add(qr);
+		}
+		return new CacheEntry(created, results);
+	}
+
+	private static void writeFragment (DataOutputStream dos,
+		TextFragment tf)
+		throws IOException
+	{
+		if ( tf == null ) {
+			writeString(dos, null);
+			return;
+		}
+		writeString(dos, tf.getCodedText());
+		writeString(dos, Code.codesToString(tf.getCodes()));
+	}
+
+	private static TextFragment readFragment (DataInputStream dis)
+		throws IOException
+	{
+		String codedText = readString(dis);
+		if ( codedText == null ) {
+			return null;
+		}
+		return new TextFragment(codedText, Code.stringToCodes(readString(dis)));
+	}
+
+	private static void writeString (DataOutputStream dos,
+		String value)
+		throws IOException
+	{
+		if ( value == null ) {
+			dos.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		dos.writeInt(bytes.length);
+		dos.write(bytes);
+	}
+
+	private static String readString (DataInputStream dis)
+		throws IOException
+	{
+		int length = dis.readInt();
+		if ( length == -1 ) {
+			return null;
+		}
+		if (( length < 0 ) || ( length > dis.available() )) {
+			throw new IOException("Invalid string length: " + length);
+		}
+		byte[] bytes = new byte[length];
+		dis.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Gets the SHA-256 digest of a given text.
+	 * @param text the text (can be null).
+	 * @return the digest.
+	 */
+	static byte[] sha256 (String text) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			if ( text != null ) {
+				md.update(text.getBytes(StandardCharsets.UTF_8));
+			}
+			return md.digest();
+		}
+		catch ( NoSuchAlgorithmException e ) {
+			// Every Java platform is required to support SHA-256
+			throw new OkapiException("SHA-256 is not available.", e);
+		}
+	}
+
+	private static ByteBuffer digest (String key) {
+		return ByteBuffer.wrap(sha256(key));
+	}
+
+	/**
+	 * Copies a list of results. The callers modify the fragments of the results they get
+	 * (e.g. to adjust the codes), so the cache never hands out its own objects.
+	 */
+	private static List<QueryResult> copy (List<QueryResult> results) {
+		List<QueryResult> list = new ArrayList<>(results.size());
+		for ( QueryResult qr : results ) {
+			QueryResult res = new QueryResult();
+			res.source = (qr.source == null) ? null : qr.source.clone();
+			res.target = (qr.target == null) ? null : qr.target.clone();
+			res.setFuzzyScore(qr.getFuzzyScore());
+			if ( qr.isCombinedScoreDefined() ) {
+				res.setCombinedScore(qr.getCombinedScore());
+			}
+			res.setQuality(qr.getQuality());
+			res.weight = qr.weight;
+			res.matchType = qr.matchType;
+			res.origin = qr.origin;
+			res.engine = qr.engine;
+			res.creationDate = (qr.creationDate == null) ? null : new Date(qr.creationDate.getTime());
+			res.entryId = qr.entryId;
+			res.connectorId = qr.connectorId;
+			list.add(res);
+		}
+		return list;
+	}
+
+}
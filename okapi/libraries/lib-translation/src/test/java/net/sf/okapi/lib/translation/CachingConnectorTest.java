@@ -0,0 +1,258 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.lib.translation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import net.sf.okapi.common.LocaleId;
+import net.sf.okapi.common.query.MatchType;
+import net.sf.okapi.common.query.QueryResult;
+import net.sf.okapi.common.resource.TextFragment;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class CachingConnectorTest {
+
+	private LocaleId locSrc = LocaleId.fromString("en");
+	private LocaleId locTrg = LocaleId.fromString("fr");
+
+	@Test
+	public void testQueryUsesCache () {
+		CountingConnector conn = new CountingConnector();
+		try ( TranslationCache cache = new TranslationCache(100, 0) ) {
+			CachingConnector cc = createConnector(conn, cache);
+			assertEquals(1, cc.query("text"));
+			assertEquals("TEXT", cc.next().target.toText());
+			assertFalse(cc.hasNext());
+			assertEquals(1, cc.query("text"));
+			QueryResult qr = cc.next();
+			assertEquals("TEXT", qr.target.toText());
+			assertEquals(90, qr.getCombinedScore());
+			assertEquals(1, conn.queries);
+			// Modifying a result does not modify the cache
+			qr.target.append("x");
+			cc.query("text");
+			assertEquals("TEXT", cc.next().target.toText());
+			// Different locales mean a different entry
+			cc.setLanguages(locSrc, LocaleId.fromString("de"));
+			cc.query("text");
+			assertEquals(2, conn.queries);
+		}
+	}
+
+	@Test
+	public void testBatchQuerySendsOnlyMisses () {
+		CountingConnector conn = new CountingConnector();
+		try ( TranslationCache cache = new TranslationCache(100, 0) ) {
+			CachingConnector cc = createConnector(conn, cache);
+			cc.query("b");
+			List<List<QueryResult>> res = cc.batchQuery(Arrays.asList(
+				new TextFragment("a"), new TextFragment("b"), new TextFragment("c")));
+			assertEquals(3, res.size());
+			assertEquals("A", res.get(0).get(0).target.toText());
+			assertEquals("B", res.get(1).get(0).target.toText());
+			assertEquals("C", res.get(2).get(0).target.toText());
+			assertEquals(Arrays.asList("b", "a", "c"), conn.queried);
+			assertEquals(1, cache.getHits());
+		}
+	}
+
+	@Test
+	public void testPersistentCache ()
+		throws IOException
+	{
+		File file = File.createTempFile("okapi-cache", ".bin");
+		file.deleteOnExit();
+		CountingConnector conn = new CountingConnector();
+		try ( TranslationCache cache = new TranslationCache(1, 0, file) ) {
+			CachingConnector cc = createConnector(conn, cache);
+			cc.query("a");
+			cc.query("b"); // Pushes "a" out of memory
+			cc.query("a");
+			assertEquals("A", cc.next().target.toText());
+			assertEquals(2, conn.queries);
+		}
+		try ( TranslationCache cache = new TranslationCache(10, 0, file) ) {
+			CachingConnector cc = createConnector(conn, cache);
+			cc.query("b");
+			QueryResult qr = cc.next();
+			assertEquals("B", qr.target.toText());
+			assertEquals(MatchType.MT, qr.matchType);
+			assertEquals(2, conn.queries);
+		}
+	}
+
+	@Test
+	public void testLogIsCompactedOnOpen ()
+		throws IOException
+	{
+		File file = File.createTempFile("okapi-cache", ".bin");
+		file.deleteOnExit();
+		long oneRecord;
+		try ( TranslationCache cache = new TranslationCache(10, 0, file) ) {
+			cache.put("key", createResults("first"));
+			oneRecord = file.length();
+			cache.put("key", createResults("again"));
+			assertEquals(2 * oneRecord, file.length());
+		}
+		try ( TranslationCache cache = new TranslationCache(10, 0, file) ) {
+			assertEquals(oneRecord, file.length());
+			assertEquals("again", cache.get("key").get(0).target.toText());
+		}
+	}
+
+	@Test
+	public void testCorruptedRecordIsDropped ()
+		throws IOException
+	{
+		File file = File.createTempFile("okapi-cache", ".bin");
+		file.deleteOnExit();
+		long oneRecord;
+		try ( TranslationCache cache = new TranslationCache(10, 0, file) ) {
+			cache.put("a", createResults("A"));
+			oneRecord = file.length();
+			cache.put("b", createResults("B"));
+			cache.put("c", createResults("C"));
+		}
+		// Corrupt the length of the second record
+		try ( RandomAccessFile raf = new RandomAccessFile(file, "rw") ) {
+			raf.seek(oneRecord);
+			raf.writeInt(-5);
+		}
+		try ( TranslationCache cache = new TranslationCache(10, 0, file) ) {
+			assertEquals(oneRecord, file.length());
+			assertEquals("A", cache.get("a").get(0).target.toText());
+			assertNull(cache.get("b"));
+			assertNull(cache.get("c"));
+		}
+	}
+
+	@Test
+	public void testResultsAreRoundTripped ()
+		throws IOException
+	{
+		File file = File.createTempFile("okapi-cache", ".bin");
+		file.deleteOnExit();
+		QueryResult qr = createResults("target").get(0);
+		qr.setFuzzyScore(101); // No combined score: getCombinedScore() returns 101
+		qr.creationDate = new Date(1234567890000L);
+		qr.entryId = "entry-1";
+		qr.connectorId = 7;
+		QueryResult qr2 = createResults("other").get(0);
+		qr2.setFuzzyScore(120);
+		qr2.setCombinedScore(95);
+		qr2.creationDate = null;
+		try ( TranslationCache cache = new TranslationCache(10, 0, file) ) {
+			cache.put("key", Arrays.asList(qr, qr2));
+			// From memory
+			assertSameResult(qr, cache.get("key").get(0));
+			assertSameResult(qr2, cache.get("key").get(1));
+		}
+		try ( TranslationCache cache = new TranslationCache(10, 0, file) ) {
+			// From the file
+			List<QueryResult> res = cache.get("key");
+			assertSameResult(qr, res.get(0));
+			assertSameResult(qr2, res.get(1));
+		}
+	}
+
+	private void assertSameResult (QueryResult expected,
+		QueryResult actual)
+	{
+		assertEquals(expected.target.toText(), actual.target.toText());
+		assertEquals(expected.getFuzzyScore(), actual.getFuzzyScore());
+		assertEquals(expected.isCombinedScoreDefined(), actual.isCombinedScoreDefined());
+		assertEquals(expected.getCombinedScore(), actual.getCombinedScore());
+		assertEquals(expected.creationDate, actual.creationDate);
+		assertEquals(expected.entryId, actual.entryId);
+		assertEquals(expected.connectorId, actual.connectorId);
+	}
+
+	@Test
+	public void testExpiredEntries ()
+		throws InterruptedException
+	{
+		CountingConnector conn = new CountingConnector();
+		try ( TranslationCache cache = new TranslationCache(10, 20) ) {
+			CachingConnector cc = createConnector(conn, cache);
+			cc.query("a");
+			Thread.sleep(50);
+			cc.query("a");
+			assertTrue(cc.hasNext());
+			assertEquals(2, conn.queries);
+		}
+	}
+
+	private List<QueryResult> createResults (String translation) {
+		QueryResult qr = new QueryResult();
+		qr.source = new TextFragment("source");
+		qr.target = new TextFragment(translation);
+		qr.matchType = MatchType.MT;
+		return Arrays.asList(qr);
+	}
+
+	private CachingConnector createConnector (CountingConnector conn,
+		TranslationCache cache)
+	{
+		CachingConnector cc = new CachingConnector(conn, cache);
+		cc.setLanguages(locSrc, locTrg);
+		cc.open();
+		return cc;
+	}
+
+	/**
+	 * Connector that translates by upper-casing the text, and counts its queries.
+	 */
+	private static class CountingConnector extends DummyConnector {
+		int queries;
+		List<String> queried = new ArrayList<>();
+
+		@Override
+		public int query (String plainText) {
+			return query(new TextFragment(plainText));
+		}
+
+		@Override
+		public int query (TextFragment text) {
+			queries++;
+			queried.add(text.toText());
+			result = new QueryResult();
+			result.source = text;
+			result.target = new TextFragment(text.toText().toUpperCase());
+			result.matchType = MatchType.MT;
+			result.setFuzzyScore(90);
+			result.setCombinedScore(90);
+			current = 0;
+			return 1;
+		}
+	}
+
+}
@@ -0,0 +1,275 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.lib.translation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.okapi.common.StreamUtil;
+import net.sf.okapi.lib.translation.HttpTransport.Request;
+import net.sf.okapi.lib.translation.HttpTransport.Response;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+@RunWith(JUnit4.class)
+public class HttpTransportTest {
+
+	private HttpServer server;
+	private ExecutorService serverThreads;
+	private String baseUrl;
+	private final Set<Integer> clientPorts = new HashSet<>();
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private final AtomicInteger failuresLeft = new AtomicInteger();
+
+	@Before
+	public void setUp ()
+		throws IOException
+	{
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		serverThreads = Executors.newFixedThreadPool(8);
+		server.setExecutor(serverThreads);
+		// Echoes the path and the body
+		server.createContext("/echo", exchange -> {
+			hits.incrementAndGet();
+			synchronized ( clientPorts ) {
+				clientPorts.add(exchange.getRemoteAddress().getPort());
+			}
+			String body = new String(StreamUtil.inputStreamToBytes(exchange.getRequestBody()), StandardCharsets.UTF_8);
+			reply(exchange, 200, exchange.getRequestURI().getPath() + body);
+		});
+		// Fails with 503 until failuresLeft is 0
+		server.createContext("/flaky", exchange -> {
+			hits.incrementAndGet();
+			if ( failuresLeft.getAndDecrement() > 0 ) {
+				reply(exchange, 503, "busy");
+			}
+			else {
+				reply(exchange, 200, "ok");
+			}
+		});
+		server.createContext("/bad", exchange -> {
+			hits.incrementAndGet();
+			reply(exchange, 400, "bad request");
+		});
+		// Takes some time, to check the number of requests in flight
+		server.createContext("/slow", exchange -> {
+			int current = inFlight.incrementAndGet();
+			maxInFlight.accumulateAndGet(current, Math::max);
+			try {
+				Thread.sleep(100);
+			}
+			catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+			}
+			inFlight.decrementAndGet();
+			reply(exchange, 200, exchange.getRequestURI().getPath());
+		});
+		server.start();
+		baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	@After
+	public void tearDown () {
+		server.stop(0);
+		serverThreads.shutdownNow();
+	}
+
+	private static void reply (HttpExchange exchange,
+		int code,
+		String body)
+		throws IOException
+	{
+		byte[] data = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(code, data.length);
+		try ( OutputStream out = exchange.getResponseBody() ) {
+			out.write(data);
+		}
+	}
+
+	@Test
+	public void testConnectionsAreReused ()
+		throws IOException
+	{
+		try ( HttpTransport transport = new HttpTransport() ) {
+			for ( int i = 0; i < 5; i++ ) {
+				Response response = transport.send(Request.get(baseUrl + "/echo/" + i));
+				assertTrue(response.isSuccessful());
+				assertEquals("/echo/" + i, response.getBody());
+			}
+		}
+		assertEquals(5, hits.get());
+		assertEquals(1, clientPorts.size());
+	}
+
+	@Test
+	public void testPost ()
+		throws IOException
+	{
+		try ( HttpTransport transport = new HttpTransport() ) {
+			Response response = transport.send(Request.post(baseUrl + "/echo", "application/json", "{\"q\":\"été\"}"));
+			assertEquals(200, response.getCode());
+			assertEquals("/echo{\"q\":\"été\"}", response.getBody());
+		}
+	}
+
+	@Test
+	public void testRetryOnTransientStatus ()
+		throws IOException
+	{
+		failuresLeft.set(2);
+		try ( HttpTransport transport = new HttpTransport() ) {
+			transport.setRetryInterval(1);
+			transport.setMaxRetries(2);
+			Response response = transport.send(Request.get(baseUrl + "/flaky"));
+			assertEquals(200, response.getCode());
+			assertEquals("ok", response.getBody());
+		}
+		assertEquals(3, hits.get());
+	}
+
+	@Test
+	public void testLastTransientResponseIsReturned ()
+		throws IOException
+	{
+		failuresLeft.set(10);
+		try ( HttpTransport transport = new HttpTransport() ) {
+			transport.setRetryInterval(1);
+			transport.setMaxRetries(1);
+			Response response = transport.send(Request.get(baseUrl + "/flaky"));
+			assertEquals(503, response.getCode());
+			assertEquals("busy", response.getBody());
+		}
+		assertEquals(2, hits.get());
+	}
+
+	@Test
+	public void testNoRetryByDefault ()
+		throws IOException
+	{
+		failuresLeft.set(1);
+		try ( HttpTransport transport = new HttpTransport() ) {
+			transport.setRetryInterval(1);
+			assertEquals(503, transport.send(Request.get(baseUrl + "/flaky")).getCode());
+		}
+		assertEquals(1, hits.get());
+	}
+
+	@Test
+	public void testPostRetryIsOptIn ()
+		throws IOException
+	{
+		try ( HttpTransport transport = new HttpTransport() ) {
+			transport.setRetryInterval(1);
+			transport.setMaxRetries(2);
+			failuresLeft.set(1);
+			Request request = Request.post(baseUrl + "/flaky", "application/json", "{}");
+			assertFalse(request.isRetryable());
+			assertEquals(503, transport.send(request).getCode());
+			assertEquals(1, hits.get());
+			
+			failuresLeft.set(1);
+			request.retryable(true);
+			assertEquals(200, transport.send(request).getCode());
+			assertEquals(3, hits.get());
+		}
+	}
+
+	@Test
+	public void testNoRetryOnClientError ()
+		throws IOException
+	{
+		try ( HttpTransport transport = new HttpTransport() ) {
+			transport.setRetryInterval(1);
+			transport.setMaxRetries(2);
+			Response response = transport.send(Request.get(baseUrl + "/bad"));
+			assertFalse(response.isSuccessful());
+			assertEquals(400, response.getCode());
+			assertEquals("bad request", response.getBody());
+		}
+		assertEquals(1, hits.get());
+	}
+
+	@Test
+	public void testSendAllKeepsOrder () {
+		List<Request> requests = new ArrayList<>();
+		for ( int i = 0; i < 8; i++ ) {
+			requests.add(Request.get(baseUrl + "/slow/" + i));
+		}
+		try ( HttpTransport transport = new HttpTransport() ) {
+			transport.setMaxConcurrentRequests(4);
+			List<Response> responses = transport.sendAll(requests);
+			assertEquals(8, responses.size());
+			for ( int i = 0; i < 8; i++ ) {
+				assertEquals("/slow/" + i, responses.get(i).getBody());
+			}
+		}
+		assertTrue(maxInFlight.get() > 1);
+		assertTrue(maxInFlight.get() <= 4);
+	}
+
+	@Test
+	public void testSendAllSequential () {
+		List<Request> requests = new ArrayList<>();
+		for ( int i = 0; i < 3; i++ ) {
+			requests.add(Request.get(baseUrl + "/slow/" + i));
+		}
+		try ( HttpTransport transport = new HttpTransport() ) {
+			List<Response> responses = transport.sendAll(requests);
+			assertEquals("/slow/2", responses.get(2).getBody());
+		}
+		assertEquals(1, maxInFlight.get());
+	}
+
+	@Test
+	public void testRateLimit ()
+		throws IOException
+	{
+		try ( HttpTransport transport = new HttpTransport() ) {
+			transport.setRequestsPerSecond(20);
+			long start = System.nanoTime();
+			for ( int i = 0; i < 30; i++ ) {
+				transport.send(Request.get(baseUrl + "/echo"));
+			}
+			// 20 permits are available at once, the other 10 come at 20 per second
+			long elapsed = (System.nanoTime() - start) / 1000000;
+			assertTrue("elapsed: " + elapsed, elapsed >= 400);
+		}
+	}
+
+}
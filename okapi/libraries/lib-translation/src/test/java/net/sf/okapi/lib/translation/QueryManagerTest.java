@@ -18,9 +18,26 @@ package net.sf.okapi.lib.translation;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import net.sf.okapi.common.LocaleId;
+import net.sf.okapi.common.exceptions.OkapiException;
 import net.sf.okapi.common.query.IQuery;
+import net.sf.okapi.common.query.MatchType;
+import net.sf.okapi.common.query.QueryResult;
+import net.sf.okapi.common.resource.TextFragment;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -38,6 +55,11 @@ public class QueryManagerTest {
 		qm = new QueryManager();
 	}
 
+	@After
+	public void tearDown() {
+		qm.close();
+	}
+
 	@Test
 	public void testLanguages () {
 		qm.setLanguages(locSrc, locTrg);
@@ -56,4 +78,250 @@ public class QueryManagerTest {
 		assertNotNull(q);
 	}
 
+	@Test
+	public void testConcurrentQueriesKeepResourceOrder () {
+		qm.setMaximumConcurrentQueries(3);
+		qm.setThreshold(0);
+		CountDownLatch fastDone = new CountDownLatch(1);
+		// The first resource answers only once the second one has answered
+		FixedConnector slow = new FixedConnector("slow", 80);
+		slow.waitFor = fastDone;
+		FixedConnector fast = new FixedConnector("fast", 70);
+		fast.signal = fastDone;
+		qm.addResource(slow, "slow");
+		qm.addResource(fast, "fast");
+		assertEquals(2, qm.query(new TextFragment("text")));
+		// Ranked order
+		assertEquals("slow", qm.next().target.toText());
+		assertEquals("fast", qm.next().target.toText());
+	}
+
+	@Test
+	public void testAllResourcesQueriedByDefault () {
+		qm.setThreshold(0);
+		qm.setNoQueryThreshold(100);
+		qm.addResource(new FixedConnector("tm", 100), "tm");
+		FixedConnector mt = new FixedConnector("mt", 95);
+		qm.addResource(mt, "mt");
+		assertEquals(2, qm.query("text"));
+		assertEquals("tm", qm.next().target.toText());
+		assertEquals("mt", qm.next().target.toText());
+		assertEquals(Arrays.asList("text"), mt.queried);
+	}
+
+	@Test
+	public void testNoQueryThreshold () {
+		qm.setThreshold(0);
+		qm.setNoQueryThreshold(100);
+		qm.setStopAtNoQueryThreshold(true);
+		qm.addResource(new FixedConnector("tm", 100), "tm");
+		FixedConnector mt = new FixedConnector("mt", 95);
+		qm.addResource(mt, "mt");
+		assertEquals(1, qm.query("text"));
+		assertEquals("tm", qm.next().target.toText());
+		assertTrue(mt.queried.isEmpty());
+	}
+
+	@Test
+	public void testConcurrentQueriesStopAtNoQueryThreshold () {
+		qm.setMaximumConcurrentQueries(3);
+		qm.setThreshold(0);
+		qm.setNoQueryThreshold(100);
+		qm.setStopAtNoQueryThreshold(true);
+		qm.addResource(new FixedConnector("tm", 100), "tm");
+		qm.addResource(new FixedConnector("mt", 95), "mt");
+		assertEquals(1, qm.query("text"));
+		assertEquals("tm", qm.next().target.toText());
+	}
+
+	@Test
+	public void testConcurrentQueriesTimeout () throws InterruptedException {
+		qm.setMaximumConcurrentQueries(2);
+		qm.setThreshold(0);
+		FixedConnector slow = new FixedConnector("slow", 100);
+		slow.waitFor = new CountDownLatch(1); // Never released
+		int slowId = qm.addResource(slow, "slow");
+		qm.setTimeout(slowId, 50);
+		qm.addResource(new FixedConnector("fast", 80), "fast");
+		try {
+			qm.query("text");
+			fail("The query should have timed out.");
+		}
+		catch ( OkapiException e ) {
+			assertTrue(e.getMessage().contains("slow"));
+		}
+		// The task of the resource that timed out is interrupted
+		assertTrue(slow.interrupted.await(10, TimeUnit.SECONDS));
+		assertTrue(slow.answered.await(10, TimeUnit.SECONDS));
+		
+		// Once it has stopped, the resource can be queried again
+		slow.waitFor = null;
+		assertEquals(2, qm.query("text"));
+		assertEquals("slow", qm.next().target.toText());
+		assertEquals("fast", qm.next().target.toText());
+	}
+
+	@Test
+	public void testResourceBusyAfterTimeout () throws InterruptedException {
+		qm.setMaximumConcurrentQueries(2);
+		qm.setThreshold(0);
+		CountDownLatch release = new CountDownLatch(1);
+		FixedConnector slow = new FixedConnector("slow", 100);
+		slow.waitFor = release;
+		slow.ignoreInterrupts = true;
+		int slowId = qm.addResource(slow, "slow");
+		qm.setTimeout(slowId, 50);
+		qm.addResource(new FixedConnector("fast", 80), "fast");
+		try {
+			qm.query("text");
+			fail("The query should have timed out.");
+		}
+		catch ( OkapiException e ) {
+			assertTrue(e.getMessage().contains("No answer"));
+		}
+		assertTrue(slow.interrupted.await(10, TimeUnit.SECONDS));
+		try {
+			// Fails at once instead of waiting behind the task that timed out
+			qm.query("text");
+			fail("The resource should be busy.");
+		}
+		catch ( OkapiException e ) {
+			assertTrue(e.getMessage().contains("still busy"));
+		}
+		finally {
+			release.countDown();
+		}
+		assertEquals(1, slow.queried.size());
+	}
+
+	@Test
+	public void testBatchQueryStopsAtNoQueryThreshold () {
+		qm.setThreshold(0);
+		qm.setNoQueryThreshold(100);
+		qm.setStopAtNoQueryThreshold(true);
+		FixedConnector tm = new FixedConnector("tm", 70);
+		tm.exactMatches.add("b");
+		qm.addResource(tm, "tm");
+		FixedConnector mt = new FixedConnector("mt", 95);
+		qm.addResource(mt, "mt");
+		
+		List<List<QueryResult>> results = qm.batchQuery(Arrays.asList(
+			new TextFragment("a"), new TextFragment("b"), new TextFragment("c")));
+		assertEquals(3, results.size());
+		assertEquals(Arrays.asList("mt", "tm"), toTexts(results.get(0)));
+		assertEquals(Arrays.asList("tm"), toTexts(results.get(1)));
+		assertEquals(Arrays.asList("mt", "tm"), toTexts(results.get(2)));
+		// The MT resource is not queried for the fragment with an exact match
+		assertEquals(Arrays.asList("a", "c"), mt.queried);
+	}
+
+	@Test
+	public void testSameResultsSerialAndConcurrent () {
+		List<TextFragment> frags = Arrays.asList(
+			new TextFragment("a"), new TextFragment("b"), new TextFragment("c"));
+		List<List<String>> serial = new ArrayList<>();
+		List<List<String>> concurrent = new ArrayList<>();
+		for ( int max : new int[] {1, 4} ) {
+			QueryManager manager = new QueryManager();
+			try {
+				manager.setMaximumConcurrentQueries(max);
+				manager.setThreshold(75);
+				manager.setNoQueryThreshold(100);
+				manager.setStopAtNoQueryThreshold(true);
+				FixedConnector tm = new FixedConnector("tm", 80);
+				tm.exactMatches.add("c");
+				manager.addResource(tm, "tm");
+				manager.addResource(new FixedConnector("low", 60), "low");
+				manager.addResource(new FixedConnector("mt", 95), "mt");
+				List<List<String>> texts = (max == 1) ? serial : concurrent;
+				for ( TextFragment frag : frags ) {
+					manager.query(frag);
+					texts.add(toTexts(manager.getResults()));
+				}
+				for ( List<QueryResult> list : manager.batchQuery(frags) ) {
+					texts.add(toTexts(list));
+				}
+			}
+			finally {
+				manager.close();
+			}
+		}
+		assertEquals(Arrays.asList("mt", "tm"), serial.get(0));
+		assertEquals(Arrays.asList("tm"), serial.get(2));
+		assertEquals(serial, concurrent);
+	}
+
+	private static List<String> toTexts (List<QueryResult> results) {
+		List<String> texts = new ArrayList<>();
+		for ( QueryResult res : results ) {
+			texts.add(res.target.toText());
+		}
+		return texts;
+	}
+
+	/**
+	 * Connector returning a single hit with a fixed translation and score
+	 * (or an exact match for the texts in exactMatches).
+	 */
+	private static class FixedConnector extends DummyConnector {
+		private final String translation;
+		private final int score;
+		final Set<String> exactMatches = new HashSet<>();
+		final List<String> queried = Collections.synchronizedList(new ArrayList<>());
+		/** Counted down when a query starts, if set. */
+		volatile CountDownLatch signal;
+		/** Awaited before answering a query, if set. */
+		volatile CountDownLatch waitFor;
+		/** Keep waiting when interrupted. */
+		volatile boolean ignoreInterrupts;
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		final CountDownLatch answered = new CountDownLatch(1);
+
+		FixedConnector (String translation, int score) {
+			this.translation = translation;
+			this.score = score;
+		}
+
+		@Override
+		public int query (String plainText) {
+			return query(new TextFragment(plainText));
+		}
+
+		@Override
+		public int query (TextFragment text) {
+			queried.add(text.toText());
+			if ( signal != null ) {
+				signal.countDown();
+			}
+			CountDownLatch latch = waitFor;
+			boolean released = ( latch == null );
+			while ( !released ) {
+				try {
+					if ( !latch.await(10, TimeUnit.SECONDS) ) {
+						throw new IllegalStateException("The latch was never released.");
+					}
+					released = true;
+				}
+				catch ( InterruptedException e ) {
+					interrupted.countDown();
+					if ( !ignoreInterrupts ) {
+						Thread.currentThread().interrupt();
+						answered.countDown();
+						return 0;
+					}
+				}
+			}
+			answered.countDown();
+			int value = exactMatches.contains(text.toText()) ? 100 : score;
+			result = new QueryResult();
+			result.source = text;
+			result.target = new TextFragment(translation);
+			result.matchType = (value == 100) ? MatchType.EXACT : MatchType.FUZZY;
+			result.setFuzzyScore(value);
+			result.setCombinedScore(value);
+			current = 0;
+			return 1;
+		}
+	}
+
 }
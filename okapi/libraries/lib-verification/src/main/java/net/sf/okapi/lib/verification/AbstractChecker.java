@@ -308,7 +308,6 @@ public abstract class AbstractChecker {
 		Issue issue = new Issue(currentDocId, currentSubDocId, issueType, tu.getId(), segId, message, srcStart, srcEnd,
 				trgStart, trgEnd, severity, tu.getName());
 		issue.setCodes(codes);
-		issues.add(issue);
 		issue.setEnabled(true);
 		issue.setSource(srcOri);
 		issue.setTarget(trgOri);
@@ -322,6 +321,8 @@ public abstract class AbstractChecker {
 			// Disable any issue for which we have the signature in the list
 			issue.setEnabled(!sigList.contains(issue.getSignature()));
 		}
+		// Add the issue once it is complete (the list may store a copy of it)
+		issues.add(issue);
 	}
 
 	/**
@@ -336,7 +337,6 @@ public abstract class AbstractChecker {
 				init.getMessage(), init.getSourceStart(), init.getSourceEnd(), init.getTargetStart(),
 				init.getTargetEnd(), init.getSeverity(), tu.getName());
 		issue.setCodes(init.getCodes());
-		issues.add(issue);
 		issue.setEnabled(true);
 		issue.setSource(srcOri);
 		issue.setTarget(trgOri);
@@ -345,6 +345,8 @@ public abstract class AbstractChecker {
 			// Disable any issue for which we have the signature in the list
 			issue.setEnabled(!sigList.contains(issue.getSignature()));
 		}
+		// Add the issue once it is complete (the list may store a copy of it)
+		issues.add(issue);
 	}
 
 	public void setAnnotationIds(TextContainer srcCont, TextContainer trgCont) {
@@ -59,84 +59,56 @@ public class BlacklistChecker {
 	{
 		issues.clear();
 
-		// iterate over text in segment
-		List<BlackTerm> termList = ta.getBlacklistStrings();
+		// Find all the terms in a single pass over the text of the segment
 		List<Integer> mrkPositions = new ArrayList<>();
 		String searchTxtAsIs = TextUnitUtil.getText(segment.getContent(), mrkPositions);
 		String searchTxtUpperCase = UCharacter.toUpperCase(loc.toIcuLocale(), searchTxtAsIs);
 		mrkPositions = updateMarkerPositions(mrkPositions);
 
-		for (BlackTerm bterm : termList) {
-			String search = bterm.doCaseSensitiveMatch ? searchTxtAsIs : searchTxtUpperCase;
-			int idx = 0;
-			while ((idx = search.indexOf(bterm.searchTerm, idx)) != -1) {
-				// check boundaries
-				if ((bterm.searchTerm.length()) != search.length() && !allowBlacklistSub) {
-					if ((idx > 0) && (idx < search.length() - bterm.searchTerm.length())) {
-						if ((Character.isLetter(search.charAt(idx - 1))) || (Character.isLetter(search.charAt(idx + bterm.searchTerm.length())))) {
-							// BlackTerm is a substring
-							break;
-						}
-					}
-					else if (idx == 0) { // check end
-						if (Character.isLetter(search.charAt(idx + bterm.searchTerm.length()))) {
-							// BlackTerm is a substring
-							break;
-						}
-					}
-					else { // check start
-						if (Character.isLetter(search.charAt(idx - 1))) {
-							// BlackTerm is a substring
-							break;
-						}
-					}
-				}
-				
-				// Calculate offset
-				int rangeStart;
-				int rangeEnd;
-				int offset;
-				if (!mrkPositions.isEmpty()) {
-					offset = getOffset(idx, mrkPositions, true);
-					rangeStart = idx + offset;
-					rangeEnd = idx + bterm.searchTerm.length();
-					offset = getOffset(rangeEnd, mrkPositions, false);
-					rangeEnd += offset;
-				}
-				else {
-					rangeStart = idx;
-					rangeEnd = rangeStart + bterm.searchTerm.length();
-				}
-				
-				// Create issue
-				String message;
-				if (!bterm.suggestion.isEmpty()) {
-					message = String.format("The term \"%s\" is a blacklisted term. Consider using \"%s\".", bterm.text, bterm.suggestion);
-				}
-				else {
-					message = String.format("The term \"%s\" is a blacklisted term. Consider revising.", bterm.text);
-				}
-				if (bterm.comment != null && !bterm.comment.isEmpty()) {
-					message += " More details: " + bterm.comment;
-				}
-				Issue issue;
-				// Adjust positions based on display type
-				rangeStart = useGenericCodes ? AbstractChecker.fromFragmentToGeneric(segment.text, rangeStart) : TextFragment.fromFragmentToString(segment.text, rangeStart);
-				rangeEnd = useGenericCodes ? AbstractChecker.fromFragmentToGeneric(segment.text, rangeEnd) : TextFragment.fromFragmentToString(segment.text, rangeEnd);
-				// Create the issue object
-				if(isSrc)
-					issue = new Issue(docId, subDocId, IssueType.TERMINOLOGY, tu.getId(), segment.getId(), message,
-							rangeStart, rangeEnd, 0, -1,
-							Issue.displaySeverityToSeverity(bterm.dispSeverity), tu.getName());
-				else
-					issue = new Issue(docId, subDocId, IssueType.TERMINOLOGY, tu.getId(), segment.getId(), message,
-							0, -1, rangeStart, rangeEnd,
-							Issue.displaySeverityToSeverity(bterm.dispSeverity), tu.getName());
-				issues.add(issue);
-
-				// iterate
-				idx++;
+		for (BlacklistTB.Hit hit : ta.find(searchTxtAsIs, searchTxtUpperCase, allowBlacklistSub)) {
+			BlackTerm bterm = hit.term;
+			int idx = hit.start;
+			// Calculate offset
+			int rangeStart;
+			int rangeEnd;
+			int offset;
+			if (!mrkPositions.isEmpty()) {
+				offset = getOffset(idx, mrkPositions, true);
+				rangeStart = idx + offset;
+				rangeEnd = hit.end;
+				offset = getOffset(rangeEnd, mrkPositions, false);
+				rangeEnd += offset;
+			}
+			else {
+				rangeStart = idx;
+				rangeEnd = hit.end;
+			}
+			
+			// Create issue
+			String message;
+			if (!bterm.suggestion.isEmpty()) {
+				message = String.format("The term \"%s\" is a blacklisted term. Consider using \"%s\".", bterm.text, bterm.suggestion);
+			}
+			else {
+				message = String.format("The term \"%s\" is a blacklisted term. Consider revising.", bterm.text);
+			}
+			if (bterm.comment != null && !bterm.comment.isEmpty()) {
+				message += " More details: " + bterm.comment;
 			}
+			Issue issue;
+			// Adjust positions based on display type
+			rangeStart = useGenericCodes ? AbstractChecker.fromFragmentToGeneric(segment.text, rangeStart) : TextFragment.fromFragmentToString(segment.text, rangeStart);
+			rangeEnd = useGenericCodes ? AbstractChecker.fromFragmentToGeneric(segment.text, rangeEnd) : TextFragment.fromFragmentToString(segment.text, rangeEnd);
+			// Create the issue object
+			if(isSrc)
+				issue = new Issue(docId, subDocId, IssueType.TERMINOLOGY, tu.getId(), segment.getId(), message,
+						rangeStart, rangeEnd, 0, -1,
+						Issue.displaySeverityToSeverity(bterm.dispSeverity), tu.getName());
+			else
+				issue = new Issue(docId, subDocId, IssueType.TERMINOLOGY, tu.getId(), segment.getId(), message,
+						0, -1, rangeStart, rangeEnd,
+						Issue.displaySeverityToSeverity(bterm.dispSeverity), tu.getName());
+			issues.add(issue);
 		}
 		return issues.size();
 	}
@@ -19,15 +19,156 @@ package net.sf.okapi.lib.verification;
 import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.Util;
+import net.sf.okapi.lib.terminology.MultiStringMatcher;
+import net.sf.okapi.lib.terminology.MultiStringMatcher.Match;
 
+/**
+ * List of blacklisted terms.
+ * <p>
+ * The search terms are compiled into an index (two {@link MultiStringMatcher} automata, one
+ * for the case-sensitive terms and one for the others) the first time {@link #find(String, String, boolean)}
+ * is called, so all the terms are found in a single pass over the text. The index is immutable,
+ * and is rebuilt after the list is changed through this class.
+ */
 class BlacklistTB {
 	
 	private List<BlackTerm> entries;
 	private LocaleId locale = new LocaleId(Locale.getDefault());
+	private Index index;
+
+	/**
+	 * Occurrence of a blacklisted term in a text.
+	 */
+	static final class Hit {
+
+		final BlackTerm term;
+		final int start;
+		final int end;
+
+		Hit (BlackTerm term,
+			int start,
+			int end)
+		{
+			this.term = term;
+			this.start = start;
+			this.end = end;
+		}
+	}
+
+	/**
+	 * Immutable index of the search terms, can be used by several threads.
+	 */
+	private static final class Index {
+
+		private final BlackTerm[] terms;
+		private final MultiStringMatcher caseSensitive;
+		private final MultiStringMatcher caseInsensitive;
+		// Entries for each string of the matchers (identical strings are given only once),
+		// and the string for each entry
+		private final int[][] entriesOfPattern;
+		private final int[] patternOfEntry;
+
+		Index (List<BlackTerm> entries) {
+			terms = entries.toArray(new BlackTerm[0]);
+			List<String> sensitiveTerms = new ArrayList<>(terms.length);
+			List<String> insensitiveTerms = new ArrayList<>(terms.length);
+			Map<String, Integer> firstSensitive = new HashMap<>();
+			Map<String, Integer> firstInsensitive = new HashMap<>();
+			patternOfEntry = new int[terms.length];
+			int[] counts = new int[terms.length];
+			for ( int i=0; i<terms.length; i++ ) {
+				BlackTerm bterm = terms[i];
+				String searchTerm = bterm.searchTerm;
+				boolean sensitive = bterm.doCaseSensitiveMatch;
+				sensitiveTerms.add(sensitive ? searchTerm : null);
+				insensitiveTerms.add(sensitive ? null : searchTerm);
+				if (( searchTerm == null ) || searchTerm.isEmpty() ) {
+					patternOfEntry[i] = -1;
+					continue;
+				}
+				Integer first = (sensitive ? firstSensitive : firstInsensitive).putIfAbsent(searchTerm, i);
+				patternOfEntry[i] = ( first == null ) ? i : first;
+				counts[patternOfEntry[i]]++;
+			}
+			caseSensitive = new MultiStringMatcher(sensitiveTerms, false);
+			caseInsensitive = new MultiStringMatcher(insensitiveTerms, false);
+			entriesOfPattern = new int[terms.length][];
+			for ( int i=0; i<terms.length; i++ ) {
+				int pattern = patternOfEntry[i];
+				if ( pattern == -1 ) continue;
+				if ( entriesOfPattern[pattern] == null ) {
+					entriesOfPattern[pattern] = new int[counts[pattern]];
+					counts[pattern] = 0;
+				}
+				entriesOfPattern[pattern][counts[pattern]++] = i;
+			}
+		}
+
+		List<Hit> find (String text,
+			String upperCaseText,
+			boolean allowSubstrings)
+		{
+			// Occurrences of each search term, in the text searched for that term
+			Map<Integer, List<Match>> occurrences = new HashMap<>();
+			group(caseSensitive.findAll(text), occurrences);
+			group(caseInsensitive.findAll(upperCaseText), occurrences);
+			if ( occurrences.isEmpty() ) {
+				return Collections.emptyList();
+			}
+			int count = 0;
+			for ( Integer pattern : occurrences.keySet() ) {
+				count += entriesOfPattern[pattern].length;
+			}
+			int[] hitEntries = new int[count];
+			count = 0;
+			for ( Integer pattern : occurrences.keySet() ) {
+				for ( int entry : entriesOfPattern[pattern] ) {
+					hitEntries[count++] = entry;
+				}
+			}
+			// Report the hits term by term, in the order of the list
+			Arrays.sort(hitEntries);
+			List<Hit> hits = new ArrayList<>();
+			for ( int entry : hitEntries ) {
+				BlackTerm bterm = terms[entry];
+				String search = bterm.doCaseSensitiveMatch ? text : upperCaseText;
+				for ( Match match : occurrences.get(patternOfEntry[entry]) ) {
+					if ( !allowSubstrings && isSubstring(search, match.start, match.end) ) {
+						// Like the previous indexOf-based search, stop at the first
+						// occurrence that is part of a longer word
+						break;
+					}
+					hits.add(new Hit(bterm, match.start, match.end));
+				}
+			}
+			return hits;
+		}
+
+		private static void group (List<Match> matches,
+			Map<Integer, List<Match>> occurrences)
+		{
+			for ( Match match : matches ) {
+				occurrences.computeIfAbsent(match.pattern, k -> new ArrayList<>()).add(match);
+			}
+		}
+
+		private static boolean isSubstring (String search,
+			int start,
+			int end)
+		{
+			if ( end - start == search.length() ) return false;
+			if (( start > 0 ) && Character.isLetter(search.charAt(start-1)) ) return true;
+			return ( end < search.length() ) && Character.isLetter(search.charAt(end));
+		}
+	}
 
 	public BlacklistTB() {
 		reset();
@@ -40,6 +181,7 @@ class BlacklistTB {
 
 	private void reset() {
 		entries = new ArrayList<>();
+		clearIndex();
 	}
 
 	public void guessAndImport(File file) {
@@ -53,11 +195,38 @@ class BlacklistTB {
 	
 	public void removeAll() {
 		entries.clear();
+		clearIndex();
 	}
 	
 	public List<BlackTerm> getBlacklistStrings() {
 		return entries;
 	}
+
+	/**
+	 * Finds all the occurrences of the blacklisted terms in a text.
+	 * @param text the text where to search the case-sensitive terms.
+	 * @param upperCaseText the same text in upper case, where to search the other terms.
+	 * @param allowSubstrings true to report the terms that are part of longer words.
+	 * @return the list of the occurrences, term by term in the order of the list,
+	 * and by position for each term (can be empty, never null).
+	 */
+	List<Hit> find (String text,
+		String upperCaseText,
+		boolean allowSubstrings)
+	{
+		return getIndex().find(text, upperCaseText, allowSubstrings);
+	}
+
+	private synchronized Index getIndex () {
+		if ( index == null ) {
+			index = new Index(entries);
+		}
+		return index;
+	}
+
+	private synchronized void clearIndex () {
+		index = null;
+	}
 	
 	private void importTSV(File file) {
 		importBlacklist(new BlacklistReader(locale), file);
@@ -90,6 +259,7 @@ class BlacklistTB {
 			BlackTerm bterm = reader.next();
 			entries.add(bterm);
 		}
+		clearIndex();
 	}
 
 	void loadBlacklistStream(InputStream input) {
@@ -16,7 +16,11 @@
 
 package net.sf.okapi.lib.verification;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import net.sf.okapi.common.LocaleId;
@@ -194,6 +198,86 @@ public class Issue extends GenericAnnotation {
 			(segId==null) ? "" : segId, getInteger(GenericAnnotationType.LQI_XSTART), issueType);
 	}
 
+	/**
+	 * Writes this issue to a binary output. The text containers are not written.
+	 * @param output the output where to write.
+	 * @throws IOException if an error occurs.
+	 * @see #read(DataInput)
+	 */
+	void write (DataOutput output)
+		throws IOException
+	{
+		writeString(output, (docURI == null) ? null : docURI.toString());
+		writeString(output, subDocId);
+		writeString(output, issueType.name());
+		writeString(output, tuId);
+		writeString(output, segId);
+		writeString(output, tuName);
+		output.writeInt(trgStart);
+		output.writeInt(trgEnd);
+		writeString(output, (codes == null) ? null : Code.codesToString(codes));
+		writeString(output, source);
+		writeString(output, target);
+		output.writeInt(dispSeverity);
+		// Message, source positions, severity, enabled flag, etc.
+		writeString(output, super.toString());
+	}
+
+	/**
+	 * Reads an issue written with {@link #write(DataOutput)}.
+	 * @param input the input where to read.
+	 * @return the new issue.
+	 * @throws IOException if an error occurs.
+	 */
+	static Issue read (DataInput input)
+		throws IOException
+	{
+		String uri = readString(input);
+		URI docURI = (uri == null) ? null : URI.create(uri);
+		String subDocId = readString(input);
+		IssueType issueType = IssueType.valueOf(readString(input));
+		String tuId = readString(input);
+		String segId = readString(input);
+		String tuName = readString(input);
+		int trgStart = input.readInt();
+		int trgEnd = input.readInt();
+		Issue issue = new Issue(docURI, subDocId, issueType, tuId, segId, null, 0, 0,
+			trgStart, trgEnd, SEVERITY_LOW, tuName);
+		String tmp = readString(input);
+		if ( tmp != null ) {
+			issue.codes = Code.stringToCodes(tmp);
+		}
+		issue.source = readString(input);
+		issue.target = readString(input);
+		issue.dispSeverity = input.readInt();
+		issue.fromString(readString(input));
+		return issue;
+	}
+
+	// Unlike writeUTF(), not limited to 64K bytes
+	private static void writeString (DataOutput output,
+		String text)
+		throws IOException
+	{
+		if ( text == null ) {
+			output.writeInt(-1);
+			return;
+		}
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	private static String readString (DataInput input)
+		throws IOException
+	{
+		int length = input.readInt();
+		if ( length == -1 ) return null;
+		byte[] bytes = new byte[length];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
 	/**
 	 * Gets the string representation of the issue.
 	 * <p><b>TEST ONLY</b>: The representation in raw XML (ITS 2.0 QA error element).
@@ -0,0 +1,253 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.lib.verification;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import net.sf.okapi.common.exceptions.OkapiIOException;
+
+/**
+ * List of issues stored in a temporary file, for the sessions with too many issues to keep them in memory.
+ * <p>
+ * The issues are appended to the file, and the list keeps only the position of each issue in the file.
+ * Getting an issue reads a new copy of it: changes made to that copy are kept only if the issue is
+ * put back with {@link #set(int, Issue)} (which appends the new version to the file).
+ * The file is read through a buffer, so iterating over the list reads it sequentially.
+ * The text containers of the issues are not stored.
+ * <p>
+ * This list is not thread-safe. Call {@link #close()} to delete the temporary file.
+ */
+class IssueStore extends AbstractList<Issue> implements AutoCloseable {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final File file;
+	private final RandomAccessFile raf;
+	private final ByteArrayOutputStream record = new ByteArrayOutputStream(512);
+	private final DataOutputStream recordOutput = new DataOutputStream(record);
+	// Position of each issue in the file
+	private long[] offsets = new long[1024];
+	private int size;
+	// Write buffer: data not yet written at the end of the file
+	private final ByteArrayOutputStream pending = new ByteArrayOutputStream(BUFFER_SIZE);
+	private final DataOutputStream pendingOutput = new DataOutputStream(pending);
+	private long fileLength;
+	// Read buffer
+	private final byte[] window = new byte[BUFFER_SIZE];
+	private long windowStart;
+	private int windowLength;
+
+	/**
+	 * Creates an empty store in a new temporary file.
+	 */
+	IssueStore () {
+		try {
+			file = File.createTempFile("okp-qc-issues_", ".tmp");
+			file.deleteOnExit();
+			raf = new RandomAccessFile(file, "rw");
+		}
+		catch ( IOException e ) {
+			throw new OkapiIOException("Cannot create the temporary file for the issues.", e);
+		}
+	}
+
+	@Override
+	public int size () {
+		return size;
+	}
+
+	@Override
+	public Issue get (int index) {
+		if (( index < 0 ) || ( index >= size )) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return readIssue(offsets[index]);
+	}
+
+	@Override
+	public Issue set (int index,
+		Issue issue)
+	{
+		Issue old = get(index);
+		offsets[index] = writeIssue(issue);
+		return old;
+	}
+
+	@Override
+	public void add (int index,
+		Issue issue)
+	{
+		if (( index < 0 ) || ( index > size )) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		long offset = writeIssue(issue);
+		if ( size == offsets.length ) {
+			offsets = Arrays.copyOf(offsets, size * 2);
+		}
+		System.arraycopy(offsets, index, offsets, index+1, size-index);
+		offsets[index] = offset;
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public Issue remove (int index) {
+		Issue old = get(index);
+		System.arraycopy(offsets, index+1, offsets, index, size-index-1);
+		size--;
+		modCount++;
+		return old;
+	}
+
+	/**
+	 * Removes the issues matching a given filter, in a single pass over the list.
+	 */
+	@Override
+	public boolean removeIf (Predicate<? super Issue> filter) {
+		int kept = 0;
+		for ( int i=0; i<size; i++ ) {
+			if ( !filter.test(readIssue(offsets[i])) ) {
+				offsets[kept++] = offsets[i];
+			}
+		}
+		boolean removed = ( kept < size );
+		if ( removed ) {
+			size = kept;
+			modCount++;
+		}
+		return removed;
+	}
+
+	/**
+	 * Removes all the issues, and empties the file.
+	 */
+	@Override
+	public void clear () {
+		try {
+			size = 0;
+			pending.reset();
+			fileLength = 0;
+			windowLength = 0;
+			raf.setLength(0);
+			modCount++;
+		}
+		catch ( IOException e ) {
+			throw new OkapiIOException("Error while clearing the issues file.", e);
+		}
+	}
+
+	/**
+	 * Closes and deletes the temporary file. The list cannot be used afterwards.
+	 */
+	@Override
+	public void close () {
+		try {
+			raf.close();
+		}
+		catch ( IOException e ) {
+			throw new OkapiIOException("Error while closing the issues file.", e);
+		}
+		finally {
+			file.delete();
+		}
+	}
+
+	private long writeIssue (Issue issue) {
+		try {
+			record.reset();
+			issue.write(recordOutput);
+			recordOutput.flush();
+			long offset = fileLength + pending.size();
+			pendingOutput.writeInt(record.size());
+			record.writeTo(pendingOutput);
+			if ( pending.size() >= BUFFER_SIZE ) {
+				flush();
+			}
+			return offset;
+		}
+		catch ( IOException e ) {
+			throw new OkapiIOException("Error while writing an issue.", e);
+		}
+	}
+
+	private void flush ()
+		throws IOException
+	{
+		if ( pending.size() == 0 ) return;
+		raf.seek(fileLength);
+		raf.write(pending.toByteArray());
+		fileLength += pending.size();
+		pending.reset();
+	}
+
+	private Issue readIssue (long offset) {
+		try {
+			if ( offset >= fileLength ) {
+				flush();
+			}
+			int length = readInt(offset);
+			byte[] data;
+			if ( fits(offset + 4, length) ) {
+				data = Arrays.copyOfRange(window, (int)(offset + 4 - windowStart), (int)(offset + 4 - windowStart) + length);
+			}
+			else {
+				data = new byte[length];
+				raf.seek(offset + 4);
+				raf.readFully(data);
+			}
+			return Issue.read(new DataInputStream(new ByteArrayInputStream(data)));
+		}
+		catch ( IOException e ) {
+			throw new OkapiIOException("Error while reading an issue.", e);
+		}
+	}
+
+	private int readInt (long offset)
+		throws IOException
+	{
+		if ( !fits(offset, 4) ) {
+			// Fill the read buffer from that position
+			raf.seek(offset);
+			windowStart = offset;
+			windowLength = 0;
+			int count;
+			while (( windowLength < window.length )
+				&& (( count = raf.read(window, windowLength, window.length - windowLength) ) != -1 )) {
+				windowLength += count;
+			}
+		}
+		int pos = (int)(offset - windowStart);
+		return ((window[pos] & 0xFF) << 24) | ((window[pos+1] & 0xFF) << 16)
+			| ((window[pos+2] & 0xFF) << 8) | (window[pos+3] & 0xFF);
+	}
+
+	private boolean fits (long offset,
+		int length)
+	{
+		return ( offset >= windowStart ) && ( offset + length <= windowStart + windowLength );
+	}
+
+}
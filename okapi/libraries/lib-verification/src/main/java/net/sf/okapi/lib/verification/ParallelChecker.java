@@ -0,0 +1,192 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.lib.verification;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.sf.okapi.common.exceptions.OkapiException;
+import net.sf.okapi.common.resource.ITextUnit;
+import net.sf.okapi.common.resource.StartDocument;
+import net.sf.okapi.common.resource.StartSubDocument;
+
+/**
+ * Checks the text units of a session on several threads.
+ * <p>
+ * Each thread uses its own instances of the checkers (created with {@link QualityChecker#createWorker(List)}),
+ * so the checkers are never used by two threads at the same time. The issues of each text unit are
+ * collected separately and added to the list of the session in the order the text units were
+ * submitted, so the result is the same as when checking the text units one after the other.
+ */
+class ParallelChecker implements AutoCloseable {
+
+	// Maximum number of text units waiting or being checked, per thread
+	private static final int PENDING_PER_THREAD = 8;
+
+	private final List<Issue> issues;
+	private final ExecutorService executor;
+	private final BlockingQueue<Worker> idleWorkers;
+	private final Deque<Future<List<Issue>>> pending = new ArrayDeque<>();
+	private final int maxPending;
+	private Context context = new Context(null, null, null);
+
+	/**
+	 * Document context of the text units.
+	 */
+	private static final class Context {
+
+		final StartDocument startDoc;
+		final List<String> sigList;
+		final StartSubDocument startSubDoc;
+
+		Context (StartDocument startDoc,
+			List<String> sigList,
+			StartSubDocument startSubDoc)
+		{
+			this.startDoc = startDoc;
+			this.sigList = sigList;
+			this.startSubDoc = startSubDoc;
+		}
+	}
+
+	/**
+	 * Checker used by one thread at a time.
+	 */
+	private static final class Worker {
+
+		private final List<Issue> issues = new ArrayList<>();
+		private final QualityChecker checker;
+		private Context context;
+
+		Worker (QualityChecker master) {
+			checker = master.createWorker(issues);
+		}
+
+		List<Issue> process (Context textUnitContext,
+			ITextUnit tu)
+		{
+			if ( context != textUnitContext ) {
+				if ( textUnitContext.startDoc != null ) {
+					checker.processStartDocument(textUnitContext.startDoc, textUnitContext.sigList);
+				}
+				if ( textUnitContext.startSubDoc != null ) {
+					checker.processStartSubDocument(textUnitContext.startSubDoc);
+				}
+				context = textUnitContext;
+			}
+			checker.processTextUnit(tu);
+			List<Issue> res = new ArrayList<>(issues);
+			issues.clear();
+			return res;
+		}
+	}
+
+	/**
+	 * Creates a parallel checker.
+	 * @param master the checker of the session, already started.
+	 * @param threadCount the number of threads to use.
+	 * @param issues the list where to add the issues.
+	 */
+	ParallelChecker (QualityChecker master,
+		int threadCount,
+		List<Issue> issues)
+	{
+		this.issues = issues;
+		// Create all the checkers before any of them is used
+		idleWorkers = new ArrayBlockingQueue<>(threadCount);
+		for ( int i=0; i<threadCount; i++ ) {
+			idleWorkers.add(new Worker(master));
+		}
+		maxPending = threadCount * PENDING_PER_THREAD;
+		executor = Executors.newFixedThreadPool(threadCount, r -> {
+			Thread thread = new Thread(r, "Quality Check");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	void processStartDocument (StartDocument startDoc,
+		List<String> sigList)
+	{
+		context = new Context(startDoc, sigList, null);
+	}
+
+	void processStartSubDocument (StartSubDocument startSubDoc) {
+		context = new Context(context.startDoc, context.sigList, startSubDoc);
+	}
+
+	/**
+	 * Submits a text unit to check. The issues of the text units already checked
+	 * are added to the list when too many text units are waiting.
+	 * @param tu the text unit to check. It must not be modified until it is checked.
+	 */
+	void processTextUnit (ITextUnit tu) {
+		Context textUnitContext = context;
+		pending.add(executor.submit(() -> {
+			Worker worker = idleWorkers.take();
+			try {
+				return worker.process(textUnitContext, tu);
+			}
+			finally {
+				idleWorkers.add(worker);
+			}
+		}));
+		while ( pending.size() > maxPending ) {
+			collect(pending.poll());
+		}
+	}
+
+	/**
+	 * Waits for all the text units submitted to be checked, and adds their issues to the list.
+	 */
+	void flush () {
+		while ( !pending.isEmpty() ) {
+			collect(pending.poll());
+		}
+	}
+
+	private void collect (Future<List<Issue>> future) {
+		try {
+			issues.addAll(future.get());
+		}
+		catch ( ExecutionException e ) {
+			if ( e.getCause() instanceof RuntimeException ) {
+				throw (RuntimeException)e.getCause();
+			}
+			throw new OkapiException("Error while checking a text unit.", e.getCause());
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new OkapiException("Interrupted while checking the text units.", e);
+		}
+	}
+
+	@Override
+	public void close () {
+		pending.clear();
+		executor.shutdownNow();
+	}
+
+}
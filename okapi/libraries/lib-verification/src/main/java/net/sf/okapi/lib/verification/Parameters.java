@@ -110,6 +110,10 @@ public class Parameters extends StringParameters {
 	// Set to true to use generic codes for the source and target display text (and the selection positions)
 	// By default the original data of the codes are used.
 	private static final String USEGENERICCODES = "useGenericCodes";
+	// Number of threads used to check the text units when re-checking the documents of a session
+	private static final String THREADCOUNT = "threadCount";
+	// Set to true to keep the issues of the session in a temporary file instead of in memory
+	private static final String STOREISSUESONDISK = "storeIssuesOnDisk";
 
 	List<PatternItem> patterns;
 	List<String> extraCodesAllowed;
@@ -552,6 +556,42 @@ public class Parameters extends StringParameters {
 		setBoolean(USEGENERICCODES, useGenericCodes);
 	}
 
+	/**
+	 * Gets the number of threads used to check the text units when the documents
+	 * of a session are re-checked.
+	 * @return the number of threads (1 to check the text units one after the other).
+	 */
+	public int getThreadCount () {
+		return getInteger(THREADCOUNT);
+	}
+
+	/**
+	 * Sets the number of threads used to check the text units when the documents
+	 * of a session are re-checked. The issues are the same, and in the same order,
+	 * whatever the number of threads. This option is not used when checking
+	 * with LanguageTool.
+	 * @param threadCount the number of threads (1 to check the text units one after the other).
+	 */
+	public void setThreadCount (int threadCount) {
+		setInteger(THREADCOUNT, threadCount);
+	}
+
+	public boolean getStoreIssuesOnDisk () {
+		return getBoolean(STOREISSUESONDISK);
+	}
+
+	/**
+	 * Sets the flag indicating if the issues of the session are kept in a temporary file
+	 * instead of in memory. This is for the sessions with a very large number of issues.
+	 * Each issue obtained from the list is then a copy: it must be put back in the list
+	 * for its changes to be kept. This option is not used when the text containers are
+	 * included with the issues.
+	 * @param storeIssuesOnDisk true to keep the issues on disk.
+	 */
+	public void setStoreIssuesOnDisk (boolean storeIssuesOnDisk) {
+		setBoolean(STOREISSUESONDISK, storeIssuesOnDisk);
+	}
+
 	@ReferenceParameter
 	public String getTermsPath() {
 		return getString(TERMSPATH);
@@ -583,6 +623,8 @@ public class Parameters extends StringParameters {
 		super.reset();
 		setIncludeTextContainers(false);
 		setUseGenericCodes(false); // Backward compatibility
+		setThreadCount(1);
+		setStoreIssuesOnDisk(false);
 		setOutputPath(Util.ROOT_DIRECTORY_VAR + "/qa-report.html");
 		setOutputType(0);
 		setAutoOpen(true);
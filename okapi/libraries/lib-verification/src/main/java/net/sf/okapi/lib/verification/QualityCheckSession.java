@@ -29,8 +29,11 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
+import java.util.Set;
 
 import net.sf.okapi.common.Event;
 import net.sf.okapi.common.LocaleId;
@@ -66,6 +69,7 @@ public class QualityCheckSession {
 	private IFilter filter;
 	private boolean modified;
 	private boolean autoRefresh;
+	private boolean keepIssuesInMemory;
 
 	public QualityCheckSession() {
 		reset();
@@ -158,18 +162,63 @@ public class QualityCheckSession {
 
 	public void reset() {
 		rawDocs = new HashMap<>();
+		closeIssues();
 		issues = new ArrayList<>();
 		params = new Parameters();
 		checker = new QualityChecker();
 	}
 
 	public void resetDisabledIssues() {
-		for (Issue issue : issues) {
-			issue.setEnabled(true);
+		ListIterator<Issue> iter = issues.listIterator();
+		while (iter.hasNext()) {
+			Issue issue = iter.next();
+			if (!issue.getEnabled()) {
+				issue.setEnabled(true);
+				iter.set(issue); // Needed when the issues are stored on disk
+			}
 		}
 		modified = true;
 	}
 
+	/**
+	 * Forces the issues to stay in memory, whatever the storeIssuesOnDisk parameter.
+	 * <p>
+	 * The issues read from the temporary file are copies: use this mode when the issues
+	 * are modified in place or sorted, for example in an editor. Issues already on disk
+	 * are moved back to memory.
+	 * @param keepIssuesInMemory true to always keep the issues in memory.
+	 */
+	public void setKeepIssuesInMemory(boolean keepIssuesInMemory) {
+		this.keepIssuesInMemory = keepIssuesInMemory;
+		updateIssuesStorage();
+	}
+
+	/**
+	 * Moves the issues to a temporary file or back to memory, depending on the parameters.
+	 */
+	private void updateIssuesStorage() {
+		boolean onDisk = !keepIssuesInMemory && params.getStoreIssuesOnDisk()
+			&& !params.getIncludeTextContainers();
+		if (onDisk == (issues instanceof IssueStore)) {
+			return;
+		}
+		List<Issue> newIssues = onDisk ? new IssueStore() : new ArrayList<>(issues.size());
+		newIssues.addAll(issues);
+		closeIssues();
+		issues = newIssues;
+	}
+
+	/**
+	 * Deletes the temporary file of the issues, if there is one.
+	 * Call this method when the session is not used anymore.
+	 */
+	public void closeIssues() {
+		if (issues instanceof IssueStore) {
+			((IssueStore) issues).close();
+			issues = new ArrayList<>();
+		}
+	}
+
 	public int getDocumentCount() {
 		return rawDocs.size();
 	}
@@ -178,7 +227,9 @@ public class QualityCheckSession {
 		startProcess(sourceLocale, targetLocale);
 		RawDocument rd = rawDocs.get(docId);
 		if (rd != null) {
-			executeRecheck(rd, null);
+			try (ParallelChecker parallelChecker = createParallelChecker()) {
+				executeRecheck(rd, null, parallelChecker);
+			}
 		}
 	}
 
@@ -188,13 +239,29 @@ public class QualityCheckSession {
 			return;
 		}
 		startProcess(sourceLocale, targetLocale);
-		for (RawDocument rd : rawDocs.values()) {
-			executeRecheck(rd, sigList);
+		try (ParallelChecker parallelChecker = createParallelChecker()) {
+			for (RawDocument rd : rawDocs.values()) {
+				executeRecheck(rd, sigList, parallelChecker);
+			}
+		}
+	}
+
+	/**
+	 * Creates the object used to check the text units on several threads, if requested.
+	 * LanguageTool checks are always done on a single thread, as the connector stops
+	 * checking after a server error.
+	 * @return the parallel checker, or null to check the text units in the current thread.
+	 */
+	private ParallelChecker createParallelChecker() {
+		if ((params.getThreadCount() <= 1) || params.getCheckWithLT()) {
+			return null;
 		}
+		return new ParallelChecker(checker, params.getThreadCount(), issues);
 	}
 
 	private void executeRecheck(RawDocument rd,
-			List<String> sigList) {
+			List<String> sigList,
+			ParallelChecker parallelChecker) {
 		try {
 			// Process the document
 			filter = fcMapper.createFilter(rd.getFilterConfigId(), filter);
@@ -229,17 +296,30 @@ public class QualityCheckSession {
 							clearIssues(rd.getInputURI(), false);
 						}
 						processStartDocument(sd, sigList);
+						if (parallelChecker != null) {
+							parallelChecker.processStartDocument(sd, sigList);
+						}
 						break;
 					case START_SUBDOCUMENT:
 						processStartSubDocument(event.getStartSubDocument());
+						if (parallelChecker != null) {
+							parallelChecker.processStartSubDocument(event.getStartSubDocument());
+						}
 						break;
 					case TEXT_UNIT:
-						processTextUnit(event.getTextUnit());
+						if (parallelChecker != null) {
+							parallelChecker.processTextUnit(event.getTextUnit());
+						} else {
+							processTextUnit(event.getTextUnit());
+						}
 						break;
 					default: // Do nothing
 						break;
 				}
 			}
+			if (parallelChecker != null) {
+				parallelChecker.flush();
+			}
 		} finally {
 			if (filter != null) {
 				filter.close();
@@ -268,18 +348,18 @@ public class QualityCheckSession {
 			sigList = new ArrayList<>();
 		}
 
-		Iterator<Issue> iter = issues.iterator();
-		while (iter.hasNext()) {
-			Issue issue = iter.next();
-			if (issue.getDocumentURI().equals(docId)) {
-				// Generate signature if the issue is disabled
-				if (generateSigList && !issue.getEnabled()) {
-					sigList.add(issue.getSignature());
-				}
-				// Remove issue
-				iter.remove();
+		final List<String> list = sigList;
+		// Remove the issues of the document in a single pass
+		issues.removeIf(issue -> {
+			if (!issue.getDocumentURI().equals(docId)) {
+				return false;
 			}
-		}
+			// Generate signature if the issue is disabled
+			if (generateSigList && !issue.getEnabled()) {
+				list.add(issue.getSignature());
+			}
+			return true;
+		});
 		return sigList;
 	}
 
@@ -422,6 +502,7 @@ public class QualityCheckSession {
 
 	public void startProcess(LocaleId srcLoc,
 			LocaleId trgLoc) {
+		updateIssuesStorage();
 		checker.startProcess(srcLoc, trgLoc, params, issues);
 	}
 
@@ -465,7 +546,7 @@ public class QualityCheckSession {
 	 */
 	private String buildIssuesDocRoot () {
 		// Note that rawDocs is not always set, so we cannot use it
-		List<String> dirs = new ArrayList<>(issues.size());
+		Set<String> dirs = new LinkedHashSet<>();
 		for ( Issue issue : issues ) {
 			dirs.add(Util.getDirectoryName(issue.getDocumentURI().getPath()));
 		}
@@ -52,12 +52,60 @@ class QualityChecker extends AbstractChecker {
 	private InlineCodesChecker inlineCodesChecker;
 	private PatternsChecker patternsChecker;
 	private CharactersChecker charactersChecker;
+	private SimpleTB termBase;
+	private BlacklistTB blacklist;
 	
 	@Override
 	public void startProcess(LocaleId sourceLocale,
 			LocaleId targetLocale,
 			Parameters params,
 			List<Issue> issues) {
+
+		// Terminology check
+		termBase = null;
+		if (params.getCheckTerms()) {
+			// Direct use of SimpleTB for now
+			termBase = new SimpleTB(sourceLocale, targetLocale);
+			termBase.guessAndImport(new File(params.getTermsPath()));
+		}
+
+		// Blacklist check
+		blacklist = null;
+		if (params.getCheckBlacklist()) {
+			LocaleId termsLocale = params.getBlacklistSrc() ? sourceLocale : targetLocale;
+			blacklist = new BlacklistTB(termsLocale);
+			if (params.getBlacklistStream() != null) {
+				blacklist.loadBlacklistStream(params.getBlacklistStream());
+			} else {
+				blacklist.guessAndImport(new File(params.getBlacklistPath()));
+			}
+		}
+
+		initialize(sourceLocale, targetLocale, params, issues);
+	}
+
+	/**
+	 * Creates a checker with the same settings and the same term bases as this one,
+	 * but with its own instances of the different checkers and its own list of issues.
+	 * The term bases are only read when checking, so the new checker can be used
+	 * by another thread than this one (one thread at a time).
+	 * This checker must have been started with {@link #startProcess(LocaleId, LocaleId, Parameters, List)},
+	 * and the new checker must be created before any checker starts processing.
+	 * @param issues the list where the new checker adds its issues.
+	 * @return the new checker.
+	 */
+	QualityChecker createWorker (List<Issue> issues) {
+		QualityChecker worker = new QualityChecker();
+		worker.termBase = termBase;
+		worker.blacklist = blacklist;
+		worker.initialize(srcLoc, trgLoc, params, issues);
+		return worker;
+	}
+
+	private void initialize(LocaleId sourceLocale,
+			LocaleId targetLocale,
+			Parameters params,
+			List<Issue> issues) {
 		
 		this.srcLoc = sourceLocale;
 		this.trgLoc = targetLocale;
@@ -83,26 +131,17 @@ class QualityChecker extends AbstractChecker {
 
 		// Terminology check
 		termChecker = null;
-		if (params.getCheckTerms()) {
-			// Direct use of SimpleTB for now
+		if (termBase != null) {
 			termChecker = new TermChecker();
-			SimpleTB ta = new SimpleTB(srcLoc, trgLoc);
-			ta.guessAndImport(new File(params.getTermsPath()));
-			termChecker.initialize(ta, srcLoc, trgLoc, params.getStringMode(), params.getBetweenCodes());
+			termChecker.initialize(termBase, srcLoc, trgLoc, params.getStringMode(), params.getBetweenCodes());
 		}
 
 		// Blacklist check
 		blacklistChecker = null;
-		if (params.getCheckBlacklist()) {
+		if (blacklist != null) {
 			blacklistChecker = new BlacklistChecker();
 			LocaleId termsLocale = params.getBlacklistSrc() ? srcLoc : trgLoc;
-			BlacklistTB ta = new BlacklistTB(termsLocale);
-			if (params.getBlacklistStream() != null) {
-				ta.loadBlacklistStream(params.getBlacklistStream());
-			} else {
-				ta.guessAndImport(new File(params.getBlacklistPath()));
-			}
-			blacklistChecker.initialize(ta, termsLocale, params.getUseGenericCodes());
+			blacklistChecker.initialize(blacklist, termsLocale, params.getUseGenericCodes());
 		}
 
 	}
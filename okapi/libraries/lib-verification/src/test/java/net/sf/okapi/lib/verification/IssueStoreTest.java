@@ -0,0 +1,148 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.lib.verification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import net.sf.okapi.common.annotation.GenericAnnotationType;
+import net.sf.okapi.common.annotation.IssueType;
+import net.sf.okapi.common.resource.Code;
+import net.sf.okapi.common.resource.TextFragment.TagType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class IssueStoreTest {
+
+	private IssueStore store;
+
+	@Before
+	public void setUp () {
+		store = new IssueStore();
+	}
+
+	@After
+	public void tearDown () {
+		store.close();
+	}
+
+	private static Issue createIssue (String docName,
+		int n)
+	{
+		Issue issue = new Issue(URI.create("file:/tmp/" + docName), null, IssueType.SUSPECT_PATTERN,
+			"tu" + n, (n % 2 == 0) ? "s1" : null, "Message " + n, n, n + 2, 0, -1,
+			Issue.SEVERITY_MEDIUM, null);
+		issue.setSource("Source " + n);
+		issue.setTarget("Target " + n);
+		return issue;
+	}
+
+	@Test
+	public void testRoundTrip () {
+		Issue issue = createIssue("doc.xlf", 4);
+		issue.setEnabled(false);
+		issue.setString(GenericAnnotationType.LQI_TYPE, "grammar");
+		List<Code> codes = new ArrayList<>();
+		codes.add(new Code(TagType.PLACEHOLDER, "br", "<br/>"));
+		issue.setCodes(codes);
+		store.add(issue);
+
+		Issue copy = store.get(0);
+		assertEquals(issue.getDocumentURI(), copy.getDocumentURI());
+		assertNull(copy.getSubDocumentId());
+		assertEquals(IssueType.SUSPECT_PATTERN, copy.getIssueType());
+		assertEquals("tu4", copy.getTuId());
+		assertEquals("s1", copy.getSegId());
+		assertNull(copy.getTuName());
+		assertEquals("Message 4", copy.getMessage());
+		assertEquals(4, copy.getSourceStart());
+		assertEquals(6, copy.getSourceEnd());
+		assertEquals(0, copy.getTargetStart());
+		assertEquals(-1, copy.getTargetEnd());
+		assertEquals(Issue.SEVERITY_MEDIUM, copy.getSeverity(), 0.0);
+		assertEquals(Issue.DISPSEVERITY_MEDIUM, copy.getDisplaySeverity());
+		assertFalse(copy.getEnabled());
+		assertEquals("grammar", copy.getITSType());
+		assertEquals("<br/>", copy.getCodes().get(0).getData());
+		assertEquals("Source 4", copy.getSource());
+		assertEquals("Target 4", copy.getTarget());
+		assertEquals(issue.getSignature(), copy.getSignature());
+	}
+
+	@Test
+	public void testIssueWithoutDocument () {
+		Issue issue = new Issue(null, null, IssueType.MISSING_TARGETTU, "tu1", null,
+			"Message 1", 0, -1, 0, -1, Issue.SEVERITY_HIGH, null);
+		store.add(issue);
+
+		Issue copy = store.get(0);
+		assertNull(copy.getDocumentURI());
+		assertEquals("tu1", copy.getTuId());
+		assertEquals("Message 1", copy.getMessage());
+	}
+
+	@Test
+	public void testLargeList () {
+		// Large enough to go over the size of the buffers several times
+		String longText = String.join("", Collections.nCopies(70000, "é"));
+		for ( int i=0; i<20000; i++ ) {
+			Issue issue = createIssue("doc" + (i % 3) + ".xlf", i);
+			if ( i == 5000 ) issue.setTarget(longText);
+			store.add(issue);
+		}
+		assertEquals(20000, store.size());
+		int n = 0;
+		for ( Issue issue : store ) {
+			assertEquals("tu" + n, issue.getTuId());
+			n++;
+		}
+		assertEquals(longText, store.get(5000).getTarget());
+		assertEquals("Message 12345", store.get(12345).getMessage());
+
+		// Changes are kept when the issue is put back
+		Issue issue = store.get(9);
+		issue.setEnabled(false);
+		assertTrue(store.get(9).getEnabled());
+		store.set(9, issue);
+		assertFalse(store.get(9).getEnabled());
+
+		// Remove the issues of one document
+		assertTrue(store.removeIf(iss -> iss.getDocumentURI().getPath().endsWith("doc1.xlf")));
+		assertEquals(13333, store.size());
+		assertEquals("tu2", store.get(1).getTuId());
+		assertEquals("tu9", store.get(6).getTuId());
+		assertFalse(store.get(6).getEnabled());
+
+		store.clear();
+		assertTrue(store.isEmpty());
+		store.add(createIssue("doc.xlf", 1));
+		assertEquals("tu1", store.get(0).getTuId());
+	}
+
+}
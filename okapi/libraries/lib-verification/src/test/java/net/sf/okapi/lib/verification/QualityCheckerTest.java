@@ -24,6 +24,8 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -36,12 +38,15 @@ import net.sf.okapi.common.annotation.GenericAnnotationType;
 import net.sf.okapi.common.annotation.GenericAnnotations;
 import net.sf.okapi.common.annotation.IssueType;
 import net.sf.okapi.common.exceptions.OkapiIOException;
+import net.sf.okapi.common.filters.FilterConfigurationMapper;
 import net.sf.okapi.common.resource.ITextUnit;
+import net.sf.okapi.common.resource.RawDocument;
 import net.sf.okapi.common.resource.Segment;
 import net.sf.okapi.common.resource.TextContainer;
 import net.sf.okapi.common.resource.TextFragment;
 import net.sf.okapi.common.resource.TextFragment.TagType;
 import net.sf.okapi.common.resource.TextUnit;
+import net.sf.okapi.filters.xliff.XLIFFFilter;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -1016,6 +1021,142 @@ public class QualityCheckerTest {
 		assertEquals(1, issues.size());
 	}
 
+	@Test
+	public void testBlacklistChecker_SeveralTerms() {
+		final String content = ""
+				+ "forbidden\tallowed\n"
+				+ "Bad\tbad\n"
+				+ "forbidden\tpermitted\n"
+				+ "bad word\t\n"
+				+ "word\t\n";
+		Parameters params = session.getParameters();
+		params.setCheckBlacklist(true);
+		params.setBlacklistStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+
+		ITextUnit tu = new TextUnit("id", "Source text.");
+		TextFragment tf = new TextFragment("Forbidden ");
+		tf.append(TagType.PLACEHOLDER, "br", "<br/>");
+		tf.append("words: Bad word, badly, forbiddenly, FORBIDDEN.");
+		tu.setTarget(locFR, new TextContainer(tf));
+
+		session.startProcess(locEN, locFR);
+		session.processTextUnit(tu);
+
+		List<Issue> issues = new ArrayList<>();
+		for (Issue issue : session.getIssues()) {
+			if (issue.getIssueType() == IssueType.TERMINOLOGY) issues.add(issue);
+		}
+		// Issues are reported term by term, and the occurrences of a term are not
+		// checked after the first one that is part of a longer word ("word" in "words")
+		assertEquals(4, issues.size());
+		assertEquals("0-9", issues.get(0).getTargetStart() + "-" + issues.get(0).getTargetEnd());
+		assertTrue(issues.get(0).getMessage().contains("\"allowed\""));
+		assertEquals("22-25", issues.get(1).getTargetStart() + "-" + issues.get(1).getTargetEnd());
+		assertEquals("0-9", issues.get(2).getTargetStart() + "-" + issues.get(2).getTargetEnd());
+		assertTrue(issues.get(2).getMessage().contains("\"permitted\""));
+		assertEquals("22-30", issues.get(3).getTargetStart() + "-" + issues.get(3).getTargetEnd());
+	}
+
+	@Test
+	public void testIssuesOnDisk() throws IOException {
+		List<String> expected = checkDocumentsAndReport(false);
+		assertTrue(expected.size() > 10);
+		assertEquals(expected, checkDocumentsAndReport(true));
+	}
+
+	private List<String> checkDocumentsAndReport(boolean onDisk) throws IOException {
+		session = new QualityCheckSession();
+		addDocuments();
+		Parameters params = session.getParameters();
+		params.setStoreIssuesOnDisk(onDisk);
+		params.setOutputType(2); // XML
+		params.setOutputPath(location.out("/qa-report" + (onDisk ? "-disk" : "") + ".xml").toString());
+		session.recheckAll(null);
+		// Disable one issue and re-check one document
+		Issue issue = session.getIssues().get(3);
+		issue.setEnabled(false);
+		session.getIssues().set(3, issue);
+		session.recheckDocument(issue.getDocumentURI());
+
+		List<String> res = describeIssues(session.getIssues());
+		session.generateReport(null);
+		res.add(new String(Files.readAllBytes(Paths.get(params.getOutputPath())), StandardCharsets.UTF_8));
+		session.closeIssues();
+		return res;
+	}
+
+	@Test
+	public void testToggleIssueWithDiskStore() {
+		addDocuments();
+		session.getParameters().setStoreIssuesOnDisk(true);
+		session.recheckAll(null);
+		assertTrue(session.getIssues() instanceof IssueStore);
+		// On disk, a modified issue must be put back in the list
+		Issue issue = session.getIssues().get(3);
+		issue.setEnabled(false);
+		session.getIssues().set(3, issue);
+
+		// As in the editor: the issues come back to memory and are toggled in place
+		session.setKeepIssuesInMemory(true);
+		List<Issue> issues = session.getIssues();
+		assertFalse(issues instanceof IssueStore);
+		assertFalse(issues.get(3).getEnabled());
+		issues.get(5).setEnabled(false);
+		assertFalse(session.getIssues().get(5).getEnabled());
+		issues.sort(new IssueComparator(IssueComparator.TYPE_ENABLED, IssueComparator.DIR_ASC));
+		assertFalse(session.getIssues().get(0).getEnabled());
+		assertFalse(session.getIssues().get(1).getEnabled());
+		assertTrue(session.getIssues().get(2).getEnabled());
+
+		// Re-checking does not move the issues back to disk
+		session.recheckAll(null);
+		assertFalse(session.getIssues() instanceof IssueStore);
+		session.closeIssues();
+	}
+
+	private void addDocuments() {
+		FilterConfigurationMapper fcMapper = new FilterConfigurationMapper();
+		fcMapper.addConfigurations(XLIFFFilter.class.getName());
+		session.setFilterConfigurationMapper(fcMapper);
+		for (String name : new String[] {"/test01.xlf", "/allItems.xlf", "/testWithDup.xlf", "/black_test02.xlf"}) {
+			RawDocument rd = new RawDocument(location.in(name).asUri(), "UTF-8", locEN, locFR);
+			rd.setFilterConfigId("okf_xliff");
+			session.addRawDocument(rd);
+		}
+		Parameters params = session.getParameters();
+		params.setCheckXliffSchema(false);
+		params.setCheckTerms(true);
+		params.setTermsPath(location.in("/test01.tsv").toString());
+		params.setCheckBlacklist(true);
+		params.setblacklistPath(location.in("/black_tsv_simple.txt").toString());
+	}
+
+	@Test
+	public void testParallelRecheck() {
+		addDocuments();
+		Parameters params = session.getParameters();
+		session.recheckAll(null);
+		List<String> expected = describeIssues(session.getIssues());
+		assertTrue(expected.size() > 10);
+
+		params.setThreadCount(4);
+		session.recheckAll(null);
+		assertEquals(expected, describeIssues(session.getIssues()));
+		session.recheckAll(null);
+		assertEquals(expected, describeIssues(session.getIssues()));
+	}
+
+	private List<String> describeIssues(List<Issue> issues) {
+		List<String> list = new ArrayList<>();
+		for (Issue issue : issues) {
+			list.add(issue.getDocumentURI() + "|" + issue.getTuId() + "|" + issue.getSegId() + "|"
+					+ issue.getIssueType() + "|" + issue.getMessage() + "|" + issue.getSourceStart() + "-"
+					+ issue.getSourceEnd() + "|" + issue.getTargetStart() + "-" + issue.getTargetEnd() + "|"
+					+ issue.getSource() + "|" + issue.getTarget() + "|" + issue.getEnabled());
+		}
+		return list;
+	}
+
 	@Test
 	public void testSimpleWithCode() {
 		String inPath = location.in("/black_tsv_simple.txt").toString();
@@ -130,6 +130,22 @@ public class XLIFFReader implements Closeable {
 	public static final int VALIDATION_INCLUDE_FRAGIDPREFIX = 0x02;
 
 	private static final String NOTE_NS = Const.NS_XLIFF_CORE20+"_n";
+
+	/**
+	 * Input factory shared by all readers: it is costly to create, and it is
+	 * thread-safe once configured (it is never modified after that).
+	 */
+	private static final class InputFactoryHolder {
+		static final XMLInputFactory INSTANCE = createInputFactory();
+
+		private static XMLInputFactory createInputFactory () {
+			XMLInputFactory fact = XMLInputFactory.newInstance();
+			//TODO: Revisit the settings to all reporting of CDATA and document-trailing whitespace
+			fact.setProperty(XMLInputFactory.IS_COALESCING, true);
+			fact.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			return fact;
+		}
+	}
 	
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 	private final SchemaValidator schValidator;
@@ -433,12 +449,7 @@ public class XLIFFReader implements Closeable {
 			StreamSource inputSource = validateAndGetInput(file, uri, string, stream);
 			
 			// Start the parsing
-			XMLInputFactory fact = XMLInputFactory.newInstance();
-			//TODO: Revisit the settings to all reporting of CDATA and document-trailing whitespace
-			fact.setProperty(XMLInputFactory.IS_COALESCING, true);
-			fact.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-
-			reader = fact.createXMLStreamReader(inputSource);
+			reader = InputFactoryHolder.INSTANCE.createXMLStreamReader(inputSource);
 			groups = new Stack<>();
 			
 			inheritedData = new Stack<>();
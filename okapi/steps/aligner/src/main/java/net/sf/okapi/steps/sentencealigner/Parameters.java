@@ -23,6 +23,7 @@ import net.sf.okapi.common.uidescription.CheckboxPart;
 import net.sf.okapi.common.uidescription.EditorDescription;
 import net.sf.okapi.common.uidescription.IEditorDescriptionProvider;
 import net.sf.okapi.common.uidescription.PathInputPart;
+import net.sf.okapi.common.uidescription.SpinInputPart;
 
 @EditorFor(Parameters.class)
 public class Parameters extends StringParameters implements IEditorDescriptionProvider {
@@ -38,6 +39,7 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 	private static final String USECUSTOMTARGETRULES = "useCustomTargetRules";
 	private static final String CUSTOMTARGETRULESPATH = "customTargetRulesPath";
 	private static final String FORCESIMPLEONETOONEALIGNMENT = "forceSimpleOneToOneAlignment";
+	private static final String MAXTHREADS = "maxThreads";
 
 	public Parameters() {
 		super();
@@ -131,6 +133,19 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 		setBoolean(FORCESIMPLEONETOONEALIGNMENT, forceSimpleOneToOneAlignment);
 	}
 
+	public int getMaxThreads() {
+		return getInteger(MAXTHREADS);
+	}
+
+	/**
+	 * Sets the number of worker threads used to align the text units of a document.
+	 * A value of 1 (the default) aligns each text unit on the pipeline thread.
+	 * @param maxThreads the number of worker threads.
+	 */
+	public void setMaxThreads(int maxThreads) {
+		setInteger(MAXTHREADS, maxThreads);
+	}
+
 	@Override
 	public void reset() {
 		super.reset();
@@ -145,6 +160,7 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 		setCollapseWhitespace(false);
 		setOutputOneTOneMatchesOnly(false);
 		setForceSimpleOneToOneAlignment(false);
+		setMaxThreads(1);
 	}
 
 	@Override
@@ -172,6 +188,8 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 			"Ouput only 1-1 sentence aligned matches");
 		desc.add("forceSimpleOneToOneAlignment", "Force Simple One to One Alignment", 
 				"If the number of sentences are the same then align one to one. Otherwise collapse the sentences and align");
+		desc.add(MAXTHREADS, "Number of alignment threads",
+				"Number of worker threads used to align the text units of a document (1 to align on the pipeline thread)");
 		return desc;
 	}
 
@@ -213,6 +231,9 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 		desc.addCheckboxPart(paramsDesc.get(OUTPUT_ONE_TO_ONE_MATCHES_ONLY));
 		desc.addSeparatorPart();
 		desc.addCheckboxPart(paramsDesc.get("forceSimpleOneToOneAlignment"));
+		desc.addSeparatorPart();
+		SpinInputPart sip = desc.addSpinInputPart(paramsDesc.get(MAXTHREADS));
+		sip.setRange(1, 64);
 		return desc;
 	}
 }
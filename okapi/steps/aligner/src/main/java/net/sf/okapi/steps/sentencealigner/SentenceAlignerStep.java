@@ -20,6 +20,11 @@ import java.io.InputStream;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import net.sf.okapi.common.Event;
 import net.sf.okapi.common.EventType;
@@ -40,6 +45,7 @@ import net.sf.okapi.common.pipeline.annotations.StepParameterType;
 import net.sf.okapi.common.resource.AlignedPair;
 import net.sf.okapi.common.resource.IAlignedSegments;
 import net.sf.okapi.common.resource.ITextUnit;
+import net.sf.okapi.common.resource.MultiEvent;
 import net.sf.okapi.common.resource.PipelineParameters;
 import net.sf.okapi.common.resource.RawDocument;
 import net.sf.okapi.common.resource.Segment;
@@ -55,6 +61,10 @@ import org.slf4j.LoggerFactory;
 /**
  * Align sentences between source and target paragraphs (TextUnits) and produce a TMX file with aligned sentences. This
  * {@link IPipelineStep} (via configuration) can also output aligned (multilingual {@link TextUnit}s)
+ * <p>
+ * When {@link Parameters#getMaxThreads()} is greater than 1 the text units of a document are aligned
+ * on a pool of worker threads. Reading the target document and segmentation are still done on the
+ * pipeline thread, and the aligned events (and TMX entries) are sent in the original document order.
  * 
  * @author HARGRAVEJE
  * 
@@ -62,6 +72,8 @@ import org.slf4j.LoggerFactory;
 @UsingParameters(Parameters.class)
 public class SentenceAlignerStep extends BasePipelineStep implements IObserver {
 	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+	// Number of pending events per worker thread before they are sent down the pipeline
+	private static final int EVENTS_PER_THREAD = 32;
 	
 	private Parameters params;
 	private IFilter filter = null;
@@ -74,12 +86,23 @@ public class SentenceAlignerStep extends BasePipelineStep implements IObserver {
 	private SentenceAligner sentenceAligner;
 	private ISegmenter sourceSegmenter;
 	private ISegmenter targetSegmenter;
+	private ExecutorService executor;
+	// Pending events of the current document, in document order (only used with worker threads)
+	private final List<Future<Event>> pendingEvents = new LinkedList<>();
+	private boolean inDocument;
+	// The scorers keep per-locale state, so each worker gets its own aligner
+	private final ThreadLocal<SentenceAligner> workerAligner = ThreadLocal.withInitial(
+			SentenceAlignerStep::createSentenceAligner);
 
 	public SentenceAlignerStep() {
 		params = new Parameters();
+		sentenceAligner = createSentenceAligner();
+	}
+
+	private static SentenceAligner createSentenceAligner() {
 		List<AlignmentScorer<Segment>> scorerList = new LinkedList<>();
 		scorerList.add(new GaleAndChurch<>());
-		sentenceAligner = new SentenceAligner(scorerList);
+		return new SentenceAligner(scorerList);
 	}
 
 	@StepParameterMapping(parameterType = StepParameterType.FILTER_CONFIGURATION_MAPPER)
@@ -123,8 +146,34 @@ public class SentenceAlignerStep extends BasePipelineStep implements IObserver {
 		this.params = (Parameters) params;
 	}
 
+	@Override
+	public Event handleEvent(Event event) {
+		if ((executor == null) || !inDocument) {
+			return super.handleEvent(event);
+		}
+		switch (event.getEventType()) {
+		case TEXT_UNIT:
+			return queueTextUnit(event);
+		case END_DOCUMENT:
+			MultiEvent me = flushPendingEvents();
+			me.addEvent(super.handleEvent(event));
+			return new Event(EventType.MULTI_EVENT, me);
+		default:
+			// Keep the other events of the document in sequence with the text units
+			pendingEvents.add(CompletableFuture.completedFuture(event));
+			return Event.createNoopEvent();
+		}
+	}
+
 	@Override
 	protected Event handleStartBatch(Event event) {
+		if (params.getMaxThreads() > 1) {
+			executor = Executors.newFixedThreadPool(params.getMaxThreads(), r -> {
+				Thread thread = new Thread(r, "SentenceAligner");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
 		boolean loadDefault = true;
 		SRXDocument srxDocument = new SRXDocument();
 
@@ -175,6 +224,7 @@ public class SentenceAlignerStep extends BasePipelineStep implements IObserver {
 	}
 
 	protected Event handleEndBatch(Event event) {
+		shutdownExecutor();
 		if (tmx != null) {
 			tmx.writeEndDocument();
 			tmx.close();
@@ -183,6 +233,20 @@ public class SentenceAlignerStep extends BasePipelineStep implements IObserver {
 		return event;
 	}
 
+	@Override
+	public void destroy() {
+		shutdownExecutor();
+	}
+
+	private void shutdownExecutor() {
+		pendingEvents.clear();
+		inDocument = false;
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
 	@Override
 	protected Event handleStartDocument(Event event) {
 		if (targetInput != null) {
@@ -197,11 +261,13 @@ public class SentenceAlignerStep extends BasePipelineStep implements IObserver {
 					"sentence", null, mimeType);
 		}
 		
+		inDocument = true;
 		return event;
 	}
 
 	@Override
 	protected Event handleEndDocument(Event event) {
+		inDocument = false;
 		if (filter != null) {
 			filter.close();
 		}
@@ -211,13 +277,37 @@ public class SentenceAlignerStep extends BasePipelineStep implements IObserver {
 	@Override
 	protected Event handleTextUnit(Event sourceEvent) {
 		ITextUnit sourceTu = sourceEvent.getTextUnit();
-		ITextUnit targetTu = null;
 
 		// Skip non-translatable and empty
-		if ( !sourceTu.isTranslatable() || sourceTu.isEmpty() ) {
+		if ( !isAlignable(sourceTu) ) {
 			return sourceEvent;
 		}
 
+		ITextUnit targetTu = prepareTextUnits(sourceTu);
+		ITextUnit alignedTextUnit = alignTextUnits(sourceTu, targetTu, sentenceAligner);
+
+		// Send the aligned TU to the TMX file
+		if (params.isGenerateTMX()) {
+			tmx.writeTUFull(alignedTextUnit);
+		}
+	
+		// pass on the aligned (possibly partially aligned)
+		return new Event(EventType.TEXT_UNIT, alignedTextUnit);
+	}
+
+	private boolean isAlignable(ITextUnit tu) {
+		return tu.isTranslatable() && !tu.isEmpty();
+	}
+
+	/**
+	 * Reads the target text unit (if needed) and segments both sides. This is done on the
+	 * pipeline thread since the target filter and the segmenters are not thread-safe.
+	 * @param sourceTu the source text unit.
+	 * @return the separate target text unit, or null if the source text unit is bilingual.
+	 */
+	private ITextUnit prepareTextUnits(ITextUnit sourceTu) {
+		ITextUnit targetTu = null;
+
 		// Move to the next target TU
 		if (targetInput != null) {
 			Event targetEvent = synchronize(EventType.TEXT_UNIT, sourceTu);
@@ -257,11 +347,18 @@ public class SentenceAlignerStep extends BasePipelineStep implements IObserver {
 				targetTu.createSourceSegmentation(targetSegmenter);
 			}			
 		}
-		
-		ITextUnit alignedTextUnit;		
+		return targetTu;
+	}
+
+	/**
+	 * Aligns the segments of the given text units. This only touches the given text units and
+	 * can be run on a worker thread with its own {@link SentenceAligner}.
+	 */
+	private ITextUnit alignTextUnits(ITextUnit sourceTu, ITextUnit targetTu, SentenceAligner aligner) {
+		ITextUnit alignedTextUnit;
 		if (params.isForceSimpleOneToOneAlignment()) {
 			alignedTextUnit = sourceTu;
-			if ( targetInput == null ) {
+			if ( targetTu == null ) {
 				// bilingual case
 				if (alignedTextUnit.getSourceSegments().count() != 
 						alignedTextUnit.getTargetSegments(targetLocale).count()) {
@@ -286,13 +383,13 @@ public class SentenceAlignerStep extends BasePipelineStep implements IObserver {
 				alignedTextUnit.getAlignedSegments().align(alignedPairs, targetLocale);
 			}
 		} else {
-			if ( targetInput == null ) {
+			if ( targetTu == null ) {
 				// case where the TextUnit is already bilingual
-				alignedTextUnit = sentenceAligner.align(sourceTu, sourceLocale, targetLocale, params.isOutputOneTOneMatchesOnly());
+				alignedTextUnit = aligner.align(sourceTu, sourceLocale, targetLocale, params.isOutputOneTOneMatchesOnly());
 			}
 			else {
 				// case where we have separate source and target TextUnits
-				alignedTextUnit = sentenceAligner.align(sourceTu, targetTu, sourceLocale, targetLocale, params.isOutputOneTOneMatchesOnly());
+				alignedTextUnit = aligner.align(sourceTu, targetTu, sourceLocale, targetLocale, params.isOutputOneTOneMatchesOnly());
 			}
 		}
 		
@@ -309,14 +406,54 @@ public class SentenceAlignerStep extends BasePipelineStep implements IObserver {
 			s.text.alignCodeIds(t.text);
 			TextUnitUtil.copySrcCodeDataToMatchingTrgCodes(s.text, t.text, true, false, null, alignedTextUnit);
 		}
-		
-		// Send the aligned TU to the TMX file
-		if (params.isGenerateTMX()) {
-			tmx.writeTUFull(alignedTextUnit);
+		return alignedTextUnit;
+	}
+
+	private Event queueTextUnit(Event sourceEvent) {
+		ITextUnit sourceTu = sourceEvent.getTextUnit();
+		if ( !isAlignable(sourceTu) ) {
+			pendingEvents.add(CompletableFuture.completedFuture(sourceEvent));
+			return Event.createNoopEvent();
 		}
-	
-		// pass on the aligned (possibly partially aligned)
-		return new Event(EventType.TEXT_UNIT, alignedTextUnit);
+		ITextUnit targetTu = prepareTextUnits(sourceTu);
+		pendingEvents.add(executor.submit(() -> new Event(EventType.TEXT_UNIT,
+				alignTextUnits(sourceTu, targetTu, workerAligner.get()))));
+		// Bound the memory used by large documents
+		if (pendingEvents.size() >= params.getMaxThreads() * EVENTS_PER_THREAD) {
+			return new Event(EventType.MULTI_EVENT, flushPendingEvents());
+		}
+		return Event.createNoopEvent();
+	}
+
+	/**
+	 * Waits for the pending alignments of the document and collects their events in document order.
+	 * The TMX entries are written here so the TMX output does not depend on the number of threads.
+	 */
+	private MultiEvent flushPendingEvents() {
+		MultiEvent me = new MultiEvent();
+		try {
+			for (Future<Event> pending : pendingEvents) {
+				Event event = pending.get();
+				if (params.isGenerateTMX() && event.isTextUnit() && isAlignable(event.getTextUnit())) {
+					tmx.writeTUFull(event.getTextUnit());
+				}
+				me.addEvent(event);
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OkapiException("Interrupted while waiting for the sentence alignment.", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new OkapiException("Error while aligning sentences.", e.getCause());
+		}
+		finally {
+			pendingEvents.clear();
+		}
+		return me;
 	}
 	
 	// this allows another step (such as the ParagraphAlignmentStep) to consume the target input to add target data to the source Text Unit
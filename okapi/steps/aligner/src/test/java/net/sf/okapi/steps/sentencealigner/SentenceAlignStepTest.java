@@ -4,7 +4,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
 
 import net.sf.okapi.common.Event;
@@ -16,7 +21,9 @@ import net.sf.okapi.common.filters.FilterConfigurationMapper;
 import net.sf.okapi.common.filters.IFilter;
 import net.sf.okapi.common.pipeline.EventObserver;
 import net.sf.okapi.common.pipeline.Pipeline;
+import net.sf.okapi.common.resource.ITextUnit;
 import net.sf.okapi.common.resource.RawDocument;
+import net.sf.okapi.common.resource.Segment;
 import net.sf.okapi.common.resource.TextContainer;
 import net.sf.okapi.common.resource.TextFragment;
 import net.sf.okapi.filters.plaintext.PlainTextFilter;
@@ -70,7 +77,7 @@ public class SentenceAlignStepTest {
 	}
 
 	@Before
-	public void setUpTmx() throws Exception {
+	public void setUpTmx() {
 		// create pipeline
 		tmxPipeline = new Pipeline();
 		tmxEventObserver = new EventObserver();
@@ -267,6 +274,64 @@ public class SentenceAlignStepTest {
 		in.close();
 	}
 	
+	@Test
+	public void sentenceAlignWithWorkerThreads() throws IOException {
+		// Enough text units to fill the queue of pending events several times
+		File input = root.out("/multi_tu.tmx").asFile();
+		input.getParentFile().mkdirs();
+		StringBuilder tmx = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+			+ "<tmx version=\"1.4\"><header creationtool=\"test\" creationtoolversion=\"1\" segtype=\"paragraph\" "
+			+ "o-tmf=\"unknown\" adminlang=\"en\" srclang=\"en\" datatype=\"plaintext\"></header><body>\n");
+		for (int i = 0; i < 300; i++) {
+			tmx.append("<tu><tuv xml:lang=\"EN\"><seg>The unit number ").append(i).append(" starts here. ")
+				.append("It has a second sentence with ").append(i % 7).append(" words.");
+			if (i % 5 == 0) tmx.append(" And a third one only in the source.");
+			tmx.append("</seg></tuv><tuv xml:lang=\"FR\"><seg>L'unit\u00e9 num\u00e9ro ").append(i).append(" commence ici. ")
+				.append("Elle a une deuxi\u00e8me phrase avec ").append(i % 7).append(" mots.")
+				.append("</seg></tuv></tu>\n");
+		}
+		tmx.append("</body></tmx>\n");
+		Files.write(input.toPath(), tmx.toString().getBytes(StandardCharsets.UTF_8));
+
+		List<String> serial = alignTmx(input, 1);
+		List<String> threaded = alignTmx(input, 4);
+		assertEquals(300, serial.size());
+		assertEquals(serial, threaded);
+	}
+
+	/**
+	 * Aligns a TMX document and returns the aligned source and target segments of each text unit,
+	 * in the order the text units are sent.
+	 */
+	private List<String> alignTmx(File input, int maxThreads) {
+		setUpTmx();
+		tmxAligner.getParameters().setMaxThreads(maxThreads);
+		tmxAligner.setSourceLocale(LocaleId.ENGLISH);
+		tmxAligner.setTargetLocale(LocaleId.FRENCH);
+
+		RawDocument in = new RawDocument(input.toURI(), "UTF-8", LocaleId.ENGLISH, LocaleId.FRENCH);
+		in.setFilterConfigId("okf_tmx");
+		tmxPipeline.startBatch();
+		tmxPipeline.process(in);
+		tmxPipeline.endBatch();
+		in.close();
+		tmxPipeline.destroy();
+
+		List<String> result = new ArrayList<>();
+		for (Event event : tmxEventObserver.getResult()) {
+			if (event.getEventType() != EventType.TEXT_UNIT) continue;
+			ITextUnit tu = event.getTextUnit();
+			StringBuilder sb = new StringBuilder(tu.getId());
+			for (Segment seg : tu.getSourceSegments()) {
+				sb.append("\n").append(seg.getContent().toText());
+				Segment trgSeg = tu.getTargetSegment(LocaleId.FRENCH, seg.getId(), false);
+				sb.append(" => ").append(trgSeg == null ? null : trgSeg.getContent().toText());
+			}
+			result.add(sb.toString());
+		}
+		return result;
+	}
+	
 	@Test
 	public void testDefaultGCAlignerSegmentation () {
 		SRXDocument doc = new SRXDocument();
@@ -38,12 +38,9 @@ public class Cleaner {
     private final Logger LOGGER = LoggerFactory.getLogger(getClass());
     // TODO: organize these strings better. Dynamically set on instantiation
     // thru private method?
-    private static String OPENING_QUOTES_W_SPACE = "([\u00AB\u2039])([\\s\u00A0]+)";
-    private static String CLOSING_QUOTES_W_SPACE = "([\\s\u00A0]+)([\u00BB\u203A])";
-    private static String DOUBLE_QUOTES = "\u201C|\u201D|\u201E|\u201F|\u00AB|\u00BB";
-    private static String DQ_REPLACE = "\"";
-    private static String SINGLE_QUOTES = "\u2018|\u2019|\u201A|\u2039|\u203A";
-    private static String SQ_REPLACE = "\u0027";
+    private static final Pattern CORRUPTIONS = Pattern.compile("\\u00C3[\\u00A4-\\u00B6]|\\u00C3\\u201E|\\u00C3\\u2026|\\u00C3\\u2013");
+    // any 3 extended characters together
+    private static final Pattern UNUSUAL_CHARACTERS = Pattern.compile("[\\u00C0-\\u00FF]{3}");
     private static String SPECIALPUNC = "\"\u0027";
     private static final String SINGLEQUOTES = "\'\u2018\u2019\u201A\u201B\u2039\u203A";
     private static final String DOUBLEQUOTES = "\"\u201C\u201D\u201E\u201F\u00AB\u00BB";
@@ -53,6 +50,8 @@ public class Cleaner {
     private static final String MARKS = "\'\u2018\u2019\u201A\u201B\u2039\u203A\"\u201C\u201D\u201E\u201F\u00AB\u00BB.,;:!\u00A1?\u00BF";
     private static final String QUOTES = "\'\u2018\u2019\u201A\u201B\u2039\u203A\"\u201C\u201D\u201E\u201F\u00AB\u00BB";
     private Parameters params;
+    private String userRegex;
+    private Pattern userPattern;
 
     /**
      * Creates a Cleaner object with default options.
@@ -148,36 +147,100 @@ public class Cleaner {
         String srcText = seg.getContent().getCodedText();
         String trgText = trgFragment.getCodedText();
 
-        Pattern pattern;
-        Matcher matcher;
-
-        // update quote spacing
-        pattern = Pattern.compile(OPENING_QUOTES_W_SPACE);
-        matcher = pattern.matcher(trgText);
-        trgText = matcher.replaceAll("$1");
-        pattern = Pattern.compile(CLOSING_QUOTES_W_SPACE);
-        matcher = pattern.matcher(trgText);
-        trgText = matcher.replaceAll("$2");
-
-        // update source quotes
-        pattern = Pattern.compile(DOUBLE_QUOTES);
-        matcher = pattern.matcher(srcText);
-        srcText = matcher.replaceAll(DQ_REPLACE).toString();
-        pattern = Pattern.compile(SINGLE_QUOTES);
-        matcher = pattern.matcher(srcText);
-        srcText = matcher.replaceAll(SQ_REPLACE).toString();
-
-        // update target quotes
-        pattern = Pattern.compile(DOUBLE_QUOTES);
-        matcher = pattern.matcher(trgText);
-        trgText = matcher.replaceAll(DQ_REPLACE).toString();
-        pattern = Pattern.compile(SINGLE_QUOTES);
-        matcher = pattern.matcher(trgText);
-        trgText = matcher.replaceAll(SQ_REPLACE).toString();
+        // update source quotes, target quote spacing and target quotes
+        String newSrcText = normalizeQuotes(srcText, false);
+        String newTrgText = normalizeQuotes(trgText, true);
 
         // save updated strings
-        seg.getContent().setCodedText(srcText);
-        trgFragment.setCodedText(trgText);
+        if (newSrcText != srcText) {
+            seg.getContent().setCodedText(newSrcText);
+        }
+        if (newTrgText != trgText) {
+            trgFragment.setCodedText(newTrgText);
+        }
+    }
+
+    /**
+     * Converts the curly and language specific quotes of a text to straight
+     * quotes in a single pass.
+     * <p>
+     * When the spacing is updated, the whitespace (including non-breaking
+     * spaces) after an opening guillemet or before a closing guillemet is
+     * removed first.
+     *
+     * @param text the coded text to normalize
+     * @param updateSpacing true to remove the spaces inside the guillemets
+     * @return the normalized text (the same object if nothing changed)
+     */
+    static String normalizeQuotes(String text, boolean updateSpacing) {
+
+        StringBuilder sb = null;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char ch = text.charAt(i);
+            if (updateSpacing && isQuoteSpace(ch)) {
+                int end = i + 1;
+                while ((end < length) && isQuoteSpace(text.charAt(end))) {
+                    end++;
+                }
+                boolean remove = ((i > 0) && ((text.charAt(i - 1) == '\u00AB') || (text.charAt(i - 1) == '\u2039')))
+                        || ((end < length) && ((text.charAt(end) == '\u00BB') || (text.charAt(end) == '\u203A')));
+                if (remove) {
+                    if (sb == null) {
+                        sb = new StringBuilder(length).append(text, 0, i);
+                    }
+                } else if (sb != null) {
+                    sb.append(text, i, end);
+                }
+                i = end - 1;
+                continue;
+            }
+            char newCh = toStraightQuote(ch);
+            if ((newCh != ch) && (sb == null)) {
+                sb = new StringBuilder(length).append(text, 0, i);
+            }
+            if (sb != null) {
+                sb.append(newCh);
+            }
+        }
+        return (sb == null) ? text : sb.toString();
+    }
+
+    private static boolean isQuoteSpace(char ch) {
+
+        switch (ch) {
+            case ' ':
+            case '\t':
+            case '\n':
+            case '\u000B':
+            case '\f':
+            case '\r':
+            case '\u00A0':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static char toStraightQuote(char ch) {
+
+        switch (ch) {
+            case '\u201C':
+            case '\u201D':
+            case '\u201E':
+            case '\u201F':
+            case '\u00AB':
+            case '\u00BB':
+                return '"';
+            case '\u2018':
+            case '\u2019':
+            case '\u201A':
+            case '\u2039':
+            case '\u203A':
+                return '\'';
+            default:
+                return ch;
+        }
     }
 
     protected void normalizeMarks(ITextUnit tu, Segment seg, LocaleId targetLocale) {
@@ -1048,9 +1111,13 @@ public class Cleaner {
         // match user specified regex expression
         if (params.getMatchUserRegex() == true) {
             if ((params.getUserRegex() != null) && !params.getUserRegex().isEmpty()) {
-                // compile user string
+                // compile user string (once as long as it does not change)
                 try {
-                    pattern = Pattern.compile(params.getUserRegex());
+                    if (!params.getUserRegex().equals(userRegex)) {
+                        userPattern = Pattern.compile(params.getUserRegex());
+                        userRegex = params.getUserRegex();
+                    }
+                    pattern = userPattern;
 
                     // find matching text
                     if ((pattern.matcher(srcText).find()) || (pattern.matcher(trgText).find())) {
@@ -1143,16 +1210,15 @@ public class Cleaner {
         StringBuilder trgText = new StringBuilder(trgFrag.getCodedText());
 
         Matcher matcher;
-        String corruptionRegex = "\\u00C3[\\u00A4-\\u00B6]|\\u00C3\\u201E|\\u00C3\\u2026|\\u00C3\\u2013";
 
         // find corruption in source
-        matcher = Pattern.compile(corruptionRegex).matcher(srcText);
+        matcher = CORRUPTIONS.matcher(srcText);
         if (matcher.find() == true) {
             this.markSegmentForRemoval(tu, seg, targetLocale);
         }
 
         // find corruption in target
-        matcher = Pattern.compile(corruptionRegex).matcher(trgText);
+        matcher = CORRUPTIONS.matcher(trgText);
         if (matcher.find() == true) {
             this.markSegmentForRemoval(tu, seg, targetLocale);
         }
@@ -1165,10 +1231,7 @@ public class Cleaner {
         StringBuilder trgText = new StringBuilder(trgFrag.getCodedText());
 
         boolean isFound = false;
-        Pattern pattern;
-
-        // any 3 extended characters together 
-        pattern = Pattern.compile("[\\u00C0-\\u00FF]{3}");
+        Pattern pattern = UNUSUAL_CHARACTERS;
 
         // check source
         if ((pattern.matcher(srcText).find() == true) && (isFound == false)) {
@@ -17,6 +17,9 @@
 package net.sf.okapi.steps.cleanup;
 
 import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
 import net.sf.okapi.common.IResource;
 import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.filterwriter.GenericContent;
@@ -81,6 +84,42 @@ public class PunctuationTest {
 		assertEquals("[t1 \"t2\" t3]", fmt.printSegmentedContent(tu.getTarget(locFR), true, true));
 	}
 	
+	@Test
+	public void testQuotationSameAsRegularExpressions() {
+
+		// Quotes, spaces, letters
+		String chars = "\u00AB\u2039\u00BB\u203A\u201C\u201D\u201E\u201F\u2018\u2019\u201A\u201B"
+			+ " \t\n\r\f\u000B\u00A0\u2002\"'ab";
+		Random random = new Random(42);
+		for (int i = 0; i < 2000; i++) {
+			StringBuilder sb = new StringBuilder();
+			int length = random.nextInt(20);
+			for (int j = 0; j < length; j++) {
+				sb.append(chars.charAt(random.nextInt(chars.length())));
+			}
+			String text = sb.toString();
+
+			ITextUnit tu = new TextUnit("tu1");
+			tu.getSource().append(new Segment("seg1", new TextFragment(text)));
+			tu.createTarget(locFR, true, IResource.CREATE_EMPTY).append(new Segment("seg1", new TextFragment(text)));
+			Segment srcSeg = tu.getSourceSegments().get("seg1");
+			cleaner.normalizeQuotation(tu, srcSeg, locFR);
+
+			assertEquals(text, normalizeWithRegex(text, false), srcSeg.getContent().getCodedText());
+			assertEquals(text, normalizeWithRegex(text, true),
+				tu.getTargetSegment(locFR, "seg1", false).getContent().getCodedText());
+		}
+	}
+
+	private String normalizeWithRegex(String text, boolean isTarget) {
+		if (isTarget) {
+			text = text.replaceAll("([\u00AB\u2039])([\\s\u00A0]+)", "$1");
+			text = text.replaceAll("([\\s\u00A0]+)([\u00BB\u203A])", "$2");
+		}
+		text = text.replaceAll("\u201C|\u201D|\u201E|\u201F|\u00AB|\u00BB", "\"");
+		return text.replaceAll("\u2018|\u2019|\u201A|\u2039|\u203A", "\u0027");
+	}
+
 	@Test
 	public void testUnitQuotation() {
 		
@@ -16,16 +16,26 @@
 
 package net.sf.okapi.steps.inconsistencycheck;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.TreeMap;
 
 import net.sf.okapi.common.Util;
 import net.sf.okapi.common.XMLWriter;
+import net.sf.okapi.common.exceptions.OkapiIOException;
 import net.sf.okapi.common.filterwriter.GenericContent;
 import net.sf.okapi.common.resource.TextFragment;
 import net.sf.okapi.common.resource.TextUnitUtil;
@@ -42,20 +52,40 @@ public class InconsistencyCheck {
             entries = new ArrayList<>();
         }
     }
+    /**
+     * Maximum number of temporary files merged at the same time. When there are more,
+     * they are first merged by groups of that size into new temporary files.
+     */
+    static final int MAX_MERGE_FAN_IN = 64;
+
+    /**
+     * Receives the groups of merged temporary files, in the order of their keys.
+     */
+    private interface GroupHandler {
+        void handle(String key, Group group) throws IOException;
+    }
+
     private Parameters params;
     private Map<String, Group> trgDifferences;
     private Map<String, Group> srcDifferences;
     private GenericContent fmt;
     private XMLWriter writer;
+    private final Comparator<String> keyComparator;
+    // Temporary files of the entries moved out of memory, each sorted by key
+    private List<File> trgRuns;
+    private List<File> srcRuns;
+    private int entriesInMemory;
 
     public InconsistencyCheck() {
- 	Comparator<String> keyComparator = Util.createComparatorHandlingNullKeys(String.class);
+        keyComparator = Util.createComparatorHandlingNullKeys(String.class);
 
         this.params = new Parameters();
         this.fmt = new GenericContent();
         this.trgDifferences = new TreeMap<>(keyComparator);
         this.srcDifferences = new TreeMap<>(keyComparator);
         this.writer = null;
+        this.trgRuns = new ArrayList<>();
+        this.srcRuns = new ArrayList<>();
     }
 
     public void reset(boolean includeXml) {
@@ -65,6 +95,9 @@ public class InconsistencyCheck {
         }
         this.trgDifferences.clear();
         this.srcDifferences.clear();
+        this.entriesInMemory = 0;
+        deleteRuns(trgRuns);
+        deleteRuns(srcRuns);
     }
     
     public Parameters getParameters() {
@@ -93,6 +126,11 @@ public class InconsistencyCheck {
 	{
 		addToMap(trgDifferences, docId, subDocId, tuId, segId, srcTf, trgTf);
 		addToMap(srcDifferences, docId, subDocId, tuId, segId, trgTf, srcTf);
+		// Move the entries out of memory if there are too many
+		entriesInMemory += 2;
+		if (( params.getMaxEntriesInMemory() > 0 ) && ( entriesInMemory >= params.getMaxEntriesInMemory() )) {
+			saveRuns();
+		}
 	}
 
     private void detectIssues() {
@@ -108,6 +146,10 @@ public class InconsistencyCheck {
      * or if from the EndDocument event handler (false). The second case is done only in per-file mode.
      */
     public void generateReport(String reportPath, boolean isEndBatch) {
+        // If some entries are out of memory, move the others as well: they are all merged together
+        if (!trgRuns.isEmpty()) {
+            saveRuns();
+        }
         detectIssues();
         generateXMLReport(reportPath, isEndBatch);
     }
@@ -174,30 +216,174 @@ public class InconsistencyCheck {
     private void computeIssues(Map<String, Group> map) {
         Iterator<Group> iter = map.values().iterator();
         while (iter.hasNext()) {
-            Group group = iter.next();
-            List<Duplicate> list = group.entries;
-            if (list.size() < 2) {
+            if (!isInconsistent(iter.next())) {
                 iter.remove();
-            } else {
-                boolean keep = false;
-                int i = 0;
-                while (i < list.size() && !keep) {
-                    String text1 = list.get(i).getText();
-                    int j = i + 1;
-                    while (j < list.size()) {
-                        String text2 = list.get(j).getText();
-                        if (!text1.equals(text2)) {
-                            keep = true;
-                            break;
-                        }
-                        j++;
-                    }
-                    i++;
-                }
-                if (!keep) {
-                    iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Indicates if the entries of a group do not all have the same text.
+     *
+     * @param group the group to check
+     * @return true if at least one entry differs from the others
+     */
+    private boolean isInconsistent(Group group) {
+        List<Duplicate> list = group.entries;
+        if (list.size() < 2) {
+            return false;
+        }
+        // If all entries are the same as the first one, they are all the same
+        String text1 = list.get(0).getText();
+        for (int i = 1; i < list.size(); i++) {
+            if (!text1.equals(list.get(i).getText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves the entries currently in memory to temporary files, one for each map.
+     */
+    private void saveRuns() {
+        trgRuns.add(saveRun(trgDifferences));
+        srcRuns.add(saveRun(srcDifferences));
+        entriesInMemory = 0;
+    }
+
+    private File saveRun(Map<String, Group> map) {
+        File file = null;
+        try {
+            file = File.createTempFile("~okapi-inconsistencycheck_", ".tmp");
+            try (DataOutputStream dos = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(file)))) {
+                // The map is sorted by key
+                dos.writeInt(map.size());
+                for (Map.Entry<String, Group> entry : map.entrySet()) {
+                    writeGroup(dos, entry.getKey(), entry.getValue());
                 }
             }
+        } catch (IOException e) {
+            if (file != null) {
+                file.delete();
+            }
+            throw new OkapiIOException("Error when saving entries to " + file, e);
+        }
+        map.clear();
+        return file;
+    }
+
+    /**
+     * Merges temporary files into a new one.
+     *
+     * @param runs the files to merge (they are not deleted).
+     * @return the new temporary file.
+     */
+    private File mergeToRun(List<File> runs) throws IOException {
+        File file = File.createTempFile("~okapi-inconsistencycheck_", ".tmp");
+        try {
+            int[] count = new int[1];
+            try (DataOutputStream dos = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(file)))) {
+                // Number of groups, set once they are all written
+                dos.writeInt(0);
+                mergeRuns(runs, (key, grp) -> {
+                    writeGroup(dos, key, grp);
+                    count[0]++;
+                });
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.writeInt(count[0]);
+            }
+        } catch (IOException | RuntimeException e) {
+            file.delete();
+            throw e;
+        }
+        return file;
+    }
+
+    private static void writeGroup(DataOutputStream dos, String key, Group grp) throws IOException {
+        writeString(dos, key);
+        writeString(dos, grp.keyDisplay);
+        dos.writeInt(grp.entries.size());
+        for (Duplicate dup : grp.entries) {
+            writeString(dos, dup.getDocId());
+            writeString(dos, dup.getSubDocId());
+            writeString(dos, dup.getTuId());
+            writeString(dos, dup.getSegId());
+            writeString(dos, dup.getText());
+            writeString(dos, dup.getDisplay());
+        }
+    }
+
+    private static void writeString(DataOutputStream dos, String value) throws IOException {
+        // No writeUTF() as it is limited to 64K bytes
+        if (value == null) {
+            dos.writeInt(-1);
+        } else {
+            dos.writeInt(value.length());
+            dos.writeChars(value);
+        }
+    }
+
+    private static String readString(DataInputStream dis) throws IOException {
+        int length = dis.readInt();
+        if (length == -1) {
+            return null;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = dis.readChar();
+        }
+        return new String(chars);
+    }
+
+    private void deleteRuns(List<File> runs) {
+        for (File file : runs) {
+            file.delete();
+        }
+        runs.clear();
+    }
+
+    /**
+     * Sequential reader for the groups of a temporary file of entries.
+     */
+    private static class RunReader {
+
+        private final int index;
+        private final DataInputStream dis;
+        private int remaining;
+        private String key;
+        private Group group;
+
+        RunReader(int index, File file) throws IOException {
+            this.index = index;
+            dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            remaining = dis.readInt();
+        }
+
+        boolean next() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            key = readString(dis);
+            group = new Group(readString(dis));
+            int count = dis.readInt();
+            for (int i = 0; i < count; i++) {
+                group.entries.add(new Duplicate(readString(dis), readString(dis), readString(dis),
+                        readString(dis), readString(dis), readString(dis)));
+            }
+            remaining--;
+            return true;
+        }
+
+        void close() {
+            try {
+                dis.close();
+            } catch (IOException e) {
+                // Nothing more to read
+            }
         }
     }
 
@@ -218,9 +404,11 @@ public class InconsistencyCheck {
 
             // Process the target differences
             writeIssues(writer, trgDifferences, true);
+            writeIssues(writer, trgRuns, true);
 
             // Process the source differences
             writeIssues(writer, srcDifferences, false);
+            writeIssues(writer, srcRuns, false);
 
             // Write end of report
             if (isEndBatch) {
@@ -256,29 +444,129 @@ public class InconsistencyCheck {
     private void writeIssues(XMLWriter writer,
             Map<String, Group> map,
             boolean isKeyTheSource) {
-        for (String key : map.keySet()) {
-            // Group element
-            writer.writeStartElement(isKeyTheSource ? "targetDifferences" : "sourceDifferences");
-            writer.writeLineBreak();
-
-            // Key
-            Group grp = map.get(key);
-            writer.writeElementString(isKeyTheSource ? "source" : "target", grp.keyDisplay);
-            writer.writeLineBreak();
-
-            for (Duplicate dup : grp.entries) {
-                writer.writeStartElement("issue");
-                writer.writeAttributeString("seg", dup.getSegId());
-                writer.writeAttributeString("tu", dup.getTuId());
-                writer.writeAttributeString("subDoc", dup.getSubDocId());
-                writer.writeAttributeString("doc", dup.getDocId());
-                writer.writeString(dup.getDisplay());
-                writer.writeEndElementLineBreak(); // issue
+        for (Group grp : map.values()) {
+            writeGroup(writer, grp, isKeyTheSource);
+        }
+    }
+
+    /**
+     * Writes the issues of the entries out of memory: the temporary files are merged by key
+     * and the groups are written as they are completed. The files are deleted afterwards.
+     * No more than {@link #MAX_MERGE_FAN_IN} files are open at the same time.
+     */
+    private void writeIssues(XMLWriter writer,
+            List<File> runs,
+            boolean isKeyTheSource) {
+        if (runs.isEmpty()) {
+            return;
+        }
+        try {
+            // Reduce the number of files in as many passes as needed.
+            // Consecutive files are merged together to keep the entries in order.
+            while (runs.size() > MAX_MERGE_FAN_IN) {
+                List<File> merged = new ArrayList<>();
+                try {
+                    for (int i = 0; i < runs.size(); i += MAX_MERGE_FAN_IN) {
+                        merged.add(mergeToRun(runs.subList(i, Math.min(i + MAX_MERGE_FAN_IN, runs.size()))));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    deleteRuns(merged);
+                    throw e;
+                }
+                deleteRuns(runs);
+                runs.addAll(merged);
             }
+            mergeRuns(runs, (key, grp) -> {
+                if (isInconsistent(grp)) {
+                    writeGroup(writer, grp, isKeyTheSource);
+                }
+            });
+        } catch (IOException e) {
+            throw new OkapiIOException("Error when merging entries.", e);
+        } finally {
+            deleteRuns(runs);
+        }
+    }
+
+    /**
+     * Merges temporary files by key. The entries of the groups with the same key
+     * are put together, in the order of the files.
+     *
+     * @param runs the files to merge.
+     * @param handler the handler receiving each merged group.
+     */
+    private void mergeRuns(List<File> runs,
+            GroupHandler handler) throws IOException {
+        // Same keys are taken in the order of the files, to keep the entries in order
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(runs.size(), (r1, r2) -> {
+            int res = keyComparator.compare(r1.key, r2.key);
+            return (res != 0) ? res : Integer.compare(r1.index, r2.index);
+        });
+        // Reader out of the queue, if any
+        RunReader current = null;
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                current = new RunReader(i, runs.get(i));
+                if (current.next()) {
+                    queue.add(current);
+                } else {
+                    current.close();
+                }
+                current = null;
+            }
+            while (!queue.isEmpty()) {
+                current = queue.poll();
+                String key = current.key;
+                Group grp = current.group;
+                // Add the entries with the same key in the other files
+                while (true) {
+                    if (current.next()) {
+                        queue.add(current);
+                    } else {
+                        current.close();
+                    }
+                    current = null;
+                    if (queue.isEmpty() || (keyComparator.compare(queue.peek().key, key) != 0)) {
+                        break;
+                    }
+                    current = queue.poll();
+                    grp.entries.addAll(current.group.entries);
+                }
+                handler.handle(key, grp);
+            }
+        } finally {
+            if (current != null) {
+                current.close();
+            }
+            for (RunReader reader : queue) {
+                reader.close();
+            }
+        }
+    }
 
-            // Close group
-            writer.writeEndElementLineBreak();
+    private void writeGroup(XMLWriter writer,
+            Group grp,
+            boolean isKeyTheSource) {
+        // Group element
+        writer.writeStartElement(isKeyTheSource ? "targetDifferences" : "sourceDifferences");
+        writer.writeLineBreak();
+
+        // Key
+        writer.writeElementString(isKeyTheSource ? "source" : "target", grp.keyDisplay);
+        writer.writeLineBreak();
+
+        for (Duplicate dup : grp.entries) {
+            writer.writeStartElement("issue");
+            writer.writeAttributeString("seg", dup.getSegId());
+            writer.writeAttributeString("tu", dup.getTuId());
+            writer.writeAttributeString("subDoc", dup.getSubDocId());
+            writer.writeAttributeString("doc", dup.getDocId());
+            writer.writeString(dup.getDisplay());
+            writer.writeEndElementLineBreak(); // issue
         }
+
+        // Close group
+        writer.writeEndElementLineBreak();
     }
 
     private void writeXmlEnd() {
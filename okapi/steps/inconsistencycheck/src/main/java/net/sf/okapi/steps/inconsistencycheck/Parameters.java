@@ -27,6 +27,7 @@ import net.sf.okapi.common.uidescription.EditorDescription;
 import net.sf.okapi.common.uidescription.IEditorDescriptionProvider;
 import net.sf.okapi.common.uidescription.ListSelectionPart;
 import net.sf.okapi.common.uidescription.PathInputPart;
+import net.sf.okapi.common.uidescription.SpinInputPart;
 
 @EditorFor(Parameters.class)
 public class Parameters extends StringParameters implements IEditorDescriptionProvider {
@@ -36,6 +37,7 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
     private static final String OUTPUTPATH = "outputPath";
     private static final String DISPLAYOPTION = "displayOption";
     private static final String AUTOOPEN = "autoOpen";
+    private static final String MAXENTRIESINMEMORY = "maxEntriesInMemory";
     
     public static final String DISPLAYOPTION_ORIGINAL = "original";
     public static final String DISPLAYOPTION_GENERIC = "generic";
@@ -85,6 +87,18 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
         setBoolean(AUTOOPEN, autoOpen);
     }
 
+    /**
+     * Gets the maximum number of entries kept in memory before they are moved to temporary files.
+     * @return the maximum number of entries in memory, or 0 for no limit.
+     */
+    public int getMaxEntriesInMemory() {
+        return getInteger(MAXENTRIESINMEMORY);
+    }
+
+    public void setMaxEntriesInMemory(int maxEntriesInMemory) {
+        setInteger(MAXENTRIESINMEMORY, maxEntriesInMemory);
+    }
+
     @Override
     public void reset() {
 		super.reset();
@@ -93,6 +107,7 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
     	setOutputPath(Util.ROOT_DIRECTORY_VAR + File.separator + "inconsistency-report.xml");
     	setDisplayOption(DISPLAYOPTION_GENERIC);
     	setAutoOpen(true);
+    	setMaxEntriesInMemory(0);
     }
 
     @Override
@@ -103,6 +118,8 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
         desc.add(OUTPUTPATH, "Path of the report file:", null);
         desc.add(DISPLAYOPTION, "Representation of the inline codes in the report", null);
         desc.add(AUTOOPEN, "Open the report file after completion", null);
+        desc.add(MAXENTRIESINMEMORY, "Maximum number of entries in memory (0 for no limit)",
+                "Beyond that number the entries are stored in temporary files");
         return desc;
     }
 
@@ -127,6 +144,11 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
         lsp.setChoicesLabels(labels);
         lsp.setListType(ListSelectionPart.LISTTYPE_DROPDOWN);
         lsp.setMasterPart(master, true);
+
+        SpinInputPart sip = desc.addSpinInputPart(paramDesc.get(MAXENTRIESINMEMORY));
+        sip.setRange(0, Integer.MAX_VALUE);
+        sip.setVertical(false);
+        sip.setMasterPart(master, true);
         
         return desc;
     }
@@ -289,6 +289,76 @@ public class EventTest {
                 root.in("/Gold_PerFileWithCode.xml").toString(), "UTF-8"));
     }
 
+    @Test
+    public void SameSourceAndTargetOutOfMemoryTest() throws IOException {
+        // setup parameters
+        Parameters params = step.getParameters();
+        params.setMaxEntriesInMemory(2);
+
+        // Setup pipeline
+        IPipelineDriver pdriver = new PipelineDriver();
+        FilterConfigurationMapper fcMapper = new FilterConfigurationMapper();
+        fcMapper.addConfigurations(XLIFFFilter.class.getName());
+        pdriver.setFilterConfigurationMapper(fcMapper);
+        String rootDir = root.in("/").toString();
+        pdriver.setRootDirectories(rootDir, rootDir);
+        pdriver.addStep(new RawDocumentToFilterEventsStep());
+        pdriver.addStep(step);
+
+        // Setup input
+        URI inputURI = root.in("/SameSourceAndTarget.html.xlf").asUri();
+        URI outputURI = new File("/SameSourceAndTarget.html.out.xlf").toURI();
+
+        // Add files
+        pdriver.addBatchItem(new BatchItemContext(inputURI, "UTF-8", "okf_xliff", outputURI, "UTF-8", locEN, locFR));
+
+        pdriver.processBatch();
+
+        // Same results as with all entries in memory
+        maskDocIdPath("/inconsistency-report.xml");
+        FileCompare fc = new FileCompare();
+        assertTrue(fc.compareFilesPerLines(root.out("/inconsistency-report.xml").toString(),
+                root.in("/Gold_SameSourceAndTarget.xml").toString(), "UTF-8"));
+    }
+
+    @Test
+    public void PerFileWithCodeOutOfMemoryTest() throws IOException {
+        // setup parameters
+        Parameters params = step.getParameters();
+        params.setDisplayOption(Parameters.DISPLAYOPTION_GENERIC);
+        params.setCheckPerFile(true);
+        params.setMaxEntriesInMemory(2);
+
+        // Setup pipeline
+        IPipelineDriver pdriver = new PipelineDriver();
+        FilterConfigurationMapper fcMapper = new FilterConfigurationMapper();
+        fcMapper.addConfigurations(XLIFFFilter.class.getName());
+        pdriver.setFilterConfigurationMapper(fcMapper);
+        String rootDir = root.in("/").toString();
+        pdriver.setRootDirectories(rootDir, rootDir);
+        pdriver.addStep(new RawDocumentToFilterEventsStep());
+        pdriver.addStep(step);
+
+        // Setup input
+        URI inputURI1 = root.in("/SameSourceWithCode.html.xlf").asUri();
+        URI outputURI1 = new File("/SameSourceWithCode.html.out.xlf").toURI();
+        URI inputURI2 = root.in("/SameTargetWithCode.html.xlf").asUri();
+        URI outputURI2 = new File("/SameTargetWithCode.html.out.xlf").toURI();
+
+        // Add files
+        pdriver.addBatchItem(new BatchItemContext(inputURI1, "UTF-8", "okf_xliff", outputURI1, "UTF-8", locEN, locFR));
+        pdriver.addBatchItem(new BatchItemContext(inputURI2, "UTF-8", "okf_xliff", outputURI2, "UTF-8", locEN, locFR));
+
+        // Run pipeline
+        pdriver.processBatch();
+
+        // Same results as with all entries in memory
+        maskDocIdPath("/inconsistency-report.xml");
+        FileCompare fc = new FileCompare();
+        assertTrue(fc.compareFilesPerLines(root.out("/inconsistency-report.xml").toString(),
+                root.in("/Gold_PerFileWithCode.xml").toString(), "UTF-8"));
+    }
+
     //
     //  Helper Methods
     //
@@ -0,0 +1,50 @@
+package net.sf.okapi.steps.inconsistencycheck;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import net.sf.okapi.common.resource.TextFragment;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class InconsistencyCheckTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testMoreRunsThanMergeFanIn() throws IOException {
+        // One temporary file per stored pair, enough to need several merge passes
+        int count = InconsistencyCheck.MAX_MERGE_FAN_IN * 3 + 5;
+        String expected = createReport(0, count);
+        String actual = createReport(2, count);
+        assertTrue(expected.contains("<targetDifferences>"));
+        assertTrue(expected.contains("<sourceDifferences>"));
+        assertEquals(expected, actual);
+    }
+
+    private String createReport(int maxEntriesInMemory, int count) throws IOException {
+        InconsistencyCheck check = new InconsistencyCheck();
+        Parameters params = check.getParameters();
+        params.setAutoOpen(false);
+        params.setMaxEntriesInMemory(maxEntriesInMemory);
+        for (int i = 0; i < count; i++) {
+            check.store("doc.xlf", "sd1", "tu" + i, "0",
+                    new TextFragment("Source " + (i % 7)),
+                    new TextFragment("Target " + (i % 11)));
+        }
+        File report = new File(folder.getRoot(), "report" + maxEntriesInMemory + ".xml");
+        check.generateReport(report.getPath(), true);
+        return new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+    }
+}
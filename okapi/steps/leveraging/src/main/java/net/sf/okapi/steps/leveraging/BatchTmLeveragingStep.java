@@ -38,14 +38,38 @@ import net.sf.okapi.lib.translation.ITMQuery;
 import net.sf.okapi.lib.translation.QueryManager;
 import net.sf.okapi.steps.diffleverage.DiffMatchAnnotation;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leverages the text units in batches, using {@link IQuery#batchLeverage(List)}.
+ * <p>
+ * A batch is sent to the connector when it reaches a number of text units or a volume of
+ * characters. The number of text units per batch is adjusted from the time the connector took
+ * for the previous batch. Each batch is leveraged on a separate thread while the next batch
+ * is collected, and the events are sent down the pipeline in their original order.
+ */
 public class BatchTmLeveragingStep extends BasePipelineStep {
-	private static final int BATCH_LEVERAGE_MAX = 30;
+	private static final int INITIAL_BATCH_SIZE = 30;
+	private static final int MIN_BATCH_SIZE = 5;
+	private static final int MAX_BATCH_SIZE = 480;
+	private static final int MAX_BATCH_CHARACTERS = 20000;
+	// Latency (in milliseconds) above which the batches are made smaller
+	private static final long TARGET_BATCH_LATENCY = 2000;
 
 	private final List<Event> batchedEvents;
 	private int tuEventCount;
+	private int characterCount;
+	private int batchSize = INITIAL_BATCH_SIZE;
+	// Single thread: the connector is never called by two threads at the same time
+	private ExecutorService executor;
+	private PendingBatch pendingBatch;
 	private LocaleId sourceLocale;
 	private LocaleId targetLocale;
 	private Parameters params;
@@ -53,9 +77,24 @@ public class BatchTmLeveragingStep extends BasePipelineStep {
 
 	private String rootDir;
 
+	/**
+	 * A batch of events being leveraged.
+	 */
+	private static class PendingBatch {
+		final List<Event> events;
+		final int tuCount;
+		final Future<Long> duration;
+
+		PendingBatch(List<Event> events, int tuCount, Future<Long> duration) {
+			this.events = events;
+			this.tuCount = tuCount;
+			this.duration = duration;
+		}
+	}
+
 	public BatchTmLeveragingStep() {
 		params = new Parameters();
-		batchedEvents = new LinkedList<>();
+		batchedEvents = new ArrayList<>();
 	}
 
 	@Override
@@ -117,8 +156,7 @@ public class BatchTmLeveragingStep extends BasePipelineStep {
 			if (!canLeverageTu(tu)) {
 				return Event.createNoopEvent();
 			}
-			handleTextUnit(event);
-			break;
+			return handleTextUnit(event);
 		case START_BATCH_ITEM:
 			return handleStartBatchItem(event);
 		case END_BATCH_ITEM:
@@ -142,23 +180,79 @@ public class BatchTmLeveragingStep extends BasePipelineStep {
 	protected Event handleTextUnit(Event event) {
 		// if we get here then it really is a TU we care to leverage
 		tuEventCount++;
-		if (tuEventCount >= BATCH_LEVERAGE_MAX) {
-			tuEventCount = 0;
-			batchLeverage();
-			MultiEvent me = new MultiEvent();
-			for (Event e : batchedEvents) {
-				me.addEvent(e);
+		for (Segment seg : event.getTextUnit().getSource().getSegments()) {
+			characterCount += seg.text.getCodedText().length();
+		}
+		if ((tuEventCount >= batchSize) || (characterCount >= MAX_BATCH_CHARACTERS)) {
+			// Start leveraging this batch and send the previous one, if any
+			PendingBatch previous = pendingBatch;
+			pendingBatch = dispatchBatch();
+			if (previous != null) {
+				MultiEvent me = new MultiEvent();
+				for (Event e : waitFor(previous)) {
+					me.addEvent(e);
+				}
+				return new Event(EventType.MULTI_EVENT, me);
 			}
-			batchedEvents.clear();
-			return new Event(EventType.MULTI_EVENT, me);
 		}
 
 		return Event.createNoopEvent();
 	}
 
+	/**
+	 * Starts leveraging the current batch on the connector thread.
+	 * @return the pending batch.
+	 */
+	private PendingBatch dispatchBatch() {
+		List<Event> events = new ArrayList<>(batchedEvents);
+		PendingBatch batch = new PendingBatch(events, tuEventCount, executor.submit(() -> {
+			long start = System.nanoTime();
+			batchLeverage(events);
+			return System.nanoTime() - start;
+		}));
+		batchedEvents.clear();
+		tuEventCount = 0;
+		characterCount = 0;
+		return batch;
+	}
+
+	/**
+	 * Waits for a batch to be leveraged and adjusts the size of the next batches
+	 * based on the time it took.
+	 * @param batch the batch to wait for.
+	 * @return the events of the batch.
+	 */
+	private List<Event> waitFor(PendingBatch batch) {
+		long duration;
+		try {
+			duration = TimeUnit.NANOSECONDS.toMillis(batch.duration.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OkapiException("Interrupted while leveraging.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new OkapiException("Error while leveraging.", e.getCause());
+		}
+		if (duration > TARGET_BATCH_LATENCY) {
+			batchSize = Math.max(MIN_BATCH_SIZE, batchSize / 2);
+		} else if ((duration < TARGET_BATCH_LATENCY / 2) && (batch.tuCount >= batchSize)) {
+			batchSize = Math.min(MAX_BATCH_SIZE, batchSize * 2);
+		}
+		return batch.events;
+	}
+
 	@Override
 	protected Event handleStartBatch(Event event) {
 		tuEventCount = 0;
+		characterCount = 0;
+		batchSize = INITIAL_BATCH_SIZE;
+		executor = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "BatchTmLeveraging");
+			thread.setDaemon(true);
+			return thread;
+		});
 
 		try {
 			connector = (IQuery) Class.forName(params.getResourceClassName()).newInstance();
@@ -186,25 +280,53 @@ public class BatchTmLeveragingStep extends BasePipelineStep {
 		return event;
 	}
 
+	@Override
+	protected Event handleEndBatch(Event event) {
+		shutdownExecutor();
+		return event;
+	}
+
+	@Override
+	public void destroy() {
+		shutdownExecutor();
+	}
+
+	private void shutdownExecutor() {
+		pendingBatch = null;
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
 	@Override
 	protected Event handleEndDocument(Event event) {
+		// leverage any remaining batched TextUnits for this document
+		// (queued behind the batch still in flight, if any)
+		PendingBatch previous = pendingBatch;
+		PendingBatch last = batchedEvents.isEmpty() ? null : dispatchBatch();
+		pendingBatch = null;
 		tuEventCount = 0;
+		characterCount = 0;
+		if ((previous == null) && (last == null)) {
+			return event;
+		}
 
-		// leverage any remaining batched TextUnits for this document
-		if (!batchedEvents.isEmpty()) {
-			batchLeverage();
-			MultiEvent me = new MultiEvent();
-			for (Event e : batchedEvents) {
+		MultiEvent me = new MultiEvent();
+		if (previous != null) {
+			for (Event e : waitFor(previous)) {
+				me.addEvent(e);
+			}
+		}
+		if (last != null) {
+			for (Event e : waitFor(last)) {
 				me.addEvent(e);
 			}
-			batchedEvents.clear();
-
-			// add END DOCUMENT event
-			me.addEvent(event);
-			return new Event(EventType.MULTI_EVENT, me);
 		}
 
-		return event;
+		// add END DOCUMENT event
+		me.addEvent(event);
+		return new Event(EventType.MULTI_EVENT, me);
 	}
 
 	private boolean canLeverageTu(ITextUnit tu) {
@@ -239,9 +361,9 @@ public class BatchTmLeveragingStep extends BasePipelineStep {
 		return true;
 	}
 
-	private void batchLeverage() {
+	private void batchLeverage(List<Event> events) {
 		List<ITextUnit> tus = new LinkedList<>();
-		for (Event e : batchedEvents) {
+		for (Event e : events) {
 			if (e.getEventType() == EventType.TEXT_UNIT) {
 				ITextUnit tu = e.getTextUnit();
 				if (canLeverageTu(tu)) {
@@ -16,22 +16,44 @@
 
 package net.sf.okapi.steps.leveraging;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import net.sf.okapi.common.Event;
 import net.sf.okapi.common.IParameters;
 import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.UsingParameters;
 import net.sf.okapi.common.Util;
+import net.sf.okapi.common.exceptions.OkapiException;
 import net.sf.okapi.common.filterwriter.TMXWriter;
 import net.sf.okapi.common.pipeline.BasePipelineStep;
 import net.sf.okapi.common.pipeline.annotations.StepParameterMapping;
 import net.sf.okapi.common.pipeline.annotations.StepParameterType;
 import net.sf.okapi.common.resource.ITextUnit;
 import net.sf.okapi.common.resource.Property;
+import net.sf.okapi.common.resource.TextContainer;
 import net.sf.okapi.lib.translation.QueryManager;
 import net.sf.okapi.lib.translation.ResourceItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Leverages existing translations into the text units of a document.
+ * <p>
+ * By default the text units are leveraged for the target locale of the pipeline.
+ * When {@link Parameters#getLeverageAllTargets()} is set and the target locales
+ * are provided, each text unit is leveraged for all of them in the same pass, with one
+ * set of resources per locale, so the documents are extracted and segmented only once.
+ * The locales can be leveraged concurrently (see {@link Parameters#getMaxConcurrentLocales()}).
+ */
 @UsingParameters(Parameters.class)
 public class LeveragingStep extends BasePipelineStep {
 
@@ -40,15 +62,19 @@ public class LeveragingStep extends BasePipelineStep {
 	private Parameters params;
 	private LocaleId sourceLocale;
 	private LocaleId targetLocale;
+	private List<LocaleId> targetLocales;
 	private QueryManager qm;
 	private TMXWriter tmxWriter;
+	// Multi-target mode: one query manager (and optional TMX writer) per target locale
+	private Map<LocaleId, QueryManager> qms;
+	private Map<LocaleId, TMXWriter> tmxWriters;
+	private ExecutorService executor;
 	private String rootDir;
 	private String inputRootDir;
 	private boolean initDone;
 	private int totalCount;
 	private int exactCount;
 	private int fuzzyCount;
-	private int iQueryId;
 	private ClassLoader connectorContext;
 
 	public LeveragingStep () {
@@ -76,6 +102,15 @@ public class LeveragingStep extends BasePipelineStep {
 		return targetLocale;
 	}
 	
+	@StepParameterMapping(parameterType = StepParameterType.TARGET_LOCALES)
+	public void setTargetLocales (List<LocaleId> targetLocales) {
+		this.targetLocales = targetLocales;
+	}
+
+	public List<LocaleId> getTargetLocales () {
+		return targetLocales;
+	}
+
 	@StepParameterMapping(parameterType = StepParameterType.ROOT_DIRECTORY)
 	public void setRootDirectory (String rootDir) {
 		this.rootDir = rootDir;
@@ -126,15 +161,7 @@ public class LeveragingStep extends BasePipelineStep {
 	
 	@Override
 	protected Event handleEndBatch (Event event) {
-		if ( qm != null ) {
-			qm.close();
-			qm = null;
-		}
-		if ( tmxWriter != null ) {
-			tmxWriter.writeEndDocument();
-			tmxWriter.close();
-			tmxWriter = null;
-		}
+		closeResources();
 		
 		if ( !params.getLeverage() ) {
             return event;
@@ -154,6 +181,13 @@ public class LeveragingStep extends BasePipelineStep {
 		if ( !initDone ) {			
 			initialize();
 		}
+		if ( qms != null ) {
+			for ( Map.Entry<LocaleId, QueryManager> entry : qms.entrySet() ) {
+				entry.getValue().setLanguages(sourceLocale, entry.getKey());
+				entry.getValue().resetCounters();
+			}
+			return event;
+		}
 		qm.setLanguages(sourceLocale, targetLocale);
 		qm.resetCounters();
 		return event;
@@ -164,6 +198,18 @@ public class LeveragingStep extends BasePipelineStep {
 		if ( !params.getLeverage() ) {
             return event;
         }
+		if ( qms != null ) {
+			for ( Map.Entry<LocaleId, QueryManager> entry : qms.entrySet() ) {
+				QueryManager locQm = entry.getValue();
+				totalCount += locQm.getTotalSegments();
+				exactCount += locQm.getExactBestMatches();
+				fuzzyCount += locQm.getFuzzyBestMatches();
+				logger.info("Processeed segments for {} = {}", entry.getKey(), locQm.getTotalSegments());
+				logger.info("Best matches that are exact for {} = {}", entry.getKey(), locQm.getExactBestMatches());
+				logger.info("Best matches that are fuzzy for {} = {}", entry.getKey(), locQm.getFuzzyBestMatches());
+			}
+			return event;
+		}
 		totalCount += qm.getTotalSegments();
 		exactCount += qm.getExactBestMatches();
 		fuzzyCount += qm.getFuzzyBestMatches();
@@ -184,16 +230,13 @@ public class LeveragingStep extends BasePipelineStep {
 		if ( !tu.isTranslatable() ) {
             return event;
         }
+		if ( qms != null ) {
+			leverageAllTargets(tu);
+			return event;
+		}
 
-    	boolean approved = false;
-    	Property prop = tu.getTargetProperty(targetLocale, Property.APPROVED);
-    	if ( prop != null ) {
-    		if ( "yes".equals(prop.getValue()) ) {
-                approved = true;
-            }
-    	}
     	// Do not leverage pre-approved entries
-    	if ( approved ) {
+    	if ( isApproved(tu, targetLocale) ) {
             return event;
         }
 
@@ -208,6 +251,94 @@ public class LeveragingStep extends BasePipelineStep {
 		return event;
 	}
 
+	/**
+	 * Leverages a text unit for all the target locales. Each locale is leveraged on its own
+	 * copy of the text unit, then the targets are merged back in the order of the locales.
+	 * @param tu the text unit to leverage.
+	 */
+	private void leverageAllTargets (ITextUnit tu) {
+		// The copies are made on this thread, so the text unit is never read
+		// and modified at the same time
+		Map<LocaleId, ITextUnit> branches = new LinkedHashMap<>();
+		for ( LocaleId locId : qms.keySet() ) {
+			if ( isApproved(tu, locId) ) continue;
+			ITextUnit branch = tu.clone();
+			for ( LocaleId other : tu.getTargetLocales() ) {
+				if ( !other.equals(locId) ) branch.removeTarget(other);
+			}
+			branches.put(locId, branch);
+		}
+
+		if ( executor == null || branches.size() < 2 ) {
+			for ( Map.Entry<LocaleId, ITextUnit> entry : branches.entrySet() ) {
+				qms.get(entry.getKey()).leverage(entry.getValue());
+			}
+		}
+		else {
+			List<Future<?>> futures = new ArrayList<>(branches.size());
+			for ( Map.Entry<LocaleId, ITextUnit> entry : branches.entrySet() ) {
+				QueryManager locQm = qms.get(entry.getKey());
+				ITextUnit branch = entry.getValue();
+				futures.add(executor.submit(() -> locQm.leverage(branch)));
+			}
+			try {
+				for ( Future<?> future : futures ) {
+					future.get();
+				}
+			}
+			catch ( InterruptedException e ) {
+				for ( Future<?> future : futures ) {
+					future.cancel(true);
+				}
+				Thread.currentThread().interrupt();
+				throw new OkapiException("Interrupted while leveraging.", e);
+			}
+			catch ( ExecutionException e ) {
+				for ( Future<?> future : futures ) {
+					future.cancel(true);
+				}
+				if ( e.getCause() instanceof RuntimeException ) {
+					throw (RuntimeException)e.getCause();
+				}
+				throw new OkapiException("Error while leveraging.", e.getCause());
+			}
+		}
+
+		// Merge the leveraged targets
+		boolean joined = false;
+		for ( Map.Entry<LocaleId, ITextUnit> entry : branches.entrySet() ) {
+			ITextUnit branch = entry.getValue();
+			TextContainer tc = branch.getTarget(entry.getKey());
+			if ( tc != null ) {
+				tu.setTarget(entry.getKey(), tc);
+			}
+			// An un-segmented match may have caused the source to be joined
+			if ( tu.getSource().hasBeenSegmented() && !branch.getSource().hasBeenSegmented() ) {
+				joined = true;
+			}
+		}
+		if ( joined ) {
+			// Keep the other targets aligned with the joined source
+			tu.getSource().joinAll();
+			for ( LocaleId locId : tu.getTargetLocales() ) {
+				tu.getTarget(locId).joinAll();
+			}
+		}
+
+		for ( Map.Entry<LocaleId, TMXWriter> entry : tmxWriters.entrySet() ) {
+			if ( branches.containsKey(entry.getKey()) ) {
+				entry.getValue().writeAlternates(tu, entry.getKey());
+			}
+		}
+	}
+
+	private boolean isApproved (ITextUnit tu,
+		LocaleId locId)
+	{
+		Property prop = tu.getTargetProperty(locId, Property.APPROVED);
+		return (( prop != null ) && "yes".equals(prop.getValue()));
+	}
+
 	private void initialize () {
 		// If we don't really use this step, just move on
 		if ( !params.getLeverage() ) {
@@ -215,46 +346,122 @@ public class LeveragingStep extends BasePipelineStep {
 			return;
 		}
 		
+		if ( params.getLeverageAllTargets() && ( targetLocales != null ) && !targetLocales.isEmpty() ) {
+			// Multi-target mode: one set of resources per target locale
+			qms = new LinkedHashMap<>();
+			tmxWriters = new LinkedHashMap<>();
+			Set<String> tmxPaths = new HashSet<>();
+			for ( LocaleId locId : targetLocales ) {
+				if ( qms.containsKey(locId) ) continue;
+				qms.put(locId, createQueryManager(locId));
+				if ( params.getMakeTMX() ) {
+					String realPath = getTMXPath(locId);
+					if ( !tmxPaths.add(realPath) ) {
+						throw new OkapiException(String.format("The TMX path '%s' is used for several target locales. "
+							+ "Use a target locale variable in the path when leveraging all the targets.", realPath));
+					}
+					tmxWriters.put(locId, createTMXWriter(realPath, locId));
+				}
+			}
+			if (( params.getMaxConcurrentLocales() > 1 ) && ( qms.size() > 1 )) {
+				executor = Executors.newFixedThreadPool(Math.min(params.getMaxConcurrentLocales(), qms.size()), r -> {
+					Thread thread = new Thread(r, "Leveraging");
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+			initDone = true;
+			return;
+		}
+
 		// Else: initialize the global variables
-		qm = new QueryManager();
-		qm.setNoQueryThreshold(params.getNoQueryThreshold());
-		qm.setThreshold(params.getThreshold());
-		qm.setRootDirectory(rootDir);
-		qm.setLanguages(sourceLocale, targetLocale);
+		qm = createQueryManager(targetLocale);
+		if ( params.getMakeTMX() ) {
+			tmxWriter = createTMXWriter(getTMXPath(targetLocale), targetLocale);
+		}
+		initDone = true;
+	}
+
+	private QueryManager createQueryManager (LocaleId trgLoc) {
+		QueryManager manager = new QueryManager();
+		manager.setNoQueryThreshold(params.getNoQueryThreshold());
+		manager.setThreshold(params.getThreshold());
+		manager.setRootDirectory(rootDir);
+		manager.setLanguages(sourceLocale, trgLoc);
 		
+		int iQueryId;
 		if (connectorContext == null || connectorContext == Thread.currentThread().getContextClassLoader()) {
-			iQueryId = qm.addAndInitializeResource(params.getResourceClassName(), null,
+			iQueryId = manager.addAndInitializeResource(params.getResourceClassName(), null,
 					params.getResourceParameters());
 		} else {
-			iQueryId = qm.addAndInitializeResource(params.getResourceClassName(), null, connectorContext,
+			iQueryId = manager.addAndInitializeResource(params.getResourceClassName(), null, connectorContext,
 					params.getResourceParameters());
 		}
 		
-		ResourceItem res = qm.getResource(iQueryId);
-		logger.info("Leveraging settings: {}", res.name);
+		ResourceItem res = manager.getResource(iQueryId);
+		logger.info("Leveraging settings for {}: {}", trgLoc, res.name);
 		logger.info(res.query.getSettingsDisplay());
 
 		// Options
 		String targetPrefix = (params.getUseTargetPrefix() ? params.getTargetPrefix() : null);
-		qm.setOptions(params.getFillTarget() ? params.getFillTargetThreshold() : Integer.MAX_VALUE,
+		manager.setOptions(params.getFillTarget() ? params.getFillTargetThreshold() : Integer.MAX_VALUE,
 			params.getFillIfTargetIsEmpty(), params.getFillIfTargetIsSameAsSource(), params.getDowngradeIdenticalBestMatches(),
 			targetPrefix, params.getTargetPrefixThreshold(), params.getCopySourceOnNoText());
-			
-		if ( params.getMakeTMX() ) {
-			// Resolve the variables
-			String realPath = Util.fillRootDirectoryVariable(params.getTMXPath(), rootDir);
-			realPath = Util.fillInputRootDirectoryVariable(realPath, inputRootDir);
-			realPath = LocaleId.replaceVariables(realPath, sourceLocale, targetLocale);
-			// Create the output
-			tmxWriter = new TMXWriter(realPath);
-			tmxWriter.setUseMTPrefix(params.getUseMTPrefix());
-			tmxWriter.writeStartDocument(sourceLocale, targetLocale,
-				getClass().getName(), "1", // Version is irrelevant here
-				"sentence", "undefined", "undefined");
+		return manager;
+	}
+
+	private String getTMXPath (LocaleId trgLoc) {
+		// Resolve the variables
+		String realPath = Util.fillRootDirectoryVariable(params.getTMXPath(), rootDir);
+		realPath = Util.fillInputRootDirectoryVariable(realPath, inputRootDir);
+		return LocaleId.replaceVariables(realPath, sourceLocale, trgLoc);
+	}
+
+	private TMXWriter createTMXWriter (String realPath,
+		LocaleId trgLoc)
+	{
+		TMXWriter writer = new TMXWriter(realPath);
+		writer.setUseMTPrefix(params.getUseMTPrefix());
+		writer.writeStartDocument(sourceLocale, trgLoc,
+			getClass().getName(), "1", // Version is irrelevant here
+			"sentence", "undefined", "undefined");
+		return writer;
+	}
+
+	private void closeResources () {
+		if ( executor != null ) {
+			executor.shutdownNow();
+			executor = null;
+		}
+		if ( qm != null ) {
+			qm.close();
+			qm = null;
+		}
+		if ( tmxWriter != null ) {
+			tmxWriter.writeEndDocument();
+			tmxWriter.close();
+			tmxWriter = null;
+		}
+		if ( qms != null ) {
+			for ( QueryManager locQm : qms.values() ) {
+				locQm.close();
+			}
+			qms = null;
+		}
+		if ( tmxWriters != null ) {
+			for ( TMXWriter writer : tmxWriters.values() ) {
+				writer.writeEndDocument();
+				writer.close();
+			}
+			tmxWriters = null;
 		}
-		initDone = true;
 	}
-	
+
+	@Override
+	public void destroy () {
+		closeResources();
+	}
+
 	public void setConnectorContext(ClassLoader connectorContext) {
 		this.connectorContext = connectorContext;
 	}
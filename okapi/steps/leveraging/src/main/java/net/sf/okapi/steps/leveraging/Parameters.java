@@ -37,6 +37,8 @@ public class Parameters extends StringParameters {
 	private static final String COPYSOURCEONNOTEXT = "copySourceOnNoText";
 	private static final String RESOURCECLASSNAME = "resourceClassName";
 	private static final String RESOURCEPARAMETERS = "resourceParameters";
+	private static final String LEVERAGEALLTARGETS = "leverageAllTargets";
+	private static final String MAXCONCURRENTLOCALES = "maxConcurrentLocales";
 
 	public Parameters () {
 		super();
@@ -178,6 +180,32 @@ public class Parameters extends StringParameters {
 		setInteger(TARGETPREFIXTHRESHOLD, targetPrefixThreshold);
 	}
 	
+	/**
+	 * Indicates if the text units are leveraged for all the target locales of the pipeline
+	 * in one pass, instead of only for the target locale.
+	 * @return true to leverage all the target locales.
+	 */
+	public boolean getLeverageAllTargets () {
+		return getBoolean(LEVERAGEALLTARGETS);
+	}
+
+	public void setLeverageAllTargets (boolean leverageAllTargets) {
+		setBoolean(LEVERAGEALLTARGETS, leverageAllTargets);
+	}
+
+	/**
+	 * Gets the maximum number of target locales leveraged at the same time
+	 * when leveraging all the target locales.
+	 * @return the maximum number of locales leveraged concurrently (1 to leverage them one after the other).
+	 */
+	public int getMaxConcurrentLocales () {
+		return getInteger(MAXCONCURRENTLOCALES);
+	}
+
+	public void setMaxConcurrentLocales (int maxConcurrentLocales) {
+		setInteger(MAXCONCURRENTLOCALES, maxConcurrentLocales);
+	}
+
 	@Override
 	public void reset() {
 		super.reset();
@@ -198,6 +226,8 @@ public class Parameters extends StringParameters {
 		setTargetPrefix("FUZZY__");
 		setTargetPrefixThreshold(99);
 		setCopySourceOnNoText(false);
+		setLeverageAllTargets(false);
+		setMaxConcurrentLocales(1);
 	}
 
 }
@@ -6,7 +6,12 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -16,6 +21,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 import org.junit.runners.MethodSorters;
 
+import net.sf.okapi.common.Event;
 import net.sf.okapi.common.FileLocation;
 import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.Util;
@@ -113,6 +119,61 @@ public class BatchTmLeveragingStepTest {
 		Assert.assertEquals(TRG_2.toText(),  a.getFirst().getTarget().toString());
 	}
 
+	@Test
+	public void testSeveralBatches () throws IOException {
+		// Enough text units for several batches, with the last one partial
+		StringBuilder html = new StringBuilder("<html><body>");
+		for ( int i=0; i<250; i++ ) {
+			html.append("<p>").append(i % 2 == 0 ? "This is an example of text" : "Paragraph " + i).append("</p>");
+		}
+		html.append("</body></html>");
+		File inFile = root.out("/manyTUs.html").asFile();
+		inFile.getParentFile().mkdirs();
+		Files.write(inFile.toPath(), html.toString().getBytes(StandardCharsets.UTF_8));
+
+		IPipelineDriver pdriver = new PipelineDriver();
+		FilterConfigurationMapper fcMapper = new FilterConfigurationMapper();
+		fcMapper.addConfigurations(HtmlFilter.class.getName());
+		pdriver.setFilterConfigurationMapper(fcMapper);
+		String rootDir = root.in("/").toString();
+		pdriver.setRootDirectories(rootDir, rootDir);
+		pdriver.addStep(new RawDocumentToFilterEventsStep());
+		
+		BatchTmLeveragingStep levStep = new BatchTmLeveragingStep();
+		Parameters params = levStep.getParameters();
+		net.sf.okapi.connectors.pensieve.Parameters tmParams = new net.sf.okapi.connectors.pensieve.Parameters();
+		tmParams.fromString(params.getResourceParameters());
+		tmParams.setDbDirectory(tmDir);
+		params.setResourceParameters(tmParams.toString());
+		params.setThreshold(80);
+		params.setFillTargetThreshold(80);
+		pdriver.addStep(levStep);
+
+		pdriver.addBatchItem(new BatchItemContext(inFile.toURI(), "UTF-8", "okf_html",
+			root.out("/manyTUs.out.html").asUri(), "UTF-8", locEN, locFR));
+		
+		Pipeline p = (Pipeline) pdriver.getPipeline();
+		EventObserver o = new EventObserver();
+		p.addObserver(o);
+		pdriver.processBatch();
+
+		// All the text units are sent, in their original order, and leveraged
+		List<ITextUnit> tus = new ArrayList<>();
+		for ( Event event : o.getResult() ) {
+			if ( event.isTextUnit() ) tus.add(event.getTextUnit());
+		}
+		assertEquals(250, tus.size());
+		for ( int i=0; i<250; i++ ) {
+			ITextUnit tu = tus.get(i);
+			if ( i % 2 == 0 ) {
+				assertEquals(TRG_1.toText(), tu.getTarget(locFR).getFirstContent().toText());
+			}
+			else {
+				assertEquals("Paragraph " + i, tu.getSource().getFirstContent().toText());
+			}
+		}
+	}
+
 	private File processWithTranslations (boolean onlyIfTargetIsEmpty,
 		boolean onlyIfTargetIsSameAsSource)
 	{
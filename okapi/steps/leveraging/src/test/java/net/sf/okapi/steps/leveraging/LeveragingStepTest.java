@@ -7,6 +7,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.net.URI;
+import java.util.Arrays;
 
 import org.junit.BeforeClass;
 import org.junit.FixMethodOrder;
@@ -15,6 +16,8 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 import org.junit.runners.MethodSorters;
 
+import net.sf.okapi.common.Event;
+import net.sf.okapi.common.EventType;
 import net.sf.okapi.common.FileLocation;
 import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.Util;
@@ -27,7 +30,10 @@ import net.sf.okapi.common.pipelinedriver.IPipelineDriver;
 import net.sf.okapi.common.pipelinedriver.PipelineDriver;
 import net.sf.okapi.common.resource.ISegments;
 import net.sf.okapi.common.resource.ITextUnit;
+import net.sf.okapi.common.resource.Property;
+import net.sf.okapi.common.resource.StartDocument;
 import net.sf.okapi.common.resource.TextFragment;
+import net.sf.okapi.common.resource.TextUnit;
 import net.sf.okapi.filters.html.HtmlFilter;
 import net.sf.okapi.filters.xliff.XLIFFFilter;
 import net.sf.okapi.steps.common.FilterEventsToRawDocumentStep;
@@ -44,8 +50,11 @@ public class LeveragingStepTest {
 	static private FileLocation root;
 	static private String tmDir;
 	static private String tmDir2;
+	static private String tmDir3;
 	static private LocaleId locEN = LocaleId.fromString("en");
 	static private LocaleId locFR = LocaleId.fromString("fr");
+	static private LocaleId locDE = LocaleId.fromString("de");
+	static private LocaleId locES = LocaleId.fromString("es");
 	
 	@BeforeClass
 	public static void setupClass () {
@@ -54,6 +63,8 @@ public class LeveragingStepTest {
 		tmDir2 = Util.ensureSeparator(Util.getTempDirectory(), true) + "levtestTM2";
 		createTM();
 		createTM2();
+		tmDir3 = Util.ensureSeparator(Util.getTempDirectory(), true) + "levtestTM3";
+		createTM3();
 	}
 
 	@Test
@@ -262,6 +273,52 @@ public class LeveragingStepTest {
 		assertEquals("TEXTE SEPT.", segs.get(1).getContent().toText());
 	}
 
+	@Test
+	public void testAllTargetsSequential () {
+		checkAllTargets(1);
+	}
+
+	@Test
+	public void testAllTargetsConcurrent () {
+		checkAllTargets(3);
+	}
+
+	private void checkAllTargets (int maxConcurrentLocales) {
+		LeveragingStep levStep = new LeveragingStep();
+		Parameters params = levStep.getParameters();
+		// One TM per target locale
+		net.sf.okapi.connectors.pensieve.Parameters tmParams = new net.sf.okapi.connectors.pensieve.Parameters();
+		tmParams.fromString(params.getResourceParameters());
+		tmParams.setDbDirectory(tmDir3 + "/${trgLoc}");
+		params.setResourceParameters(tmParams.toString());
+		params.setLeverageAllTargets(true);
+		params.setMaxConcurrentLocales(maxConcurrentLocales);
+		levStep.setSourceLocale(locEN);
+		levStep.setTargetLocale(locFR);
+		levStep.setTargetLocales(Arrays.asList(locFR, locDE, locES));
+
+		ITextUnit tu1 = new TextUnit("1", "Text one.");
+		ITextUnit tu2 = new TextUnit("2", "Text two.");
+		// Approved entries are not leveraged
+		tu2.setTargetContent(locDE, new TextFragment("Zwei."));
+		tu2.setTargetProperty(locDE, new Property(Property.APPROVED, "yes"));
+
+		levStep.handleEvent(new Event(EventType.START_BATCH));
+		levStep.handleEvent(new Event(EventType.START_DOCUMENT, new StartDocument("sd")));
+		levStep.handleEvent(new Event(EventType.TEXT_UNIT, tu1));
+		levStep.handleEvent(new Event(EventType.TEXT_UNIT, tu2));
+		levStep.handleEvent(new Event(EventType.END_DOCUMENT));
+		levStep.handleEvent(new Event(EventType.END_BATCH));
+		levStep.destroy();
+
+		assertEquals("TEXTE UN.", tu1.getTarget(locFR).getFirstContent().toText());
+		assertEquals("TEXT EINS.", tu1.getTarget(locDE).getFirstContent().toText());
+		assertEquals("TEXTO UNO.", tu1.getTarget(locES).getFirstContent().toText());
+		assertEquals("TEXTE DEUX.", tu2.getTarget(locFR).getFirstContent().toText());
+		assertEquals("Zwei.", tu2.getTarget(locDE).getFirstContent().toText());
+		assertEquals("TEXTO DOS.", tu2.getTarget(locES).getFirstContent().toText());
+	}
+
 	public File processWithTranslations (boolean onlyIfTargetIsEmpty,
 			boolean onlyIfTargetIsSameAsSource)
 	{
@@ -362,4 +419,26 @@ public class LeveragingStepTest {
 		tmWriter.close();
 	}
 
+	static private void createTM3 () {
+		Util.deleteDirectory(tmDir3, true);
+		createTM3(locFR, "TEXTE UN.", "TEXTE DEUX.");
+		createTM3(locDE, "TEXT EINS.", "TEXT ZWEI.");
+		createTM3(locES, "TEXTO UNO.", "TEXTO DOS.");
+	}
+
+	static private void createTM3 (LocaleId locId,
+		String trg1,
+		String trg2)
+	{
+		String dir = tmDir3 + "/" + locId.toString();
+		Util.createDirectories(dir + "/");
+		ITmWriter tmWriter = TmWriterFactory.createFileBasedTmWriter(dir, true);
+		tmWriter.indexTranslationUnit(new TranslationUnit(new TranslationUnitVariant(locEN, new TextFragment("Text one.")),
+			new TranslationUnitVariant(locId, new TextFragment(trg1))));
+		tmWriter.indexTranslationUnit(new TranslationUnit(new TranslationUnitVariant(locEN, new TextFragment("Text two.")),
+			new TranslationUnitVariant(locId, new TextFragment(trg2))));
+		tmWriter.commit();
+		tmWriter.close();
+	}
+
 }
@@ -192,4 +192,10 @@ public class QualityCheckStep extends BasePipelineStep {
 		}
 		return event;
 	}
+
+	@Override
+	public void destroy() {
+		// Delete the temporary file of the issues, if there is one
+		session.closeIssues();
+	}
 }
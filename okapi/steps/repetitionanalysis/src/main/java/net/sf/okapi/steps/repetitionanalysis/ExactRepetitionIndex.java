@@ -0,0 +1,70 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.steps.repetitionanalysis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.okapi.common.query.MatchType;
+import net.sf.okapi.common.resource.TextFragment;
+import net.sf.okapi.tm.pensieve.common.TmHit;
+import net.sf.okapi.tm.pensieve.common.TranslationUnit;
+
+/**
+ * In-memory index of the segments of a document, for finding their exact repetitions.
+ * <p>
+ * The segments are keyed by their coded text, like the exact search of the Pensieve TM,
+ * and the hits are returned in the order the segments were added.
+ */
+class ExactRepetitionIndex {
+
+	private final Map<String, List<TranslationUnit>> units = new HashMap<>();
+
+	/**
+	 * Adds a segment to the index.
+	 * @param tu the translation unit of the segment.
+	 */
+	void add(TranslationUnit tu) {
+		units.computeIfAbsent(getKey(tu.getSource().getContent()), k -> new ArrayList<>(1)).add(tu);
+	}
+
+	/**
+	 * Finds the segments already added with the same text as a given fragment.
+	 * @param tf the fragment to look for.
+	 * @return the list of exact hits (can be empty, never null).
+	 */
+	List<TmHit> search(TextFragment tf) {
+		List<TranslationUnit> list = units.get(getKey(tf));
+		List<TmHit> hits = new ArrayList<>(list == null ? 0 : list.size());
+		if (list != null) {
+			for (TranslationUnit tu : list) {
+				hits.add(new TmHit(tu, MatchType.EXACT, 100.0f));
+			}
+		}
+		return hits;
+	}
+
+	void clear() {
+		units.clear();
+	}
+
+	private static String getKey(TextFragment tf) {
+		return tf.getCodedText();
+	}
+}
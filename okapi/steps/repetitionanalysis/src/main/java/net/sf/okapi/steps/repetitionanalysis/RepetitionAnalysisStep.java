@@ -16,16 +16,15 @@
 
 package net.sf.okapi.steps.repetitionanalysis;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
-import java.util.UUID;
 
 import net.sf.okapi.common.Event;
 import net.sf.okapi.common.IParameters;
 import net.sf.okapi.common.LocaleId;
-import net.sf.okapi.common.Util;
 import net.sf.okapi.common.annotation.AltTranslation;
 import net.sf.okapi.common.annotation.AltTranslationsAnnotation;
+import net.sf.okapi.common.exceptions.OkapiIOException;
 import net.sf.okapi.common.pipeline.BasePipelineStep;
 import net.sf.okapi.common.pipeline.annotations.StepParameterMapping;
 import net.sf.okapi.common.pipeline.annotations.StepParameterType;
@@ -41,11 +40,15 @@ import net.sf.okapi.tm.pensieve.common.TranslationUnitVariant;
 import net.sf.okapi.tm.pensieve.seeker.ITmSeeker;
 import net.sf.okapi.tm.pensieve.seeker.PensieveSeeker;
 import net.sf.okapi.tm.pensieve.writer.PensieveWriter;
-import net.sf.okapi.tm.pensieve.writer.TmWriterFactory;
+
+import org.apache.lucene.store.RAMDirectory;
 
 /**
  * The step analyzes repetitions in input documents. Either exact or configurable fuzzy search is performed.
  * <p>
+ * Exact repetitions are found with an in-memory index of the segment texts. For fuzzy search,
+ * the segments are also indexed in an in-memory Pensieve TM.
+ * <p>
  * 2 types of annotations are created for found repetitive segments -- RepetitiveSegmentAnnotation and AltTranslationsAnnotation.  
  * RepetitiveSegmentAnnotation's are attached to all repetitive source segments. 
  * AltTranslationsAnnotation's are attached to target segments, corresponding to repetitive source segments.
@@ -68,7 +71,7 @@ public class RepetitionAnalysisStep extends BasePipelineStep {
 	 * Counter of TUs that have at least one non-empty segment (global TU counter).
 	 */
 	private long groupCounter;	
-	private String tmDir;
+	private final ExactRepetitionIndex exactIndex = new ExactRepetitionIndex();
 	private PensieveWriter tmWriter;
 	private ITmSeeker currentTm;
 	private LocaleId sourceLocale;
@@ -77,7 +80,6 @@ public class RepetitionAnalysisStep extends BasePipelineStep {
 	public RepetitionAnalysisStep() {
 		super();
 		params = new Parameters();
-		//tmDir = Util.ensureSeparator(Util.getTempDirectory(), true) + "tm/";
 	}
 	
 	@Override
@@ -119,6 +121,7 @@ public class RepetitionAnalysisStep extends BasePipelineStep {
 	}
 	
 	private void close() {
+		exactIndex.clear();
 		if (tmWriter != null) {
 			tmWriter.close();
 			tmWriter = null;
@@ -127,24 +130,25 @@ public class RepetitionAnalysisStep extends BasePipelineStep {
 			currentTm.close();
 			currentTm = null;
 		}
-		if (tmDir != null) Util.deleteDirectory(tmDir, false);
 	}
 	
 	@Override
 	protected Event handleStartDocument(Event event) {
 		close();
-		// For concurrent pipelines 
-		tmDir = String.format("%s~okapi-step-repetitionanalysis-%s/", 
-				Util.ensureSeparator(Util.getTempDirectory(), true), 
-				UUID.randomUUID().toString());
-		Util.createDirectories(tmDir);
 		searchExact = params.getFuzzyThreshold() >= 100;
 		
 		tuCounter = 0;
 		groupCounter = 1;
 		
-		tmWriter = (PensieveWriter) TmWriterFactory.createFileBasedTmWriter(tmDir, true);
-		currentTm = new PensieveSeeker(tmWriter.getIndexWriter());
+		// The TM is needed only for the fuzzy search
+		if (!searchExact) {
+			try {
+				tmWriter = new PensieveWriter(new RAMDirectory(), true);
+			} catch (IOException e) {
+				throw new OkapiIOException("Cannot create the TM for the repetition analysis.", e);
+			}
+			currentTm = new PensieveSeeker(tmWriter.getIndexWriter());
+		}
 		
 		return super.handleStartDocument(event);
 	}
@@ -199,7 +203,7 @@ public class RepetitionAnalysisStep extends BasePipelineStep {
 				
 				SegmentInfo info = new SegmentInfo(tuid, groupId, segId);
 
-				List<TmHit> hits = new ArrayList<>(currentTm.searchExact(tf, null));
+				List<TmHit> hits = exactIndex.search(tf);
 				if (!searchExact) {
 					hits.addAll(currentTm.searchFuzzy(tf, params.getFuzzyThreshold(), params.getMaxHits(), null));
 				}
@@ -249,11 +253,14 @@ public class RepetitionAnalysisStep extends BasePipelineStep {
 					seg.setAnnotation(ann);
 				}
 				
-				tmWriter.indexTranslationUnit(ntu);
-				
-				// Should be called here after every segment addition to the TM for the situations 
-				// of repetitive segments within a tu
-				tmWriter.commit();
+				exactIndex.add(ntu);
+				if (!searchExact) {
+					tmWriter.indexTranslationUnit(ntu);
+					
+					// Should be called here after every segment addition to the TM for the situations 
+					// of repetitive segments within a tu
+					tmWriter.commit();
+				}
 			}
 			if (hasTranslationUnits) groupCounter++;
 		}
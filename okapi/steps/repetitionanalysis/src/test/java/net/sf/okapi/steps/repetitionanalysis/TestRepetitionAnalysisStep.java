@@ -16,13 +16,29 @@
 
 package net.sf.okapi.steps.repetitionanalysis;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import net.sf.okapi.common.Event;
+import net.sf.okapi.common.EventType;
 import net.sf.okapi.common.FileLocation;
 import net.sf.okapi.common.LocaleId;
+import net.sf.okapi.common.annotation.AltTranslation;
+import net.sf.okapi.common.annotation.AltTranslationsAnnotation;
 import net.sf.okapi.common.pipelinebuilder.XBatch;
 import net.sf.okapi.common.pipelinebuilder.XBatchItem;
 import net.sf.okapi.common.pipelinebuilder.XParameter;
 import net.sf.okapi.common.pipelinebuilder.XPipeline;
 import net.sf.okapi.common.pipelinebuilder.XPipelineStep;
+import net.sf.okapi.common.query.MatchType;
+import net.sf.okapi.common.resource.Ending;
+import net.sf.okapi.common.resource.ITextUnit;
+import net.sf.okapi.common.resource.Segment;
+import net.sf.okapi.common.resource.StartDocument;
+import net.sf.okapi.common.resource.TextContainer;
+import net.sf.okapi.common.resource.TextFragment;
+import net.sf.okapi.common.resource.TextUnit;
 import net.sf.okapi.filters.plaintext.PlainTextFilter;
 import net.sf.okapi.steps.common.RawDocumentToFilterEventsStep;
 import net.sf.okapi.steps.segmentation.Parameters;
@@ -91,4 +107,91 @@ public class TestRepetitionAnalysisStep {
 		).execute();
 	}
 
+	@Test
+	public void testExactRepetitionAnnotations() {
+		RepetitionAnalysisStep step = createStep(100);
+		ITextUnit tu1 = processTextUnit(step, "tu1", "Hello world.", "Something else.");
+		ITextUnit tu2 = processTextUnit(step, "tu2", "Hello world.");
+		ITextUnit tu3 = processTextUnit(step, "tu3", "Hello world.", "Hello world!");
+		step.handleEvent(new Event(EventType.END_DOCUMENT, new Ending("ed")));
+
+		// First occurrence: referenced by the others, but not repetitive itself
+		RepetitiveSegmentAnnotation rsa = getSource(tu1, 0).getAnnotation(RepetitiveSegmentAnnotation.class);
+		assertEquals("(tuid: 1 groupId: 1 segId: 1)", rsa.toString());
+		assertNull(getTarget(tu1, 0).getAnnotation(AltTranslationsAnnotation.class));
+		assertEquals(0, getSource(tu1, 1).getAnnotation(RepetitiveSegmentAnnotation.class).getMap().size());
+
+		rsa = getSource(tu2, 0).getAnnotation(RepetitiveSegmentAnnotation.class);
+		assertEquals(1, rsa.getMap().size());
+		assertEquals(100f, rsa.getMap().get(new SegmentInfo("1", "1", "1")), 0f);
+		AltTranslationsAnnotation ata = getTarget(tu2, 0).getAnnotation(AltTranslationsAnnotation.class);
+		assertEquals(1, ata.size());
+		AltTranslation alt = ata.getFirst();
+		assertEquals(MatchType.EXACT_DOCUMENT_CONTEXT, alt.getType());
+		assertEquals(100, alt.getCombinedScore());
+		assertEquals("Hello world.", alt.getSource().toString());
+		assertEquals("1", alt.getTarget().toString());
+
+		// Every previous occurrence is found, in document order
+		rsa = getSource(tu3, 0).getAnnotation(RepetitiveSegmentAnnotation.class);
+		assertEquals(2, rsa.getMap().size());
+		assertEquals(100f, rsa.getMap().get(new SegmentInfo("3", "2", "1")), 0f);
+		ata = getTarget(tu3, 0).getAnnotation(AltTranslationsAnnotation.class);
+		assertEquals(2, ata.size());
+		assertEquals("1", ata.getFirst().getTarget().toString());
+		assertEquals(0, getSource(tu3, 1).getAnnotation(RepetitiveSegmentAnnotation.class).getMap().size());
+		assertNull(getTarget(tu3, 1).getAnnotation(AltTranslationsAnnotation.class));
+	}
+
+	@Test
+	public void testFuzzyRepetitionAnnotations() {
+		RepetitionAnalysisStep step = createStep(80);
+		processTextUnit(step, "tu1", "The quick brown fox jumps over the lazy dog.");
+		ITextUnit tu2 = processTextUnit(step, "tu2", "The quick brown fox jumps over the lazy dog.");
+		ITextUnit tu3 = processTextUnit(step, "tu3", "The quick brown fox jumps over the lazy dogs.");
+		step.handleEvent(new Event(EventType.END_DOCUMENT, new Ending("ed")));
+
+		// The exact repetition is found by both the exact and the fuzzy search
+		AltTranslationsAnnotation ata = getTarget(tu2, 0).getAnnotation(AltTranslationsAnnotation.class);
+		assertEquals(2, ata.size());
+		assertEquals(100, ata.getFirst().getCombinedScore());
+
+		RepetitiveSegmentAnnotation rsa = getSource(tu3, 0).getAnnotation(RepetitiveSegmentAnnotation.class);
+		assertEquals(2, rsa.getMap().size());
+		Float score = rsa.getMap().get(new SegmentInfo("1", "1", "1"));
+		assertNotNull(score);
+		assertEquals(true, score >= 80f && score < 100f);
+	}
+
+	private static RepetitionAnalysisStep createStep(int fuzzyThreshold) {
+		RepetitionAnalysisStep step = new RepetitionAnalysisStep();
+		step.getParameters().setFuzzyThreshold(fuzzyThreshold);
+		step.setSourceLocale(LocaleId.ENGLISH);
+		step.setTargetLocale(LocaleId.GERMAN);
+		StartDocument sd = new StartDocument("sd");
+		sd.setLocale(LocaleId.ENGLISH);
+		step.handleEvent(new Event(EventType.START_DOCUMENT, sd));
+		return step;
+	}
+
+	private static ITextUnit processTextUnit(RepetitionAnalysisStep step, String id, String... segments) {
+		ITextUnit tu = new TextUnit(id);
+		TextContainer tc = new TextContainer(segments[0]);
+		for (int i = 1; i < segments.length; i++) {
+			tc.getSegments().append(new Segment(null, new TextFragment(segments[i])), " ");
+		}
+		tu.setSource(tc);
+		tu.setTarget(LocaleId.GERMAN, tc.clone());
+		step.handleEvent(new Event(EventType.TEXT_UNIT, tu));
+		return tu;
+	}
+
+	private static Segment getSource(ITextUnit tu, int index) {
+		return tu.getSource().getSegments().get(index);
+	}
+
+	private static Segment getTarget(ITextUnit tu, int index) {
+		return tu.getTarget(LocaleId.GERMAN).getSegments().get(index);
+	}
+
 }
@@ -22,7 +22,6 @@ import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.UsingParameters;
 import net.sf.okapi.common.Util;
 import net.sf.okapi.common.exceptions.OkapiIOException;
-import net.sf.okapi.common.pipeline.IPipelineStep;
 import net.sf.okapi.common.pipeline.annotations.StepParameterMapping;
 import net.sf.okapi.common.pipeline.annotations.StepParameterType;
 import net.sf.okapi.common.query.MatchType;
@@ -31,58 +30,8 @@ import net.sf.okapi.common.resource.IWithAnnotations;
 import net.sf.okapi.common.resource.StartDocument;
 import net.sf.okapi.lib.reporting.IReportGenerator;
 import net.sf.okapi.lib.reporting.ReportGenerator;
-import net.sf.okapi.steps.common.AbstractCompoundStep;
+import net.sf.okapi.steps.wordcount.categorized.CategoryCountStep;
 import net.sf.okapi.steps.wordcount.categorized.CategoryGroup;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXAlphanumericOnlyTextUnitCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXAlphanumericOnlyTextUnitWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXExactMatchedCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXExactMatchedWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXFuzzyMatchCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXFuzzyMatchWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXLeveragedMatchedCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXLeveragedMatchedWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXMeasurementOnlyTextUnitCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXMeasurementOnlyTextUnitWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXNumericOnlyTextUnitCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXNumericOnlyTextUnitWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXProtectedCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXProtectedWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXRepetitionMatchedCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.gmx.GMXRepetitionMatchedWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ConcordanceCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ConcordanceWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactDocumentContextMatchCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactDocumentContextMatchWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactLocalContextMatchCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactLocalContextMatchWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactMatchCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactMatchWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactPreviousVersionMatchCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactPreviousVersionMatchWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactRepairedCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactRepairedWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactStructuralMatchCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactStructuralMatchWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactTextOnlyCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactTextOnlyPreviousVersionMatchCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactTextOnlyPreviousVersionMatchWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactTextOnlyUniqueIdMatchCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactTextOnlyUniqueIdMatchWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactTextOnlyWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactUniqueIdMatchCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.ExactUniqueIdMatchWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyMatchCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyMatchWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyPreviousVersionMatchCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyPreviousVersionMatchWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyRepairedCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyRepairedWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyUniqueIdMatchCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyUniqueIdMatchWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.MTCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.MTWordCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.PhraseAssembledCharacterCountStep;
-import net.sf.okapi.steps.wordcount.categorized.okapi.PhraseAssembledWordCountStep;
 import net.sf.okapi.steps.wordcount.common.BaseCounter;
 import net.sf.okapi.steps.wordcount.common.GMX;
 import org.slf4j.Logger;
@@ -99,10 +48,9 @@ import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.util.Date;
-import java.util.List;
 
 @UsingParameters(Parameters.class)
-public class ScopingReportStep extends AbstractCompoundStep {
+public class ScopingReportStep extends CategoryCountStep {
 
 	/**
 	 * General report fields
@@ -322,73 +270,6 @@ public class ScopingReportStep extends AbstractCompoundStep {
 		}
 	}
 
-	/**
-	 * Adds internal steps providing counts against single categories. 
-	 * The sequence of internal steps in this list defines priorities of categories within their groups (GMX and Okapi).
-	 * A category group is assigned to a step by having it *implement* the category group's marker interface.
-	 */
-	@Override
-	protected void addStepsToList(List<IPipelineStep> list) {
-		
-		// GMX word count categories
-		list.add(new GMXProtectedWordCountStep());
-		list.add(new GMXExactMatchedWordCountStep());
-		list.add(new GMXLeveragedMatchedWordCountStep());
-		list.add(new GMXRepetitionMatchedWordCountStep());
-		list.add(new GMXFuzzyMatchWordCountStep());		
-		list.add(new GMXAlphanumericOnlyTextUnitWordCountStep());
-		list.add(new GMXNumericOnlyTextUnitWordCountStep());
-		list.add(new GMXMeasurementOnlyTextUnitWordCountStep());
-		
-		// GMX character count categories
-		list.add(new GMXProtectedCharacterCountStep());
-		list.add(new GMXExactMatchedCharacterCountStep());
-		list.add(new GMXLeveragedMatchedCharacterCountStep());
-		list.add(new GMXRepetitionMatchedCharacterCountStep());
-		list.add(new GMXFuzzyMatchCharacterCountStep());
-		list.add(new GMXAlphanumericOnlyTextUnitCharacterCountStep());
-		list.add(new GMXNumericOnlyTextUnitCharacterCountStep());
-		list.add(new GMXMeasurementOnlyTextUnitCharacterCountStep());
-		
-		// Okapi word count categories
-		list.add(new ExactUniqueIdMatchWordCountStep());
-		list.add(new ExactPreviousVersionMatchWordCountStep());
-		list.add(new ExactLocalContextMatchWordCountStep());
-		list.add(new ExactDocumentContextMatchWordCountStep());
-		list.add(new ExactStructuralMatchWordCountStep());
-		list.add(new ExactMatchWordCountStep());
-		list.add(new ExactTextOnlyUniqueIdMatchWordCountStep());
-		list.add(new ExactTextOnlyPreviousVersionMatchWordCountStep());		
-		list.add(new ExactTextOnlyWordCountStep());
-		list.add(new ExactRepairedWordCountStep());
-		list.add(new FuzzyUniqueIdMatchWordCountStep());
-		list.add(new FuzzyPreviousVersionMatchWordCountStep());		
-		list.add(new FuzzyMatchWordCountStep());
-		list.add(new FuzzyRepairedWordCountStep());
-		list.add(new PhraseAssembledWordCountStep());
-		list.add(new MTWordCountStep());
-		list.add(new ConcordanceWordCountStep());
-		
-		// Okapi character count categories
-		list.add(new ExactUniqueIdMatchCharacterCountStep());
-		list.add(new ExactPreviousVersionMatchCharacterCountStep());
-		list.add(new ExactLocalContextMatchCharacterCountStep());
-		list.add(new ExactDocumentContextMatchCharacterCountStep());
-		list.add(new ExactStructuralMatchCharacterCountStep());
-		list.add(new ExactMatchCharacterCountStep());
-		list.add(new ExactTextOnlyUniqueIdMatchCharacterCountStep());
-		list.add(new ExactTextOnlyPreviousVersionMatchCharacterCountStep());		
-		list.add(new ExactTextOnlyCharacterCountStep());
-		list.add(new ExactRepairedCharacterCountStep());
-		list.add(new FuzzyUniqueIdMatchCharacterCountStep());
-		list.add(new FuzzyPreviousVersionMatchCharacterCountStep());		
-		list.add(new FuzzyMatchCharacterCountStep());
-		list.add(new FuzzyRepairedCharacterCountStep());
-		list.add(new PhraseAssembledCharacterCountStep());
-		list.add(new MTCharacterCountStep());
-		list.add(new ConcordanceCharacterCountStep());
-	}
-	
 	@Override
 	protected Event handleStartBatch(Event event) {
 		//@		resolver.reset();
@@ -34,6 +34,8 @@ public class Parameters extends StringParameters {
 	private static final String REPLACEMENTSPATH = "replacementsPath";
 	private static final String LOGPATH = "logPath";
 	private static final String SAVELOG = "saveLog";
+	private static final String STREAMING = "streaming";
+	private static final String MAXMATCHLENGTH = "maxMatchLength";
 	
 	public boolean getRegEx() {
 		return getBoolean(REGEX);
@@ -115,6 +117,32 @@ public class Parameters extends StringParameters {
 		setBoolean(SAVELOG, saveLog);
 	}
 
+	/**
+	 * Indicates if raw documents are processed by windows rather than
+	 * loaded entirely in memory.
+	 * @return true if raw documents are streamed.
+	 */
+	public boolean getStreaming() {
+		return getBoolean(STREAMING);
+	}
+
+	public void setStreaming(boolean streaming) {
+		setBoolean(STREAMING, streaming);
+	}
+
+	/**
+	 * Gets the maximum length (in characters) of a match when streaming raw documents.
+	 * Longer matches may be missed or truncated at the window boundaries.
+	 * @return the maximum length of a match.
+	 */
+	public int getMaxMatchLength() {
+		return getInteger(MAXMATCHLENGTH);
+	}
+
+	public void setMaxMatchLength(int maxMatchLength) {
+		setInteger(MAXMATCHLENGTH, maxMatchLength);
+	}
+
 	public void setRules(ArrayList<String[]> rules) {
 		this.rules = rules;
 	}
@@ -137,6 +165,8 @@ public class Parameters extends StringParameters {
 		setReplacementsPath("");
 		setLogPath(Util.ROOT_DIRECTORY_VAR+"/replacementsLog.txt");
 		setSaveLog(false);
+		setStreaming(false);
+		setMaxMatchLength(1024);
 		
 		rules = new ArrayList<>();
 	}
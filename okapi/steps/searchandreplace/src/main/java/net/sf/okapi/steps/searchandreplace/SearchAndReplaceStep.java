@@ -26,8 +26,12 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -80,6 +84,8 @@ public class SearchAndReplaceStep extends BasePipelineStep {
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
+	private static final int STREAMING_CHUNK_SIZE = 65536;
+
 	private Parameters params;
 	private Matcher matcher;
 	private Pattern patterns[];
@@ -323,9 +329,8 @@ public class SearchAndReplaceStep extends BasePipelineStep {
 		String encoding = null;
 		BufferedReader reader = null;
 		BufferedWriter writer = null;
-
-		String result = null;
-		StringBuilder assembled = new StringBuilder();
+		File outFile = null;
+		File finalFile = null;
 
 		try {
 			rawDoc = event.getRawDocument();
@@ -338,21 +343,31 @@ public class SearchAndReplaceStep extends BasePipelineStep {
 			// Create the reader from the BOM-aware stream, with the possibly new encoding
 			reader = new BufferedReader(new InputStreamReader(detector.getInputStream(), encoding));
 
-			char[] buf = new char[1024];
-			int numRead = 0;
-			while ((numRead = reader.read(buf)) != -1) {
-				assembled.append(buf, 0, numRead);
+			String result = null;
+			if ( !params.getStreaming() ) {
+				StringBuilder assembled = new StringBuilder();
+				char[] buf = new char[1024];
+				int numRead = 0;
+				while ((numRead = reader.read(buf)) != -1) {
+					assembled.append(buf, 0, numRead);
+				}
+				reader.close(); reader = null;
+				result = assembled.toString();
+				assembled = null;
 			}
-			reader.close(); reader = null;
-			result = assembled.toString();
-			assembled = null;
 
 			// Open the output
-			File outFile;
 			if ( isLastOutputStep() ) {
-				// No need to use a temporary file as this step work with its whole content in memory
 				outFile = new File(outputURI);
 				Util.createDirectories(outFile.getAbsolutePath());
+				if ( params.getStreaming() ) {
+					// The input is still being read while the output is written, and both may be
+					// the same file: write to a temporary file and rename it at the end
+					finalFile = outFile;
+					outFile = File.createTempFile("~okapi-50_okp-snr_", ".tmp",
+						finalFile.getAbsoluteFile().getParentFile());
+				}
+				// Otherwise no need to use a temporary file as this step work with its whole content in memory
 			}
 			else {
 				try {
@@ -362,14 +377,23 @@ public class SearchAndReplaceStep extends BasePipelineStep {
 				}
 			}
 
-			result = searchAndReplace(result, TargetType.ALL);
-
 			writer = new BufferedWriter(
 				new OutputStreamWriter(
 					new FileOutputStream(outFile), encoding));
 			Util.writeBOMIfNeeded(writer, detector.hasUtf8Bom(), encoding);
-			writer.write(result);
+			if ( params.getStreaming() ) {
+				streamSearchAndReplace(reader, writer);
+				reader.close(); reader = null;
+			}
+			else {
+				result = searchAndReplace(result, TargetType.ALL);
+				writer.write(result);
+			}
 			writer.close(); writer = null;
+			if ( finalFile != null ) {
+				Files.move(outFile.toPath(), finalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				outFile = finalFile;
+			}
 
 			event.setResource(new RawDocument(outFile.toURI(), encoding,
 				rawDoc.getSourceLocale(), rawDoc.getTargetLocale()));
@@ -385,6 +409,10 @@ public class SearchAndReplaceStep extends BasePipelineStep {
 					reader.close();
 					reader = null;
 				}
+				if (( finalFile != null ) && ( outFile != finalFile )) {
+					// Failed before the rename
+					Files.deleteIfExists(outFile.toPath());
+				}
 			}
 			catch ( IOException e ) {
 				throw new OkapiException(e);
@@ -394,6 +422,206 @@ public class SearchAndReplaceStep extends BasePipelineStep {
 		return event;
 	}
 
+	/**
+	 * Performs the search and replace on a document by windows, writing the result as it goes.
+	 * <p>Each window is made of the text read so far and not written yet, plus the last characters
+	 * already written (so look-behinds and anchors see the same context as on the full text).
+	 * The rules are applied in order on the head of the window, up to a cut set at least
+	 * {@link Parameters#getMaxMatchLength()} characters before its end and moved back so
+	 * no match in the original text straddles it. The rest of the window is kept for the next round.
+	 * <p>Matches longer than the maximum length, and matches that only appear after a replacement
+	 * across a cut, are not handled the same way as with the whole document in memory.
+	 * @param reader the input.
+	 * @param writer the output.
+	 * @throws IOException if an error occurs when reading or writing.
+	 */
+	private void streamSearchAndReplace (Reader reader,
+		Writer writer)
+		throws IOException
+	{
+		int maxLength = Math.max(1, params.getMaxMatchLength());
+		int windowSize = Math.max(STREAMING_CHUNK_SIZE, maxLength*4);
+		boolean[] replacedOnce = new boolean[params.rules.size()];
+		List<Pattern> replacementPatterns = new ArrayList<>(replacementWords.size());
+		for ( String[] values : replacementWords ) {
+			replacementPatterns.add(Pattern.compile(values[0]));
+		}
+
+		char[] buf = new char[STREAMING_CHUNK_SIZE];
+		StringBuilder window = new StringBuilder(windowSize+STREAMING_CHUNK_SIZE);
+		int contextLength = 0; // Characters at the start of the window already written
+		boolean eof = false;
+		while ( true ) {
+			// Fill the window
+			while ( !eof && ( window.length() < windowSize ) ) {
+				int numRead = reader.read(buf);
+				if ( numRead == -1 ) eof = true;
+				else window.append(buf, 0, numRead);
+			}
+			String text = window.toString();
+			int cut = eof ? text.length() : findCut(text, contextLength, text.length()-maxLength, maxLength,
+				replacementPatterns);
+			if ( cut <= contextLength ) {
+				if ( eof ) break;
+				// Nothing safe to process yet: read more
+				windowSize += STREAMING_CHUNK_SIZE;
+				continue;
+			}
+
+			// Apply the rules on the head of the window
+			int length = text.length();
+			for ( int i=0; i<params.rules.size(); i++ ) {
+				if ( !params.rules.get(i)[0].equals("true") ) continue;
+				int matches;
+				if ( params.getRegEx() ) {
+					if ( !params.getReplaceAll() && replacedOnce[i] ) continue;
+					StringBuffer sb = new StringBuffer(text.length());
+					matches = replaceInRegion(patterns[i], text, contextLength, cut, replace[i],
+						params.getReplaceAll() ? Integer.MAX_VALUE : 1, sb);
+					if ( matches > 0 ) {
+						replacedOnce[i] = true;
+						text = sb.toString();
+					}
+				}
+				else {
+					StringBuilder sb = new StringBuilder(text.length());
+					matches = replaceInRegion(search[i], text, contextLength, cut, replace[i], sb);
+					if ( matches > 0 ) text = sb.toString();
+				}
+				targetCounts[i] += matches;
+				cut += text.length()-length;
+				length = text.length();
+			}
+			for ( int i=0; i<replacementPatterns.size(); i++ ) {
+				StringBuffer sb = new StringBuffer(text.length());
+				int matches = replaceInRegion(replacementPatterns.get(i), text, contextLength, cut,
+					replacementWords.get(i)[1], Integer.MAX_VALUE, sb);
+				if ( matches > 0 ) text = sb.toString();
+				targetReplacementCounts[i] += matches;
+				cut += text.length()-length;
+				length = text.length();
+			}
+
+			// Write the head and keep its end as context for the next window
+			writer.write(text, contextLength, cut-contextLength);
+			if ( eof && ( cut == text.length() )) break;
+			int start = Math.max(0, cut-maxLength);
+			window.setLength(0);
+			window.append(text, start, text.length());
+			contextLength = cut-start;
+			windowSize = Math.max(STREAMING_CHUNK_SIZE, maxLength*4) + contextLength;
+		}
+	}
+
+	/**
+	 * Finds a position before which the text of a window can be processed: no match of the
+	 * active rules in the original text starts before it and ends after it.
+	 */
+	private int findCut (String text,
+		int start,
+		int cut,
+		int maxLength,
+		List<Pattern> replacementPatterns)
+	{
+		boolean moved = true;
+		while ( moved && ( cut > start )) {
+			moved = false;
+			for ( int i=0; i<params.rules.size(); i++ ) {
+				if ( !params.rules.get(i)[0].equals("true") ) continue;
+				int newCut;
+				if ( params.getRegEx() ) newCut = findCut(patterns[i], text, start, cut, maxLength);
+				else newCut = findCut(search[i], text, start, cut);
+				if ( newCut < cut ) {
+					cut = newCut;
+					moved = true;
+				}
+			}
+			for ( Pattern pattern : replacementPatterns ) {
+				int newCut = findCut(pattern, text, start, cut, maxLength);
+				if ( newCut < cut ) {
+					cut = newCut;
+					moved = true;
+				}
+			}
+		}
+		return cut;
+	}
+
+	private int findCut (Pattern pattern,
+		String text,
+		int start,
+		int cut,
+		int maxLength)
+	{
+		Matcher m = pattern.matcher(text);
+		m.useTransparentBounds(true);
+		m.useAnchoringBounds(false);
+		m.region(Math.max(start, cut-maxLength), text.length());
+		while ( m.find() ) {
+			if ( m.start() >= cut ) break;
+			if ( m.end() > cut ) return m.start();
+		}
+		return cut;
+	}
+
+	private int findCut (String search,
+		String text,
+		int start,
+		int cut)
+	{
+		if ( isEmpty(search) ) return cut;
+		int idx = text.indexOf(search, Math.max(start, cut-search.length()+1));
+		if (( idx != -1 ) && ( idx < cut )) return idx;
+		return cut;
+	}
+
+	/**
+	 * Replaces the matches of a pattern found entirely between two positions of a text.
+	 * The text outside the region is still visible to the look-arounds and boundaries.
+	 * @return the number of replacements done (the output is not filled if it is zero).
+	 */
+	private int replaceInRegion (Pattern pattern,
+		String text,
+		int start,
+		int end,
+		String replacement,
+		int maxCount,
+		StringBuffer output)
+	{
+		Matcher m = pattern.matcher(text);
+		m.useTransparentBounds(true);
+		m.useAnchoringBounds(false);
+		m.region(start, end);
+		int count = 0;
+		while (( count < maxCount ) && m.find() ) {
+			m.appendReplacement(output, replacement);
+			count++;
+		}
+		if ( count > 0 ) m.appendTail(output);
+		return count;
+	}
+
+	private int replaceInRegion (String search,
+		String text,
+		int start,
+		int end,
+		String replacement,
+		StringBuilder output)
+	{
+		if ( isEmpty(search) ) return 0;
+		int count = 0;
+		int last = 0;
+		int idx = start;
+		while ((( idx = text.indexOf(search, idx)) != -1 ) && ( idx+search.length() <= end )) {
+			output.append(text, last, idx).append(replacement);
+			idx += search.length();
+			last = idx;
+			count++;
+		}
+		if ( count > 0 ) output.append(text, last, text.length());
+		return count;
+	}
+
 	/** Un-escapes Unicode escape sequences and other special constructs.
 	 * @param s The string to un-escape
 	 * @param isRegex true if the expression is to be used with either a search or a replace using 
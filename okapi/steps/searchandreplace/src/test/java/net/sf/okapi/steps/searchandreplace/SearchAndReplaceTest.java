@@ -2,9 +2,13 @@ package net.sf.okapi.steps.searchandreplace;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
 
 import net.sf.okapi.common.Event;
@@ -14,6 +18,7 @@ import net.sf.okapi.common.IResource;
 import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.pipeline.Pipeline;
 import net.sf.okapi.common.resource.ITextUnit;
+import net.sf.okapi.common.resource.RawDocument;
 import net.sf.okapi.common.resource.TextUnit;
 
 import org.junit.After;
@@ -196,6 +201,98 @@ public class SearchAndReplaceTest {
 		assertEquals(EventType.END_BATCH, el.remove(0).getEventType());
 	}
 	
+	@Test
+	public void streamingRegExSameAsInMemory() throws IOException {
+		String[][] rules = {
+			{"true", "^Line (\\d+)", "L$1"},
+			{"true", "cat|mat", "dog"},
+			{"true", "(?<=colour=)red", "blue"},
+			{"true", "\\bthe\\b", "THE"},
+			{"true", "dog", "wolf"},
+			{"false", "sat", "stood"},
+			{"true", "sat on$", "sat"}
+		};
+		String input = createRawText();
+		String expected = searchAndReplaceRaw(input, true, rules, false);
+		String actual = searchAndReplaceRaw(input, true, rules, true);
+		assertTrue(expected.startsWith("L0: THE wolf sat on THE wolf, colour=blue"));
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void streamingSameAsInMemory() throws IOException {
+		String[][] rules = {
+			{"true", "cat", "dog"},
+			{"true", "colour=red\\n", "colour=green\\n\\n"},
+			{"true", "Line 1", "Line #"}
+		};
+		String input = createRawText();
+		String expected = searchAndReplaceRaw(input, false, rules, false);
+		String actual = searchAndReplaceRaw(input, false, rules, true);
+		assertTrue(expected.contains("Line #5: the dog sat on the mat, colour=green\n\nLine #6"));
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void streamingInPlace() throws IOException {
+		String[][] rules = {
+			{"true", "cat", "dog"}
+		};
+		String input = createRawText();
+		String expected = searchAndReplaceRaw(input, false, rules, false);
+		// The output is the input file
+		String actual = searchAndReplaceRaw(input, false, rules, true, true);
+		assertTrue(expected.contains("the dog sat on"));
+		assertEquals(expected, actual);
+		File dir = root.out("streaming-input.txt").asFile().getParentFile();
+		for ( String name : dir.list() ) {
+			assertFalse(name, name.startsWith("~okapi-50_okp-snr_"));
+		}
+	}
+
+	private String createRawText() {
+		StringBuilder sb = new StringBuilder();
+		for ( int i=0; i<20000; i++ ) {
+			sb.append("Line ").append(i).append(": the cat sat on the mat, colour=red\n");
+			if ( i % 7 == 0 ) sb.append("the cat sat on\n");
+		}
+		return sb.toString();
+	}
+
+	private String searchAndReplaceRaw(String input, boolean regEx, String[][] rules, boolean streaming)
+		throws IOException
+	{
+		return searchAndReplaceRaw(input, regEx, rules, streaming, false);
+	}
+
+	private String searchAndReplaceRaw(String input, boolean regEx, String[][] rules, boolean streaming,
+		boolean inPlace)
+		throws IOException
+	{
+		File inFile = root.out("streaming-input.txt").asFile();
+		File outFile = inPlace ? inFile
+			: root.out(streaming ? "streaming-output.txt" : "inmemory-output.txt").asFile();
+		inFile.getParentFile().mkdirs();
+		Files.write(inFile.toPath(), input.getBytes(StandardCharsets.UTF_8));
+
+		SearchAndReplaceStep step = new SearchAndReplaceStep();
+		Parameters p = step.getParameters();
+		p.setRegEx(regEx);
+		p.setMultiLine(true);
+		p.setStreaming(streaming);
+		p.setMaxMatchLength(20);
+		for ( String[] rule : rules ) {
+			p.addRule(rule);
+		}
+		step.setOutputURI(outFile.toURI());
+		step.setLastOutputStep(true);
+		step.handleEvent(new Event(EventType.START_BATCH));
+		step.handleEvent(new Event(EventType.RAW_DOCUMENT, new RawDocument(inFile.toURI(), "UTF-8",
+			LocaleId.ENGLISH, LocaleId.FRENCH)));
+		step.handleEvent(new Event(EventType.END_BATCH));
+		return new String(Files.readAllBytes(outFile.toPath()), StandardCharsets.UTF_8);
+	}
+
 	@Test
 	public void readTabDelimited() {
 		SearchAndReplaceStep srStep = new SearchAndReplaceStep();
@@ -44,6 +44,7 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 	private static final String USETERMINOLOGYANNOTATIONS = "useTerminologyAnnotations";
 	private static final String USETEXTANALYSISANNOTATIONS = "useTextAnalysisAnnotations";
 	private static final String USESTATISTICS = "useStatistics";
+	private static final String MAXCANDIDATESINMEMORY = "maxCandidatesInMemory";
 	
 	public Parameters () {
 		super();
@@ -164,6 +165,19 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 		setBoolean(USESTATISTICS, useStatistics);
 	}
 
+	/**
+	 * Gets the maximum number of term candidates kept in memory while gathering the statistics.
+	 * When it is reached, the candidates are saved to a temporary file and merged back at the end.
+	 * @return the maximum number of candidates in memory, or 0 for no limit.
+	 */
+	public int getMaxCandidatesInMemory () {
+		return getInteger(MAXCANDIDATESINMEMORY);
+	}
+
+	public void setMaxCandidatesInMemory (int maxCandidatesInMemory) {
+		setInteger(MAXCANDIDATESINMEMORY, maxCandidatesInMemory);
+	}
+
 	@Override
 	public void reset () {
 		super.reset();
@@ -181,6 +195,7 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 		setUseTerminologyAnnotations(true);
 		setUseTextAnalysisAnnotations(true);
 		setUseStatistics(true);
+		setMaxCandidatesInMemory(0);
 	}
 	
 	@Override
@@ -201,6 +216,8 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 		desc.add(USETERMINOLOGYANNOTATIONS, "Use Terminology annotations", null);
 		desc.add(USETEXTANALYSISANNOTATIONS, "Use Text Analysis annotations", null);
 		desc.add(USESTATISTICS, "Use tokens-grouping statistics", null);
+		desc.add(MAXCANDIDATESINMEMORY, "Maximum number of candidates in memory (0 for no limit)",
+			"Beyond that number the candidates are stored in temporary files");
 		return desc;
 	}
 	
@@ -241,6 +258,11 @@ public class Parameters extends StringParameters implements IEditorDescriptionPr
 		
 		cbp = desc.addCheckboxPart(paramsDesc.get(REMOVESUBTERMS));
 		cbp.setMasterPart(cbpUseStats, true);
+
+		sip = desc.addSpinInputPart(paramsDesc.get(MAXCANDIDATESINMEMORY));
+		sip.setRange(0, Integer.MAX_VALUE);
+		sip.setVertical(false);
+		sip.setMasterPart(cbpUseStats, true);
 		
 		pip = desc.addPathInputPart(paramsDesc.get(STOPWORDSPATH), "Stop Words File", false);
 		pip.setBrowseFilters("Text Files (*.txt)\tAll Files (*.*)", "*.txt\t*.*");
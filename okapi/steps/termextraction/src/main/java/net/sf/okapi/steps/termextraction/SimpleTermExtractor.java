@@ -22,6 +22,7 @@ import net.sf.okapi.common.Util;
 import net.sf.okapi.common.annotation.GenericAnnotationType;
 import net.sf.okapi.common.annotation.TermsAnnotation;
 import net.sf.okapi.common.exceptions.OkapiException;
+import net.sf.okapi.common.exceptions.OkapiIOException;
 import net.sf.okapi.common.resource.AnnotatedSpan;
 import net.sf.okapi.common.resource.ITextUnit;
 import net.sf.okapi.common.resource.Segment;
@@ -31,12 +32,19 @@ import net.sf.okapi.steps.tokenization.Token;
 import net.sf.okapi.steps.tokenization.Tokens;
 import net.sf.okapi.steps.tokenization.TokensAnnotation;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.io.RandomAccessFile;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -48,10 +56,24 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
 import java.util.TreeMap;
 
 public class SimpleTermExtractor {
 
+	/**
+	 * Maximum number of temporary files merged at the same time. When there are more,
+	 * they are first merged by groups of that size into new temporary files.
+	 */
+	static final int MAX_MERGE_FAN_IN = 64;
+
+	/**
+	 * Receives the candidates of merged temporary files, in the order of their text.
+	 */
+	private interface CandidateHandler {
+		void handle (String term, int count) throws IOException;
+	}
+
 	private Parameters params;
 	private Map<String, Boolean> stopWords;
 	private Map<String, Boolean> notStartWords;
@@ -62,6 +84,7 @@ public class SimpleTermExtractor {
 	private BreakIterator breaker;
 	private String rootDir;
 	private String inputRootDir;
+	private List<File> runs;
 
 	/**
 	 * Initializes this extractor. This must be called before starting to process the input files.
@@ -86,6 +109,8 @@ public class SimpleTermExtractor {
 		terms = new LinkedHashMap<>();
 		termsFromAnnotations = new LinkedHashMap<>();
 		breaker = null;
+		deleteRuns();
+		runs = new ArrayList<>();
 	}
 	
 	/**
@@ -99,6 +124,10 @@ public class SimpleTermExtractor {
 		// Use basic statistics
 		if ( params.getUseStatistics() ) {
 			gathertermsFromStatistics(tu);
+			// Move the candidates out of memory if there are too many
+			if (( params.getMaxCandidatesInMemory() > 0 ) && ( terms.size() >= params.getMaxCandidatesInMemory() )) {
+				saveRun();
+			}
 		}
 		
 		// Extract from the TermsAnnotation
@@ -106,13 +135,7 @@ public class SimpleTermExtractor {
 			TermsAnnotation ann = tu.getSource().getAnnotation(TermsAnnotation.class);
 			if ( ann != null ) {
 				for ( int i=0; i<ann.size(); i++ ) {
-					String term = ann.getTerm(i);
-					if ( termsFromAnnotations.containsKey(term) ) {
-						termsFromAnnotations.put(term, termsFromAnnotations.get(term)+1);
-					}
-					else {
-						termsFromAnnotations.put(term, 1);
-					}
+					termsFromAnnotations.merge(ann.getTerm(i), 1, Integer::sum);
 				}
 			}
 		}
@@ -183,12 +206,7 @@ public class SimpleTermExtractor {
 				// But continue to build the term with more words
 
 				// Add or increment the term
-				if ( terms.containsKey(term) ) {
-					terms.put(term, terms.get(term)+1);
-				}
-				else {
-					terms.put(term, 1);
-				}
+				terms.merge(term, 1, Integer::sum);
 			}
 		}
 	}
@@ -199,13 +217,7 @@ public class SimpleTermExtractor {
 			// Else: check if it's a TA annotation
 			List<AnnotatedSpan> aspans = seg.getContent().getAnnotatedSpans(GenericAnnotationType.GENERIC);
 			for ( AnnotatedSpan aspan : aspans ) {
-				String term = aspan.span.toText();
-				if ( termsFromAnnotations.containsKey(term) ) {
-					termsFromAnnotations.put(term, termsFromAnnotations.get(term)+1);
-				}
-				else {
-					termsFromAnnotations.put(term, 1);
-				}
+				termsFromAnnotations.merge(aspan.span.toText(), 1, Integer::sum);
 			}
 		}
 	}
@@ -232,6 +244,11 @@ public class SimpleTermExtractor {
 	 * have been processed.  
 	 */
 	public void completeExtraction () {
+		// Get back the candidates moved out of memory
+		if ( !runs.isEmpty() ) {
+			if ( !terms.isEmpty() ) saveRun();
+			terms = mergeRuns();
+		}
 		// Remove entries with less occurrences than allowed
 		// Do this first so there is less items to go through if we clean up the sub-strings
 		cleanupLowCounts(terms);
@@ -258,6 +275,194 @@ public class SimpleTermExtractor {
 		generateReport();
 	}
 
+	/**
+	 * Saves the current term candidates to a temporary file, sorted by text, and clears them from memory.
+	 */
+	private void saveRun () {
+		List<String> keys = new ArrayList<>(terms.keySet());
+		Collections.sort(keys);
+		File file = null;
+		try {
+			file = File.createTempFile("~okapi-termextraction_", ".tmp");
+			runs.add(file);
+			try ( DataOutputStream dos = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file))) )
+			{
+				dos.writeInt(keys.size());
+				for ( String key : keys ) {
+					dos.writeUTF(key);
+					dos.writeInt(terms.get(key));
+				}
+			}
+		}
+		catch ( IOException e ) {
+			throw new OkapiIOException("Error when saving term candidates to "+file, e);
+		}
+		terms.clear();
+	}
+
+	/**
+	 * Merges the temporary files of term candidates, summing the counts of the same candidates
+	 * and dropping the ones with less occurrences than allowed. The files are deleted afterwards.
+	 * No more than {@link #MAX_MERGE_FAN_IN} files are open at the same time.
+	 * @return a new map with the candidates left.
+	 */
+	private Map<String, Integer> mergeRuns () {
+		Map<String, Integer> merged = new LinkedHashMap<>();
+		try {
+			// Reduce the number of files in as many passes as needed
+			while ( runs.size() > MAX_MERGE_FAN_IN ) {
+				List<File> newRuns = new ArrayList<>();
+				try {
+					for ( int i=0; i<runs.size(); i+=MAX_MERGE_FAN_IN ) {
+						newRuns.add(mergeToRun(runs.subList(i, Math.min(i+MAX_MERGE_FAN_IN, runs.size()))));
+					}
+				}
+				catch ( IOException | RuntimeException e ) {
+					for ( File file : newRuns ) {
+						file.delete();
+					}
+					throw e;
+				}
+				deleteRuns();
+				runs.addAll(newRuns);
+			}
+			mergeRuns(runs, (term, count) -> {
+				if ( count >= params.getMinOccurrences() ) {
+					merged.put(term, count);
+				}
+			});
+		}
+		catch ( IOException e ) {
+			throw new OkapiIOException("Error when merging term candidates.", e);
+		}
+		finally {
+			deleteRuns();
+		}
+		return merged;
+	}
+
+	/**
+	 * Merges temporary files of term candidates into a new one, summing the counts
+	 * of the same candidates.
+	 * @param files the files to merge (they are not deleted).
+	 * @return the new temporary file.
+	 */
+	private File mergeToRun (List<File> files)
+		throws IOException
+	{
+		File file = File.createTempFile("~okapi-termextraction_", ".tmp");
+		try {
+			int[] total = new int[1];
+			try ( DataOutputStream dos = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file))) )
+			{
+				// Number of candidates, set once they are all written
+				dos.writeInt(0);
+				mergeRuns(files, (term, count) -> {
+					dos.writeUTF(term);
+					dos.writeInt(count);
+					total[0]++;
+				});
+			}
+			try ( RandomAccessFile raf = new RandomAccessFile(file, "rw") ) {
+				raf.writeInt(total[0]);
+			}
+		}
+		catch ( IOException | RuntimeException e ) {
+			file.delete();
+			throw e;
+		}
+		return file;
+	}
+
+	/**
+	 * Merges temporary files of term candidates by text, summing the counts of the same candidates.
+	 * @param files the files to merge.
+	 * @param handler the handler receiving each candidate and its total count.
+	 */
+	private static void mergeRuns (List<File> files,
+		CandidateHandler handler)
+		throws IOException
+	{
+		PriorityQueue<RunReader> queue = new PriorityQueue<>(files.size(),
+			(r1, r2) -> r1.term.compareTo(r2.term));
+		// Reader out of the queue, if any
+		RunReader current = null;
+		try {
+			for ( File file : files ) {
+				current = new RunReader(file);
+				if ( current.next() ) queue.add(current);
+				else current.close();
+				current = null;
+			}
+			while ( !queue.isEmpty() ) {
+				current = queue.poll();
+				String term = current.term;
+				int count = current.count;
+				// Same candidate in the other runs
+				while ( true ) {
+					if ( current.next() ) queue.add(current);
+					else current.close();
+					current = null;
+					if ( queue.isEmpty() || !queue.peek().term.equals(term) ) break;
+					current = queue.poll();
+					count += current.count;
+				}
+				handler.handle(term, count);
+			}
+		}
+		finally {
+			if ( current != null ) {
+				current.close();
+			}
+			for ( RunReader reader : queue ) {
+				reader.close();
+			}
+		}
+	}
+
+	private void deleteRuns () {
+		if ( runs == null ) return;
+		for ( File file : runs ) {
+			file.delete();
+		}
+		runs.clear();
+	}
+
+	/**
+	 * Sequential reader for a temporary file of term candidates.
+	 */
+	private static class RunReader {
+
+		private final DataInputStream dis;
+		private int remaining;
+		private String term;
+		private int count;
+
+		RunReader (File file) throws IOException {
+			dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			remaining = dis.readInt();
+		}
+
+		boolean next () throws IOException {
+			if ( remaining == 0 ) return false;
+			term = dis.readUTF();
+			count = dis.readInt();
+			remaining--;
+			return true;
+		}
+
+		void close () {
+			try {
+				dis.close();
+			}
+			catch ( IOException e ) {
+				// Nothing more to read
+			}
+		}
+	}
+
 	/**
 	 * Generates the report file with the results.
 	 */
@@ -18,6 +18,8 @@ package net.sf.okapi.steps.termextraction;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import net.sf.okapi.common.FileLocation;
@@ -25,6 +27,7 @@ import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.resource.ITextUnit;
 import net.sf.okapi.common.resource.TextFragment;
 import net.sf.okapi.common.resource.TextUnit;
+import net.sf.okapi.common.resource.TextUnitUtil;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -63,6 +66,63 @@ public class SimpleTermExtractorTest {
 		assertEquals("{complex=4, complex expression=3, expression=3}", res.toString());
 	}
 
+	@Test
+	public void testSameTermsWithCandidatesOutOfMemory () {
+		params.setMinOccurrences(2);
+		params.setRemoveSubTerms(true);
+		extr.initialize(params, LocaleId.ENGLISH, null, null);
+		for ( ITextUnit tu : createSentenceTUs() ) {
+			extr.processTextUnit(tu);
+		}
+		extr.completeExtraction();
+		String expected = extr.getTerms().toString();
+
+		params.setMaxCandidatesInMemory(3);
+		SimpleTermExtractor extr2 = new SimpleTermExtractor();
+		extr2.initialize(params, LocaleId.ENGLISH, null, null);
+		for ( ITextUnit tu : createSentenceTUs() ) {
+			extr2.processTextUnit(tu);
+		}
+		extr2.completeExtraction();
+		assertEquals("{complex expression=3, expression=3, term=2, test=2, words=2}", expected);
+		assertEquals(expected, extr2.getTerms().toString());
+	}
+
+	@Test
+	public void testMoreRunsThanMergeFanIn () {
+		params.setMinOccurrences(2);
+		extr.initialize(params, LocaleId.ENGLISH, null, null);
+		int repeat = SimpleTermExtractor.MAX_MERGE_FAN_IN / 2;
+		for ( int i=0; i<repeat; i++ ) {
+			for ( ITextUnit tu : createSentenceTUs() ) {
+				extr.processTextUnit(tu);
+			}
+		}
+		extr.completeExtraction();
+		String expected = extr.getTerms().toString();
+
+		// One temporary file per text unit, enough to need several merge passes
+		params.setMaxCandidatesInMemory(1);
+		SimpleTermExtractor extr2 = new SimpleTermExtractor();
+		extr2.initialize(params, LocaleId.ENGLISH, null, null);
+		for ( int i=0; i<repeat; i++ ) {
+			for ( ITextUnit tu : createSentenceTUs() ) {
+				extr2.processTextUnit(tu);
+			}
+		}
+		extr2.completeExtraction();
+		assertEquals(expected, extr2.getTerms().toString());
+	}
+
+	private List<ITextUnit> createSentenceTUs () {
+		List<ITextUnit> list = new ArrayList<>();
+		String[] sentences = TextUnitUtil.getText(createLongTU().getSource().getFirstContent()).split("\\. ");
+		for ( int i=0; i<sentences.length; i++ ) {
+			list.add(new TextUnit("id"+i, sentences[i]));
+		}
+		return list;
+	}
+
 	private ITextUnit createLongTU () {
 		ITextUnit tu = new TextUnit("id");
 		tu.setSourceContent(new TextFragment("This is a test with a complex expression. A complex expression that "
@@ -36,6 +36,8 @@ import javax.xml.stream.events.XMLEvent;
 import javax.xml.transform.stream.StreamSource;
 
 import net.sf.okapi.common.Util;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.exceptions.OkapiException;
 
 import org.slf4j.Logger;
@@ -61,14 +63,10 @@ public class TTXJoiner {
 	
 	public void process (List<URI> inputList) {
 		try {
-			inpFact = XMLInputFactory.newInstance();
-			inpFact.setProperty(XMLInputFactory.IS_COALESCING, true);
-			// security concern. Turn off DTD processing
-			// https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing
-			inpFact.setProperty(XMLInputFactory.SUPPORT_DTD, false);			
-			
-			outFact = XMLOutputFactory.newInstance();
-			evtFact = XMLEventFactory.newInstance();
+			// The shared factory does not process DTDs (security concern)
+			inpFact = XMLStreamFactories.getInputFactory(Profile.COALESCING);
+			outFact = XMLStreamFactories.getOutputFactory();
+			evtFact = XMLStreamFactories.getEventFactory();
 			// Create the closing events
 			endEvents = new ArrayList<>();
 			endEvents.add(evtFact.createEndElement(new QName("", "Raw"), null));
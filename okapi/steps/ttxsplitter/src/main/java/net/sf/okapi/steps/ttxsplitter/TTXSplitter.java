@@ -38,6 +38,8 @@ import javax.xml.stream.events.XMLEvent;
 import javax.xml.transform.stream.StreamSource;
 
 import net.sf.okapi.common.LocaleId;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -105,18 +107,15 @@ public class TTXSplitter {
 		throws XMLStreamException, MalformedURLException, IOException
 	{
 		try {
-			XMLInputFactory inpFact = XMLInputFactory.newInstance();
-			inpFact.setProperty(XMLInputFactory.IS_COALESCING, true);
-			// security concern. Turn off DTD processing
-			// https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing
-			inpFact.setProperty(XMLInputFactory.SUPPORT_DTD, false);			
+			// The shared factory does not process DTDs (security concern)
+			XMLInputFactory inpFact = XMLStreamFactories.getInputFactory(Profile.COALESCING);
 			
 			StreamSource source = new StreamSource(new BufferedInputStream(inputURI.toURL().openStream()));
 			reader = inpFact.createXMLEventReader(source);
 	
 			if ( outputState > -1 ) {
-				outFact = XMLOutputFactory.newInstance();
-				evtFact = XMLEventFactory.newInstance();
+				outFact = XMLStreamFactories.getOutputFactory();
+				evtFact = XMLStreamFactories.getEventFactory();
 				// Create the closing events
 				endEvents = new ArrayList<>();
 				endEvents.add(evtFact.createEndElement(new QName("", "Raw"), null));
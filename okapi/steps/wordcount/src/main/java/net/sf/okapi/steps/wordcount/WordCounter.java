@@ -26,6 +26,7 @@ import net.sf.okapi.common.resource.TextFragment;
 import net.sf.okapi.steps.tokenization.Tokenizer;
 import net.sf.okapi.steps.tokenization.Tokens;
 import net.sf.okapi.steps.wordcount.common.BaseCounter;
+import net.sf.okapi.steps.wordcount.common.CachedCountsAnnotation;
 import net.sf.okapi.steps.wordcount.common.GMX;
 import net.sf.okapi.steps.wordcount.common.Metrics;
 import net.sf.okapi.steps.wordcount.common.MetricsAnnotation;
@@ -38,6 +39,7 @@ import net.sf.okapi.steps.wordcount.common.MetricsAnnotation;
 public class WordCounter extends BaseCounter {
 
 	private static final WordCounter counter = new WordCounter();
+	private static final String[] WORD_TOKENS = {"WORD", "HYPHENATED_WORD", "NUMBER", "TIME"};
 	
 	@Override
 	protected long doCountImpl(String text, LocaleId language) {
@@ -45,8 +47,7 @@ public class WordCounter extends BaseCounter {
 			return countLogographicScript(text, language);
 		}
 
-		Tokens tokens = Tokenizer.tokenize(text, language,
-				"WORD", "HYPHENATED_WORD", "NUMBER", "TIME");
+		Tokens tokens = Tokenizer.tokenize(text, language, WORD_TOKENS);
 		if (tokens == null) {
 			return 0;
 		}
@@ -54,6 +55,20 @@ public class WordCounter extends BaseCounter {
 		return tokens.size();
 	}
 
+	@Override
+	protected long doCountImpl(CachedCountsAnnotation cache, LocaleId language) {
+		if (GMX.isLogographicScript(language)) {
+			return countLogographicScript(cache.getText(), language);
+		}
+
+		Tokens tokens = cache.getTokens();
+		if (tokens == null) {
+			return 0;
+		}
+
+		return tokens.getFilteredList(WORD_TOKENS).size();
+	}
+
 	/**
 	 * For "logographic" languages, GMX-V 2.0 defines factors by which the character count
 	 * should be divided in order to yield the word count. This method calculates that
@@ -0,0 +1,217 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.steps.wordcount.categorized;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.okapi.common.Event;
+import net.sf.okapi.common.EventType;
+import net.sf.okapi.common.LocaleId;
+import net.sf.okapi.common.UsingParameters;
+import net.sf.okapi.common.Util;
+import net.sf.okapi.common.pipeline.IPipelineStep;
+import net.sf.okapi.common.resource.ITextUnit;
+import net.sf.okapi.common.resource.IWithAnnotations;
+import net.sf.okapi.common.resource.Segment;
+import net.sf.okapi.common.resource.TextContainer;
+import net.sf.okapi.steps.common.AbstractCompoundStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXAlphanumericOnlyTextUnitCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXAlphanumericOnlyTextUnitWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXExactMatchedCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXExactMatchedWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXFuzzyMatchCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXFuzzyMatchWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXLeveragedMatchedCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXLeveragedMatchedWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXMeasurementOnlyTextUnitCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXMeasurementOnlyTextUnitWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXNumericOnlyTextUnitCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXNumericOnlyTextUnitWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXProtectedCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXProtectedWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXRepetitionMatchedCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.gmx.GMXRepetitionMatchedWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ConcordanceCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ConcordanceWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactDocumentContextMatchCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactDocumentContextMatchWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactLocalContextMatchCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactLocalContextMatchWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactMatchCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactMatchWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactPreviousVersionMatchCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactPreviousVersionMatchWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactRepairedCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactRepairedWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactStructuralMatchCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactStructuralMatchWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactTextOnlyCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactTextOnlyPreviousVersionMatchCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactTextOnlyPreviousVersionMatchWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactTextOnlyUniqueIdMatchCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactTextOnlyUniqueIdMatchWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactTextOnlyWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactUniqueIdMatchCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.ExactUniqueIdMatchWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyMatchCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyMatchWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyPreviousVersionMatchCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyPreviousVersionMatchWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyRepairedCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyRepairedWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyUniqueIdMatchCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.FuzzyUniqueIdMatchWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.MTCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.MTWordCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.PhraseAssembledCharacterCountStep;
+import net.sf.okapi.steps.wordcount.categorized.okapi.PhraseAssembledWordCountStep;
+import net.sf.okapi.steps.wordcount.common.CachedCountsAnnotation;
+
+/**
+ * Counts the words and characters of all the GMX and Okapi categories in a single step.
+ * <p>
+ * Each category is still counted by its own internal step (so the metrics are the same as
+ * with the separate steps), but the source of each text unit is tokenized and counted only once:
+ * the tokens and counts of the source segments and container are cached in a {@link CachedCountsAnnotation}
+ * while the text unit goes through the internal steps.
+ */
+@UsingParameters() // No parameters are used
+public class CategoryCountStep extends AbstractCompoundStep {
+
+	@Override
+	public String getName() {
+		return "Categorized Word and Character Count";
+	}
+
+	@Override
+	public String getDescription() {
+		return "Counts the words and characters of all the GMX and Okapi categories."
+		+ " Expects: filter events. Sends back: filter events.";
+	}
+
+	/**
+	 * Adds internal steps providing counts against single categories.
+	 * The sequence of internal steps in this list defines priorities of categories within their groups (GMX and Okapi).
+	 * A category group is assigned to a step by having it *implement* the category group's marker interface.
+	 */
+	@Override
+	protected void addStepsToList(List<IPipelineStep> list) {
+
+		// GMX word count categories
+		list.add(new GMXProtectedWordCountStep());
+		list.add(new GMXExactMatchedWordCountStep());
+		list.add(new GMXLeveragedMatchedWordCountStep());
+		list.add(new GMXRepetitionMatchedWordCountStep());
+		list.add(new GMXFuzzyMatchWordCountStep());
+		list.add(new GMXAlphanumericOnlyTextUnitWordCountStep());
+		list.add(new GMXNumericOnlyTextUnitWordCountStep());
+		list.add(new GMXMeasurementOnlyTextUnitWordCountStep());
+
+		// GMX character count categories
+		list.add(new GMXProtectedCharacterCountStep());
+		list.add(new GMXExactMatchedCharacterCountStep());
+		list.add(new GMXLeveragedMatchedCharacterCountStep());
+		list.add(new GMXRepetitionMatchedCharacterCountStep());
+		list.add(new GMXFuzzyMatchCharacterCountStep());
+		list.add(new GMXAlphanumericOnlyTextUnitCharacterCountStep());
+		list.add(new GMXNumericOnlyTextUnitCharacterCountStep());
+		list.add(new GMXMeasurementOnlyTextUnitCharacterCountStep());
+
+		// Okapi word count categories
+		list.add(new ExactUniqueIdMatchWordCountStep());
+		list.add(new ExactPreviousVersionMatchWordCountStep());
+		list.add(new ExactLocalContextMatchWordCountStep());
+		list.add(new ExactDocumentContextMatchWordCountStep());
+		list.add(new ExactStructuralMatchWordCountStep());
+		list.add(new ExactMatchWordCountStep());
+		list.add(new ExactTextOnlyUniqueIdMatchWordCountStep());
+		list.add(new ExactTextOnlyPreviousVersionMatchWordCountStep());
+		list.add(new ExactTextOnlyWordCountStep());
+		list.add(new ExactRepairedWordCountStep());
+		list.add(new FuzzyUniqueIdMatchWordCountStep());
+		list.add(new FuzzyPreviousVersionMatchWordCountStep());
+		list.add(new FuzzyMatchWordCountStep());
+		list.add(new FuzzyRepairedWordCountStep());
+		list.add(new PhraseAssembledWordCountStep());
+		list.add(new MTWordCountStep());
+		list.add(new ConcordanceWordCountStep());
+
+		// Okapi character count categories
+		list.add(new ExactUniqueIdMatchCharacterCountStep());
+		list.add(new ExactPreviousVersionMatchCharacterCountStep());
+		list.add(new ExactLocalContextMatchCharacterCountStep());
+		list.add(new ExactDocumentContextMatchCharacterCountStep());
+		list.add(new ExactStructuralMatchCharacterCountStep());
+		list.add(new ExactMatchCharacterCountStep());
+		list.add(new ExactTextOnlyUniqueIdMatchCharacterCountStep());
+		list.add(new ExactTextOnlyPreviousVersionMatchCharacterCountStep());
+		list.add(new ExactTextOnlyCharacterCountStep());
+		list.add(new ExactRepairedCharacterCountStep());
+		list.add(new FuzzyUniqueIdMatchCharacterCountStep());
+		list.add(new FuzzyPreviousVersionMatchCharacterCountStep());
+		list.add(new FuzzyMatchCharacterCountStep());
+		list.add(new FuzzyRepairedCharacterCountStep());
+		list.add(new PhraseAssembledCharacterCountStep());
+		list.add(new MTCharacterCountStep());
+		list.add(new ConcordanceCharacterCountStep());
+	}
+
+	@Override
+	public Event handleEvent(Event event) {
+		if (event.getEventType() != EventType.TEXT_UNIT) {
+			return super.handleEvent(event);
+		}
+
+		// Cache the tokens and counts of the source while the internal steps process the text unit
+		List<IWithAnnotations> cached = attachCaches(event.getTextUnit(), getSourceLocale());
+		try {
+			return super.handleEvent(event);
+		}
+		finally {
+			for (IWithAnnotations res : cached) {
+				res.remove(CachedCountsAnnotation.class);
+			}
+		}
+	}
+
+	private static List<IWithAnnotations> attachCaches(ITextUnit tu, LocaleId srcLocale) {
+		List<IWithAnnotations> cached = new ArrayList<>();
+		if (tu == null || Util.isNullOrEmpty(srcLocale)) {
+			return cached;
+		}
+
+		TextContainer source = tu.getSource();
+		for (Segment seg : source.getSegments()) {
+			if (seg.getAnnotation(CachedCountsAnnotation.class) == null) {
+				seg.setAnnotation(new CachedCountsAnnotation(seg.getContent(), srcLocale));
+				cached.add(seg);
+			}
+		}
+		// The container is tokenized as a whole, like Tokenizer.tokenize() does
+		if (source.getAnnotation(CachedCountsAnnotation.class) == null) {
+			if (source.contentIsOneSegment()) {
+				source.setAnnotation(source.getFirstSegment().getAnnotation(CachedCountsAnnotation.class));
+			}
+			else {
+				source.setAnnotation(new CachedCountsAnnotation(source.getUnSegmentedContentCopy(), srcLocale));
+			}
+			cached.add(source);
+		}
+		return cached;
+	}
+}
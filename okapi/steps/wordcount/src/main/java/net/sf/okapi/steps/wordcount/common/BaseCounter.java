@@ -28,6 +28,13 @@ import net.sf.okapi.common.resource.TextUnitUtil;
 abstract public class BaseCounter {
 
 	abstract protected long doCountImpl(String text, LocaleId language);
+
+	/**
+	 * Counts in a segment with cached values. Override this to use the cached tokens.
+	 */
+	protected long doCountImpl(CachedCountsAnnotation cache, LocaleId language) {
+		return doCountImpl(cache.getText(), language);
+	}
 	
 	public long doCount(Object text, LocaleId language) {
 	
@@ -41,6 +48,15 @@ abstract public class BaseCounter {
 		} 
 		else if (text instanceof Segment) {
 			Segment seg = (Segment) text;
+			CachedCountsAnnotation cache = seg.getAnnotation(CachedCountsAnnotation.class);
+			if (cache != null && cache.isFor(language)) {
+				Long count = cache.getCount(getMetricNameForRetrieval());
+				if (count == null) {
+					count = doCountImpl(cache, language);
+					cache.setCount(getMetricNameForRetrieval(), count);
+				}
+				return count;
+			}
 			return doCount(seg.getContent(), language);
 		}
 		else if (text instanceof TextContainer) {
@@ -0,0 +1,99 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.steps.wordcount.common;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.sf.okapi.common.LocaleId;
+import net.sf.okapi.common.annotation.IAnnotation;
+import net.sf.okapi.common.resource.TextFragment;
+import net.sf.okapi.common.resource.TextUnitUtil;
+import net.sf.okapi.steps.tokenization.Tokenizer;
+import net.sf.okapi.steps.tokenization.Tokens;
+import net.sf.okapi.steps.wordcount.categorized.CategoryCountStep;
+
+/**
+ * Temporary annotation holding the tokens and the counts of a segment or a text container,
+ * so several count steps processing the same text unit tokenize and count its text only once.
+ * <p>
+ * The tokens and counts are computed the first time they are requested, for the given locale only.
+ * The annotation is attached by {@link CategoryCountStep} while the text unit goes through
+ * its internal steps, and removed afterwards: the text must not change in the meantime.
+ */
+public class CachedCountsAnnotation implements IAnnotation {
+
+	private final TextFragment content;
+	private final LocaleId locale;
+	private String text;
+	private Tokens tokens;
+	private final Map<String, Long> counts = new HashMap<>();
+
+	public CachedCountsAnnotation(TextFragment content, LocaleId locale) {
+		this.content = content;
+		this.locale = locale;
+	}
+
+	/**
+	 * Indicates if the cached values can be used for a given locale.
+	 * @param language the locale of the count.
+	 * @return true if the values are for that locale.
+	 */
+	public boolean isFor(LocaleId language) {
+		return locale.equals(language);
+	}
+
+	/**
+	 * Gets the text to count (without the inline codes).
+	 * @return the text.
+	 */
+	public String getText() {
+		if (text == null) {
+			text = TextUnitUtil.getText(content);
+		}
+		return text;
+	}
+
+	/**
+	 * Gets all the tokens of the text.
+	 * @return the tokens (can be null if the text cannot be tokenized).
+	 */
+	public Tokens getTokens() {
+		if (tokens == null) {
+			tokens = Tokenizer.tokenize(getText(), locale);
+		}
+		return tokens;
+	}
+
+	/**
+	 * Gets a count already computed.
+	 * @param metricName the name of the metric counted.
+	 * @return the count, or null if it has not been computed yet.
+	 */
+	public Long getCount(String metricName) {
+		return counts.get(metricName);
+	}
+
+	public void setCount(String metricName, long count) {
+		counts.put(metricName, count);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Cached counts: %s", counts.toString());
+	}
+}
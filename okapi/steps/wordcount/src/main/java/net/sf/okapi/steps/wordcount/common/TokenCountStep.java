@@ -37,8 +37,10 @@ public abstract class TokenCountStep extends BaseCountStep {
 	
 	protected Tokens getTokens(TextContainer textContainer, LocaleId locale) {
 		TokensAnnotation ta = textContainer.getAnnotation(TokensAnnotation.class);
+		CachedCountsAnnotation cache = textContainer.getAnnotation(CachedCountsAnnotation.class);
 		
 		Tokens allTokens = ta != null ? ta.getTokens()
+				: (cache != null && cache.isFor(locale)) ? cache.getTokens()
 				: Tokenizer.tokenize(textContainer, locale);
 		
 		return filterTokens(allTokens);
@@ -56,8 +58,10 @@ public abstract class TokenCountStep extends BaseCountStep {
 
 	protected Tokens getTokens(Segment segment, LocaleId locale) {
 		TokensAnnotation ta = segment.getAnnotation(TokensAnnotation.class);
+		CachedCountsAnnotation cache = segment.getAnnotation(CachedCountsAnnotation.class);
 		
 		Tokens allTokens = ta != null ? ta.getTokens()
+				: (cache != null && cache.isFor(locale)) ? cache.getTokens()
 				: Tokenizer.tokenize(segment.getContent(), locale);
 		
 		return filterTokens(allTokens);
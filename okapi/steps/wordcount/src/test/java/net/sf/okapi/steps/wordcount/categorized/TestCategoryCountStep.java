@@ -0,0 +1,181 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.steps.wordcount.categorized;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import net.sf.okapi.common.Event;
+import net.sf.okapi.common.EventType;
+import net.sf.okapi.common.LocaleId;
+import net.sf.okapi.common.annotation.AltTranslation;
+import net.sf.okapi.common.annotation.AltTranslationsAnnotation;
+import net.sf.okapi.common.pipeline.IPipelineStep;
+import net.sf.okapi.common.query.MatchType;
+import net.sf.okapi.common.resource.Ending;
+import net.sf.okapi.common.resource.ITextUnit;
+import net.sf.okapi.common.resource.IWithAnnotations;
+import net.sf.okapi.common.resource.Segment;
+import net.sf.okapi.common.resource.StartDocument;
+import net.sf.okapi.common.resource.TextContainer;
+import net.sf.okapi.common.resource.TextFragment;
+import net.sf.okapi.common.resource.TextUnit;
+import net.sf.okapi.steps.wordcount.common.CachedCountsAnnotation;
+import net.sf.okapi.steps.wordcount.common.GMX;
+import net.sf.okapi.steps.wordcount.common.Metrics;
+import net.sf.okapi.steps.wordcount.common.MetricsAnnotation;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class TestCategoryCountStep {
+
+	private static final LocaleId SRC = LocaleId.ENGLISH;
+	private static final LocaleId TRG = LocaleId.FRENCH;
+
+	@Test
+	public void testSameMetricsAsSeparateSteps() {
+		List<Event> expected = createEvents();
+		List<IPipelineStep> steps = new ArrayList<>();
+		new CategoryCountStep().addStepsToList(steps);
+		for (IPipelineStep step : steps) {
+			step.setSourceLocale(SRC);
+			step.setTargetLocale(TRG);
+			for (Event event : expected) {
+				step.handleEvent(event);
+			}
+		}
+
+		List<Event> actual = createEvents();
+		CategoryCountStep step = new CategoryCountStep();
+		step.setSourceLocale(SRC);
+		step.setTargetLocale(TRG);
+		for (Event event : actual) {
+			step.handleEvent(event);
+		}
+
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(describe(expected.get(i)), describe(actual.get(i)));
+		}
+		// Check a few values, to make sure something was counted
+		ITextUnit tu = actual.get(2).getTextUnit();
+		assertEquals(6, getMetric(tu.getTarget(TRG).getFirstSegment(), GMX.FuzzyMatchedWordCount));
+		assertEquals(10, getMetric(tu.getTarget(TRG), MatchType.EXACT_UNIQUE_ID.name()));
+		assertEquals(2, getMetric(actual.get(3).getTextUnit(), GMX.NumericOnlyTextUnitWordCount));
+		assertEquals(3, getMetric(actual.get(4).getTextUnit(), GMX.ProtectedWordCount));
+	}
+
+	@Test
+	public void testCachesAreRemoved() {
+		CategoryCountStep step = new CategoryCountStep();
+		step.setSourceLocale(SRC);
+		step.setTargetLocale(TRG);
+		for (Event event : createEvents()) {
+			step.handleEvent(event);
+			if (event.getEventType() == EventType.TEXT_UNIT) {
+				TextContainer source = event.getTextUnit().getSource();
+				assertNull(source.getAnnotation(CachedCountsAnnotation.class));
+				for (Segment seg : source.getSegments()) {
+					assertNull(seg.getAnnotation(CachedCountsAnnotation.class));
+				}
+			}
+		}
+	}
+
+	private static List<Event> createEvents() {
+		List<Event> events = new ArrayList<>();
+		events.add(new Event(EventType.START_BATCH));
+		StartDocument sd = new StartDocument("sd");
+		sd.setLocale(SRC);
+		events.add(new Event(EventType.START_DOCUMENT, sd));
+
+		// Two segments, leveraged
+		ITextUnit tu = new TextUnit("tu1");
+		TextContainer source = new TextContainer("Elephants cannot fly, even on Monday.");
+		source.getSegments().append(new Segment("2", new TextFragment("Check freetime@example.com at 11:45 for $300")), " ");
+		tu.setSource(source);
+		TextContainer target = source.clone();
+		tu.setTarget(TRG, target);
+		AltTranslationsAnnotation ata = new AltTranslationsAnnotation();
+		ata.add(new AltTranslation(SRC, TRG, source.getFirstContent(), null, null, MatchType.FUZZY, 80, null));
+		target.getFirstSegment().setAnnotation(ata);
+		ata = new AltTranslationsAnnotation();
+		ata.add(new AltTranslation(SRC, TRG, source.getFirstContent(), null, null, MatchType.EXACT_UNIQUE_ID, 100, null));
+		target.setAnnotation(ata);
+		events.add(new Event(EventType.TEXT_UNIT, tu));
+
+		// Numbers only
+		tu = new TextUnit("tu2", "123 4,567");
+		events.add(new Event(EventType.TEXT_UNIT, tu));
+
+		// Not translatable
+		tu = new TextUnit("tu3", "Do not translate");
+		tu.setIsTranslatable(false);
+		events.add(new Event(EventType.TEXT_UNIT, tu));
+
+		events.add(new Event(EventType.END_DOCUMENT, new Ending("ed")));
+		events.add(new Event(EventType.END_BATCH, new Ending("eb")));
+		return events;
+	}
+
+	private static String describe(Event event) {
+		StringBuilder sb = new StringBuilder(event.getEventType().name());
+		if (event.getEventType() != EventType.TEXT_UNIT) {
+			if (event.getResource() instanceof IWithAnnotations) {
+				describe(sb, "resource", (IWithAnnotations) event.getResource());
+			}
+			return sb.toString();
+		}
+		ITextUnit tu = event.getTextUnit();
+		describe(sb, "tu", tu);
+		describe(sb, "source", tu.getSource());
+		for (Segment seg : tu.getSource().getSegments()) {
+			describe(sb, "source segment " + seg.getId(), seg);
+		}
+		TextContainer target = tu.getTarget(TRG);
+		if (target != null) {
+			describe(sb, "target", target);
+			for (Segment seg : target.getSegments()) {
+				describe(sb, "target segment " + seg.getId(), seg);
+			}
+		}
+		return sb.toString();
+	}
+
+	private static void describe(StringBuilder sb, String name, IWithAnnotations res) {
+		MetricsAnnotation ma = res.getAnnotation(MetricsAnnotation.class);
+		if (ma == null) {
+			return;
+		}
+		TreeMap<String, Long> values = new TreeMap<>();
+		for (String metric : ma.getMetrics()) {
+			values.put(metric, ma.getMetrics().getMetric(metric));
+		}
+		sb.append('\n').append(name).append(": ").append(values);
+	}
+
+	private static long getMetric(IWithAnnotations res, String name) {
+		Metrics metrics = res.getAnnotation(MetricsAnnotation.class).getMetrics();
+		return metrics.getMetric(name);
+	}
+}
@@ -45,6 +45,8 @@ import net.sf.okapi.common.Event;
 import net.sf.okapi.common.IParameters;
 import net.sf.okapi.common.UsingParameters;
 import net.sf.okapi.common.Util;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.exceptions.OkapiBadFilterParametersException;
 import net.sf.okapi.common.exceptions.OkapiBadStepInputException;
 import net.sf.okapi.common.exceptions.OkapiFileNotFoundException;
@@ -135,16 +137,14 @@ public class XliffJoinerStep extends BasePipelineStep {
 	private XliffJoinerParameters params;
 	private URI outputURI;
 
-	XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-	XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
-	XMLEventFactory  eventFactory = XMLEventFactory.newInstance();
+	// The shared input factory does not process DTDs (security concern)
+	XMLInputFactory inputFactory = XMLStreamFactories.getInputFactory(Profile.DEFAULT);
+	XMLOutputFactory outputFactory = XMLStreamFactories.getOutputFactory();
+	XMLEventFactory  eventFactory = XMLStreamFactories.getEventFactory();
 	
 
 	public XliffJoinerStep () {
 		params = new XliffJoinerParameters();
-		// security concern. Turn off DTD processing
-		// https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing
-		inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);			
 	}
 	
 	@StepParameterMapping(parameterType = StepParameterType.OUTPUT_URI)
@@ -310,6 +310,11 @@ public class XliffJoinerStep extends BasePipelineStep {
 				throw new OkapiBadStepInputException(e);
 			}
 		}
+		try {
+			eventReader.close();
+		} catch (XMLStreamException e) {
+			logger.error(e.getMessage());
+		}
 		
 		return event;
 	}
@@ -53,6 +53,8 @@ import net.sf.okapi.common.Event;
 import net.sf.okapi.common.IParameters;
 import net.sf.okapi.common.UsingParameters;
 import net.sf.okapi.common.Util;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.exceptions.OkapiBadStepInputException;
 import net.sf.okapi.common.exceptions.OkapiFileNotFoundException;
 import net.sf.okapi.common.exceptions.OkapiIOException;
@@ -164,15 +166,18 @@ public class XliffSplitterStep extends BasePipelineStep {
 			// Mark the insertion point
 			final int insertPosition = fileElements.get(0).getBegin();
 
+			// The skeleton (the document without any <file> element) is the same for all the parts:
+			// build it once. Nothing before the first <file> is removed, so the insertion point
+			// is the same in the skeleton.
+			final OutputDocument skeletonDocument = new OutputDocument(source);
+			skeletonDocument.remove(fileElements);
+			final String skeleton = skeletonDocument.toString();
+			final String skeletonStart = skeleton.substring(0, insertPosition);
+			final String skeletonEnd = skeleton.substring(insertPosition);
+
 			// Write out a separate xliff file for each <file>
 			int count = 1;
 			for (final Element element : fileElements) {
-				// Create an output document for modification and writing
-				final OutputDocument skeletonDocument = new OutputDocument(source);
-
-				// Remove all <file> elements from the document
-				skeletonDocument.remove(fileElements);
-
 				// Update the translation status in the current <file>
 				String file;
 				if (params.isUpdateSDLTranslationStatus()) {
@@ -181,9 +186,6 @@ public class XliffSplitterStep extends BasePipelineStep {
 					file = element.toString();
 				}
 
-				// Add the <file> element
-				skeletonDocument.insert(insertPosition, file);
-
 				String original = params.getRestoreOriginalNames() ? element.getAttributeValue("original") : null;
 				StringBuilder sb = new StringBuilder(Util.getDirectoryName(outputURI.getPath()) + File.separator);
 				if (original != null) {
@@ -201,7 +203,10 @@ public class XliffSplitterStep extends BasePipelineStep {
 					Util.createDirectories(filename);
 					final OutputStream output = new BufferedOutputStream(new FileOutputStream(filename));
 					writer = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
-					skeletonDocument.writeTo(writer);
+					// Add the <file> element
+					writer.write(skeletonStart);
+					writer.write(file);
+					writer.write(skeletonEnd);
 				} catch (final IOException e) {
 					throw new OkapiIOException(e);
 				} catch (final NullPointerException e) {
@@ -237,13 +242,10 @@ public class XliffSplitterStep extends BasePipelineStep {
 			hasUTF8BOM = detector.hasUtf8Bom();
 			lineBreak = detector.getNewlineType().toString();
 
-			XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-			XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
-			XMLEventFactory  eventFactory = XMLEventFactory.newInstance();
-			
-			// security concern. Turn off DTD processing
-			// https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing
-			inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);			
+			// The shared input factory does not process DTDs (security concern)
+			XMLInputFactory inputFactory = XMLStreamFactories.getInputFactory(Profile.DEFAULT);
+			XMLOutputFactory outputFactory = XMLStreamFactories.getOutputFactory();
+			XMLEventFactory  eventFactory = XMLStreamFactories.getEventFactory();
 
 			XMLEventReader eventReader;
 
@@ -316,6 +318,7 @@ public class XliffSplitterStep extends BasePipelineStep {
 			
 				done = true;
 			}
+			closeReader(eventReader);
 			
 			return event;
 			
@@ -446,6 +449,22 @@ public class XliffSplitterStep extends BasePipelineStep {
 					eventWriter = null;	
 				}
 			}
+			// Closing the event writer does not close the underlying output
+			if (bw != null) {
+				try {
+					bw.close();
+				} catch (IOException e) {
+					throw new OkapiIOException(e);
+				}
+			}
+		}
+	}
+
+	private void closeReader(XMLEventReader eventReader) {
+		try {
+			eventReader.close();
+		} catch (XMLStreamException e) {
+			logger.error(e.getMessage());
 		}
 	}
 }
@@ -24,9 +24,7 @@ import java.io.OutputStreamWriter;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidParameterException;
-import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Stack;
 
@@ -43,19 +41,30 @@ import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
 
 import net.sf.okapi.common.LocaleId;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.exceptions.OkapiIOException;
 import net.sf.okapi.common.resource.RawDocument;
 import net.sf.okapi.steps.wordcount.WordCounter;
+import net.sf.okapi.steps.wordcount.common.GMX;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ibm.icu.text.BreakIterator;
+import com.ibm.icu.text.RuleBasedBreakIterator;
+
 /**
  * Splits a given XLIFF 1.2 input into several XLIFF documenta based on a provided word count.
  * The split occurs anywhere after a trans-unit element (so file elements can be split as well).
  * The word-count is done on the source content of each trans-unit.
  * trans-unit with state-qualifier set to x-numeric, x-alphanumeric and x-punctuation are not
  * counted. And trans-unit with translate='no' are also not counted.
+ * <p>
+ * The input is read and the parts are written in a single pass, so the memory used does not
+ * depend on the size of the input. By default the words are counted with {@link WordCounter}.
+ * When {@link XliffWCSplitterParameters#getFastWordCount()} is set, they are counted with a
+ * word break iterator instead, which is much faster but may give slightly different counts.
  */
 public class XliffWCSplitter {
 
@@ -76,6 +85,8 @@ public class XliffWCSplitter {
 	private int partCount;
 	private XMLEventReader reader = null;
 	private XMLEventWriter writer = null;
+	private OutputStreamWriter partOutput = null;
+	private BreakIterator wordIterator;
 	private LocaleId srcLoc;
 	private StringBuilder content;
 	private String state;
@@ -83,21 +94,16 @@ public class XliffWCSplitter {
 	private boolean isTranslatable;
 	
 	private boolean splitASAP;
-	private List<XMLEvent> events;
-	private boolean storeEvents;
 	private Stack<XMLEvent> stack;
 	private Stack<Boolean> translate;
 	private LinkedHashMap<String, Integer> files;
 	
 	public XliffWCSplitter (XliffWCSplitterParameters params) {
 		this.params = params;
-		xif = XMLInputFactory.newInstance();
-		xof = XMLOutputFactory.newInstance();
-		evfact = XMLEventFactory.newInstance();
-		
-		// security concern. Turn off DTD processing
-		// https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing
-		xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);			
+		// The shared input factory does not process DTDs (security concern)
+		xif = XMLStreamFactories.getInputFactory(Profile.DEFAULT);
+		xof = XMLStreamFactories.getOutputFactory();
+		evfact = XMLStreamFactories.getEventFactory();
 	}
 
 	/**
@@ -129,8 +135,10 @@ public class XliffWCSplitter {
 			this.outputRoot = outputRoot;
 			srcLoc = LocaleId.fromBCP47(srcLang);
 			partCount = 0;
-			events = new ArrayList<>();
-			storeEvents = false;
+			wordIterator = null;
+			if ( params.getFastWordCount() && !GMX.isLogographicScript(srcLoc) ) {
+				wordIterator = BreakIterator.getWordInstance(srcLoc.toIcuLocale());
+			}
 			stack = new Stack<>();
 			reader = xif.createXMLEventReader(inputStream);
 			startPart();
@@ -155,11 +163,6 @@ public class XliffWCSplitter {
 		return files;
 	}
 	
-	private void store (XMLEvent event) {
-		if ( !storeEvents ) return;
-		events.add(event);
-	}
-	
 	private void startPart ()
 		throws XMLStreamException, IOException
 	{
@@ -168,11 +171,11 @@ public class XliffWCSplitter {
 		translate = new Stack<>();
 		translate.push(true);
 		partFile = new File(outputRoot+String.format("_PART%03d.xlf", ++partCount));
-		OutputStreamWriter osw = new OutputStreamWriter(new FileOutputStream(partFile), StandardCharsets.UTF_8);
-		writer = xof.createXMLEventWriter(osw);
+		partOutput = new OutputStreamWriter(new FileOutputStream(partFile), StandardCharsets.UTF_8);
+		writer = xof.createXMLEventWriter(partOutput);
 		// Workaround for TS2014 bug that produces ANSI output if the XLIFF UTF-8 has no BOM
 		// We add a BOM at the start. This assume the writer does not do it itself
-		osw.append('\ufeff');
+		partOutput.append('\ufeff');
 	}
 	
 	private void endPart () {
@@ -185,6 +188,17 @@ public class XliffWCSplitter {
 			catch ( XMLStreamException e ) {
 				logger.error(e.getMessage());
 			}
+			writer = null;
+		}
+		if ( partOutput != null ) {
+			// Closing the event writer does not close the underlying output
+			try {
+				partOutput.close();
+			}
+			catch ( IOException e ) {
+				logger.error(e.getMessage());
+			}
+			partOutput = null;
 		}
 	}
 
@@ -221,7 +235,6 @@ public class XliffWCSplitter {
 		while ( reader.hasNext() ) {
 			XMLEvent event = reader.nextEvent();
 			writer.add(event);
-			store(event);
 			if ( event.isStartElement() ) {
 				stack.push(event);
 				StartElement se = event.asStartElement();
@@ -233,7 +246,6 @@ public class XliffWCSplitter {
 					break;
 				case "trans-unit":
 					stack.pop();
-					storeEvents = false;
 					processTransUnit(se);
 					// Did we reached the threshold?
 					// If yes, we need to split
@@ -352,8 +364,23 @@ public class XliffWCSplitter {
 		if ( "x-alphanum".equals(stateQualifier) ) return;
 		if ( "x-punctuation".equals(stateQualifier) ) return;
 		// Else: accumulate the count
-		count += WordCounter.count(content.toString(), srcLoc);
+		count += countWords(content.toString());
 		splitASAP = (count >= params.getThreshold());
 	}
+
+	private long countWords (String text) {
+		if ( wordIterator == null ) {
+			return WordCounter.count(text, srcLoc);
+		}
+		long words = 0;
+		wordIterator.setText(text);
+		while ( wordIterator.next() != BreakIterator.DONE ) {
+			// Do not count the spaces and the punctuation
+			if ( wordIterator.getRuleStatus() != RuleBasedBreakIterator.WORD_NONE ) {
+				words++;
+			}
+		}
+		return words;
+	}
 	
 }
@@ -19,6 +19,7 @@ package net.sf.okapi.steps.xliffsplitter;
 import net.sf.okapi.common.EditorFor;
 import net.sf.okapi.common.ParametersDescription;
 import net.sf.okapi.common.StringParameters;
+import net.sf.okapi.common.uidescription.CheckboxPart;
 import net.sf.okapi.common.uidescription.EditorDescription;
 import net.sf.okapi.common.uidescription.IEditorDescriptionProvider;
 import net.sf.okapi.common.uidescription.TextInputPart;
@@ -27,6 +28,7 @@ import net.sf.okapi.common.uidescription.TextInputPart;
 public class XliffWCSplitterParameters extends StringParameters implements IEditorDescriptionProvider {
 
 	private static final String THRESHOLD = "threshold";
+	private static final String FASTWORDCOUNT = "fastWordCount";
 
 	public XliffWCSplitterParameters() {
 		super();
@@ -36,6 +38,7 @@ public class XliffWCSplitterParameters extends StringParameters implements IEdit
 	public void reset() {
 		super.reset();
 		setThreshold(200000);
+		setFastWordCount(false);
 	}
 
 	public int getThreshold () {
@@ -46,10 +49,20 @@ public class XliffWCSplitterParameters extends StringParameters implements IEdit
 		setInteger(THRESHOLD, threshold);
 	}
 
+	public boolean getFastWordCount () {
+		return getBoolean(FASTWORDCOUNT);
+	}
+
+	public void setFastWordCount (boolean fastWordCount) {
+		setBoolean(FASTWORDCOUNT, fastWordCount);
+	}
+
 	@Override
 	public ParametersDescription getParametersDescription() {
 		ParametersDescription desc = new ParametersDescription(this);
 		desc.add(THRESHOLD, "Maximum word-count per part:", null);
+		desc.add(FASTWORDCOUNT, "Use a fast word-count (word boundaries only)",
+			"Counts the words with a word break iterator instead of the word-count step tokenizer");
 		return desc;
 	}
 	
@@ -60,6 +73,8 @@ public class XliffWCSplitterParameters extends StringParameters implements IEdit
 		ip.setAllowEmpty(false);
 		ip.setRange(1, 1000000);
 		ip.setVertical(false);
+		CheckboxPart cbp = desc.addCheckboxPart(paramsDesc.get(FASTWORDCOUNT));
+		cbp.setVertical(false);
 		return desc;
 	}
 
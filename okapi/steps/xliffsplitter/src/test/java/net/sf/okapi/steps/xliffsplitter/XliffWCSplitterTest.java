@@ -78,4 +78,23 @@ public class XliffWCSplitterTest {
 		}
 	}
 
+	@Test
+	public void testFastWordCount ()
+		throws IOException
+	{
+		XliffWCSplitterParameters p = new XliffWCSplitterParameters();
+		p.setThreshold(5);
+		p.setFastWordCount(true);
+		XliffWCSplitter spltr = new XliffWCSplitter(p);
+		try ( InputStream is = root.in("input1.xlf").asInputStream() ) {
+			Util.deleteDirectory(splitDir, true);
+			Map<String, Integer> res = spltr.process(is, splitDir+"outputFast", "en-US");
+			// Same parts as with the default word-count for this input
+			assertEquals(3, res.size());
+			assertEquals(7, (int)res.get("outputFast_PART001.xlf"));
+			assertEquals(8, (int)res.get("outputFast_PART002.xlf"));
+			assertEquals(0, (int)res.get("outputFast_PART003.xlf"));
+		}
+	}
+
 }
@@ -37,6 +37,8 @@ import net.sf.okapi.common.Event;
 import net.sf.okapi.common.IParameters;
 import net.sf.okapi.common.UsingParameters;
 import net.sf.okapi.common.Util;
+import net.sf.okapi.common.XMLStreamFactories;
+import net.sf.okapi.common.XMLStreamFactories.Profile;
 import net.sf.okapi.common.exceptions.OkapiBadStepInputException;
 import net.sf.okapi.common.pipeline.BasePipelineStep;
 import net.sf.okapi.common.resource.RawDocument;
@@ -93,8 +95,13 @@ public class XMLValidationStep extends BasePipelineStep {
 	@Override
 	protected Event handleStartBatch (Event event) {
 		
-		xmlInputFact = XMLInputFactory.newInstance();
-		xmlInputFact.setProperty(XMLInputFactory.SUPPORT_DTD, params.getUseFoundDTD());
+		if ( params.getUseFoundDTD() ) {
+			xmlInputFact = XMLInputFactory.newInstance();
+			xmlInputFact.setProperty(XMLInputFactory.SUPPORT_DTD, true);
+		}
+		else {
+			xmlInputFact = XMLStreamFactories.getInputFactory(Profile.DEFAULT);
+		}
 		
 		if ( params.isValidate() ) {
 			logger.info("Validating using XML Schema: {}", params.getSchemaPath());
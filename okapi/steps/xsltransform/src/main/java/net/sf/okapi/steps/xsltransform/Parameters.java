@@ -27,6 +27,7 @@ public class Parameters extends StringParameters {
 	private static final String FACTORYCLASS = "factoryClass";
 	private static final String XPATHCLASS = "xpathClass";
 	private static final String PASSONOUTPUT = "passOnOutput";
+	private static final String CACHETEMPLATES = "cacheTemplates";
 
 	public Parameters () {
 		super();
@@ -41,6 +42,7 @@ public class Parameters extends StringParameters {
 		setFactoryClass("");
 		setXpathClass("");
 		setPassOnOutput(true);
+		setCacheTemplates(true);
 	}
 	
 	public void setXsltPath (String xsltPath) {
@@ -91,4 +93,17 @@ public class Parameters extends StringParameters {
 	public void setPassOnOutput(boolean passOnOutput) {
 		setBoolean(PASSONOUTPUT, passOnOutput);
 	}
+
+	public boolean getCacheTemplates() {
+		return getBoolean(CACHETEMPLATES);
+	}
+
+	/**
+	 * Sets the flag indicating if the compiled stylesheet is shared with the other
+	 * instances of the step (and recompiled only when the stylesheet file changes).
+	 * @param cacheTemplates true to use the shared compiled stylesheet.
+	 */
+	public void setCacheTemplates(boolean cacheTemplates) {
+		setBoolean(CACHETEMPLATES, cacheTemplates);
+	}
 }
@@ -0,0 +1,127 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.steps.xsltransform;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * JVM-wide cache of compiled XSLT stylesheets.
+ * <p>
+ * {@link Templates} objects are thread-safe, so the same compiled stylesheet can be shared
+ * by all the instances of {@link XSLTransformStep}, in any pipeline. Each step still creates
+ * its own {@link javax.xml.transform.Transformer} from it.
+ * <p>
+ * Entries are keyed by the factory class, the stylesheet URI and the modification time of the
+ * stylesheet file, so a modified file is compiled again. Changes in included or imported
+ * stylesheets are not detected.
+ * <p>
+ * The lock on the cache is only held to find or add an entry: the compilation itself is done
+ * on the entry, so only the callers waiting for the same stylesheet are blocked by it.
+ * <p>
+ * The cache holds at most {@link #MAX_ENTRIES} stylesheets: the least recently used one
+ * is dropped when a new one is added beyond that.
+ */
+final class TemplatesCache {
+
+	static final int MAX_ENTRIES = 16;
+
+	private static final Map<String, CachedTemplates> CACHE =
+		new LinkedHashMap<String, CachedTemplates>(MAX_ENTRIES, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry (Map.Entry<String, CachedTemplates> eldest) {
+				return size() > MAX_ENTRIES;
+			}
+		};
+
+	/**
+	 * Holds a stylesheet compiled on first use.
+	 */
+	private static final class CachedTemplates {
+		private final File xsltFile;
+		private Templates templates;
+
+		CachedTemplates (File xsltFile) {
+			this.xsltFile = xsltFile;
+		}
+
+		synchronized Templates get (TransformerFactory factory)
+			throws TransformerConfigurationException
+		{
+			if ( templates == null ) {
+				templates = factory.newTemplates(new StreamSource(xsltFile));
+			}
+			return templates;
+		}
+	}
+
+	private TemplatesCache () {
+	}
+
+	/**
+	 * Gets the compiled form of a stylesheet, compiling it with the given factory if it is not
+	 * in the cache or if the file has been modified since it was compiled.
+	 * @param factory the factory to use to compile the stylesheet.
+	 * @param xsltFile the stylesheet file.
+	 * @return the compiled stylesheet.
+	 * @throws TransformerConfigurationException if the stylesheet cannot be compiled.
+	 */
+	static Templates getTemplates (TransformerFactory factory,
+		File xsltFile)
+		throws TransformerConfigurationException
+	{
+		String key = factory.getClass().getName() + "|" + xsltFile.getAbsoluteFile().toURI()
+			+ "|" + xsltFile.lastModified();
+		CachedTemplates cached;
+		// The access order of the map changes on get(), so all accesses are synchronized
+		synchronized ( CACHE ) {
+			cached = CACHE.get(key);
+			if ( cached == null ) {
+				cached = new CachedTemplates(xsltFile);
+				CACHE.put(key, cached);
+			}
+		}
+		try {
+			return cached.get(factory);
+		}
+		catch ( TransformerConfigurationException e ) {
+			// Do not keep a stylesheet that cannot be compiled
+			synchronized ( CACHE ) {
+				CACHE.remove(key, cached);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Removes all the stylesheets from the cache.
+	 */
+	static void clear () {
+		synchronized ( CACHE ) {
+			CACHE.clear();
+		}
+	}
+
+}
@@ -19,11 +19,10 @@ package net.sf.okapi.steps.xsltransform;
 import java.io.File;
 import java.net.URI;
 import java.util.Map;
-import java.util.Properties;
 
 import javax.xml.transform.ErrorListener;
 import javax.xml.transform.Result;
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.URIResolver;
@@ -69,7 +68,6 @@ public class XSLTransformStep extends BasePipelineStep {
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
 	private Parameters params;
-	private Source xsltInput;
 	private Map<String, String> paramList;
 	private Transformer trans;
 	private javax.xml.transform.TransformerFactory fact;
@@ -98,7 +96,6 @@ public class XSLTransformStep extends BasePipelineStep {
 	public void destroy () {
 		// Make available to GC
 		trans = null;
-		xsltInput = null;
 	}
 
 	@StepParameterMapping(parameterType = StepParameterType.OUTPUT_URI)
@@ -152,10 +149,6 @@ public class XSLTransformStep extends BasePipelineStep {
 			ConfigurationString cfgString = new ConfigurationString(params.getParamList());
 			paramList = cfgString.toMap();
 			
-			// Create the source for the XSLT
-			xsltInput = new javax.xml.transform.stream.StreamSource(
-				new File(params.getXsltPath()));
-			
 			// Create an instance of TransformerFactory
 			if ( params.getUseCustomTransformer() ) {
 				System.setProperty(FACTORY_PROP, params.getFactoryClass());
@@ -167,7 +160,19 @@ public class XSLTransformStep extends BasePipelineStep {
 				fact.setErrorListener(errorListener);
 			}
 
-			trans = fact.newTransformer(xsltInput);
+			// Compile the XSLT, or re-use the compiled form shared by all step instances
+			File xsltFile = new File(params.getXsltPath());
+			Templates templates;
+			if ( params.getCacheTemplates() ) {
+				templates = TemplatesCache.getTemplates(fact, xsltFile);
+			}
+			else {
+				templates = fact.newTemplates(new javax.xml.transform.stream.StreamSource(xsltFile));
+			}
+			trans = templates.newTransformer();
+			if (errorListener != null) {
+				trans.setErrorListener(errorListener);
+			}
 			logger.info("Factory used: {}", fact.getClass().getCanonicalName());
 			logger.info("Transformer used: {}", trans.getClass().getCanonicalName());
 			isDone = true;
@@ -200,13 +205,6 @@ public class XSLTransformStep extends BasePipelineStep {
 			trans.reset();
 			fillParameters();
 			
-			Properties props = trans.getOutputProperties();
-			for ( Object obj: props.keySet() ) {
-				String key = (String)obj;
-				String value = props.getProperty(key);
-				value = value+"";
-			}
-			
 			// Create the input source
 			// Use the stream, so the encoding auto-detection can be done
 			XMLReader reader = XMLReaderFactory.createXMLReader();
@@ -220,9 +218,9 @@ public class XSLTransformStep extends BasePipelineStep {
 				reader.setEntityResolver(entityResolver);
 			}
 			
-			// FIXME: do we need to set this twice? see handleStartBatch
+			// reset() restored the transformer to its initial state, so set the listener again
 			if (errorListener != null) {
-				fact.setErrorListener(errorListener);
+				trans.setErrorListener(errorListener);
 			}
 			
 			if (uriResolver != null) {
@@ -0,0 +1,214 @@
+/*===========================================================================
+  Copyright (C) 2009-2021 by the Okapi Framework contributors
+-----------------------------------------------------------------------------
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+===========================================================================*/
+
+package net.sf.okapi.steps.xsltransform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class TemplatesCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private TransformerFactory factory;
+
+	@Before
+	public void setUp () {
+		TemplatesCache.clear();
+		factory = TransformerFactory.newInstance();
+	}
+
+	@After
+	public void tearDown () {
+		TemplatesCache.clear();
+	}
+
+	@Test
+	public void testSameStylesheetIsCompiledOnce () throws Exception {
+		File xslt = createStylesheet("a.xsl", "first");
+		Templates templates = TemplatesCache.getTemplates(factory, xslt);
+		assertSame(templates, TemplatesCache.getTemplates(factory, xslt));
+		assertEquals("first", transform(templates));
+	}
+
+	@Test
+	public void testModifiedStylesheetIsRecompiled () throws Exception {
+		File xslt = createStylesheet("a.xsl", "first");
+		Templates templates = TemplatesCache.getTemplates(factory, xslt);
+
+		writeStylesheet(xslt, "second");
+		xslt.setLastModified(xslt.lastModified() + 2000);
+		Templates newTemplates = TemplatesCache.getTemplates(factory, xslt);
+		assertNotSame(templates, newTemplates);
+		assertEquals("second", transform(newTemplates));
+		assertSame(newTemplates, TemplatesCache.getTemplates(factory, xslt));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsDropped () throws Exception {
+		File first = createStylesheet("first.xsl", "first");
+		Templates firstTemplates = TemplatesCache.getTemplates(factory, first);
+		File second = createStylesheet("second.xsl", "second");
+		Templates secondTemplates = TemplatesCache.getTemplates(factory, second);
+		for ( int i=0; i<TemplatesCache.MAX_ENTRIES-1; i++ ) {
+			// Keep the first one as the most recently used
+			assertSame(firstTemplates, TemplatesCache.getTemplates(factory, first));
+			TemplatesCache.getTemplates(factory, createStylesheet("other" + i + ".xsl", "other"));
+		}
+		assertSame(firstTemplates, TemplatesCache.getTemplates(factory, first));
+		assertNotSame(secondTemplates, TemplatesCache.getTemplates(factory, second));
+	}
+
+	@Test
+	public void testCompilationDoesNotBlockOtherStylesheets () throws Exception {
+		final CountDownLatch resolving = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final File included = createStylesheet("included.xsl", "included");
+		factory.setURIResolver((href, base) -> {
+			resolving.countDown();
+			try {
+				release.await();
+			}
+			catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+			}
+			return new StreamSource(included);
+		});
+		final File slow = folder.newFile("slow.xsl");
+		Files.write(slow.toPath(), ("<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">"
+			+ "<xsl:include href=\"included.xsl\"/>"
+			+ "</xsl:stylesheet>").getBytes(StandardCharsets.UTF_8));
+		File other = createStylesheet("other.xsl", "other");
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Templates> slowResult = executor.submit(() -> TemplatesCache.getTemplates(factory, slow));
+			assertTrue(resolving.await(10, TimeUnit.SECONDS));
+			// The slow stylesheet is being compiled: another one can still be compiled
+			// (with its own factory, as some implementations lock the factory while compiling)
+			assertEquals("other", transform(TemplatesCache.getTemplates(TransformerFactory.newInstance(), other)));
+			release.countDown();
+			assertEquals("included", transform(slowResult.get(10, TimeUnit.SECONDS)));
+		}
+		finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testInvalidStylesheetIsNotCached () throws Exception {
+		File xslt = folder.newFile("a.xsl");
+		Files.write(xslt.toPath(), "<xsl:stylesheet".getBytes(StandardCharsets.UTF_8));
+		long lastModified = xslt.lastModified();
+		try {
+			TemplatesCache.getTemplates(factory, xslt);
+			fail("The stylesheet should not compile");
+		}
+		catch ( TransformerConfigurationException e ) {
+			// Expected
+		}
+		writeStylesheet(xslt, "first");
+		xslt.setLastModified(lastModified);
+		assertEquals("first", transform(TemplatesCache.getTemplates(factory, xslt)));
+	}
+
+	@Test
+	public void testConcurrentUse () throws Exception {
+		final File xslt = createStylesheet("a.xsl", "first");
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Templates>> results = new ArrayList<>();
+			for ( int i=0; i<32; i++ ) {
+				results.add(executor.submit(() -> {
+					start.await();
+					Templates templates = TemplatesCache.getTemplates(factory, xslt);
+					assertEquals("first", transform(templates));
+					return templates;
+				}));
+			}
+			start.countDown();
+			Templates templates = results.get(0).get();
+			for ( Future<Templates> result : results ) {
+				assertSame(templates, result.get());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private File createStylesheet (String name,
+		String output)
+		throws IOException
+	{
+		File file = folder.newFile(name);
+		writeStylesheet(file, output);
+		return file;
+	}
+
+	private void writeStylesheet (File file,
+		String output)
+		throws IOException
+	{
+		String xslt = "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">"
+			+ "<xsl:output method=\"text\"/>"
+			+ "<xsl:template match=\"/\">" + output + "</xsl:template>"
+			+ "</xsl:stylesheet>";
+		Files.write(file.toPath(), xslt.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String transform (Templates templates) throws Exception {
+		StringWriter writer = new StringWriter();
+		templates.newTransformer().transform(new StreamSource(new StringReader("<doc/>")),
+			new StreamResult(writer));
+		return writer.toString();
+	}
+}